@@ -24,6 +24,10 @@ import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -32,6 +36,7 @@ import java.util.List;
 import ru.mmb.sportiduinomanager.adapter.BTDeviceListAdapter;
 import ru.mmb.sportiduinomanager.model.Records;
 import ru.mmb.sportiduinomanager.model.StationAPI;
+import ru.mmb.sportiduinomanager.model.StationStats;
 import ru.mmb.sportiduinomanager.task.ConnectDeviceTask;
 import ru.mmb.sportiduinomanager.task.ResetStationTask;
 
@@ -500,6 +505,48 @@ public final class BluetoothActivity extends MenuActivity implements BTDeviceLis
         }
     }
 
+    /**
+     * Display summary of station communication statistics.
+     */
+    private void showStationStats() {
+        final long[] totals = MainApp.mStation.getStats().getTotals();
+        ((TextView) findViewById(R.id.station_stats_value)).setText(getResources()
+                .getString(R.string.station_stats_value, totals[0], totals[1], totals[2], totals[3],
+                        totals[4], totals[5], totals[6], totals[7]));
+    }
+
+    /**
+     * Save station communication statistics to CSV and JSON files
+     * in application external files folder.
+     *
+     * @param view View of button clicked (unused)
+     */
+    public void exportStationStats(@SuppressWarnings("unused") final View view) {
+        if (MainApp.mStation == null) return;
+        final StationStats stats = MainApp.mStation.getStats();
+        final String address = MainApp.mStation.getAddress();
+        final int firmware = MainApp.mStation.getFirmware();
+        final File folder = getExternalFilesDir(null);
+        final String name = "station_" + address.replace(":", "") + "_"
+                + Records.printTime(System.currentTimeMillis() / 1000, "yyyyMMdd_HHmmss");
+        final File csvFile = new File(folder, name + ".csv");
+        final File jsonFile = new File(folder, name + ".json");
+        try (OutputStream csv = new FileOutputStream(csvFile);
+             OutputStream json = new FileOutputStream(jsonFile)) {
+            csv.write(stats.toCSV(address, firmware).getBytes(StandardCharsets.UTF_8));
+            json.write(stats.toJSON(address, firmware).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            Toast.makeText(getApplicationContext(),
+                    getResources().getString(R.string.err_bt_stats_export) + e.getMessage(),
+                    Toast.LENGTH_LONG).show();
+            return;
+        }
+        showStationStats();
+        Toast.makeText(getApplicationContext(),
+                getResources().getString(R.string.station_stats_exported, csvFile.getParent()),
+                Toast.LENGTH_LONG).show();
+    }
+
     /**
      * Update status of station reset process in activity layout.
      *
@@ -648,6 +695,8 @@ public final class BluetoothActivity extends MenuActivity implements BTDeviceLis
                 .getString(R.string.station_chips_registered_n, MainApp.mStation.getTeamsPunched()));
         ((TextView) findViewById(R.id.station_last_chip_time)).setText(
                 Records.printTime(MainApp.mStation.getLastPunchTime(), "dd.MM.yyyy  HH:mm:ss"));
+        // Display station communication statistics
+        showStationStats();
         // Show status block
         findViewById(R.id.station_status).setVisibility(View.VISIBLE);
     }
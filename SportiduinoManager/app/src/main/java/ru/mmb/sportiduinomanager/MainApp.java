@@ -20,6 +20,8 @@ import java.util.Locale;
 import ru.mmb.sportiduinomanager.model.Database;
 import ru.mmb.sportiduinomanager.model.Distance;
 import ru.mmb.sportiduinomanager.model.Records;
+import ru.mmb.sportiduinomanager.model.RecordsJournal;
+import ru.mmb.sportiduinomanager.model.Snapshot;
 import ru.mmb.sportiduinomanager.model.StationAPI;
 import ru.mmb.sportiduinomanager.model.Teams;
 
@@ -68,6 +70,10 @@ public final class MainApp extends Application {
      * Last punch per team only. Should be equal to records in station flash memory.
      */
     static Records mPointPunches = new Records(0);
+    /**
+     * Journal of all records for crash recovery.
+     */
+    private static RecordsJournal mJournal;
     /**
      * True if ControlPointActivity is running in foreground.
      */
@@ -91,6 +97,32 @@ public final class MainApp extends Application {
         mDatabase = database;
     }
 
+    /**
+     * Save records journal to persistent memory.
+     *
+     * @param journal Opened journal
+     */
+    private static void setJournal(final RecordsJournal journal) {
+        mJournal = journal;
+    }
+
+    /**
+     * Start journaling of new records, rewrite journal content if needed.
+     *
+     * @param records List of all records
+     */
+    private static void attachJournal(final Records records) {
+        if (mJournal == null || records.getJournal() == mJournal) return;
+        try {
+            mJournal.rebuild(records);
+            records.setJournal(mJournal);
+        } catch (IOException e) {
+            // Continue to work with local database only
+            mJournal.invalidate();
+            setJournal(null);
+        }
+    }
+
     /**
      * Save teams with members to persistent memory.
      *
@@ -121,6 +153,7 @@ public final class MainApp extends Application {
             if (force || mAllRecords == null) {
                 // Forget old records and replace them with new
                 mAllRecords = records;
+                attachJournal(mAllRecords);
                 return;
             }
             // Check if old list has more records then new
@@ -131,6 +164,7 @@ public final class MainApp extends Application {
             } else {
                 mAllRecords = records;
             }
+            attachJournal(mAllRecords);
         }
     }
 
@@ -198,27 +232,49 @@ public final class MainApp extends Application {
         // Try to load distance amd teams from database if it is not empty
         if ("".equals(startupError) && mDatabase.getDbStatus() == Database.DB_STATE_OK) {
             try {
-                final Distance distance =
-                        mDatabase.loadDistance(context.getString(R.string.mode_chip_init));
+                // Use snapshot of distance and teams if it is up to date, load them from database otherwise
+                final Snapshot snapshot = mDatabase.openSnapshot();
+                final Distance distance;
+                final Teams teams;
+                if (snapshot == null) {
+                    distance = mDatabase.loadDistance(context.getString(R.string.mode_chip_init));
+                    teams = mDatabase.loadTeams();
+                } else {
+                    distance = snapshot.loadDistance(context.getString(R.string.mode_chip_init));
+                    teams = snapshot.loadTeams();
+                }
                 if (distance != null && !distance.hasErrors()) {
                     setDistance(distance);
                     // Get user email, password and test/main database flag from loaded distance
                     UI_STATE.setAuthorizationParameters(mDistance.getUserEmail(), mDistance.getUserPassword(),
                             mDistance.getTestSite());
                 }
-                final Teams teams = mDatabase.loadTeams();
-                if (teams != null && !teams.hasErrors()) {
+                // Teams from snapshot were checked before saving, don't decode all of them now
+                if (teams != null && (snapshot != null || !teams.hasErrors())) {
                     setTeams(teams);
                 }
             } catch (SQLiteException e) {
                 startupError = e.getMessage();
             }
         }
-        // Try to load records from database
+        // Try to restore records from journal or load them from database
         if (mDatabase.getDbStatus() == Database.DB_STATE_OK
                 || mDatabase.getDbStatus() == Database.DB_STATE_EMPTY) {
             try {
-                setAllRecords(mDatabase.loadRecords(), true);
+                setJournal(mDatabase.openJournal());
+            } catch (IOException e) {
+                setJournal(null);
+            }
+            try {
+                Records records = null;
+                if (mJournal != null) records = mJournal.replay(mDistance.getTimeDownloaded());
+                if (records == null) records = mDatabase.loadRecords();
+                setAllRecords(records, true);
+                // Save records which were journaled but not saved before app crash
+                if (mJournal != null && mJournal.getUnsavedCount() > 0) {
+                    final String result = mAllRecords.saveNewRecords(mDatabase);
+                    if (!"".equals(result)) startupError = result;
+                }
             } catch (SQLiteException e) {
                 startupError = e.getMessage();
             }
@@ -10,6 +10,8 @@ import android.database.sqlite.SQLiteStatement;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 
@@ -145,6 +147,36 @@ public final class Database {
         return mPath;
     }
 
+    /**
+     * Open snapshot of distance and teams in database folder.
+     *
+     * @return Opened snapshot or null if it is absent or stale
+     */
+    public Snapshot openSnapshot() {
+        return Snapshot.open(new File(mPath).getParentFile(), DB_VERSION);
+    }
+
+    /**
+     * Write snapshot of distance and teams after saving them to local database.
+     *
+     * @param distance Saved distance
+     * @param teams    Saved teams
+     * @throws IOException Thrown when snapshot file can't be written
+     */
+    void saveSnapshot(final Distance distance, final Teams teams) throws IOException {
+        Snapshot.write(new File(mPath).getParentFile(), DB_VERSION, distance, teams);
+    }
+
+    /**
+     * Open journal of new records in database folder.
+     *
+     * @return Opened journal
+     * @throws IOException Thrown when journal file can't be opened
+     */
+    public RecordsJournal openJournal() throws IOException {
+        return new RecordsJournal(new File(mPath).getParentFile());
+    }
+
     /**
      * Load distance from local SQLite database.
      *
@@ -221,53 +253,71 @@ public final class Database {
      * @throws SQLiteException All SQL exceptions while working with SQLite database
      */
     public Teams loadTeams() throws SQLiteException {
-        Cursor result;
         // Open local database
         final SQLiteDatabase database = SQLiteDatabase.openDatabase(mPath, null,
                 SQLiteDatabase.OPEN_READONLY);
-        // Get max team number of reservation of teams array
-        result = database.rawQuery("SELECT MAX(number) FROM teams", null);
+        // Load all teams with their members in one pass,
+        // teams are sorted in descending order to get max team number from the first row
+        final Cursor result = database.rawQuery("SELECT teams.number, teams.maps, teams.name,"
+                + " members.id, members.name, members.phone FROM teams, members"
+                + " WHERE teams.number = members.team ORDER BY teams.number DESC, members.id ASC",
+                null);
         if (!result.moveToFirst()) {
             result.close();
             database.close();
             return null;
         }
-        final int maxTeam = result.getInt(0);
-        result.close();
         // Create teams object
-        final Teams teams = new Teams(maxTeam);
-        // Load list of teams
-        result = database.rawQuery("SELECT number, COUNT(*), maps, teams.name FROM teams, "
-                + "members WHERE teams.number = members.team GROUP BY teams.number", null);
-        result.moveToFirst();
+        final Teams teams = new Teams(result.getInt(0));
+        // Members of current team, arrays are reused for all teams
+        long[] ids = new long[16];
+        String[] names = new String[16];
+        String[] phones = new String[16];
+        // Most of phones are empty or repeated, keep only one copy of each
+        final HashMap<String, String> phonesPool = new HashMap<>();
+        int teamNumber = result.getInt(0);
+        int teamMaps = result.getInt(1);
+        String teamName = result.getString(2);
+        int membersCount = 0;
+        boolean success = true;
         do {
-            if (!teams.addTeam(result.getInt(0), result.getInt(1), result.getInt(2),
-                    result.getString(3))) {
-                result.close();
-                database.close();
-                return null;
+            final int number = result.getInt(0);
+            if (number != teamNumber) {
+                // All members of previous team were read, add the team
+                if (!teams.addTeam(teamNumber, teamMaps, teamName, membersCount, ids, names, phones)) {
+                    success = false;
+                    break;
+                }
+                teamNumber = number;
+                teamMaps = result.getInt(1);
+                teamName = result.getString(2);
+                membersCount = 0;
+            }
+            if (membersCount == ids.length) {
+                ids = Arrays.copyOf(ids, membersCount * 2);
+                names = Arrays.copyOf(names, membersCount * 2);
+                phones = Arrays.copyOf(phones, membersCount * 2);
+            }
+            ids[membersCount] = result.getLong(3);
+            names[membersCount] = result.getString(4);
+            final String phone = result.getString(5);
+            // Map.putIfAbsent is not available before API 24
+            final String pooled = phonesPool.get(phone);
+            if (pooled == null) {
+                phonesPool.put(phone, phone);
+                phones[membersCount] = phone;
+            } else {
+                phones[membersCount] = pooled;
             }
+            membersCount++;
         } while (result.moveToNext());
         result.close();
-        // Add members to loaded teams
-        result = database.rawQuery("SELECT id, team, name, phone FROM members ORDER BY id ASC",
-                null);
-        if (!result.moveToFirst()) {
-            result.close();
-            database.close();
+        database.close();
+        // Add the last team
+        if (!success || !teams.addTeam(teamNumber, teamMaps, teamName, membersCount, ids, names, phones)) {
             return null;
         }
-        do {
-            if (!teams.addTeamMember(result.getLong(0), result.getInt(1), result.getString(2),
-                    result.getString(3))) {
-                result.close();
-                database.close();
-                return null;
-            }
-        } while (result.moveToNext());
-        result.close();
         // Teams were loaded
-        database.close();
         return teams;
     }
 
@@ -323,6 +373,8 @@ public final class Database {
      */
     void saveDistance(final Distance distance) throws SQLiteException {
         SQLiteStatement statement;
+        // Snapshot does not correspond to database content anymore
+        Snapshot.invalidate(new File(mPath).getParentFile());
         // Open local database
         final SQLiteDatabase database = SQLiteDatabase.openDatabase(mPath, null,
                 SQLiteDatabase.OPEN_READWRITE);
@@ -396,6 +448,8 @@ public final class Database {
      * @throws SQLiteException All SQL exceptions while working with SQLite database
      */
     void saveTeams(final Teams teams) throws SQLiteException {
+        // Snapshot does not correspond to database content anymore
+        Snapshot.invalidate(new File(mPath).getParentFile());
         // Open local database
         final SQLiteDatabase database = SQLiteDatabase.openDatabase(mPath, null,
                 SQLiteDatabase.OPEN_READWRITE);
@@ -443,12 +497,14 @@ public final class Database {
         // Open local database
         final SQLiteDatabase database = SQLiteDatabase.openDatabase(mPath, null,
                 SQLiteDatabase.OPEN_READWRITE);
-        final SQLiteStatement statement = database.compileStatement("INSERT INTO records"
+        // Records can be already saved before app crash, ignore them
+        final SQLiteStatement statement = database.compileStatement("INSERT OR IGNORE INTO records"
                 + "(stationmac, stationtime, stationdrift, stationnumber, stationmode,"
                 + " inittime, team_num, teammask, levelpoint_order,"
                 + " teamlevelpoint_datetime, status) "
                 + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
-        // Save all records from the unsaved list
+        // Save all records from the unsaved list in one transaction
+        database.beginTransaction();
         for (final Record record : records) {
             statement.bindLong(1, record.mStationMAC);
             statement.bindLong(2, record.mStationTime);
@@ -463,6 +519,8 @@ public final class Database {
             statement.bindLong(11, Record.STATUS_SAVED);
             statement.execute();
         }
+        database.setTransactionSuccessful();
+        database.endTransaction();
         database.close();
     }
 
@@ -498,6 +556,8 @@ public final class Database {
      * @param database Handle of opened SQLite database
      */
     private void recreateTables(final SQLiteDatabase database) {
+        // Forget snapshot of old database content
+        Snapshot.invalidate(new File(mPath).getParentFile());
         // Create the table with database version
         database.execSQL("DROP TABLE IF EXISTS mmb");
         database.execSQL("CREATE TABLE mmb(version INTEGER NOT NULL)");
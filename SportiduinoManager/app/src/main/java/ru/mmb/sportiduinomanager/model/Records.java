@@ -4,6 +4,7 @@ import static ru.mmb.sportiduinomanager.model.StationAPI.MODE_INIT_CHIPS;
 
 import android.database.sqlite.SQLiteException;
 
+import java.io.IOException;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -32,6 +33,11 @@ public final class Records {
      */
     private final long mDistDownloaded;
 
+    /**
+     * Journal where all new records are appended before saving them to local database.
+     */
+    private RecordsJournal mJournal;
+
     /**
      * Construct empty list of records.
      *
@@ -60,6 +66,42 @@ public final class Records {
         return dateFormat.format(calendar.getTime());
     }
 
+    /**
+     * Get journal of new records.
+     *
+     * @return Journal or null if records are not journaled
+     */
+    public RecordsJournal getJournal() {
+        return mJournal;
+    }
+
+    /**
+     * Start appending all new records to the journal.
+     * Journal should already contain all records from this list.
+     *
+     * @param journal Opened journal
+     */
+    public void setJournal(final RecordsJournal journal) {
+        mJournal = journal;
+    }
+
+    /**
+     * Append new records to the journal (if any).
+     * Stop using the journal if it can't be written and invalidate it,
+     * records will be saved to local database only.
+     *
+     * @param newRecords List of just added records
+     */
+    private void journal(final List<Record> newRecords) {
+        if (mJournal == null || newRecords.isEmpty()) return;
+        try {
+            mJournal.append(newRecords);
+        } catch (IOException e) {
+            mJournal.invalidate();
+            mJournal = null;
+        }
+    }
+
     /**
      * Get previously loaded time of distance download.
      *
@@ -300,9 +342,11 @@ public final class Records {
      */
     public void addRecord(final StationAPI station, final long initTime, final int teamNumber,
                           final int teamMask, final int pointNumber, final long pointTime) {
-        mRecords.add(new Record(station.getMACasLong(), station.getStationTime(),
+        final Record record = new Record(station.getMACasLong(), station.getStationTime(),
                 station.getTimeDrift(), station.getNumber(), station.getMode(), initTime,
-                teamNumber, teamMask, pointNumber, pointTime, Record.STATUS_NEW));
+                teamNumber, teamMask, pointNumber, pointTime, Record.STATUS_NEW);
+        mRecords.add(record);
+        journal(Collections.singletonList(record));
     }
 
     /**
@@ -323,12 +367,16 @@ public final class Records {
             }
         }
         if (unsavedRecords.isEmpty()) return SUCCESS;
+        // Make sure that all new records has reached the journal file
+        if (mJournal != null) mJournal.sync();
         // Try to save this list in the database
         try {
             database.saveRecords(unsavedRecords);
         } catch (SQLiteException e) {
             return e.getMessage();
         }
+        // Move journal checkpoint after saved records
+        if (mJournal != null) mJournal.markSaved();
         // flag all new records as saved
         for (int i = 0; i < mRecords.size(); i++) {
             final Record record = mRecords.get(i);
@@ -363,6 +411,7 @@ public final class Records {
                 mRecords.set(i, record);
             }
         }
+        if (mJournal != null) mJournal.markSent();
         return true;
     }
 
@@ -428,13 +477,14 @@ public final class Records {
         } else {
             // Add it to global list of records and save it in local db
             mRecords.add(newRecord);
+            journal(Collections.singletonList(newRecord));
             return SUCCESS.equals(this.saveNewRecords(database));
         }
     }
 
     /**
      * Loose merging of two lists of records with replacing of old punches with new.
-     * Modifies class instance.
+     * Modifies class instance. Should not be used for journaled list of records.
      *
      * @param newRecords List of records to add
      * @return True if some records were added or replaced
@@ -481,7 +531,7 @@ public final class Records {
      * @return True if some records were added
      */
     public boolean join(final Records newRecords) {
-        boolean dataChanged = false;
+        final List<Record> addedRecords = new ArrayList<>();
         for (final Record newRecord : newRecords.mRecords) {
             boolean isSameRecord = false;
             for (final Record record : this.mRecords) {
@@ -500,9 +550,10 @@ public final class Records {
             // Skip identical records
             if (isSameRecord) continue;
             mRecords.add(newRecord);
-            dataChanged = true;
+            addedRecords.add(newRecord);
         }
-        return dataChanged;
+        journal(addedRecords);
+        return !addedRecords.isEmpty();
     }
 
     /**
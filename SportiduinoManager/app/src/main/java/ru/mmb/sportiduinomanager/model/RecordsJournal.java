@@ -0,0 +1,327 @@
+package ru.mmb.sportiduinomanager.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+
+/**
+ * Append-only memory mapped journal of Sportiduino records.
+ * Every new record is written to the journal before it is saved to local SQLite database,
+ * so all records can be restored after application crash without reading the database.
+ * Journal consists of a header and fixed size slots, one slot per record.
+ */
+public final class RecordsJournal {
+    /**
+     * Name of journal file in database folder.
+     */
+    public static final String JOURNAL_NAME = "records.journal";
+    /**
+     * Journal file signature.
+     */
+    private static final int MAGIC = 0x4D4D424A;
+    /**
+     * Journal file format version.
+     */
+    private static final int VERSION = 1;
+    /**
+     * Size of journal header and of each record slot in bytes.
+     */
+    private static final int SLOT_SIZE = 64;
+    /**
+     * Initial number of slots in mapped file.
+     */
+    private static final int INITIAL_SLOTS = 1024;
+    /**
+     * Flush mapped file to storage after this number of appended records.
+     */
+    private static final int SYNC_GROUP = 16;
+    /**
+     * Header offset: distance download time.
+     */
+    private static final int HEAD_DOWNLOADED = 8;
+    /**
+     * Header offset: number of records which were saved to SQLite database.
+     */
+    private static final int HEAD_SAVED = 16;
+    /**
+     * Header offset: number of records which were sent to site.
+     */
+    private static final int HEAD_SENT = 20;
+    /**
+     * Offset of record status in a slot.
+     */
+    private static final int SLOT_STATUS = 56;
+    /**
+     * Offset of checksum in a slot.
+     */
+    private static final int SLOT_CHECKSUM = 60;
+    /**
+     * Checksum seed, makes empty (zeroed) slots invalid.
+     */
+    private static final int CHECKSUM_SEED = 0x811C9DC5;
+
+    /**
+     * Journal file.
+     */
+    private final File mFile;
+    /**
+     * Opened journal file.
+     */
+    private RandomAccessFile mRandomFile;
+    /**
+     * Memory mapped journal content.
+     */
+    private MappedByteBuffer mBuffer;
+    /**
+     * Number of records in the journal.
+     */
+    private int mCount;
+    /**
+     * Number of records appended since last flush to storage.
+     */
+    private int mUnsynced;
+
+    /**
+     * Open existing journal or create new empty one.
+     *
+     * @param folder Folder for journal file (usually the database folder)
+     * @throws IOException Thrown when journal file can't be opened or mapped
+     */
+    public RecordsJournal(final File folder) throws IOException {
+        mFile = new File(folder, JOURNAL_NAME);
+        open();
+    }
+
+    /**
+     * Compute checksum of a slot content.
+     *
+     * @param buffer Mapped journal
+     * @param offset Slot position in journal
+     * @return Checksum of all slot bytes except checksum itself
+     */
+    private static int checksum(final MappedByteBuffer buffer, final int offset) {
+        int hash = CHECKSUM_SEED;
+        for (int i = offset; i < offset + SLOT_CHECKSUM; i++) {
+            hash = (hash ^ (buffer.get(i) & 0xFF)) * 0x0100_0193;
+        }
+        return hash;
+    }
+
+    /**
+     * Open journal file and map it into memory.
+     *
+     * @throws IOException Thrown when journal file can't be opened or mapped
+     */
+    private void open() throws IOException {
+        mRandomFile = new RandomAccessFile(mFile, "rw");
+        final long length = Math.max(mRandomFile.length(), (long) (INITIAL_SLOTS + 1) * SLOT_SIZE);
+        map(length);
+        mCount = 0;
+        mUnsynced = 0;
+    }
+
+    /**
+     * Map journal file region into memory.
+     *
+     * @param length Size of file region to map
+     * @throws IOException Thrown when file can't be mapped
+     */
+    private void map(final long length) throws IOException {
+        mBuffer = mRandomFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, length);
+        mBuffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Check if the journal has valid header for the distance.
+     *
+     * @param timeDownloaded Time of distance download from site
+     * @return True if journal contains records for this distance
+     */
+    private boolean isValid(final long timeDownloaded) {
+        return mBuffer.getInt(0) == MAGIC && mBuffer.getInt(4) == VERSION
+                && mBuffer.getLong(HEAD_DOWNLOADED) == timeDownloaded;
+    }
+
+    /**
+     * Restore list of records from the journal.
+     * Replay stops at the first slot with wrong checksum (it was not completely written).
+     *
+     * @param timeDownloaded Time of distance download from site
+     * @return Records from journal or null if journal belongs to other distance or is damaged
+     */
+    public Records replay(final long timeDownloaded) {
+        synchronized (this) {
+            if (!isValid(timeDownloaded)) return null;
+            final int saved = mBuffer.getInt(HEAD_SAVED);
+            final int sent = mBuffer.getInt(HEAD_SENT);
+            final Records records = new Records(timeDownloaded);
+            final int capacity = mBuffer.capacity() / SLOT_SIZE - 1;
+            int index = 0;
+            while (index < capacity) {
+                final int offset = (index + 1) * SLOT_SIZE;
+                if (mBuffer.getInt(offset + SLOT_CHECKSUM) != checksum(mBuffer, offset)) break;
+                int status = mBuffer.getInt(offset + SLOT_STATUS);
+                if (index < sent) {
+                    status = Record.STATUS_SENT;
+                } else if (index < saved && status == Record.STATUS_NEW) {
+                    status = Record.STATUS_SAVED;
+                }
+                records.addRecord(new Record(mBuffer.getLong(offset), mBuffer.getLong(offset + 8),
+                        mBuffer.getInt(offset + 16), mBuffer.getInt(offset + 20),
+                        mBuffer.getInt(offset + 24), mBuffer.getLong(offset + 28),
+                        mBuffer.getInt(offset + 36), mBuffer.getInt(offset + 40),
+                        mBuffer.getInt(offset + 44), mBuffer.getLong(offset + 48), status));
+                index++;
+            }
+            mCount = index;
+            records.setJournal(this);
+            return records;
+        }
+    }
+
+    /**
+     * Erase the journal and fill it with the list of records
+     * (used after loading of records from local database).
+     *
+     * @param records List of records with actual statuses
+     * @throws IOException Thrown when journal file can't be rewritten
+     */
+    public void rebuild(final Records records) throws IOException {
+        synchronized (this) {
+            mRandomFile.close();
+            // Remove old content, new file region will be filled with zeroes
+            if (mFile.exists() && !mFile.delete()) throw new IOException(mFile.getAbsolutePath());
+            open();
+            mBuffer.putInt(0, MAGIC);
+            mBuffer.putInt(4, VERSION);
+            mBuffer.putLong(HEAD_DOWNLOADED, records.getTimeDownloaded());
+            mBuffer.putInt(HEAD_SENT, 0);
+            // Checkpoint is placed before the first unsaved record
+            int saved = -1;
+            for (int i = 0; i < records.size(); i++) {
+                final Record record = records.getRecord(i);
+                if (saved < 0 && record.getStatus() == Record.STATUS_NEW) saved = i;
+                write(record, record.getStatus());
+            }
+            if (saved < 0) saved = mCount;
+            mBuffer.putInt(HEAD_SAVED, saved);
+            sync();
+        }
+    }
+
+    /**
+     * Append new records to the journal.
+     *
+     * @param newRecords Records which were just added to list of all records
+     * @throws IOException Thrown when journal file can't be extended
+     */
+    void append(final List<Record> newRecords) throws IOException {
+        synchronized (this) {
+            for (final Record record : newRecords) {
+                write(record, Record.STATUS_NEW);
+                mUnsynced++;
+                if (mUnsynced >= SYNC_GROUP) sync();
+            }
+        }
+    }
+
+    /**
+     * Write one record to the next free slot, extend the file if needed.
+     *
+     * @param record Record to write
+     * @param status Record status to save in journal
+     * @throws IOException Thrown when journal file can't be extended
+     */
+    private void write(final Record record, final int status) throws IOException {
+        int offset = (mCount + 1) * SLOT_SIZE;
+        if (offset + SLOT_SIZE > mBuffer.capacity()) {
+            mBuffer.force();
+            map((long) mBuffer.capacity() * 2);
+            offset = (mCount + 1) * SLOT_SIZE;
+        }
+        mBuffer.putLong(offset, record.mStationMAC);
+        mBuffer.putLong(offset + 8, record.mStationTime);
+        mBuffer.putInt(offset + 16, record.mStationDrift);
+        mBuffer.putInt(offset + 20, record.mStationNumber);
+        mBuffer.putInt(offset + 24, record.mStationMode);
+        mBuffer.putLong(offset + 28, record.mInitTime);
+        mBuffer.putInt(offset + 36, record.mTeamNumber);
+        mBuffer.putInt(offset + 40, record.mTeamMask);
+        mBuffer.putInt(offset + 44, record.mPointNumber);
+        mBuffer.putLong(offset + 48, record.mPointTime);
+        mBuffer.putInt(offset + SLOT_STATUS, status);
+        mBuffer.putInt(offset + SLOT_CHECKSUM, checksum(mBuffer, offset));
+        mCount++;
+    }
+
+    /**
+     * Mark all journal records as saved to local database (checkpoint).
+     */
+    void markSaved() {
+        synchronized (this) {
+            mBuffer.putInt(HEAD_SAVED, mCount);
+            sync();
+        }
+    }
+
+    /**
+     * Mark all journal records as sent to site.
+     */
+    void markSent() {
+        synchronized (this) {
+            mBuffer.putInt(HEAD_SAVED, mCount);
+            mBuffer.putInt(HEAD_SENT, mCount);
+            sync();
+        }
+    }
+
+    /**
+     * Erase journal header after a failed write, so the journal will not be replayed
+     * on next start and records will be loaded from local database instead.
+     */
+    public void invalidate() {
+        synchronized (this) {
+            mBuffer.putInt(0, 0);
+            mBuffer.force();
+        }
+    }
+
+    /**
+     * Get number of records which were not saved to local database yet.
+     *
+     * @return Number of records after last checkpoint
+     */
+    public int getUnsavedCount() {
+        synchronized (this) {
+            return mCount - mBuffer.getInt(HEAD_SAVED);
+        }
+    }
+
+    /**
+     * Flush all appended records to storage.
+     */
+    void sync() {
+        synchronized (this) {
+            mBuffer.force();
+            mUnsynced = 0;
+        }
+    }
+
+    /**
+     * Flush journal and close its file.
+     */
+    public void close() {
+        synchronized (this) {
+            mBuffer.force();
+            try {
+                mRandomFile.close();
+            } catch (IOException ignored) {
+                // Mapped content is still valid and will be written by the system
+            }
+        }
+    }
+}
@@ -387,6 +387,12 @@ public final class SiteRequest {
             mCustomError = e.getMessage();
             return RequestResult.CUSTOM_ERROR;
         }
+        // Save snapshot for fast application start, database will be used without it
+        try {
+            mDatabase.saveSnapshot(mDistance, mTeams);
+        } catch (IOException ignored) {
+            // Distance and teams will be loaded from database at next start
+        }
         return RequestResult.OK;
     }
 
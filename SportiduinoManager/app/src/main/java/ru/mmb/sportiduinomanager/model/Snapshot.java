@@ -0,0 +1,306 @@
+package ru.mmb.sportiduinomanager.model;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary image of distance and teams for fast application start.
+ * It is written after each successful distance download and mapped into memory at startup,
+ * teams and members are decoded from the image only when they are requested.
+ */
+public final class Snapshot {
+    /**
+     * Name of snapshot file in database folder.
+     */
+    public static final String SNAPSHOT_NAME = "distance.snapshot";
+    /**
+     * Snapshot file signature.
+     */
+    private static final int MAGIC = 0x4D4D4253;
+    /**
+     * Snapshot file format version.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Memory mapped snapshot content.
+     */
+    private final MappedByteBuffer mBuffer;
+    /**
+     * Position of teams index in the snapshot (known after loadDistance call).
+     */
+    private int mTeamsPosition = -1;
+
+    /**
+     * Map snapshot file into memory.
+     *
+     * @param buffer Mapped snapshot file
+     */
+    private Snapshot(final MappedByteBuffer buffer) {
+        mBuffer = buffer;
+    }
+
+    /**
+     * Get snapshot file in a folder.
+     *
+     * @param folder Database folder
+     * @return Snapshot file
+     */
+    static File getFile(final File folder) {
+        return new File(folder, SNAPSHOT_NAME);
+    }
+
+    /**
+     * Open snapshot file and check its header.
+     *
+     * @param folder    Database folder
+     * @param dbVersion Current local database structure version
+     * @return Opened snapshot or null if it is absent or was made by another version
+     */
+    static Snapshot open(final File folder, final int dbVersion) {
+        final File file = getFile(folder);
+        if (!file.exists()) return null;
+        try (RandomAccessFile randomFile = new RandomAccessFile(file, "r")) {
+            final MappedByteBuffer buffer = randomFile.getChannel()
+                    .map(FileChannel.MapMode.READ_ONLY, 0, randomFile.length());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.capacity() < 12 || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                    || buffer.getInt(8) != dbVersion) {
+                return null;
+            }
+            return new Snapshot(buffer);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Remove snapshot file when database content has been changed.
+     *
+     * @param folder Database folder
+     */
+    static void invalidate(final File folder) {
+        final File file = getFile(folder);
+        if (file.exists() && !file.delete()) {
+            // Overwrite the signature to make the file unusable
+            try (RandomAccessFile randomFile = new RandomAccessFile(file, "rw")) {
+                randomFile.writeInt(0);
+            } catch (IOException ignored) {
+                // Nothing more can be done
+            }
+        }
+    }
+
+    /**
+     * Write string as its length and UTF-8 bytes.
+     *
+     * @param output Output stream
+     * @param string String to write
+     * @throws IOException Thrown on write errors
+     */
+    private static void writeString(final DataOutputStream output, final String string)
+            throws IOException {
+        final byte[] bytes = string == null ? new byte[0] : string.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(Integer.reverseBytes(bytes.length));
+        output.write(bytes);
+    }
+
+    /**
+     * Write int in little-endian byte order.
+     *
+     * @param output Output stream
+     * @param value  Value to write
+     * @throws IOException Thrown on write errors
+     */
+    private static void writeInt(final DataOutputStream output, final int value) throws IOException {
+        output.writeInt(Integer.reverseBytes(value));
+    }
+
+    /**
+     * Write long in little-endian byte order.
+     *
+     * @param output Output stream
+     * @param value  Value to write
+     * @throws IOException Thrown on write errors
+     */
+    private static void writeLong(final DataOutputStream output, final long value) throws IOException {
+        output.writeLong(Long.reverseBytes(value));
+    }
+
+    /**
+     * Read string written by writeString from current buffer position.
+     *
+     * @param buffer Snapshot buffer
+     * @return Decoded string
+     */
+    static String readString(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Write distance and teams to snapshot file.
+     * The file is written under temporary name and renamed at the end.
+     *
+     * @param folder    Database folder
+     * @param dbVersion Current local database structure version
+     * @param distance  Distance to save
+     * @param teams     Teams to save
+     * @throws IOException Thrown when the file can't be written
+     */
+    static void write(final File folder, final int dbVersion, final Distance distance,
+                      final Teams teams) throws IOException {
+        final File temp = new File(folder, SNAPSHOT_NAME + ".tmp");
+        // Teams data is written first to compute teams offsets for the index
+        final int maxTeam = teams.getMaxTeam();
+        final ByteArrayOutputStream teamsData = new ByteArrayOutputStream();
+        final int[] offsets = new int[maxTeam + 1];
+        try (DataOutputStream output = new DataOutputStream(teamsData)) {
+            for (int number = 1; number <= maxTeam; number++) {
+                final String name = teams.getTeamName(number);
+                if (name == null) continue;
+                // Offset is relative to teams data start, zero is reserved for absent teams
+                offsets[number] = output.size() + 1;
+                writeInt(output, teams.getTeamMaps(number));
+                writeString(output, name);
+                final List<Long> ids = teams.getMembersIds(number);
+                final List<String> names = teams.getMembersNames(number);
+                final List<String> phones = teams.getMembersPhones(number);
+                writeInt(output, ids.size());
+                for (int i = 0; i < ids.size(); i++) {
+                    writeLong(output, ids.get(i));
+                    writeString(output, names.get(i));
+                    writeString(output, phones.get(i));
+                }
+            }
+        }
+        try (OutputStream file = new FileOutputStream(temp);
+             DataOutputStream output = new DataOutputStream(new BufferedOutputStream(file))) {
+            writeInt(output, MAGIC);
+            writeInt(output, VERSION);
+            writeInt(output, dbVersion);
+            // Distance parameters
+            writeString(output, distance.getUserEmail());
+            writeString(output, distance.getUserPassword());
+            writeInt(output, distance.getTestSite());
+            writeInt(output, distance.getRaidId());
+            writeString(output, distance.getRaidName());
+            writeLong(output, distance.getTimeDownloaded());
+            writeLong(output, distance.getTimeReadonly());
+            writeLong(output, distance.getTimeFinish());
+            writeString(output, distance.getBluetoothPin());
+            writeLong(output, distance.getLastResultId());
+            // Points
+            final List<Integer> numbers = new ArrayList<>();
+            final List<Integer> types = new ArrayList<>();
+            final List<Integer> penalties = new ArrayList<>();
+            final List<Long> startTimes = new ArrayList<>();
+            final List<Long> endTimes = new ArrayList<>();
+            final List<String> names = new ArrayList<>();
+            distance.fillPointsLists(numbers, types, penalties, startTimes, endTimes, names);
+            int maxPoint = 0;
+            for (final int number : numbers) {
+                if (number > maxPoint) maxPoint = number;
+            }
+            writeInt(output, maxPoint);
+            writeInt(output, numbers.size());
+            for (int i = 0; i < numbers.size(); i++) {
+                writeInt(output, numbers.get(i));
+                writeInt(output, types.get(i));
+                writeInt(output, penalties.get(i));
+                writeLong(output, startTimes.get(i));
+                writeLong(output, endTimes.get(i));
+                writeString(output, names.get(i));
+            }
+            // Discounts
+            final List<Integer> minutes = new ArrayList<>();
+            final List<Integer> fromN = new ArrayList<>();
+            final List<Integer> toN = new ArrayList<>();
+            distance.fillDiscountsLists(minutes, fromN, toN);
+            writeInt(output, minutes.size());
+            for (int i = 0; i < minutes.size(); i++) {
+                writeInt(output, minutes.get(i));
+                writeInt(output, fromN.get(i));
+                writeInt(output, toN.get(i));
+            }
+            // Teams index and teams data
+            writeInt(output, maxTeam);
+            for (final int offset : offsets) {
+                writeInt(output, offset);
+            }
+            teamsData.writeTo(output);
+        }
+        final File file = getFile(folder);
+        if (!temp.renameTo(file)) {
+            invalidate(folder);
+            throw new IOException(file.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Decode distance from the snapshot.
+     *
+     * @param initChipsPoint Name of chip initialization point from app resources
+     * @return New distance object
+     */
+    public Distance loadDistance(final String initChipsPoint) {
+        final ByteBuffer buffer = mBuffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(12);
+        final String userEmail = readString(buffer);
+        final String userPassword = readString(buffer);
+        final int testSite = buffer.getInt();
+        final int raidId = buffer.getInt();
+        final String raidName = readString(buffer);
+        final long timeDownloaded = buffer.getLong();
+        final long timeReadonly = buffer.getLong();
+        final long timeFinish = buffer.getLong();
+        final String bluetoothPin = readString(buffer);
+        final long lastResultId = buffer.getLong();
+        final Distance distance = new Distance(userEmail, userPassword, testSite, raidId, raidName, timeDownloaded,
+                timeReadonly, timeFinish, bluetoothPin, lastResultId);
+        distance.initPointArray(buffer.getInt(), initChipsPoint);
+        final int pointsN = buffer.getInt();
+        for (int i = 0; i < pointsN; i++) {
+            distance.addPoint(buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getLong(),
+                    buffer.getLong(), readString(buffer));
+        }
+        final int discountsN = buffer.getInt();
+        distance.initDiscountArray(discountsN);
+        for (int i = 0; i < discountsN; i++) {
+            distance.addDiscount(buffer.getInt(), buffer.getInt(), buffer.getInt());
+        }
+        // Save position of teams index for loadTeams
+        mTeamsPosition = buffer.position();
+        return distance;
+    }
+
+    /**
+     * Create teams object which decodes teams from the snapshot on demand.
+     *
+     * @return Teams backed by the snapshot or null if distance was not loaded yet
+     */
+    public Teams loadTeams() {
+        if (mTeamsPosition < 0) return null;
+        final ByteBuffer buffer = mBuffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(mTeamsPosition);
+        final int[] offsets = new int[buffer.getInt() + 1];
+        buffer.asIntBuffer().get(offsets);
+        final int dataStart = buffer.position() + offsets.length * 4;
+        buffer.position(dataStart);
+        return new Teams(buffer.slice().order(ByteOrder.LITTLE_ENDIAN), offsets);
+    }
+}
@@ -129,6 +129,22 @@ public class StationRaw {
      * Code of last error of communication with station.
      */
     private int mLastError;
+    /**
+     * Communication statistics for all commands sent to the station.
+     */
+    private final StationStats mStats;
+    /**
+     * Number of bytes sent to station during last command.
+     */
+    private int mBytesSent;
+    /**
+     * Number of bytes received from station during last command.
+     */
+    private int mBytesReceived;
+    /**
+     * True if station response for last command had wrong CRC.
+     */
+    private boolean mBadCrc;
     /**
      * True when StationQuerying is allowed by activity to send commands to station.
      */
@@ -149,6 +165,7 @@ public class StationRaw {
         mMaxPacketSize = MAX_PACKET_SIZE;
         mNumber = 0;
         mLastError = 0;
+        mStats = new StationStats();
         mQueryingAllowed = false;
         mQueryingActive = false;
         // Create client socket with default Bluetooth UUID
@@ -196,6 +213,15 @@ public class StationRaw {
         return mResponseTime;
     }
 
+    /**
+     * Get communication statistics collected since station connection.
+     *
+     * @return Statistics object
+     */
+    public StationStats getStats() {
+        return mStats;
+    }
+
     /**
      * Get Android time at the start of command processing.
      *
@@ -402,6 +428,7 @@ public class StationRaw {
             @SuppressWarnings("PMD.CloseResource") final OutputStream output = mSocket.getOutputStream();
             output.write(buffer);
             output.flush();
+            mBytesSent = buffer.length;
         } catch (IOException e) {
             // station got disconnected
             disconnect();
@@ -464,12 +491,16 @@ public class StationRaw {
      * @return Byte array with station response, first byte contains error code
      */
     private byte[] runCommand(final byte[] sendBuffer) {
+        mBytesSent = 0;
+        mBytesReceived = 0;
+        mBadCrc = false;
         // reconnect (just in case and send the command
         if (!connect()) return new byte[]{SEND_FAILED};
         if (!send(sendBuffer)) return new byte[]{SEND_FAILED};
         // get station response
         final byte[] receiveBuffer = receive();
         final int len = receiveBuffer.length;
+        mBytesReceived = len;
         if (len == 0) return new byte[]{REC_TIMEOUT};
         // check signature
         if (receiveBuffer[0] != HEADER_SIGNATURE) return new byte[]{REC_BAD_RESPONSE};
@@ -485,7 +516,10 @@ public class StationRaw {
         // update station number for getStatus command
         if (sendBuffer[0] == CMD_GET_STATUS) mNumber = receiveBuffer[2] & 0xFF;
         // check crc
-        if (receiveBuffer[len - 1] != crc8(receiveBuffer, len - 1)) return new byte[]{REC_BAD_RESPONSE};
+        if (receiveBuffer[len - 1] != crc8(receiveBuffer, len - 1)) {
+            mBadCrc = true;
+            return new byte[]{REC_BAD_RESPONSE};
+        }
         // check if command code received is equal to command code sent
         if (receiveBuffer[3] != sendBuffer[0] + 0x10) return new byte[]{REC_BAD_RESPONSE};
         // check command execution code (it should be present and equal to zero)
@@ -497,6 +531,32 @@ public class StationRaw {
         return response;
     }
 
+    /**
+     * Convert runCommand result code to StationStats result.
+     *
+     * @param code           First byte of runCommand response
+     * @param responseLength Expected length of station response
+     * @return One of StationStats.RESULT_* constants
+     */
+    private int statsResult(final byte code, final int responseLength) {
+        switch (code) {
+            case ALL_OK:
+                if (mBytesReceived != responseLength + HEADER_SIZE + 2) {
+                    return StationStats.RESULT_BAD_RESPONSE;
+                }
+                return StationStats.RESULT_OK;
+            case SEND_FAILED:
+                return StationStats.RESULT_SEND_FAILED;
+            case REC_TIMEOUT:
+                return StationStats.RESULT_TIMEOUT;
+            case REC_BAD_RESPONSE:
+                if (mBadCrc) return StationStats.RESULT_BAD_CRC;
+                return StationStats.RESULT_BAD_RESPONSE;
+            default:
+                return StationStats.RESULT_STATION_ERROR;
+        }
+    }
+
     /**
      * Call runCommand (which performs communication with a station),
      * receive response, check it, set mLastError in case of error and fill
@@ -515,6 +575,9 @@ public class StationRaw {
             // Compute execution time
             final long now = System.currentTimeMillis();
             mResponseTime = now - mStartTime;
+            // Add command result to communication statistics
+            mStats.addCommand(commandContent[0], statsResult(rawResponse[0], responseContent.length),
+                    mResponseTime, mBytesSent, mBytesReceived);
             // Check for command execution errors and response parsing errors
             if (rawResponse[0] != ALL_OK) {
                 switch (rawResponse[0]) {
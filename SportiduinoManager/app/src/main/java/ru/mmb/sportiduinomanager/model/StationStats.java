@@ -0,0 +1,263 @@
+package ru.mmb.sportiduinomanager.model;
+
+import java.util.Locale;
+
+/**
+ * Communication statistics of a Bluetooth station collected per command code:
+ * response time histogram, errors, retries and number of transferred bytes.
+ */
+public final class StationStats {
+    /**
+     * Command result: everything is ok.
+     */
+    static final int RESULT_OK = 0;
+    /**
+     * Command result: sending data to station failed.
+     */
+    static final int RESULT_SEND_FAILED = 1;
+    /**
+     * Command result: station response timeout.
+     */
+    static final int RESULT_TIMEOUT = 2;
+    /**
+     * Command result: station response has wrong format or length.
+     */
+    static final int RESULT_BAD_RESPONSE = 3;
+    /**
+     * Command result: station response has wrong CRC.
+     */
+    static final int RESULT_BAD_CRC = 4;
+    /**
+     * Command result: station returned an error of command execution.
+     */
+    static final int RESULT_STATION_ERROR = 5;
+    /**
+     * Upper bounds (in ms) of response time histogram buckets,
+     * the last histogram bucket collects all slower responses.
+     */
+    private static final long[] TIME_BUCKETS = {50, 100, 200, 500, 1000, 2000, 5000, 10_000};
+    /**
+     * Number of possible command codes.
+     */
+    private static final int COMMANDS_N = 256;
+    /**
+     * Number of counters for each command code.
+     */
+    private static final int COUNTERS_N = 9;
+    /**
+     * Counter index: number of commands sent.
+     */
+    private static final int SENT = 0;
+    /**
+     * Counter index: number of commands failed for any reason.
+     */
+    private static final int ERRORS = 1;
+    /**
+     * Counter index: number of commands repeated after previous failure.
+     */
+    private static final int RETRIES = 2;
+    /**
+     * Counter index: number of response timeouts.
+     */
+    private static final int TIMEOUTS = 3;
+    /**
+     * Counter index: number of responses with wrong CRC.
+     */
+    private static final int CRC_ERRORS = 4;
+    /**
+     * Counter index: number of bytes sent to station.
+     */
+    private static final int BYTES_SENT = 5;
+    /**
+     * Counter index: number of bytes received from station.
+     */
+    private static final int BYTES_RECEIVED = 6;
+    /**
+     * Counter index: total response time of all commands.
+     */
+    private static final int TIME_TOTAL = 7;
+    /**
+     * Counter index: max response time.
+     */
+    private static final int TIME_MAX = 8;
+
+    /**
+     * Counters for each command code.
+     */
+    private final long[][] mCounters = new long[COMMANDS_N][COUNTERS_N];
+    /**
+     * Response time histogram for each command code.
+     */
+    private final int[][] mHistogram = new int[COMMANDS_N][TIME_BUCKETS.length + 1];
+    /**
+     * Android time when statistics collection has been started.
+     */
+    private final long mStartTime;
+    /**
+     * Code of previous command sent to station.
+     */
+    private int mPrevCommand = -1;
+    /**
+     * True if previous command sent to station has been failed.
+     */
+    private boolean mPrevFailed;
+
+    /**
+     * Create empty statistics.
+     */
+    StationStats() {
+        mStartTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Account one command sent to station.
+     *
+     * @param command       Command code
+     * @param result        One of RESULT_* constants
+     * @param responseTime  Time spent waiting for station response in ms
+     * @param bytesSent     Number of bytes sent to station
+     * @param bytesReceived Number of bytes received from station
+     */
+    void addCommand(final byte command, final int result, final long responseTime,
+                    final int bytesSent, final int bytesReceived) {
+        synchronized (this) {
+            final int code = command & 0xFF;
+            final long[] counters = mCounters[code];
+            counters[SENT]++;
+            if (mPrevFailed && mPrevCommand == code) counters[RETRIES]++;
+            if (result != RESULT_OK) counters[ERRORS]++;
+            if (result == RESULT_TIMEOUT) counters[TIMEOUTS]++;
+            if (result == RESULT_BAD_CRC) counters[CRC_ERRORS]++;
+            counters[BYTES_SENT] += bytesSent;
+            counters[BYTES_RECEIVED] += bytesReceived;
+            counters[TIME_TOTAL] += responseTime;
+            if (responseTime > counters[TIME_MAX]) counters[TIME_MAX] = responseTime;
+            int bucket = 0;
+            while (bucket < TIME_BUCKETS.length && responseTime > TIME_BUCKETS[bucket]) {
+                bucket++;
+            }
+            mHistogram[code][bucket]++;
+            mPrevCommand = code;
+            mPrevFailed = result != RESULT_OK;
+        }
+    }
+
+    /**
+     * Get summary counters for all commands.
+     *
+     * @return Array of sent, errors, retries, timeouts, CRC errors,
+     * bytes sent, bytes received and average response time in ms
+     */
+    public long[] getTotals() {
+        synchronized (this) {
+            final long[] totals = new long[8];
+            long timeTotal = 0;
+            for (final long[] counters : mCounters) {
+                for (int i = SENT; i <= BYTES_RECEIVED; i++) {
+                    totals[i] += counters[i];
+                }
+                timeTotal += counters[TIME_TOTAL];
+            }
+            if (totals[SENT] > 0) totals[7] = timeTotal / totals[SENT];
+            return totals;
+        }
+    }
+
+    /**
+     * Get upper bound of response time histogram bucket.
+     *
+     * @param bucket Bucket index
+     * @return Upper bound in ms or -1 for the last unbounded bucket
+     */
+    private static long bucketBound(final int bucket) {
+        if (bucket < TIME_BUCKETS.length) return TIME_BUCKETS[bucket];
+        return -1;
+    }
+
+    /**
+     * Export statistics as CSV table with one line per command code.
+     *
+     * @param address  Station Bluetooth MAC address
+     * @param firmware Station firmware version
+     * @return CSV text with header line
+     */
+    public String toCSV(final String address, final int firmware) {
+        synchronized (this) {
+            final StringBuilder csv = new StringBuilder(1024);
+            csv.append("station,firmware,command,sent,errors,retries,timeouts,crc_errors,"
+                    + "bytes_sent,bytes_received,time_avg,time_max");
+            for (int bucket = 0; bucket <= TIME_BUCKETS.length; bucket++) {
+                final long bound = bucketBound(bucket);
+                if (bound < 0) {
+                    csv.append(",time_inf");
+                } else {
+                    csv.append(",time_le_").append(bound);
+                }
+            }
+            csv.append('\n');
+            for (int code = 0; code < COMMANDS_N; code++) {
+                final long[] counters = mCounters[code];
+                if (counters[SENT] == 0) continue;
+                csv.append(address).append(',').append(firmware).append(',')
+                        .append(String.format(Locale.ROOT, "0x%02x", code));
+                for (int i = SENT; i <= BYTES_RECEIVED; i++) {
+                    csv.append(',').append(counters[i]);
+                }
+                csv.append(',').append(counters[TIME_TOTAL] / counters[SENT])
+                        .append(',').append(counters[TIME_MAX]);
+                for (final int count : mHistogram[code]) {
+                    csv.append(',').append(count);
+                }
+                csv.append('\n');
+            }
+            return csv.toString();
+        }
+    }
+
+    /**
+     * Export statistics as JSON object.
+     *
+     * @param address  Station Bluetooth MAC address
+     * @param firmware Station firmware version
+     * @return JSON text
+     */
+    public String toJSON(final String address, final int firmware) {
+        synchronized (this) {
+            final StringBuilder json = new StringBuilder(1024);
+            json.append("{\"station\":\"").append(address).append("\",\"firmware\":")
+                    .append(firmware).append(",\"started\":").append(mStartTime)
+                    .append(",\"buckets\":[");
+            for (int bucket = 0; bucket <= TIME_BUCKETS.length; bucket++) {
+                if (bucket > 0) json.append(',');
+                json.append(bucketBound(bucket));
+            }
+            json.append("],\"commands\":[");
+            boolean first = true;
+            for (int code = 0; code < COMMANDS_N; code++) {
+                final long[] counters = mCounters[code];
+                if (counters[SENT] == 0) continue;
+                if (!first) json.append(',');
+                first = false;
+                json.append("{\"command\":").append(code)
+                        .append(",\"sent\":").append(counters[SENT])
+                        .append(",\"errors\":").append(counters[ERRORS])
+                        .append(",\"retries\":").append(counters[RETRIES])
+                        .append(",\"timeouts\":").append(counters[TIMEOUTS])
+                        .append(",\"crc_errors\":").append(counters[CRC_ERRORS])
+                        .append(",\"bytes_sent\":").append(counters[BYTES_SENT])
+                        .append(",\"bytes_received\":").append(counters[BYTES_RECEIVED])
+                        .append(",\"time_avg\":").append(counters[TIME_TOTAL] / counters[SENT])
+                        .append(",\"time_max\":").append(counters[TIME_MAX])
+                        .append(",\"histogram\":[");
+                final int[] histogram = mHistogram[code];
+                for (int bucket = 0; bucket < histogram.length; bucket++) {
+                    if (bucket > 0) json.append(',');
+                    json.append(histogram[bucket]);
+                }
+                json.append("]}");
+            }
+            json.append("]}");
+            return json.toString();
+        }
+    }
+}
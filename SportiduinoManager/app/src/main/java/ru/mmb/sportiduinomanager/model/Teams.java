@@ -1,5 +1,7 @@
 package ru.mmb.sportiduinomanager.model;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -11,6 +13,14 @@ public final class Teams {
      * Sparse array of teams, array index == team number.
      */
     private final SingleTeam[] mTeams;
+    /**
+     * Snapshot image with teams data (null if teams were not loaded from snapshot).
+     */
+    private final ByteBuffer mImage;
+    /**
+     * Positions of teams in snapshot image plus one, zero for absent teams.
+     */
+    private final int[] mImageOffsets;
 
     /**
      * Allocate team array with maxNumber as max array index.
@@ -19,6 +29,58 @@ public final class Teams {
      */
     public Teams(final int maxNumber) {
         mTeams = new SingleTeam[maxNumber + 1];
+        mImage = null;
+        mImageOffsets = null;
+    }
+
+    /**
+     * Create teams backed by snapshot image, teams are decoded at first access.
+     *
+     * @param image   Teams data from snapshot
+     * @param offsets Positions of teams in image plus one, zero for absent teams
+     */
+    Teams(final ByteBuffer image, final int[] offsets) {
+        mTeams = new SingleTeam[offsets.length];
+        mImage = image;
+        mImageOffsets = offsets;
+    }
+
+    /**
+     * Get the team, decode it from snapshot image if needed.
+     *
+     * @param number Team number
+     * @return Team or null if the team does not exist
+     */
+    private SingleTeam getTeam(final int number) {
+        if (number <= 0 || number >= mTeams.length) return null;
+        if (mImageOffsets == null) return mTeams[number];
+        synchronized (this) {
+            if (mTeams[number] == null && mImageOffsets[number] > 0) {
+                final ByteBuffer buffer = mImage.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+                buffer.position(mImageOffsets[number] - 1);
+                final int maps = buffer.getInt();
+                final String name = Snapshot.readString(buffer);
+                final SingleTeam team = new SingleTeam(buffer.getInt(), maps, name);
+                for (int i = 0; i < team.mMembers.length; i++) {
+                    team.mMembers[i] = new Member(buffer.getLong(), Snapshot.readString(buffer),
+                            Snapshot.readString(buffer));
+                }
+                mTeams[number] = team;
+            }
+            return mTeams[number];
+        }
+    }
+
+    /**
+     * Check if the team exists without decoding it from snapshot.
+     *
+     * @param number Team number
+     * @return True if the team exists
+     */
+    private boolean teamExists(final int number) {
+        if (number <= 0 || number >= mTeams.length) return false;
+        if (mImageOffsets != null) return mImageOffsets[number] > 0;
+        return mTeams[number] != null;
     }
 
     /**
@@ -60,6 +122,30 @@ public final class Teams {
         return false;
     }
 
+    /**
+     * Construct team with all its members and save it to appropriate position in team array.
+     *
+     * @param number       Team number
+     * @param mapsCount    Number of maps
+     * @param name         Team name
+     * @param membersCount Number of team members in arrays
+     * @param ids          Members ids
+     * @param names        Members names
+     * @param phones       Members phones
+     * @return True in case of valid team number value
+     */
+    @SuppressWarnings("BooleanMethodIsAlwaysInverted")
+    boolean addTeam(final int number, final int mapsCount, final String name, final int membersCount,
+                    final long[] ids, final String[] names, final String[] phones) {
+        if (number < 0 || number >= mTeams.length || mTeams[number] != null) return false;
+        final SingleTeam team = new SingleTeam(membersCount, mapsCount, name);
+        for (int i = 0; i < membersCount; i++) {
+            team.mMembers[i] = new Member(ids[i], names[i], phones[i]);
+        }
+        mTeams[number] = team;
+        return true;
+    }
+
     /**
      * Add new member to the list of team members.
      *
@@ -101,9 +187,9 @@ public final class Teams {
      * @return String with team name or null if the team does not exist
      */
     public String getTeamName(final int number) {
-        if (number <= 0 || number >= mTeams.length) return null;
-        if (mTeams[number] == null) return null;
-        return mTeams[number].mName;
+        final SingleTeam team = getTeam(number);
+        if (team == null) return null;
+        return team.mName;
     }
 
     /**
@@ -113,9 +199,9 @@ public final class Teams {
      * @return Number of maps for the team
      */
     public int getTeamMaps(final int number) {
-        if (number <= 0 || number >= mTeams.length) return 0;
-        if (mTeams[number] == null) return 0;
-        return mTeams[number].mMaps;
+        final SingleTeam team = getTeam(number);
+        if (team == null) return 0;
+        return team.mMaps;
     }
 
     /**
@@ -125,10 +211,10 @@ public final class Teams {
      * @return List of team members ids (or empty list if the team does not exist)
      */
     List<Long> getMembersIds(final int number) {
-        if (number <= 0 || number >= mTeams.length) return new ArrayList<>();
-        if (mTeams[number] == null) return new ArrayList<>();
+        final SingleTeam team = getTeam(number);
+        if (team == null) return new ArrayList<>();
         final List<Long> list = new ArrayList<>();
-        for (final Member member : mTeams[number].mMembers) {
+        for (final Member member : team.mMembers) {
             list.add(member.mId);
         }
         return list;
@@ -141,10 +227,10 @@ public final class Teams {
      * @return List of team members names (or empty list if the team does not exist)
      */
     public List<String> getMembersNames(final int number) {
-        if (number <= 0 || number >= mTeams.length) return new ArrayList<>();
-        if (mTeams[number] == null) return new ArrayList<>();
+        final SingleTeam team = getTeam(number);
+        if (team == null) return new ArrayList<>();
         final List<String> list = new ArrayList<>();
-        for (final Member member : mTeams[number].mMembers) {
+        for (final Member member : team.mMembers) {
             list.add(member.mName);
         }
         return list;
@@ -157,10 +243,10 @@ public final class Teams {
      * @return List of team members phones (or empty list if the team does not exist)
      */
     List<String> getMembersPhones(final int number) {
-        if (number <= 0 || number >= mTeams.length) return new ArrayList<>();
-        if (mTeams[number] == null) return new ArrayList<>();
+        final SingleTeam team = getTeam(number);
+        if (team == null) return new ArrayList<>();
         final List<String> list = new ArrayList<>();
-        for (final Member member : mTeams[number].mMembers) {
+        for (final Member member : team.mMembers) {
             list.add(member.mPhone);
         }
         return list;
@@ -174,7 +260,7 @@ public final class Teams {
     public List<Integer> getTeamList() {
         final List<Integer> teams = new ArrayList<>();
         for (int number = 1; number < mTeams.length; number++) {
-            if (mTeams[number] != null) {
+            if (teamExists(number)) {
                 teams.add(number);
             }
         }
@@ -190,9 +276,10 @@ public final class Teams {
         // Check if some teams were loaded
         if (mTeams.length == 0) return true;
         // Check if all teams were loaded
-        if (mTeams[mTeams.length - 1] == null) return true;
+        if (!teamExists(mTeams.length - 1)) return true;
         // Check teams data
-        for (final SingleTeam team : mTeams) {
+        for (int number = 1; number < mTeams.length; number++) {
+            final SingleTeam team = getTeam(number);
             if (team != null) {
                 // Check if all team members were loaded
                 for (final Member member : team.mMembers) {
@@ -0,0 +1,87 @@
+package ru.mmb.sportiduinomanager.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of distance operations used for every chip read.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DistanceBenchmark {
+    /**
+     * Number of control points in the raid.
+     */
+    @Param({"20", "60", "200"})
+    public int points;
+    /**
+     * Probability of a team to punch at each point.
+     */
+    @Param({"0.5", "0.95"})
+    public double punchRatio;
+
+    /**
+     * Synthetic distance.
+     */
+    private Distance mDistance;
+    /**
+     * Punched points of a team.
+     */
+    private List<Integer> mPunched;
+    /**
+     * Skipped points of a team.
+     */
+    private List<Integer> mSkipped;
+
+    /**
+     * Generate distance and punches.
+     */
+    @Setup(Level.Trial)
+    public void generate() {
+        final RaidGenerator generator = new RaidGenerator(1, points, punchRatio, 42);
+        mDistance = generator.distance();
+        mPunched = generator.punchedPoints();
+        mSkipped = mDistance.getSkippedPoints(mPunched);
+    }
+
+    /**
+     * Computing list of skipped points.
+     *
+     * @return Skipped points
+     */
+    @Benchmark
+    public List<Integer> getSkippedPoints() {
+        return mDistance.getSkippedPoints(mPunched);
+    }
+
+    /**
+     * Formatting list of punched points.
+     *
+     * @return Points names
+     */
+    @Benchmark
+    public String pointsNamesFromPunched() {
+        return mDistance.pointsNamesFromList(mPunched);
+    }
+
+    /**
+     * Formatting list of skipped points.
+     *
+     * @return Points names
+     */
+    @Benchmark
+    public String pointsNamesFromSkipped() {
+        return mDistance.pointsNamesFromList(mSkipped);
+    }
+}
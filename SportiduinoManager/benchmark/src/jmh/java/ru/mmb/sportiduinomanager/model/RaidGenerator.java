@@ -0,0 +1,196 @@
+package ru.mmb.sportiduinomanager.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generator of synthetic raids (distance, teams and punches) for benchmarks.
+ * All data is generated from a fixed seed, so benchmark runs are reproducible.
+ */
+final class RaidGenerator {
+    /**
+     * Time when the synthetic distance was downloaded.
+     */
+    static final long TIME_DOWNLOADED = 1_560_000_000L;
+    /**
+     * Time of the raid start.
+     */
+    static final long TIME_START = TIME_DOWNLOADED + 86_400L;
+    /**
+     * Base of synthetic station MAC addresses.
+     */
+    static final long MAC_BASE = 0x1234_5600_0000L;
+    /**
+     * Number of members in each team.
+     */
+    static final int MEMBERS_N = 3;
+
+    /**
+     * Random generator with fixed seed.
+     */
+    private final Random mRandom;
+    /**
+     * Number of teams.
+     */
+    private final int mTeamsN;
+    /**
+     * Number of control points.
+     */
+    private final int mPointsN;
+    /**
+     * Probability of a team to punch at each point.
+     */
+    private final double mPunchRatio;
+
+    /**
+     * Create generator.
+     *
+     * @param teamsN     Number of teams
+     * @param pointsN    Number of control points
+     * @param punchRatio Probability of a team to punch at each point (0..1)
+     * @param seed       Random seed
+     */
+    RaidGenerator(final int teamsN, final int pointsN, final double punchRatio, final long seed) {
+        mTeamsN = teamsN;
+        mPointsN = pointsN;
+        mPunchRatio = punchRatio;
+        mRandom = new Random(seed);
+    }
+
+    /**
+     * Get station MAC address for a control point.
+     *
+     * @param point Control point number
+     * @return Station MAC as long
+     */
+    static long stationMAC(final int point) {
+        return MAC_BASE + point;
+    }
+
+    /**
+     * Generate distance with every fifth point mandatory.
+     *
+     * @return New distance
+     */
+    Distance distance() {
+        final Distance distance = new Distance("user@example.com", "", 1, 1, "Synthetic raid",
+                TIME_DOWNLOADED, TIME_START + 172_800L, TIME_START + 86_400L, "", 0);
+        distance.initPointArray(mPointsN, "Init");
+        for (int point = 1; point <= mPointsN; point++) {
+            final int type = point % 5 == 0 || point == mPointsN ? 1 : 2;
+            distance.addPoint(point, type, 30, TIME_START, TIME_START + 86_400L, "KP" + point);
+        }
+        distance.initDiscountArray(0);
+        return distance;
+    }
+
+    /**
+     * Generate teams with MEMBERS_N members in each team.
+     *
+     * @return New teams
+     */
+    Teams teams() {
+        final Teams teams = new Teams(mTeamsN);
+        final long[] ids = new long[MEMBERS_N];
+        final String[] names = new String[MEMBERS_N];
+        final String[] phones = new String[MEMBERS_N];
+        for (int team = 1; team <= mTeamsN; team++) {
+            for (int i = 0; i < MEMBERS_N; i++) {
+                ids[i] = (long) team * MEMBERS_N + i;
+                names[i] = "Member " + ids[i];
+                phones[i] = "";
+            }
+            teams.addTeam(team, 1, "Team " + team, MEMBERS_N, ids, names, phones);
+        }
+        return teams;
+    }
+
+    /**
+     * Generate one punch of a team at a control point.
+     *
+     * @param team  Team number
+     * @param point Control point number
+     * @param time  Punch time
+     * @param mask  Team members mask
+     * @return New record
+     */
+    static Record punch(final int team, final int point, final long time, final int mask) {
+        return new Record(stationMAC(point), time, 0, point, StationAPI.MODE_OTHER_POINT,
+                TIME_START - 3600L, team, mask, point, time, Record.STATUS_SAVED);
+    }
+
+    /**
+     * Generate punches of all teams at all points in order of time.
+     *
+     * @return New records list (teams × points × punch ratio records)
+     */
+    Records punches() {
+        final Records records = new Records(TIME_DOWNLOADED);
+        for (final Record record : punchesList()) {
+            records.addRecord(record);
+        }
+        return records;
+    }
+
+    /**
+     * Generate punches of all teams at all points as a list.
+     *
+     * @return List of records sorted by point time
+     */
+    List<Record> punchesList() {
+        final List<Record> list = new ArrayList<>();
+        for (int team = 1; team <= mTeamsN; team++) {
+            long time = TIME_START + mRandom.nextInt(3600);
+            for (int point = 1; point <= mPointsN; point++) {
+                time += 600 + mRandom.nextInt(3600);
+                if (mRandom.nextDouble() < mPunchRatio) {
+                    list.add(punch(team, point, time, 7));
+                }
+            }
+        }
+        list.sort(Record::compareTo);
+        return list;
+    }
+
+    /**
+     * Generate records which would be received from a site or another device:
+     * a mix of duplicates, changed (later) punches and new punches.
+     *
+     * @param base     Records already present in the device
+     * @param newRatio Part of new punches in the result (0..1)
+     * @return New records list of the same size as base
+     */
+    Records update(final Records base, final double newRatio) {
+        final Records records = new Records(TIME_DOWNLOADED);
+        for (int i = 0; i < base.size(); i++) {
+            final Record record = base.getRecord(i);
+            final double kind = mRandom.nextDouble();
+            if (kind < newRatio) {
+                // Punch of the same team at point which is absent in the base
+                records.addRecord(punch(record.mTeamNumber, mPointsN + 1 + mRandom.nextInt(mPointsN),
+                        record.mPointTime, record.mTeamMask));
+            } else if (kind < newRatio * 2) {
+                // Same punch with changed mask
+                records.addRecord(punch(record.mTeamNumber, record.mPointNumber, record.mPointTime + 1,
+                        record.mTeamMask & 3));
+            } else {
+                records.addRecord(record);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Generate random list of punched points of one team.
+     *
+     * @return Sorted list of points numbers
+     */
+    List<Integer> punchedPoints() {
+        final List<Integer> points = new ArrayList<>();
+        for (int point = 1; point <= mPointsN; point++) {
+            if (mRandom.nextDouble() < mPunchRatio) points.add(point);
+        }
+        return points;
+    }
+}
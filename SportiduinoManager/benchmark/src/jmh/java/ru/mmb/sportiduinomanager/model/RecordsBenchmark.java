@@ -0,0 +1,154 @@
+package ru.mmb.sportiduinomanager.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of records list operations on synthetic raids.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RecordsBenchmark {
+    /**
+     * Number of teams in the raid.
+     */
+    @Param({"100", "1000", "5000"})
+    public int teams;
+    /**
+     * Number of control points in the raid.
+     */
+    @Param({"20"})
+    public int points;
+
+    /**
+     * Records already present in the device.
+     */
+    private Records mBase;
+    /**
+     * Records received from site or other device.
+     */
+    private Records mUpdate;
+    /**
+     * Records in unsorted order.
+     */
+    private List<Record> mShuffled;
+    /**
+     * Control point for station queries.
+     */
+    private int mPoint;
+    /**
+     * Team for chip queries.
+     */
+    private int mTeam;
+
+    /**
+     * Generate raid data.
+     */
+    @Setup(Level.Trial)
+    public void generate() {
+        final RaidGenerator generator = new RaidGenerator(teams, points, 0.9, 42);
+        mBase = generator.punches();
+        mUpdate = generator.update(mBase, 0.1);
+        mShuffled = generator.punchesList();
+        Collections.shuffle(mShuffled, new Random(42));
+        mPoint = points / 2;
+        mTeam = teams / 2;
+    }
+
+    /**
+     * Make a copy of records list.
+     *
+     * @param source Records to copy
+     * @return New records list with the same records
+     */
+    private static Records copy(final Records source) {
+        final Records copy = new Records(RaidGenerator.TIME_DOWNLOADED);
+        for (int i = 0; i < source.size(); i++) {
+            copy.addRecord(source.getRecord(i));
+        }
+        return copy;
+    }
+
+    /**
+     * Loose merge of received records (with copying of base list).
+     *
+     * @return Merged records
+     */
+    @Benchmark
+    public Records merge() {
+        final Records records = copy(mBase);
+        records.merge(mUpdate);
+        return records;
+    }
+
+    /**
+     * Strict join of received records (with copying of base list).
+     *
+     * @return Joined records
+     */
+    @Benchmark
+    public Records join() {
+        final Records records = copy(mBase);
+        records.join(mUpdate);
+        return records;
+    }
+
+    /**
+     * Copying of base list only, baseline for merge and join.
+     *
+     * @return Copy of base records
+     */
+    @Benchmark
+    public Records copyBaseline() {
+        return copy(mBase);
+    }
+
+    /**
+     * Filtering of punches at one station.
+     *
+     * @return Punches at the station
+     */
+    @Benchmark
+    public Records getPunchesAtStation() {
+        return mBase.getPunchesAtStation(mPoint, RaidGenerator.stationMAC(mPoint));
+    }
+
+    /**
+     * Getting all punches of one chip.
+     *
+     * @return List of punched points
+     */
+    @Benchmark
+    public List<Integer> getChipPunches() {
+        return mBase.getChipPunches(mTeam, RaidGenerator.TIME_START - 3600L, mPoint,
+                RaidGenerator.stationMAC(mPoint), points);
+    }
+
+    /**
+     * Sorting of unsorted records list.
+     *
+     * @return Sorted records
+     */
+    @Benchmark
+    public Records sort() {
+        final Records records = new Records(RaidGenerator.TIME_DOWNLOADED);
+        for (final Record record : mShuffled) {
+            records.addRecord(record);
+        }
+        records.sort();
+        return records;
+    }
+}
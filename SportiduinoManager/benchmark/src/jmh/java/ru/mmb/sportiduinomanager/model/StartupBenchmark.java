@@ -0,0 +1,102 @@
+package ru.mmb.sportiduinomanager.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of application startup: records journal replay and distance snapshot loading.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StartupBenchmark {
+    /**
+     * Local database structure version written to snapshot.
+     */
+    private static final int DB_VERSION = 1;
+
+    /**
+     * Number of teams in the raid, 6000 teams give about 108k records at 20 points.
+     */
+    @Param({"1000", "5000", "6000"})
+    public int teams;
+    /**
+     * Number of control points in the raid.
+     */
+    @Param({"20"})
+    public int points;
+
+    /**
+     * Temporary folder for journal and snapshot.
+     */
+    private File mFolder;
+    /**
+     * Opened journal with all records.
+     */
+    private RecordsJournal mJournal;
+
+    /**
+     * Write journal and snapshot of synthetic raid.
+     *
+     * @throws IOException Thrown when temporary files can't be written
+     */
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        mFolder = Files.createTempDirectory("sportiduino").toFile();
+        final RaidGenerator generator = new RaidGenerator(teams, points, 0.9, 42);
+        mJournal = new RecordsJournal(mFolder);
+        mJournal.rebuild(generator.punches());
+        Snapshot.write(mFolder, DB_VERSION, generator.distance(), generator.teams());
+    }
+
+    /**
+     * Remove temporary files.
+     */
+    @TearDown(Level.Trial)
+    public void cleanup() {
+        mJournal.close();
+        final File[] files = mFolder.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                if (!file.delete()) file.deleteOnExit();
+            }
+        }
+        if (!mFolder.delete()) mFolder.deleteOnExit();
+    }
+
+    /**
+     * Restoring of all records from the journal.
+     *
+     * @return Restored records
+     */
+    @Benchmark
+    public Records replayJournal() {
+        return mJournal.replay(RaidGenerator.TIME_DOWNLOADED);
+    }
+
+    /**
+     * Loading distance and teams from the snapshot and reading one team.
+     *
+     * @return Name of the last team
+     */
+    @Benchmark
+    public String openSnapshot() {
+        final Snapshot snapshot = Snapshot.open(mFolder, DB_VERSION);
+        if (snapshot == null) return null;
+        snapshot.loadDistance("Init");
+        return snapshot.loadTeams().getTeamName(teams);
+    }
+}
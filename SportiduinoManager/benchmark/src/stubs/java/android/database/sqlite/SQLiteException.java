@@ -0,0 +1,20 @@
+package android.database.sqlite;
+
+/**
+ * JVM stub of Android SQLite exception.
+ */
+public class SQLiteException extends RuntimeException {
+    /**
+     * Serialization version.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create exception with a message.
+     *
+     * @param error Error message
+     */
+    public SQLiteException(final String error) {
+        super(error);
+    }
+}
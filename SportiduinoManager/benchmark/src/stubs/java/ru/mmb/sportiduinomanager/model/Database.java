@@ -0,0 +1,17 @@
+package ru.mmb.sportiduinomanager.model;
+
+import java.util.List;
+
+/**
+ * JVM stub of local database which discards all records.
+ */
+public class Database {
+    /**
+     * Pretend to save records to local database.
+     *
+     * @param records List of records to save
+     */
+    void saveRecords(final List<Record> records) {
+        // Nothing to save in benchmarks
+    }
+}
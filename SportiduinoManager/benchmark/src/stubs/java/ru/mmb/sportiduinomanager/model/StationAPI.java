@@ -0,0 +1,90 @@
+package ru.mmb.sportiduinomanager.model;
+
+/**
+ * JVM stub of Bluetooth station with constant parameters.
+ */
+public class StationAPI {
+    /**
+     * Station mode for chip initialization.
+     */
+    public static final int MODE_INIT_CHIPS = 0;
+    /**
+     * Station mode for an ordinary control point.
+     */
+    public static final int MODE_OTHER_POINT = 1;
+    /**
+     * Station mode for control point with finish.
+     */
+    public static final int MODE_FINISH_POINT = 2;
+
+    /**
+     * Station MAC address.
+     */
+    private final long mMAC;
+    /**
+     * Station number.
+     */
+    private final int mNumber;
+    /**
+     * Station mode.
+     */
+    private final int mMode;
+
+    /**
+     * Create station stub.
+     *
+     * @param mac    Station MAC address as long
+     * @param number Station number
+     * @param mode   Station mode
+     */
+    public StationAPI(final long mac, final int number, final int mode) {
+        mMAC = mac;
+        mNumber = number;
+        mMode = mode;
+    }
+
+    /**
+     * Get station MAC as long.
+     *
+     * @return Station MAC
+     */
+    public long getMACasLong() {
+        return mMAC;
+    }
+
+    /**
+     * Get station time (current time in benchmarks).
+     *
+     * @return Unixtime
+     */
+    public long getStationTime() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    /**
+     * Get station time drift.
+     *
+     * @return Always zero
+     */
+    public int getTimeDrift() {
+        return 0;
+    }
+
+    /**
+     * Get station number.
+     *
+     * @return Station number
+     */
+    public int getNumber() {
+        return mNumber;
+    }
+
+    /**
+     * Get station mode.
+     *
+     * @return Station mode
+     */
+    public int getMode() {
+        return mMode;
+    }
+}
@@ -2,7 +2,6 @@ package ru.mmb.datacollector.activity.input.bclogger.dataload;
 
 import android.util.Log;
 
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
@@ -14,10 +13,11 @@ import ru.mmb.datacollector.model.Team;
 import ru.mmb.datacollector.model.registry.ScanPointsRegistry;
 import ru.mmb.datacollector.model.registry.Settings;
 import ru.mmb.datacollector.model.registry.TeamsRegistry;
+import ru.mmb.datacollector.util.DateCodec;
 import ru.mmb.datacollector.util.DateUtils;
 
 public class LogStringParsingResult {
-    private static final SimpleDateFormat sdf = new SimpleDateFormat("HH:mm:ss, yyyy/MM/dd");
+    private static final DateCodec sdf = new DateCodec("HH:mm:ss, yyyy/MM/dd");
 
     private final String source;
 
@@ -3,7 +3,6 @@ package ru.mmb.datacollector.activity.input.bclogger.dataload;
 import android.database.sqlite.SQLiteDatabase;
 import android.util.Log;
 
-import java.text.SimpleDateFormat;
 import java.util.Date;
 
 import ru.mmb.datacollector.db.SQLiteDatabaseAdapter;
@@ -13,11 +12,12 @@ import ru.mmb.datacollector.model.ScanPoint;
 import ru.mmb.datacollector.model.Team;
 import ru.mmb.datacollector.model.registry.TeamsRegistry;
 import ru.mmb.datacollector.transport.importer.Importer;
+import ru.mmb.datacollector.util.DateCodec;
 import ru.mmb.datacollector.util.DateUtils;
 
 public class LoggerDataSaver {
-    private static final SimpleDateFormat sdf = new SimpleDateFormat("HH:mm:ss, yyyy/MM/dd");
-    private static final SimpleDateFormat prettyFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+    private static final DateCodec sdf = new DateCodec("HH:mm:ss, yyyy/MM/dd");
+    private static final DateCodec prettyFormat = new DateCodec("yyyy-MM-dd HH:mm");
 
     private final LoggerDataProcessor owner;
     private final SQLiteDatabase db;
@@ -190,7 +190,7 @@ public class InputDataActivityState extends ActivityStateWithTeamAndScanPoint {
 
     public void saveInputDataToDB(Date recordDateTime) {
         SQLiteDatabaseAdapter dbAdapter = SQLiteDatabaseAdapter.getConnectedInstance();
-        dbAdapter.saveRawTeamLevelPoints(getCurrentScanPoint(), getCurrentTeam(), checkedState.getTakenCheckpointsRawText(), recordDateTime);
+        dbAdapter.saveRawTeamLevelPoints(getCurrentScanPoint(), getCurrentTeam(), checkedState.getTakenCheckpointsRawText(), recordDateTime.getTime());
         if (prevDateTime != null && !prevDateTime.equals(inputDate)) {
             dbAdapter.saveRawLoggerDataManual(getCurrentScanPoint(), getCurrentTeam(), inputDate.toDate(), recordDateTime);
         }
@@ -200,7 +200,7 @@ public class InputDataActivityState extends ActivityStateWithTeamAndScanPoint {
 
     public void putTeamLevelPointToDataStorage(Date recordDateTime) {
         RawTeamLevelPoints rawTeamLevelPoints =
-                new RawTeamLevelPoints(getCurrentTeam().getTeamId(), Settings.getInstance().getUserId(), Settings.getInstance().getDeviceId(), getCurrentScanPoint().getScanPointId(), checkedState.getTakenCheckpointsRawText(), recordDateTime);
+                new RawTeamLevelPoints(getCurrentTeam().getTeamId(), Settings.getInstance().getUserId(), Settings.getInstance().getDeviceId(), getCurrentScanPoint().getScanPointId(), checkedState.getTakenCheckpointsRawText(), recordDateTime.getTime());
         rawTeamLevelPoints.setTeam(getCurrentTeam());
         rawTeamLevelPoints.setScanPoint(getCurrentScanPoint());
         rawTeamLevelPoints.initTakenCheckpoints();
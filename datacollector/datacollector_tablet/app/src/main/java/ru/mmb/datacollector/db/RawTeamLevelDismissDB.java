@@ -28,6 +28,7 @@ public class RawTeamLevelDismissDB {
     private static final String TEAM_ID = "team_id";
     private static final String TEAMUSER_ID = "teamuser_id";
     private static final String DISMISS_DATE = "rawteamleveldismiss_date";
+    private static final String DISMISS_TIME = SchemaUpdater.RAWTEAMLEVELDISMISS_TIME;
     private static final String SCANPOINT_ORDER = "scanpoint_order";
 
     private static final String TEMPLATE_TEAMUSER_ID = "%teamuser_id%";
@@ -105,7 +106,7 @@ public class RawTeamLevelDismissDB {
 
     public List<RawTeamLevelDismiss> loadDismissedMembers(ScanPoint scanPoint) {
         String sql =
-                "select distinct d." + DISMISS_DATE + ", d." + TEAM_ID + ", d." + TEAMUSER_ID +
+                "select distinct d." + DISMISS_TIME + ", d." + TEAM_ID + ", d." + TEAMUSER_ID +
                         ", sp." + SCANPOINT_ORDER + " from " + TABLE_RAW_TEAM_LEVEL_DISMISS +
                         " as d join " + TABLE_SCANPOINTS + " as sp on (d." + SCANPOINT_ID + " = sp." +
                         SCANPOINT_ID + ") where sp." + SCANPOINT_ORDER + " <= " +
@@ -115,7 +116,7 @@ public class RawTeamLevelDismissDB {
 
     public List<RawTeamLevelDismiss> loadDismissedMembers(ScanPoint scanPoint, Team team) {
         String sql =
-                "select distinct d." + DISMISS_DATE + ", d." + TEAM_ID + ", d." + TEAMUSER_ID +
+                "select distinct d." + DISMISS_TIME + ", d." + TEAM_ID + ", d." + TEAMUSER_ID +
                         ", sp." + SCANPOINT_ORDER + " from " + TABLE_RAW_TEAM_LEVEL_DISMISS +
                         " as d join " + TABLE_SCANPOINTS + " as sp on (d." + SCANPOINT_ID + " = sp." +
                         SCANPOINT_ID + ") where sp." + SCANPOINT_ORDER + " <= " +
@@ -129,13 +130,13 @@ public class RawTeamLevelDismissDB {
 
         resultCursor.moveToFirst();
         while (!resultCursor.isAfterLast()) {
-            Date recordDateTime = DateFormat.parse(resultCursor.getString(0));
+            long recordTime = DateFormat.fromDBTime(resultCursor.getLong(0));
             int teamId = resultCursor.getInt(1);
             int teamUserId = resultCursor.getInt(2);
             int dbScanPointOrder = resultCursor.getInt(3);
             if (isDBScanPointEarlier(scanPoint, dbScanPointOrder)) {
                 RawTeamLevelDismiss teamDismiss =
-                        new RawTeamLevelDismiss(scanPoint.getScanPointId(), teamId, teamUserId, recordDateTime);
+                        new RawTeamLevelDismiss(scanPoint.getScanPointId(), teamId, teamUserId, recordTime);
                 // init reference fields
                 teamDismiss.setScanPoint(scanPoint);
                 teamDismiss.setTeam(TeamsRegistry.getInstance().getTeamById(teamId));
@@ -168,7 +169,7 @@ public class RawTeamLevelDismissDB {
         List<RawTeamLevelDismiss> result = new ArrayList<RawTeamLevelDismiss>();
         int deviceId = Settings.getInstance().getDeviceId();
         String sql =
-                "select distinct d." + USER_ID + ", d." + DISMISS_DATE + ", d." + TEAM_ID + ", d." + TEAMUSER_ID +
+                "select distinct d." + USER_ID + ", d." + DISMISS_TIME + ", d." + TEAM_ID + ", d." + TEAMUSER_ID +
                         ", d." + SCANPOINT_ID + " from " + TABLE_RAW_TEAM_LEVEL_DISMISS +
                         " as d where d." + DEVICE_ID + " = " + deviceId;
         Cursor resultCursor = db.rawQuery(sql, null);
@@ -176,12 +177,12 @@ public class RawTeamLevelDismissDB {
         resultCursor.moveToFirst();
         while (!resultCursor.isAfterLast()) {
             int userId = resultCursor.getInt(0);
-            Date recordDateTime = DateFormat.parse(resultCursor.getString(1));
+            long recordTime = DateFormat.fromDBTime(resultCursor.getLong(1));
             int teamId = resultCursor.getInt(2);
             int teamUserId = resultCursor.getInt(3);
             int scanPointId = resultCursor.getInt(4);
             RawTeamLevelDismiss teamDismiss =
-                    new RawTeamLevelDismiss(userId, deviceId, scanPointId, teamId, teamUserId, recordDateTime);
+                    new RawTeamLevelDismiss(userId, deviceId, scanPointId, teamId, teamUserId, recordTime);
             // init reference fields
             teamDismiss.setScanPoint(ScanPointsRegistry.getInstance().getScanPointById(scanPointId));
             teamDismiss.setTeam(TeamsRegistry.getInstance().getTeamById(teamId));
@@ -26,6 +26,7 @@ public class RawTeamLevelPointsDB {
     private static final String TEAM_ID = "team_id";
     private static final String RAWTEAMLEVELPOINTS_POINTS = "rawteamlevelpoints_points";
     private static final String RAWTEAMLEVELPOINTS_DATE = "rawteamlevelpoints_date";
+    private static final String RAWTEAMLEVELPOINTS_TIME = SchemaUpdater.RAWTEAMLEVELPOINTS_TIME;
 
     private final SQLiteDatabase db;
 
@@ -36,7 +37,7 @@ public class RawTeamLevelPointsDB {
     public RawTeamLevelPointsRecord getExistingTeamResultRecord(ScanPoint scanPoint, Team team) {
         RawTeamLevelPointsRecord result = null;
         String sql =
-                "select " + RAWTEAMLEVELPOINTS_DATE + ", " + RAWTEAMLEVELPOINTS_POINTS + " from " +
+                "select " + RAWTEAMLEVELPOINTS_TIME + ", " + RAWTEAMLEVELPOINTS_POINTS + " from " +
                         TABLE_RAW_TEAM_LEVEL_POINTS + " where " + SCANPOINT_ID + " = " +
                         scanPoint.getScanPointId() + " and " + TEAM_ID + " = " + team.getTeamId();
         Cursor resultCursor = db.rawQuery(sql, null);
@@ -48,9 +49,9 @@ public class RawTeamLevelPointsDB {
 
         List<RawTeamLevelPointsRecord> records = new ArrayList<RawTeamLevelPointsRecord>();
         while (!resultCursor.isAfterLast()) {
-            String recordDateTime = resultCursor.getString(0);
+            long recordTime = DateFormat.fromDBTime(resultCursor.getLong(0));
             String takenCheckpoints = replaceNullWithEmptyString(resultCursor.getString(1));
-            records.add(new RawTeamLevelPointsRecord(recordDateTime, takenCheckpoints, scanPoint, team));
+            records.add(new RawTeamLevelPointsRecord(recordTime, takenCheckpoints, scanPoint, team));
             resultCursor.moveToNext();
         }
         resultCursor.close();
@@ -65,7 +66,7 @@ public class RawTeamLevelPointsDB {
         List<RawTeamLevelPoints> result = new ArrayList<RawTeamLevelPoints>();
         String sql =
                 "select " + USER_ID + ", " + DEVICE_ID + ", " + TEAM_ID
-                        + ", " + RAWTEAMLEVELPOINTS_DATE + ", " + RAWTEAMLEVELPOINTS_POINTS + " from "
+                        + ", " + RAWTEAMLEVELPOINTS_TIME + ", " + RAWTEAMLEVELPOINTS_POINTS + " from "
                         + TABLE_RAW_TEAM_LEVEL_POINTS + " where " + SCANPOINT_ID + " = "
                         + scanPoint.getScanPointId();
         Cursor resultCursor = db.rawQuery(sql, null);
@@ -75,11 +76,11 @@ public class RawTeamLevelPointsDB {
             Integer userId = resultCursor.getInt(0);
             Integer deviceId = resultCursor.getInt(1);
             Integer teamId = resultCursor.getInt(2);
-            Date recordDateTime = DateFormat.parse(resultCursor.getString(3));
+            long recordTime = DateFormat.fromDBTime(resultCursor.getLong(3));
             String takenCheckpointNames = replaceNullWithEmptyString(resultCursor.getString(4));
 
             RawTeamLevelPoints rawTeamLevelPoints =
-                    new RawTeamLevelPoints(teamId, userId, deviceId, scanPoint.getScanPointId(), takenCheckpointNames, recordDateTime);
+                    new RawTeamLevelPoints(teamId, userId, deviceId, scanPoint.getScanPointId(), takenCheckpointNames, recordTime);
             // init reference fields
             rawTeamLevelPoints.setScanPoint(scanPoint);
             rawTeamLevelPoints.setTeam(TeamsRegistry.getInstance().getTeamById(teamId));
@@ -168,9 +169,9 @@ public class RawTeamLevelPointsDB {
         List<RawTeamLevelPoints> result = new ArrayList<RawTeamLevelPoints>();
         int deviceId = Settings.getInstance().getDeviceId();
         String sql =
-                "select " + USER_ID + ", " + TEAM_ID + ", " + SCANPOINT_ID + ", " + RAWTEAMLEVELPOINTS_DATE
+                "select " + USER_ID + ", " + TEAM_ID + ", " + SCANPOINT_ID + ", " + RAWTEAMLEVELPOINTS_TIME
                         + ", " + RAWTEAMLEVELPOINTS_POINTS + " from " + TABLE_RAW_TEAM_LEVEL_POINTS
-                        + " where " + DEVICE_ID + " = " + deviceId + " order by " + RAWTEAMLEVELPOINTS_DATE;
+                        + " where " + DEVICE_ID + " = " + deviceId + " order by " + RAWTEAMLEVELPOINTS_TIME;
         Cursor resultCursor = db.rawQuery(sql, null);
 
         resultCursor.moveToFirst();
@@ -178,11 +179,11 @@ public class RawTeamLevelPointsDB {
             int userId = resultCursor.getInt(0);
             int teamId = resultCursor.getInt(1);
             int scanPointId = resultCursor.getInt(2);
-            Date recordDateTime = DateFormat.parse(resultCursor.getString(3));
+            long recordTime = DateFormat.fromDBTime(resultCursor.getLong(3));
             String takenCheckpointNames = replaceNullWithEmptyString(resultCursor.getString(4));
 
             RawTeamLevelPoints rawTeamLevelPoints =
-                    new RawTeamLevelPoints(teamId, userId, deviceId, scanPointId, takenCheckpointNames, recordDateTime);
+                    new RawTeamLevelPoints(teamId, userId, deviceId, scanPointId, takenCheckpointNames, recordTime);
             // init reference fields
             rawTeamLevelPoints.setScanPoint(ScanPointsRegistry.getInstance().getScanPointById(scanPointId));
             rawTeamLevelPoints.setTeam(TeamsRegistry.getInstance().getTeamById(teamId));
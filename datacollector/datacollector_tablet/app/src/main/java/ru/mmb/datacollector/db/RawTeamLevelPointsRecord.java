@@ -1,7 +1,6 @@
 package ru.mmb.datacollector.db;
 
 import java.util.Collections;
-import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -9,16 +8,15 @@ import ru.mmb.datacollector.model.Checkpoint;
 import ru.mmb.datacollector.model.LevelPoint;
 import ru.mmb.datacollector.model.ScanPoint;
 import ru.mmb.datacollector.model.Team;
-import ru.mmb.datacollector.util.DateFormat;
 
 public class RawTeamLevelPointsRecord implements Comparable<RawTeamLevelPointsRecord>
 {
-	private final Date recordDateTime;
+	private final long recordTime;
 	private final Map<Integer, Boolean> checkedMap = new LinkedHashMap<Integer, Boolean>();
 
-	public RawTeamLevelPointsRecord(String recordDateTime, String takenCheckpoints, ScanPoint scanPoint, Team team)
+	public RawTeamLevelPointsRecord(long recordTime, String takenCheckpoints, ScanPoint scanPoint, Team team)
 	{
-		this.recordDateTime = DateFormat.parse(recordDateTime);
+		this.recordTime = recordTime;
         LevelPoint levelPoint = scanPoint.getLevelPointByDistance(team.getDistanceId());
 		if (levelPoint.getPointType().isFinish())
 		{
@@ -55,6 +53,7 @@ public class RawTeamLevelPointsRecord implements Comparable<RawTeamLevelPointsRe
 	@Override
 	public int compareTo(RawTeamLevelPointsRecord toCompare)
 	{
-		return this.recordDateTime.compareTo(toCompare.recordDateTime);
+		if (recordTime == toCompare.recordTime) return 0;
+		return (recordTime < toCompare.recordTime) ? -1 : 1;
 	}
 }
@@ -62,6 +62,7 @@ public class SQLiteDatabaseAdapter {
             db = SQLiteDatabase.openDatabase(Settings.getInstance().getPathToDB(), null, SQLiteDatabase.OPEN_READWRITE);
             // Log.d("SQLiteDatabaseAdapter", "db open " + Settings.getInstance().getPathToDB());
             performTestQuery();
+            new SchemaUpdater(db).update();
             // Log.d("SQLiteDatabaseAdapter", "db open SUCCESS");
             distancesDB = new DistancesDB(db);
             scanPointsDB = new ScanPointsDB(db);
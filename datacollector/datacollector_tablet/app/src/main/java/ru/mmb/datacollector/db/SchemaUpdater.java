@@ -0,0 +1,62 @@
+package ru.mmb.datacollector.db;
+
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * Brings structure of datacollector database to the version expected by the code.
+ * Database version is kept in PRAGMA user_version, shipped databases have version 0.
+ */
+public class SchemaUpdater {
+    public static final int VERSION_EPOCH_TIMES = 1;
+    public static final int SCHEMA_VERSION = VERSION_EPOCH_TIMES;
+
+    public static final String RAWTEAMLEVELPOINTS_TIME = "rawteamlevelpoints_time";
+    public static final String RAWTEAMLEVELDISMISS_TIME = "rawteamleveldismiss_time";
+
+    private final SQLiteDatabase db;
+
+    public SchemaUpdater(SQLiteDatabase db) {
+        this.db = db;
+    }
+
+    public void update() {
+        if (db.getVersion() >= SCHEMA_VERSION) return;
+
+        db.beginTransaction();
+        try {
+            if (db.getVersion() < VERSION_EPOCH_TIMES) {
+                addTimeColumn("RawTeamLevelPoints", "rawteamlevelpoints_date", RAWTEAMLEVELPOINTS_TIME);
+                addTimeColumn("RawTeamLevelDismiss", "rawteamleveldismiss_date", RAWTEAMLEVELDISMISS_TIME);
+            }
+            db.setVersion(SCHEMA_VERSION);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Adds indexed INTEGER copy of yyyyMMddHHmm text column.
+     * Text column stays the source of truth for transport, triggers keep the copy in sync.
+     */
+    private void addTimeColumn(String tableName, String dateColumn, String timeColumn) {
+        db.execSQL("alter table " + tableName + " add column " + timeColumn + " INTEGER");
+        db.execSQL("create index IDX_" + timeColumn + " on " + tableName + " (" + timeColumn + ")");
+        db.execSQL("update " + tableName + " set " + timeColumn + " = " + toDBTimeSQL(dateColumn));
+
+        String triggerBody = " begin update " + tableName + " set " + timeColumn + " = " +
+                toDBTimeSQL("new." + dateColumn) + " where rowid = new.rowid; end";
+        db.execSQL("create trigger TRG_" + tableName + "_time_insert after insert on " + tableName + triggerBody);
+        db.execSQL("create trigger TRG_" + tableName + "_time_update after update of " + dateColumn +
+                " on " + tableName + triggerBody);
+    }
+
+    /**
+     * Same value as DateFormat.toDBTime for the date text, see DateFormat.
+     */
+    private static String toDBTimeSQL(String dateColumn) {
+        return "cast(strftime('%s', substr(" + dateColumn + ", 1, 4) || '-' || substr(" + dateColumn +
+                ", 5, 2) || '-' || substr(" + dateColumn + ", 7, 2) || ' ' || substr(" + dateColumn +
+                ", 9, 2) || ':' || substr(" + dateColumn + ", 11, 2)) as integer) / 60";
+    }
+}
@@ -8,24 +8,24 @@ public class RawTeamLevelDismiss {
 	private final int scanPointId;
 	private final int teamId;
 	private final int teamUserId;
-	private final Date recordDateTime;
+	private final long recordTime;
 
 	private ScanPoint scanPoint = null;
 	private Team team = null;
 	private User teamUser = null;
 
-	public RawTeamLevelDismiss(int scanPointId, int teamId, int teamUserId, Date recordDateTime) {
-		this(0, 0, scanPointId, teamId, teamUserId, recordDateTime);
+	public RawTeamLevelDismiss(int scanPointId, int teamId, int teamUserId, long recordTime) {
+		this(0, 0, scanPointId, teamId, teamUserId, recordTime);
 	}
 
 	public RawTeamLevelDismiss(int userId, int deviceId, int scanPointId, int teamId, int teamUserId,
-			Date recordDateTime) {
+			long recordTime) {
 		this.userId = userId;
 		this.deviceId = deviceId;
 		this.scanPointId = scanPointId;
 		this.teamId = teamId;
 		this.teamUserId = teamUserId;
-		this.recordDateTime = recordDateTime;
+		this.recordTime = recordTime;
 	}
 
 	public ScanPoint getScanPoint() {
@@ -64,8 +64,12 @@ public class RawTeamLevelDismiss {
 		return teamUserId;
 	}
 
+	public long getRecordTime() {
+		return recordTime;
+	}
+
 	public Date getRecordDateTime() {
-		return recordDateTime;
+		return new Date(recordTime);
 	}
 
 	public int getUserId() {
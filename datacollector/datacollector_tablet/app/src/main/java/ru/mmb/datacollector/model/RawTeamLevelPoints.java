@@ -12,7 +12,7 @@ public class RawTeamLevelPoints implements Comparable<RawTeamLevelPoints> {
     private final int deviceId;
     private final int scanPointId;
     private final String takenCheckpointNames;
-    private final Date recordDateTime;
+    private final long recordTime;
 
     private Team team = null;
     private ScanPoint scanPoint = null;
@@ -23,13 +23,13 @@ public class RawTeamLevelPoints implements Comparable<RawTeamLevelPoints> {
     private String missedCheckpointsText;
     private String takenCheckpointsText;
 
-    public RawTeamLevelPoints(int teamId, int userId, int deviceId, int scanPointId, String takenCheckpointNames, Date recordDateTime) {
+    public RawTeamLevelPoints(int teamId, int userId, int deviceId, int scanPointId, String takenCheckpointNames, long recordTime) {
         this.teamId = teamId;
         this.userId = userId;
         this.deviceId = deviceId;
         this.scanPointId = scanPointId;
         this.takenCheckpointNames = takenCheckpointNames;
-        this.recordDateTime = recordDateTime;
+        this.recordTime = recordTime;
     }
 
     public Team getTeam() {
@@ -56,8 +56,12 @@ public class RawTeamLevelPoints implements Comparable<RawTeamLevelPoints> {
         return takenCheckpoints;
     }
 
+    public long getRecordTime() {
+        return recordTime;
+    }
+
     public Date getRecordDateTime() {
-        return recordDateTime;
+        return new Date(recordTime);
     }
 
     public ScanPoint getScanPoint() {
@@ -111,7 +115,8 @@ public class RawTeamLevelPoints implements Comparable<RawTeamLevelPoints> {
 
     @Override
     public int compareTo(RawTeamLevelPoints another) {
-        int result = recordDateTime.compareTo(another.recordDateTime);
+        int result = 0;
+        if (recordTime != another.recordTime) result = (recordTime < another.recordTime) ? -1 : 1;
         if (result == 0) {
             result = (new Integer(userId)).compareTo(new Integer(another.userId));
         }
@@ -130,7 +135,7 @@ public class RawTeamLevelPoints implements Comparable<RawTeamLevelPoints> {
         return "TeamLevelPoint [teamId=" + teamId + ", userId=" + userId + ", deviceId=" + deviceId
                 + ", scanPointId=" + scanPointId + ", takenCheckpointNames="
                 + takenCheckpointNames + ", recordDateTime="
-                + recordDateTime + ", takenCheckpoints=" + takenCheckpoints
+                + getRecordDateTime() + ", takenCheckpoints=" + takenCheckpoints
                 + ", takenCheckpointsText=" + takenCheckpointsText + "]";
     }
 }
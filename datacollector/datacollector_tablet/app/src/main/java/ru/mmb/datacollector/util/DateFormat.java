@@ -1,18 +1,31 @@
 package ru.mmb.datacollector.util;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 
 public class DateFormat
 {
-	private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("yyyyMMddHHmm");
+	private static final DateCodec DATE_FORMAT = new DateCodec("yyyyMMddHHmm");
 
 	public static String format(Date date)
 	{
 		return DATE_FORMAT.format(date);
 	}
 
+	/**
+	 * DB time is local time minutes since 1970-01-01 00:00, so it is ordered like date text
+	 * and can be computed from text by SQLite without time zone.
+	 */
+	public static long toDBTime(long millis)
+	{
+		return DATE_FORMAT.toWallMinutes(millis);
+	}
+
+	public static long fromDBTime(long dbTime)
+	{
+		return DATE_FORMAT.fromWallMinutes(dbTime);
+	}
+
 	public static Date parse(String dateString)
 	{
 		Date result;
@@ -1,15 +1,12 @@
 package ru.mmb.datacollector.util;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 
 public class TransportDateFormat
 {
-	private static final SimpleDateFormat TRANSP_DATE_FORMAT_SHORT =
-	    new SimpleDateFormat("yyyy-MM-dd");
-	private static final SimpleDateFormat TRANSP_DATE_FORMAT_LONG =
-	    new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+	private static final DateCodec TRANSP_DATE_FORMAT_SHORT = new DateCodec("yyyy-MM-dd");
+	private static final DateCodec TRANSP_DATE_FORMAT_LONG = new DateCodec("yyyy-MM-dd HH:mm:ss");
 
 	public static String formatShort(Date date)
 	{
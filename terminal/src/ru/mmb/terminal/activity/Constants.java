@@ -29,6 +29,8 @@ public class Constants
 	public static final String KEY_REPORT_GLOBAL_REPORT_MODE = "report.global.report.mode";
 	public static final String KEY_REPORT_GLOBAL_SELECTED_TEAMS = "report.global.selected.teams";
 	public static final String KEY_REPORT_GLOBAL_RESULT_MESSAGE = "report.global.result.message";
+	public static final String KEY_REPORT_GLOBAL_TEAMS_DONE = "report.global.teams.done";
+	public static final String KEY_REPORT_GLOBAL_TEAMS_TOTAL = "report.global.teams.total";
 
 	public static final int REQUEST_CODE_DEFAULT_ACTIVITY = -1;
 	public static final int REQUEST_CODE_MAIN_ACTIVITY = 1;
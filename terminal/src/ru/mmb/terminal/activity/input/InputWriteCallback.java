@@ -0,0 +1,46 @@
+package ru.mmb.terminal.activity.input;
+
+import ru.mmb.terminal.R;
+import ru.mmb.terminal.db.WriteCallback;
+import ru.mmb.terminal.model.Team;
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.widget.Toast;
+
+/**
+ * Input activity is already closed when queued write fails, so error is shown with application
+ * context.
+ */
+public class InputWriteCallback implements WriteCallback
+{
+	private final Context context;
+	private final Team team;
+
+	public InputWriteCallback(Context context, Team team)
+	{
+		this.context = context.getApplicationContext();
+		this.team = team;
+	}
+
+	@Override
+	public void onCommitted()
+	{
+	}
+
+	@Override
+	public void onFailed(final RuntimeException e)
+	{
+		new Handler(Looper.getMainLooper()).post(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				String message = context.getResources().getString(R.string.input_save_error);
+				message = message.replace("${teamNumber}", Integer.toString(team.getTeamNum()));
+				message = message.replace("${error}", String.valueOf(e.getMessage()));
+				Toast.makeText(context, message, Toast.LENGTH_LONG).show();
+			}
+		});
+	}
+}
@@ -115,7 +115,7 @@ public class InputDataActivity extends Activity implements StateChangeListener
 				Toast.makeText(InputDataActivity.this, message, Toast.LENGTH_LONG).show();
 				return;
 			}
-			currentState.saveInputDataToDB(recordDateTime);
+			currentState.saveInputDataToDB(InputDataActivity.this, recordDateTime);
 			currentState.putTeamLevelPointToDataStorage(recordDateTime);
 			setResult(RESULT_OK);
 			finish();
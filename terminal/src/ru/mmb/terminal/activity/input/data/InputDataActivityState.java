@@ -10,6 +10,7 @@ import java.util.Date;
 import ru.mmb.terminal.R;
 import ru.mmb.terminal.activity.ActivityStateWithTeamAndScanPoint;
 import ru.mmb.terminal.activity.LevelPointType;
+import ru.mmb.terminal.activity.input.InputWriteCallback;
 import ru.mmb.terminal.db.TeamResultRecord;
 import ru.mmb.terminal.db.TerminalDB;
 import ru.mmb.terminal.model.Checkpoint;
@@ -223,15 +224,18 @@ public class InputDataActivityState extends ActivityStateWithTeamAndScanPoint
 		fireStateChanged();
 	}
 
-	public void saveInputDataToDB(Date recordDateTime)
+	/**
+	 * Result is saved in background, errors are shown by InputWriteCallback.
+	 */
+	public void saveInputDataToDB(Activity context, Date recordDateTime)
 	{
-		TerminalDB.getConnectedInstance().saveTeamResult(getLevelPointForTeam(), getCurrentTeam(), inputDate.toDate(), checkedState.getTakenCheckpointsRawText(), recordDateTime);
+		TerminalDB.getConnectedInstance().queueTeamResult(getLevelPointForTeam(), getCurrentTeam(), inputDate.toDate(), checkedState.getTakenCheckpointsRawText(), recordDateTime, new InputWriteCallback(context, getCurrentTeam()));
 	}
 
 	public void putTeamLevelPointToDataStorage(Date recordDateTime)
 	{
 		TeamResult teamResult =
-		    new TeamResult(getCurrentTeam().getTeamId(), Settings.getInstance().getUserId(), Settings.getInstance().getDeviceId(), getCurrentScanPoint().getScanPointId(), checkedState.getTakenCheckpointsRawText(), inputDate.toDate(), recordDateTime);
+		    new TeamResult(getCurrentTeam().getTeamId(), Settings.getInstance().getUserId(), Settings.getInstance().getDeviceId(), getCurrentScanPoint().getScanPointId(), checkedState.getTakenCheckpointsRawText(), inputDate.toDate().getTime(), recordDateTime.getTime());
 		teamResult.setTeam(getCurrentTeam());
 		teamResult.setScanPoint(getCurrentScanPoint());
 		teamResult.initTakenCheckpoints();
@@ -3,9 +3,7 @@ package ru.mmb.terminal.activity.input.history;
 import static ru.mmb.terminal.activity.Constants.REQUEST_CODE_INPUT_DATA_ACTIVITY;
 import ru.mmb.terminal.R;
 import ru.mmb.terminal.activity.input.data.InputDataActivity;
-import ru.mmb.terminal.activity.input.history.list.DataProvider;
 import ru.mmb.terminal.activity.input.history.list.HistoryAdapter;
-import ru.mmb.terminal.activity.input.history.list.HistoryFilter;
 import ru.mmb.terminal.activity.input.history.list.HistoryListRecord;
 import ru.mmb.terminal.model.Team;
 import ru.mmb.terminal.model.history.DataStorage;
@@ -62,7 +60,7 @@ public class HistoryActivity extends Activity
 		dataStorage = DataStorage.getInstance(currentState.getCurrentScanPoint());
 
 		lvHistory = (ListView) findViewById(R.id.inputHistory_historyList);
-		historyAdapter = new HistoryAdapter(this, R.layout.input_history_row);
+		historyAdapter = new HistoryAdapter(this, dataStorage);
 		lvHistory.setAdapter(historyAdapter);
 
 		lvHistory.setOnItemLongClickListener(new LvHistoryItemLongClickListener());
@@ -74,8 +72,7 @@ public class HistoryActivity extends Activity
 
 	private void refreshHistory()
 	{
-		((HistoryFilter) historyAdapter.getFilter()).reset(DataProvider.getHistoryRecords(dataStorage));
-		historyAdapter.getFilter().filter("");
+		historyAdapter.notifyDataSetChanged();
 	}
 
 	private void clearSelectedTeam()
@@ -1,20 +1,44 @@
 package ru.mmb.terminal.activity.input.history.list;
 
 import ru.mmb.terminal.R;
+import ru.mmb.terminal.model.history.DataStorage;
 import android.content.Context;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.ArrayAdapter;
-import android.widget.Filter;
+import android.widget.BaseAdapter;
 import android.widget.TextView;
 
-public class HistoryAdapter extends ArrayAdapter<HistoryListRecord>
+/**
+ * Shows records of data storage history, records are requested from storage only when shown.
+ */
+public class HistoryAdapter extends BaseAdapter
 {
-	private HistoryFilter filter = null;
+	private final Context context;
+	private final DataStorage dataStorage;
 
-	public HistoryAdapter(Context context, int textViewResourceId)
+	public HistoryAdapter(Context context, DataStorage dataStorage)
 	{
-		super(context, textViewResourceId);
+		super();
+		this.context = context;
+		this.dataStorage = dataStorage;
+	}
+
+	@Override
+	public int getCount()
+	{
+		return dataStorage.getHistorySize();
+	}
+
+	@Override
+	public HistoryListRecord getItem(int position)
+	{
+		return new HistoryListRecord(dataStorage.getHistoryInfo(position));
+	}
+
+	@Override
+	public long getItemId(int position)
+	{
+		return position;
 	}
 
 	@Override
@@ -23,7 +47,7 @@ public class HistoryAdapter extends ArrayAdapter<HistoryListRecord>
 		View view = convertView;
 		if (view == null)
 		{
-			view = new HistoryRow(getContext());
+			view = new HistoryRow(context);
 		}
 		HistoryListRecord item = getItem(position);
 		if (item != null)
@@ -42,14 +66,4 @@ public class HistoryAdapter extends ArrayAdapter<HistoryListRecord>
 		}
 		return view;
 	}
-
-	@Override
-	public Filter getFilter()
-	{
-		if (filter == null)
-		{
-			filter = new HistoryFilter(this);
-		}
-		return filter;
-	}
 }
@@ -83,7 +83,7 @@ public class WithdrawMemberActivity extends Activity implements StateChangeListe
 		public void onClick(View v)
 		{
 			Date recordDateTime = new Date();
-			currentState.saveCurrWithdrawnToDB(recordDateTime);
+			currentState.saveCurrWithdrawnToDB(WithdrawMemberActivity.this, recordDateTime);
 			currentState.putCurrWithdrawnToDataStorage(recordDateTime);
 			setResult(RESULT_OK);
 			finish();
@@ -10,6 +10,7 @@ import java.util.List;
 
 import ru.mmb.terminal.R;
 import ru.mmb.terminal.activity.ActivityStateWithTeamAndScanPoint;
+import ru.mmb.terminal.activity.input.InputWriteCallback;
 import ru.mmb.terminal.activity.input.withdraw.list.TeamMemberRecord;
 import ru.mmb.terminal.db.TerminalDB;
 import ru.mmb.terminal.model.Participant;
@@ -167,9 +168,12 @@ public class WithdrawMemberActivityState extends ActivityStateWithTeamAndScanPoi
 		}
 	}
 
-	public void saveCurrWithdrawnToDB(Date recordDateTime)
+	/**
+	 * Members are saved in background, errors are shown by InputWriteCallback.
+	 */
+	public void saveCurrWithdrawnToDB(Activity context, Date recordDateTime)
 	{
-		TerminalDB.getConnectedInstance().saveDismissedMembers(getLevelPointForTeam(), getCurrentTeam(), currWithdrawnMembers, recordDateTime);
+		TerminalDB.getConnectedInstance().queueDismissedMembers(getLevelPointForTeam(), getCurrentTeam(), currWithdrawnMembers, recordDateTime, new InputWriteCallback(context, getCurrentTeam()));
 	}
 
 	public void putCurrWithdrawnToDataStorage(Date recordDateTime)
@@ -177,7 +181,7 @@ public class WithdrawMemberActivityState extends ActivityStateWithTeamAndScanPoi
 		for (Participant withdrawn : currWithdrawnMembers)
 		{
 			TeamDismiss teamDismiss =
-			    new TeamDismiss(getCurrentScanPoint().getScanPointId(), getCurrentTeam().getTeamId(), withdrawn.getUserId(), recordDateTime);
+			    new TeamDismiss(getCurrentScanPoint().getScanPointId(), getCurrentTeam().getTeamId(), withdrawn.getUserId(), recordDateTime.getTime());
 			// init reference fields
 			teamDismiss.setScanPoint(getCurrentScanPoint());
 			teamDismiss.setTeam(getCurrentTeam());
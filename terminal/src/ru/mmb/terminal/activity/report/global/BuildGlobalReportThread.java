@@ -1,11 +1,14 @@
 package ru.mmb.terminal.activity.report.global;
 
 import static ru.mmb.terminal.activity.Constants.KEY_REPORT_GLOBAL_RESULT_MESSAGE;
+import static ru.mmb.terminal.activity.Constants.KEY_REPORT_GLOBAL_TEAMS_DONE;
+import static ru.mmb.terminal.activity.Constants.KEY_REPORT_GLOBAL_TEAMS_TOTAL;
 
 import java.io.IOException;
 
 import ru.mmb.terminal.R;
 import ru.mmb.terminal.report.GlobalReportBuilder;
+import ru.mmb.terminal.report.GlobalReportProgressListener;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Message;
@@ -14,15 +17,17 @@ public class BuildGlobalReportThread extends Thread
 {
 	private final ReportGlobalResultActivity activity;
 	private final Handler finishHandler;
+	private final Handler progressHandler;
 	private final GlobalReportMode reportMode;
 	private final String selectedTeams;
 	private String reportResult;
 
-	public BuildGlobalReportThread(ReportGlobalResultActivity activity, Handler finishHandler, GlobalReportMode reportMode, String selectedTeams)
+	public BuildGlobalReportThread(ReportGlobalResultActivity activity, Handler finishHandler, Handler progressHandler, GlobalReportMode reportMode, String selectedTeams)
 	{
 		super();
 		this.activity = activity;
 		this.finishHandler = finishHandler;
+		this.progressHandler = progressHandler;
 		this.reportMode = reportMode;
 		this.selectedTeams = selectedTeams;
 	}
@@ -53,7 +58,25 @@ public class BuildGlobalReportThread extends Thread
 
 	private String buildGlobalReport() throws IOException
 	{
-		return new GlobalReportBuilder(reportMode, selectedTeams).buildReport();
+		GlobalReportProgressListener progressListener = new GlobalReportProgressListener()
+		{
+			@Override
+			public void onProgress(int teamsDone, int teamsTotal)
+			{
+				progressHandler.sendMessage(prepareProgressMessage(teamsDone, teamsTotal));
+			}
+		};
+		return new GlobalReportBuilder(reportMode, selectedTeams, progressListener).buildReport();
+	}
+
+	private Message prepareProgressMessage(int teamsDone, int teamsTotal)
+	{
+		Message msg = new Message();
+		Bundle messageBundle = new Bundle();
+		messageBundle.putInt(KEY_REPORT_GLOBAL_TEAMS_DONE, teamsDone);
+		messageBundle.putInt(KEY_REPORT_GLOBAL_TEAMS_TOTAL, teamsTotal);
+		msg.setData(messageBundle);
+		return msg;
 	}
 
 	private Message prepareResultMessage(boolean wasError, String errorMessage)
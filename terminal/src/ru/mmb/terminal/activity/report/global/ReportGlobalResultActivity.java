@@ -1,6 +1,8 @@
 package ru.mmb.terminal.activity.report.global;
 
 import static ru.mmb.terminal.activity.Constants.KEY_REPORT_GLOBAL_RESULT_MESSAGE;
+import static ru.mmb.terminal.activity.Constants.KEY_REPORT_GLOBAL_TEAMS_DONE;
+import static ru.mmb.terminal.activity.Constants.KEY_REPORT_GLOBAL_TEAMS_TOTAL;
 import ru.mmb.terminal.R;
 import android.app.Activity;
 import android.os.Bundle;
@@ -14,6 +16,7 @@ import android.widget.Button;
 import android.widget.EditText;
 import android.widget.ProgressBar;
 import android.widget.RadioButton;
+import android.widget.TextView;
 import android.widget.Toast;
 
 public class ReportGlobalResultActivity extends Activity
@@ -25,8 +28,10 @@ public class ReportGlobalResultActivity extends Activity
 	private EditText editSelectedTeams;
 	private Button btnStart;
 	private ProgressBar progressBar;
+	private TextView progressText;
 
 	private Handler buildReportFinishHandler;
+	private Handler buildReportProgressHandler;
 
 	@Override
 	public void onCreate(Bundle savedInstanceState)
@@ -45,6 +50,8 @@ public class ReportGlobalResultActivity extends Activity
 
 		progressBar = (ProgressBar) findViewById(R.id.reportGlobal_progressBar);
 		progressBar.setVisibility(View.GONE);
+		progressText = (TextView) findViewById(R.id.reportGlobal_progressText);
+		progressText.setVisibility(View.GONE);
 
 		RadioClickListener radioClickListener = new RadioClickListener();
 		radioAllTeams.setOnClickListener(radioClickListener);
@@ -65,6 +72,17 @@ public class ReportGlobalResultActivity extends Activity
 			}
 		};
 
+		buildReportProgressHandler = new Handler()
+		{
+			@Override
+			public void handleMessage(Message msg)
+			{
+				int teamsDone = msg.getData().getInt(KEY_REPORT_GLOBAL_TEAMS_DONE);
+				int teamsTotal = msg.getData().getInt(KEY_REPORT_GLOBAL_TEAMS_TOTAL);
+				progressText.setText(getResources().getString(R.string.report_global_progress, teamsDone, teamsTotal));
+			}
+		};
+
 		setTitle(getResources().getString(R.string.report_global_title));
 
 		refreshState();
@@ -123,13 +141,15 @@ public class ReportGlobalResultActivity extends Activity
 	{
 		onStartBuildResultThread();
 		BuildGlobalReportThread thread =
-		    new BuildGlobalReportThread(this, buildReportFinishHandler, currentState.getReportMode(), currentState.getSelectedTeams());
+		    new BuildGlobalReportThread(this, buildReportFinishHandler, buildReportProgressHandler, currentState.getReportMode(), currentState.getSelectedTeams());
 		thread.start();
 	}
 
 	private void onStartBuildResultThread()
 	{
 		progressBar.setVisibility(View.VISIBLE);
+		progressText.setText("");
+		progressText.setVisibility(View.VISIBLE);
 		radioAllTeams.setEnabled(false);
 		radioSelectedTeams.setEnabled(false);
 		editSelectedTeams.setEnabled(false);
@@ -139,6 +159,7 @@ public class ReportGlobalResultActivity extends Activity
 	private void onFinishBuildReportThread()
 	{
 		progressBar.setVisibility(View.GONE);
+		progressText.setVisibility(View.GONE);
 		refreshState();
 	}
 
@@ -3,6 +3,8 @@ package ru.mmb.terminal.activity.report.team.search;
 import static ru.mmb.terminal.activity.Constants.KEY_REPORT_TEAM_RESULT_MESSAGE;
 import ru.mmb.terminal.R;
 import ru.mmb.terminal.model.Team;
+import ru.mmb.terminal.model.report.TeamReport;
+import ru.mmb.terminal.report.LiveStandings;
 import ru.mmb.terminal.report.TeamReportBuilder;
 import android.os.Bundle;
 import android.os.Handler;
@@ -49,7 +51,11 @@ public class BuildTeamResultThread extends Thread
 
 	private String buildTeamResult()
 	{
-		return new TeamReportBuilder(team).buildFullReportString();
+		// Report is taken from live standings, so team place is known too.
+		LiveStandings standings = LiveStandings.getInstance();
+		TeamReport report = standings.getTeamReport(team.getTeamId());
+		if (report == null) return new TeamReportBuilder(team).buildFullReportString();
+		return report.toFullHtml(standings.getRank(team.getTeamId()));
 	}
 
 	private Message prepareResultMessage(boolean wasError, String errorMessage)
@@ -2,11 +2,13 @@ package ru.mmb.terminal.activity.report.team.search;
 
 import static ru.mmb.terminal.activity.Constants.KEY_REPORT_TEAM_RESULT_MESSAGE;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import ru.mmb.terminal.R;
 import ru.mmb.terminal.activity.report.team.search.model.DataProvider;
 import ru.mmb.terminal.activity.report.team.search.model.TeamListRecord;
+import ru.mmb.terminal.activity.report.team.search.model.TeamSearchIndex;
 import android.content.Context;
 import android.os.Bundle;
 import android.os.Handler;
@@ -78,13 +80,16 @@ public class SearchTeamActivity extends FragmentActivity
 	{
 		DataProvider dataProvider = new DataProvider();
 
-		List<TeamListRecord> items = dataProvider.getTeams(SortColumn.NUMBER);
+		// adapter changes its items list, so index records are copied
+		TeamSearchIndex index = dataProvider.getTeamsIndex(SortColumn.NUMBER);
+		List<TeamListRecord> items = new ArrayList<TeamListRecord>(index.getRecords());
 		adapterByNumber = new TeamsAdapter(this, R.layout.report_team_search_row, items);
-		((TeamFilter) adapterByNumber.getFilter()).initialize(items, currentState);
+		((TeamFilter) adapterByNumber.getFilter()).initialize(index, currentState);
 
-		items = dataProvider.getTeams(SortColumn.MEMBER);
+		index = dataProvider.getTeamsIndex(SortColumn.MEMBER);
+		items = new ArrayList<TeamListRecord>(index.getRecords());
 		adapterByMember = new TeamsAdapter(this, R.layout.report_team_search_row, items);
-		((TeamFilter) adapterByMember.getFilter()).initialize(items, currentState);
+		((TeamFilter) adapterByMember.getFilter()).initialize(index, currentState);
 	}
 
 	public void refreshTeams()
@@ -4,25 +4,34 @@ import java.util.ArrayList;
 import java.util.List;
 
 import ru.mmb.terminal.activity.report.team.search.model.TeamListRecord;
+import ru.mmb.terminal.activity.report.team.search.model.TeamSearchIndex;
+import ru.mmb.terminal.activity.report.team.search.model.TeamSearchQuery;
 import android.widget.Filter;
 
+/**
+ * Filters records of team search index.<br>
+ * When new filter text extends previous one, only previous result is filtered. Index keeps
+ * records sorted, so result is not sorted again.
+ */
 public class TeamFilter extends Filter
 {
 	private final TeamsAdapter owner;
-	private final List<TeamListRecord> sourceItems = new ArrayList<TeamListRecord>();
+	private TeamSearchIndex index;
 	private SearchTeamActivityState currentState;
-	private TeamMemberItemsComparator comparator;
+
+	// used only by filtering thread
+	private TeamSearchQuery lastQuery = null;
+	private int[] lastResult = null;
 
 	public TeamFilter(TeamsAdapter owner)
 	{
 		this.owner = owner;
 	}
 
-	public void initialize(List<TeamListRecord> sourceItems, SearchTeamActivityState currentState)
+	public void initialize(TeamSearchIndex index, SearchTeamActivityState currentState)
 	{
-		this.sourceItems.addAll(sourceItems);
+		this.index = index;
 		this.currentState = currentState;
-		this.comparator = new TeamMemberItemsComparator(currentState);
 	}
 
 	@Override
@@ -31,53 +40,27 @@ public class TeamFilter extends Filter
 		List<TeamListRecord> filteredItems = getFilteredRecords();
 		FilterResults result = new FilterResults();
 		result.values = filteredItems;
+		result.count = filteredItems.size();
 		return result;
 	}
 
 	private List<TeamListRecord> getFilteredRecords()
 	{
-		List<TeamListRecord> result = new ArrayList<TeamListRecord>();
-		for (TeamListRecord item : sourceItems)
-		{
-			if (matchesFilter(item)) result.add(item);
-		}
-		return result;
-	}
+		TeamSearchQuery query =
+		    new TeamSearchQuery(currentState.getNumberFilter(), currentState.isFilterNumberExact(),
+		                        currentState.getTeamFilter(), currentState.getMemberFilter(),
+		                        currentState.getSortColumn(), currentState.getSortOrder());
+		int[] candidates = (lastQuery != null && query.refines(lastQuery)) ? lastResult : null;
+		int[] positions = index.filter(query, candidates);
+		lastQuery = query;
+		lastResult = positions;
 
-	private boolean matchesFilter(TeamListRecord item)
-	{
-		if (!checkNumberFilter(item)) return false;
-		if (!checkTeamFilter(item)) return false;
-		if (!checkMemberFilter(item)) return false;
-		return true;
-	}
-
-	private boolean checkNumberFilter(TeamListRecord item)
-	{
-		if (currentState.getNumberFilter() == null) return true;
-
-		if (currentState.isFilterNumberExact())
+		List<TeamListRecord> result = new ArrayList<TeamListRecord>(positions.length);
+		for (int position : positions)
 		{
-			return item.getTeamNumber() == currentState.getNumberFilterAsInt();
+			result.add(index.getRecord(position));
 		}
-		else
-		{
-			return Integer.toString(item.getTeamNumber()).contains(currentState.getNumberFilter());
-		}
-	}
-
-	private boolean checkTeamFilter(TeamListRecord item)
-	{
-		if (currentState.getTeamFilter() == null) return true;
-
-		return item.getTeamName().toLowerCase().contains(currentState.getTeamFilter().toLowerCase());
-	}
-
-	private boolean checkMemberFilter(TeamListRecord item)
-	{
-		if (currentState.getMemberFilter() == null) return true;
-
-		return item.getMemberText().toLowerCase().contains(currentState.getMemberFilter().toLowerCase());
+		return result;
 	}
 
 	@Override
@@ -93,7 +76,6 @@ public class TeamFilter extends Filter
 			{
 				owner.add(item);
 			}
-			owner.sort(comparator);
 		}
 		owner.notifyDataSetChanged();
 	}
@@ -10,6 +10,37 @@ import ru.mmb.terminal.model.registry.TeamsRegistry;
 
 public class DataProvider
 {
+	private static int indexedVersion = -1;
+	private static TeamSearchIndex teamsIndex = null;
+	private static TeamSearchIndex membersIndex = null;
+
+	/**
+	 * Search index is built once for teams registry content and reused by next searches.
+	 */
+	public TeamSearchIndex getTeamsIndex(SortColumn sortColumn)
+	{
+		synchronized (DataProvider.class)
+		{
+			int version = TeamsRegistry.getInstance().getVersion();
+			if (version != indexedVersion)
+			{
+				teamsIndex = null;
+				membersIndex = null;
+				indexedVersion = version;
+			}
+			if (sortColumn == SortColumn.MEMBER)
+			{
+				if (membersIndex == null) membersIndex = new TeamSearchIndex(getTeams(sortColumn));
+				return membersIndex;
+			}
+			else
+			{
+				if (teamsIndex == null) teamsIndex = new TeamSearchIndex(getTeams(sortColumn));
+				return teamsIndex;
+			}
+		}
+	}
+
 	public List<TeamListRecord> getTeams(SortColumn sortColumn)
 	{
 		List<TeamListRecord> result = new ArrayList<TeamListRecord>();
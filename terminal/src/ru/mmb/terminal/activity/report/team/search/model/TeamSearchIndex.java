@@ -0,0 +1,184 @@
+package ru.mmb.terminal.activity.report.team.search.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import ru.mmb.terminal.activity.report.team.search.SortColumn;
+import ru.mmb.terminal.activity.report.team.search.SortOrder;
+
+/**
+ * Search data of team list records, built once for teams registry content.<br>
+ * Team names and member texts are normalized for search in advance, records order is computed
+ * once for each sort, so filtered records keep the order and are not sorted again.
+ */
+public class TeamSearchIndex
+{
+	private final List<TeamListRecord> records;
+	private final int[] numbers;
+	private final String[] numberTexts;
+	private final String[] teamNames;
+	private final String[] memberTexts;
+	private final String[] searchTeamNames;
+	private final String[] searchMemberTexts;
+
+	private final Map<String, int[]> sortedPositions = new HashMap<String, int[]>();
+
+	public TeamSearchIndex(List<TeamListRecord> records)
+	{
+		this.records = Collections.unmodifiableList(new ArrayList<TeamListRecord>(records));
+		int size = records.size();
+		numbers = new int[size];
+		numberTexts = new String[size];
+		teamNames = new String[size];
+		memberTexts = new String[size];
+		searchTeamNames = new String[size];
+		searchMemberTexts = new String[size];
+		for (int i = 0; i < size; i++)
+		{
+			TeamListRecord record = records.get(i);
+			numbers[i] = record.getTeamNumber();
+			numberTexts[i] = Integer.toString(numbers[i]);
+			teamNames[i] = record.getTeamName();
+			memberTexts[i] = record.getMemberText();
+			searchTeamNames[i] = normalize(teamNames[i]);
+			searchMemberTexts[i] = normalize(memberTexts[i]);
+		}
+	}
+
+	/**
+	 * Lower case with cyrillic "yo" replaced by "ye", so search ignores both differences.
+	 */
+	public static String normalize(String text)
+	{
+		if (text == null) return null;
+		return text.toLowerCase().replace('\u0451', '\u0435');
+	}
+
+	public List<TeamListRecord> getRecords()
+	{
+		return records;
+	}
+
+	public int size()
+	{
+		return records.size();
+	}
+
+	public TeamListRecord getRecord(int position)
+	{
+		return records.get(position);
+	}
+
+	/**
+	 * @param candidates
+	 *            Positions of records to check in required order or null to check all records.
+	 * @return Positions of matching records sorted as query requires.
+	 */
+	public int[] filter(TeamSearchQuery query, int[] candidates)
+	{
+		if (candidates == null)
+		    candidates = getSortedPositions(query.getSortColumn(), query.getSortOrder());
+
+		int exactNumber = -1;
+		if (query.getNumberFilter() != null && query.isNumberExact())
+		{
+			try
+			{
+				exactNumber = Integer.parseInt(query.getNumberFilter());
+			}
+			catch (NumberFormatException e)
+			{
+				return new int[0];
+			}
+		}
+
+		int[] result = new int[candidates.length];
+		int count = 0;
+		for (int position : candidates)
+		{
+			if (matches(position, query, exactNumber)) result[count++] = position;
+		}
+		int[] matched = new int[count];
+		System.arraycopy(result, 0, matched, 0, count);
+		return matched;
+	}
+
+	private boolean matches(int position, TeamSearchQuery query, int exactNumber)
+	{
+		if (query.getNumberFilter() != null)
+		{
+			if (query.isNumberExact())
+			{
+				if (numbers[position] != exactNumber) return false;
+			}
+			else if (!numberTexts[position].contains(query.getNumberFilter()))
+			{
+				return false;
+			}
+		}
+		if (query.getTeamFilter() != null
+		        && !searchTeamNames[position].contains(query.getTeamFilter())) return false;
+		if (query.getMemberFilter() != null
+		        && !searchMemberTexts[position].contains(query.getMemberFilter())) return false;
+		return true;
+	}
+
+	private synchronized int[] getSortedPositions(SortColumn sortColumn, SortOrder sortOrder)
+	{
+		String key = sortColumn.name() + "." + sortOrder.name();
+		int[] result = sortedPositions.get(key);
+		if (result == null)
+		{
+			result = sortPositions(sortColumn, sortOrder);
+			sortedPositions.put(key, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Stable sort of records order, records with equal keys stay in registry order for both sort
+	 * orders.
+	 */
+	private int[] sortPositions(final SortColumn sortColumn, final SortOrder sortOrder)
+	{
+		List<Integer> positions = new ArrayList<Integer>(records.size());
+		for (int i = 0; i < records.size(); i++)
+		{
+			positions.add(i);
+		}
+		Collections.sort(positions, new Comparator<Integer>()
+		{
+			@Override
+			public int compare(Integer position1, Integer position2)
+			{
+				int result = compareRecords(sortColumn, position1, position2);
+				return sortOrder == SortOrder.ASC ? result : -1 * result;
+			}
+		});
+		int[] result = new int[positions.size()];
+		for (int i = 0; i < result.length; i++)
+		{
+			result[i] = positions.get(i);
+		}
+		return result;
+	}
+
+	private int compareRecords(SortColumn sortColumn, int position1, int position2)
+	{
+		switch (sortColumn)
+		{
+			case TEAM:
+				return teamNames[position1].compareToIgnoreCase(teamNames[position2]);
+			case MEMBER:
+				return memberTexts[position1].compareToIgnoreCase(memberTexts[position2]);
+			case NUMBER:
+			default:
+				return numbers[position1] < numbers[position2] ? -1
+				        : (numbers[position1] == numbers[position2] ? 0 : 1);
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package ru.mmb.terminal.activity.report.team.search.model;
+
+import ru.mmb.terminal.activity.report.team.search.SortColumn;
+import ru.mmb.terminal.activity.report.team.search.SortOrder;
+
+/**
+ * Filter values and sort of team search, text filters are normalized by TeamSearchIndex.
+ */
+public class TeamSearchQuery
+{
+	private final String numberFilter;
+	private final boolean numberExact;
+	private final String teamFilter;
+	private final String memberFilter;
+	private final SortColumn sortColumn;
+	private final SortOrder sortOrder;
+
+	public TeamSearchQuery(String numberFilter, boolean numberExact, String teamFilter,
+	        String memberFilter, SortColumn sortColumn, SortOrder sortOrder)
+	{
+		this.numberFilter = numberFilter;
+		this.numberExact = numberExact;
+		this.teamFilter = TeamSearchIndex.normalize(teamFilter);
+		this.memberFilter = TeamSearchIndex.normalize(memberFilter);
+		this.sortColumn = sortColumn;
+		this.sortOrder = sortOrder;
+	}
+
+	public String getNumberFilter()
+	{
+		return numberFilter;
+	}
+
+	public boolean isNumberExact()
+	{
+		return numberExact;
+	}
+
+	public String getTeamFilter()
+	{
+		return teamFilter;
+	}
+
+	public String getMemberFilter()
+	{
+		return memberFilter;
+	}
+
+	public SortColumn getSortColumn()
+	{
+		return sortColumn;
+	}
+
+	public SortOrder getSortOrder()
+	{
+		return sortOrder;
+	}
+
+	/**
+	 * Query refines previous one, if every record matching it matches previous query too.<br>
+	 * Then only previous result must be filtered.
+	 */
+	public boolean refines(TeamSearchQuery previous)
+	{
+		if (sortColumn != previous.sortColumn || sortOrder != previous.sortOrder) return false;
+		if (!refinesNumber(previous)) return false;
+		if (!refinesText(teamFilter, previous.teamFilter)) return false;
+		return refinesText(memberFilter, previous.memberFilter);
+	}
+
+	private boolean refinesNumber(TeamSearchQuery previous)
+	{
+		if (previous.numberFilter == null) return true;
+		if (numberFilter == null) return false;
+		if (previous.numberExact) return numberExact && numberFilter.equals(previous.numberFilter);
+		return numberFilter.contains(previous.numberFilter);
+	}
+
+	private boolean refinesText(String filter, String previousFilter)
+	{
+		if (previousFilter == null) return true;
+		return filter != null && filter.contains(previousFilter);
+	}
+}
@@ -22,6 +22,7 @@ public class ExportDataPanel
 	private final TextView labLastExportDate;
 	private final RadioButton radioFormatTxt;
 	private final RadioButton radioFormatJson;
+	private final RadioButton radioFormatJsonGzip;
 	private final Button btnFullExport;
 	private final Button btnIncrementalExport;
 
@@ -36,12 +37,15 @@ public class ExportDataPanel
 		radioFormatTxt = (RadioButton) activity.findViewById(R.id.transpExportData_formatTxtRadio);
 		radioFormatJson =
 		    (RadioButton) activity.findViewById(R.id.transpExportData_formatJsonRadio);
+		radioFormatJsonGzip =
+		    (RadioButton) activity.findViewById(R.id.transpExportData_formatJsonGzipRadio);
 		btnFullExport = (Button) activity.findViewById(R.id.transpExportData_fullExportBtn);
 		btnIncrementalExport =
 		    (Button) activity.findViewById(R.id.transpExportData_incrementalExportBtn);
 
 		radioFormatTxt.setOnClickListener(new FormatRadioClickListener());
 		radioFormatJson.setOnClickListener(new FormatRadioClickListener());
+		radioFormatJsonGzip.setOnClickListener(new FormatRadioClickListener());
 		btnFullExport.setOnClickListener(new FullClickListener());
 		btnIncrementalExport.setOnClickListener(new IncrementalClickListener());
 
@@ -102,16 +106,21 @@ public class ExportDataPanel
 		{
 			radioFormatTxt.setChecked(true);
 		}
-		else
+		else if (activity.getCurrentState().getExportFormat() == ExportFormat.JSON)
 		{
 			radioFormatJson.setChecked(true);
 		}
+		else
+		{
+			radioFormatJsonGzip.setChecked(true);
+		}
 	}
 
 	private void buttonsSetEnabled()
 	{
 		radioFormatTxt.setEnabled(getExportState() == null);
 		radioFormatJson.setEnabled(getExportState() == null);
+		radioFormatJsonGzip.setEnabled(getExportState() == null);
 		btnFullExport.setEnabled(getExportState() == null);
 		btnIncrementalExport.setEnabled(getExportState() == null);
 	}
@@ -135,10 +144,14 @@ public class ExportDataPanel
 			{
 				activity.getCurrentState().setExportFormat(ExportFormat.TXT);
 			}
-			else
+			else if (radioFormatJson.isChecked())
 			{
 				activity.getCurrentState().setExportFormat(ExportFormat.JSON);
 			}
+			else
+			{
+				activity.getCurrentState().setExportFormat(ExportFormat.JSON_GZIP);
+			}
 		}
 	}
 
@@ -106,7 +106,8 @@ public class TransportImportBarcodeActivity extends TransportImportActivity
 		{
 			Intent intent = new Intent(getBaseContext(), FileDialog.class);
 			intent.putExtra(FileDialog.START_PATH, Settings.getInstance().getImportDir());
-			intent.putExtra(FileDialog.CAN_SELECT_DIR, false);
+			// selected directory means import of all logger files in it
+			intent.putExtra(FileDialog.CAN_SELECT_DIR, true);
 			intent.putExtra(FileDialog.SELECTION_MODE, SelectionMode.MODE_OPEN);
 			intent.putExtra(FileDialog.FORMAT_FILTER, new String[] { ".TXT" });
 			startActivityForResult(intent, REQUEST_CODE_FILE_DIALOG);
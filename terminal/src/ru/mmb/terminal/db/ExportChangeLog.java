@@ -0,0 +1,111 @@
+package ru.mmb.terminal.db;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * Change log of exported tables.<br>
+ * Triggers append row id of every inserted or updated row with new change id, so incremental
+ * export selects rows by change id range instead of comparing update date strings.
+ */
+public class ExportChangeLog
+{
+	public static final String TABLE_EXPORT_CHANGES = "ExportChanges";
+	public static final String CHANGE_ID = "change_id";
+	public static final String TABLE_NAME = "table_name";
+	public static final String ROW_ID = "row_id";
+
+	private static final String TABLE_EXPORTED_CHANGE = "ExportedChange";
+
+	private static final String[] LOGGED_TABLES = new String[] { "TeamLevelDismiss", "TeamLevelPoints" };
+	// Every save sets update date, while time columns sync alone must not be logged.
+	private static final String[] UPDATE_DATE_COLUMNS =
+	    new String[] { "teamleveldismiss_date", "teamlevelpoint_date" };
+
+	private final SQLiteDatabase db;
+
+	public ExportChangeLog(SQLiteDatabase db)
+	{
+		this.db = db;
+		createSchema();
+	}
+
+	private void createSchema()
+	{
+		db.execSQL("create table if not exists " + TABLE_EXPORT_CHANGES + " (" + CHANGE_ID
+		        + " INTEGER PRIMARY KEY AUTOINCREMENT, " + TABLE_NAME + " TEXT NOT NULL, " + ROW_ID
+		        + " INTEGER NOT NULL)");
+		db.execSQL("create table if not exists " + TABLE_EXPORTED_CHANGE + " (" + CHANGE_ID
+		        + " INTEGER NOT NULL)");
+		for (int i = 0; i < LOGGED_TABLES.length; i++)
+		{
+			createTrigger(LOGGED_TABLES[i], "insert", "insert");
+			createTrigger(LOGGED_TABLES[i], "update", "update of " + UPDATE_DATE_COLUMNS[i]);
+		}
+	}
+
+	private void createTrigger(String tableName, String name, String event)
+	{
+		db.execSQL("create trigger if not exists TRG_" + tableName + "_log_" + name + " after "
+		        + event + " on " + tableName + " begin insert into "
+		        + TABLE_EXPORT_CHANGES + " (" + TABLE_NAME + ", " + ROW_ID + ") values ('"
+		        + tableName + "', new.rowid); end");
+	}
+
+	/**
+	 * @return last change id sent by incremental export or -1 if log was never exported
+	 */
+	public long getLastExportedChange()
+	{
+		Cursor resultCursor =
+		    db.rawQuery("select " + CHANGE_ID + " from " + TABLE_EXPORTED_CHANGE, null);
+		try
+		{
+			if (!resultCursor.moveToFirst()) return -1;
+			return resultCursor.getLong(0);
+		}
+		finally
+		{
+			resultCursor.close();
+		}
+	}
+
+	public long getLastChange()
+	{
+		Cursor resultCursor =
+		    db.rawQuery("select max(" + CHANGE_ID + ") from " + TABLE_EXPORT_CHANGES, null);
+		try
+		{
+			if (!resultCursor.moveToFirst() || resultCursor.isNull(0))
+			{
+				return Math.max(getLastExportedChange(), 0);
+			}
+			return resultCursor.getLong(0);
+		}
+		finally
+		{
+			resultCursor.close();
+		}
+	}
+
+	/**
+	 * Moves export watermark and removes exported entries, so the log stays small.
+	 */
+	public void commitExportedChanges(long lastChange)
+	{
+		db.beginTransaction();
+		try
+		{
+			db.execSQL("delete from " + TABLE_EXPORTED_CHANGE);
+			db.execSQL("insert into " + TABLE_EXPORTED_CHANGE + " (" + CHANGE_ID + ") values ("
+			        + lastChange + ")");
+			db.execSQL("delete from " + TABLE_EXPORT_CHANGES + " where " + CHANGE_ID + " <= "
+			        + lastChange);
+			db.setTransactionSuccessful();
+		}
+		finally
+		{
+			db.endTransaction();
+		}
+	}
+}
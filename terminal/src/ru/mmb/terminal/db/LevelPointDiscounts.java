@@ -29,17 +29,7 @@ public class LevelPointDiscounts
 	public List<LevelPointDiscount> loadLevelPointDiscounts(int raidId)
 	{
 		List<LevelPointDiscount> result = new ArrayList<LevelPointDiscount>();
-		// @formatter:off
-		String sql =
-		    "select lpd." + LEVELPOINTDISCOUNT_ID + ", " + 
-		    		"lpd." + DISTANCE_ID + ", " + 
-		    		"lpd." + LEVELPOINTDISCOUNT_VALUE + ", " + 
-		    		"lpd." + LEVELPOINTDISCOUNT_START + ", " + 
-		    		"lpd." + LEVELPOINTDISCOUNT_FINISH + " " + 
-		    "from " + TABLE_LEVELPOINTDISCOUNTS + " lpd join " + TABLE_DISTANCES + " d " + 
-		    		"on (lpd." + DISTANCE_ID + " = d." + DISTANCE_ID + ") " + 
-		    "where d." + RAID_ID + " = " + raidId;
-		// @formatter:on
+		String sql = getLevelPointDiscountsSQL(raidId);
 		Cursor resultCursor = db.rawQuery(sql, null);
 
 		resultCursor.moveToFirst();
@@ -57,4 +47,18 @@ public class LevelPointDiscounts
 
 		return result;
 	}
+
+	public static String getLevelPointDiscountsSQL(int raidId)
+	{
+		// @formatter:off
+		return "select lpd." + LEVELPOINTDISCOUNT_ID + ", " + 
+		       		"lpd." + DISTANCE_ID + ", " + 
+		       		"lpd." + LEVELPOINTDISCOUNT_VALUE + ", " + 
+		       		"lpd." + LEVELPOINTDISCOUNT_START + ", " + 
+		       		"lpd." + LEVELPOINTDISCOUNT_FINISH + " " + 
+		       "from " + TABLE_LEVELPOINTDISCOUNTS + " lpd join " + TABLE_DISTANCES + " d " + 
+		       		"on (lpd." + DISTANCE_ID + " = d." + DISTANCE_ID + ") " + 
+		       "where d." + RAID_ID + " = " + raidId;
+		// @formatter:on
+	}
 }
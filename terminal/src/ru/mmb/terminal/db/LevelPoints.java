@@ -53,22 +53,7 @@ public class LevelPoints
 		levelPoints = new ArrayList<LevelPoint>();
 		currentCheckpoints = new ArrayList<Checkpoint>();
 
-		// @formatter:off
-		String sql =
-		    "select lp." + LEVELPOINT_ID + ", " + 
-		    		"lp." + POINTTYPE_ID + ", " + 
-		    		"lp." + DISTANCE_ID + ", " + 
-		    		"lp." + SCANPOINT_ID + ", " + 
-		    		"lp." + LEVELPOINT_ORDER + ", " + 
-		    		"lp." + LEVELPOINT_NAME + ", " +
-		    		"lp." + LEVELPOINT_PENALTY + ", " + 
-		    		"lp." + LEVELPOINT_MINDATETIME + ", " + 
-		    		"lp." + LEVELPOINT_MAXDATETIME + " " + 
-		    "from " + TABLE_LEVEL_POINTS + " lp join " + TABLE_DISTANCES + " d " + 
-		    		"on (lp." + DISTANCE_ID + " = d." + DISTANCE_ID + ") " + 
-		    "where d." + RAID_ID + " = " + raidId + " " +
-		    "order by lp." + DISTANCE_ID + ", lp." + LEVELPOINT_ORDER;
-		// @formatter:on
+		String sql = getLevelPointsSQL(raidId);
 		Cursor resultCursor = db.rawQuery(sql, null);
 
 		resultCursor.moveToFirst();
@@ -102,6 +87,25 @@ public class LevelPoints
 		return new ArrayList<LevelPoint>(levelPoints);
 	}
 
+	public static String getLevelPointsSQL(int raidId)
+	{
+		// @formatter:off
+		return "select lp." + LEVELPOINT_ID + ", " + 
+		       		"lp." + POINTTYPE_ID + ", " + 
+		       		"lp." + DISTANCE_ID + ", " + 
+		       		"lp." + SCANPOINT_ID + ", " + 
+		       		"lp." + LEVELPOINT_ORDER + ", " + 
+		       		"lp." + LEVELPOINT_NAME + ", " +
+		       		"lp." + LEVELPOINT_PENALTY + ", " + 
+		       		"lp." + LEVELPOINT_MINDATETIME + ", " + 
+		       		"lp." + LEVELPOINT_MAXDATETIME + " " + 
+		       "from " + TABLE_LEVEL_POINTS + " lp join " + TABLE_DISTANCES + " d " + 
+		       		"on (lp." + DISTANCE_ID + " = d." + DISTANCE_ID + ") " + 
+		       "where d." + RAID_ID + " = " + raidId + " " +
+		       "order by lp." + DISTANCE_ID + ", lp." + LEVELPOINT_ORDER;
+		// @formatter:on
+	}
+
 	/**
 	 * Add finish and start points to levelPoints array. Add checkpoint to
 	 * currentCheckpoints list.
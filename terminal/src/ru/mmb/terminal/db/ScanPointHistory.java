@@ -0,0 +1,122 @@
+package ru.mmb.terminal.db;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import ru.mmb.terminal.model.LevelPoint;
+import ru.mmb.terminal.model.history.HistoryKey;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * Loads order of scan point history without loading results and dismissed members.<br>
+ * Every team has one row for each user result with the last record time and one row without
+ * user, if the team has dismissed members only. Rows are ordered by history time descending,
+ * history time is the latest of result record time and dismiss record time.
+ */
+public class ScanPointHistory
+{
+	private static final String TABLE_TEAM_LEVEL_POINTS = "TeamLevelPoints";
+	private static final String TABLE_DISMISS = "TeamLevelDismiss";
+
+	private static final String TEAM_ID = "team_id";
+	private static final String USER_ID = "user_id";
+	private static final String LEVELPOINT_ID = "levelpoint_id";
+	private static final String TEAMLEVELPOINT_TIME = SchemaUpdater.TEAMLEVELPOINT_TIME;
+	private static final String DISMISS_TIME = SchemaUpdater.TEAMLEVELDISMISS_TIME;
+	private static final String HISTORY_TIME = "history_time";
+
+	private final SQLiteDatabase db;
+
+	public ScanPointHistory(SQLiteDatabase db)
+	{
+		this.db = db;
+	}
+
+	public List<HistoryKey> loadHistoryKeys(Collection<LevelPoint> levelPoints, Integer teamId)
+	{
+		List<HistoryKey> result = new ArrayList<HistoryKey>();
+		Cursor resultCursor = db.rawQuery(getHistorySQL(levelPoints, teamId), null);
+
+		resultCursor.moveToFirst();
+		while (!resultCursor.isAfterLast())
+		{
+			int keyTeamId = resultCursor.getInt(0);
+			Integer userId = resultCursor.isNull(1) ? null : resultCursor.getInt(1);
+			result.add(new HistoryKey(keyTeamId, userId));
+			resultCursor.moveToNext();
+		}
+		resultCursor.close();
+
+		return result;
+	}
+
+	/**
+	 * @param teamId
+	 *            Loads history of one team, if not null.
+	 */
+	public static String getHistorySQL(Collection<LevelPoint> levelPoints, Integer teamId)
+	{
+		StringBuilder sb = new StringBuilder();
+		for (LevelPoint levelPoint : levelPoints)
+		{
+			if (sb.length() > 0) sb.append(" union all ");
+			appendLevelPointHistorySQL(sb, levelPoint, teamId);
+		}
+		sb.append(" order by ").append(HISTORY_TIME).append(" desc, ").append(USER_ID).append(" desc");
+		return sb.toString();
+	}
+
+	/**
+	 * @return condition "column in (id1, id2, ...)" for page of history records
+	 */
+	static String getInCondition(String column, Collection<Integer> ids)
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append(column).append(" in (");
+		boolean first = true;
+		for (Integer id : ids)
+		{
+			if (!first) sb.append(", ");
+			sb.append(id);
+			first = false;
+		}
+		return sb.append(")").toString();
+	}
+
+	private static void appendLevelPointHistorySQL(StringBuilder sb, LevelPoint levelPoint,
+	        Integer teamId)
+	{
+		int levelPointId = levelPoint.getLevelPointId();
+		String dismissTimes =
+		    "(select " + TEAM_ID + ", max(" + DISMISS_TIME + ") as " + DISMISS_TIME + " from ("
+		            + TeamDismissed.getLevelPointDismissedSQL(levelPoint) + ") group by " + TEAM_ID
+		            + ")";
+		String teamCondition = (teamId == null) ? "" : " and %s." + TEAM_ID + " = " + teamId;
+
+		// results with the last record time for the team
+		sb.append("select r.").append(TEAM_ID).append(" as ").append(TEAM_ID);
+		sb.append(", r.").append(USER_ID).append(" as ").append(USER_ID);
+		sb.append(", max(r.").append(TEAMLEVELPOINT_TIME).append(", ifnull(dm.");
+		sb.append(DISMISS_TIME).append(", 0)) as ").append(HISTORY_TIME);
+		sb.append(" from ").append(TABLE_TEAM_LEVEL_POINTS).append(" as r left join ");
+		sb.append(dismissTimes).append(" as dm on (dm.").append(TEAM_ID).append(" = r.");
+		sb.append(TEAM_ID).append(") where r.").append(LEVELPOINT_ID).append(" = ");
+		sb.append(levelPointId).append(String.format(teamCondition, "r"));
+		sb.append(" and r.").append(TEAMLEVELPOINT_TIME).append(" = (select max(m.");
+		sb.append(TEAMLEVELPOINT_TIME).append(") from ").append(TABLE_TEAM_LEVEL_POINTS);
+		sb.append(" as m where m.").append(LEVELPOINT_ID).append(" = ").append(levelPointId);
+		sb.append(" and m.").append(TEAM_ID).append(" = r.").append(TEAM_ID).append(")");
+
+		// teams dismissed at the level point without results
+		sb.append(" union all select dm.").append(TEAM_ID).append(", null, dm.");
+		sb.append(DISMISS_TIME).append(" from ").append(dismissTimes).append(" as dm where dm.");
+		sb.append(TEAM_ID).append(" in (select ").append(TEAM_ID).append(" from ");
+		sb.append(TABLE_DISMISS).append(" where ").append(LEVELPOINT_ID).append(" = ");
+		sb.append(levelPointId).append(") and dm.").append(TEAM_ID).append(" not in (select ");
+		sb.append(TEAM_ID).append(" from ").append(TABLE_TEAM_LEVEL_POINTS).append(" where ");
+		sb.append(LEVELPOINT_ID).append(" = ").append(levelPointId).append(")");
+		sb.append(String.format(teamCondition, "dm"));
+	}
+}
@@ -0,0 +1,140 @@
+package ru.mmb.terminal.db;
+
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * Brings structure of terminal database to the version expected by the code.<br>
+ * Database version is kept in PRAGMA user_version, shipped databases have version 0.
+ */
+public class SchemaUpdater
+{
+	public static final int VERSION_EPOCH_TIMES = 1;
+	public static final int VERSION_DISMISS_INDEX = 2;
+	public static final int SCHEMA_VERSION = VERSION_DISMISS_INDEX;
+
+	public static final String TEAMLEVELPOINT_TIME = "teamlevelpoint_time";
+	public static final String TEAMLEVELPOINT_CHECKTIME = "teamlevelpoint_checktime";
+	public static final String TEAMLEVELDISMISS_TIME = "teamleveldismiss_time";
+
+	/**
+	 * Indexes for all terminal queries, site export may have its own ones or none.<br>
+	 * Name, table and columns. Most indexes contain all selected columns, so queries don't read
+	 * table rows at all. Dismissed members index by level point is created by schema version
+	 * VERSION_DISMISS_INDEX.
+	 */
+	// @formatter:off
+	private static final String[][] INDEXES = new String[][] {
+	    { "IDXDST_raid_id", "Distances", "raid_id" },
+	    { "IDXSCP_raid_id", "ScanPoints", "raid_id" },
+	    { "IDXLP_distance_order", "LevelPoints", "distance_id, levelpoint_order" },
+	    { "IDXLPD_distance_id", "LevelPointDiscounts", "distance_id" },
+	    { "IDXTM_distance_id", "Teams", "distance_id, team_id, team_num, team_name" },
+	    { "IDXTU_team_cover", "TeamUsers", "team_id, user_id, teamuser_id, teamuser_hide" },
+	    { "IDXTLP_team_cover", "TeamLevelPoints", "team_id, levelpoint_id, " + TEAMLEVELPOINT_TIME + ", " + TEAMLEVELPOINT_CHECKTIME + ", user_id, device_id, teamlevelpoint_points" },
+	    { "IDXTLP_levelpoint_cover", "TeamLevelPoints", "levelpoint_id, team_id, " + TEAMLEVELPOINT_TIME + ", " + TEAMLEVELPOINT_CHECKTIME + ", user_id, device_id, teamlevelpoint_points" },
+	    { "IDXTLD_team_cover", "TeamLevelDismiss", "team_id, levelpoint_id, teamuser_id" } };
+	// @formatter:on
+
+	private final SQLiteDatabase db;
+
+	public SchemaUpdater(SQLiteDatabase db)
+	{
+		this.db = db;
+	}
+
+	public void update()
+	{
+		updateVersion();
+		createIndexes();
+	}
+
+	private void updateVersion()
+	{
+		if (db.getVersion() >= SCHEMA_VERSION) return;
+
+		db.beginTransaction();
+		try
+		{
+			if (db.getVersion() < VERSION_EPOCH_TIMES)
+			{
+				addTimeColumns("TeamLevelPoints", new String[] { "teamlevelpoint_date",
+				        "teamlevelpoint_datetime" }, new String[] { TEAMLEVELPOINT_TIME,
+				        TEAMLEVELPOINT_CHECKTIME });
+				addTimeColumns("TeamLevelDismiss", new String[] { "teamleveldismiss_date" }, new String[] { TEAMLEVELDISMISS_TIME });
+			}
+			if (db.getVersion() < VERSION_DISMISS_INDEX)
+			{
+				// covers dismissed members load by level point, no table rows are read
+				db.execSQL("create index IDXTLD_levelpoint_id on TeamLevelDismiss (levelpoint_id, team_id, teamuser_id, "
+				        + TEAMLEVELDISMISS_TIME + ")");
+			}
+			db.setVersion(SCHEMA_VERSION);
+			db.setTransactionSuccessful();
+		}
+		finally
+		{
+			db.endTransaction();
+		}
+	}
+
+	/**
+	 * Checked at every connect, missing indexes are created.
+	 */
+	private void createIndexes()
+	{
+		for (String[] index : INDEXES)
+		{
+			db.execSQL("create index if not exists " + index[0] + " on " + index[1] + " (" + index[2]
+			        + ")");
+		}
+	}
+
+	/**
+	 * Adds indexed INTEGER copies of yyyyMMddHHmm text columns.<br>
+	 * Text columns stay the source of truth for transport, triggers keep copies in sync for every
+	 * writer including data import.
+	 */
+	private void addTimeColumns(String tableName, String[] dateColumns, String[] timeColumns)
+	{
+		StringBuilder setClause = new StringBuilder();
+		StringBuilder triggerSetClause = new StringBuilder();
+		StringBuilder dateColumnsList = new StringBuilder();
+		for (int i = 0; i < timeColumns.length; i++)
+		{
+			db.execSQL("alter table " + tableName + " add column " + timeColumns[i] + " INTEGER");
+			db.execSQL("create index IDX_" + timeColumns[i] + " on " + tableName + " ("
+			        + timeColumns[i] + ")");
+			if (i > 0)
+			{
+				setClause.append(", ");
+				triggerSetClause.append(", ");
+				dateColumnsList.append(", ");
+			}
+			setClause.append(timeColumns[i]).append(" = ").append(toDBTimeSQL(dateColumns[i]));
+			triggerSetClause.append(timeColumns[i]).append(" = ").append(toDBTimeSQL("new."
+			        + dateColumns[i]));
+			dateColumnsList.append(dateColumns[i]);
+		}
+
+		db.execSQL("update " + tableName + " set " + setClause);
+
+		String triggerBody =
+		    " begin update " + tableName + " set " + triggerSetClause
+		            + " where rowid = new.rowid; end";
+		db.execSQL("create trigger TRG_" + tableName + "_time_insert after insert on " + tableName
+		        + triggerBody);
+		db.execSQL("create trigger TRG_" + tableName + "_time_update after update of "
+		        + dateColumnsList + " on " + tableName + triggerBody);
+	}
+
+	/**
+	 * Same value as DateFormat.toDBTime for the date text, see DateFormat.
+	 */
+	private static String toDBTimeSQL(String dateColumn)
+	{
+		return "cast(strftime('%s', substr(" + dateColumn + ", 1, 4) || '-' || substr("
+		        + dateColumn + ", 5, 2) || '-' || substr(" + dateColumn + ", 7, 2) || ' ' || substr("
+		        + dateColumn + ", 9, 2) || ':' || substr(" + dateColumn
+		        + ", 11, 2)) as integer) / 60";
+	}
+}
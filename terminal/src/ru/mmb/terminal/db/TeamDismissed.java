@@ -1,12 +1,13 @@
 package ru.mmb.terminal.db;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
-import java.util.Set;
 
 import ru.mmb.terminal.model.LevelPoint;
 import ru.mmb.terminal.model.Participant;
+import ru.mmb.terminal.model.ScanPoint;
 import ru.mmb.terminal.model.Team;
 import ru.mmb.terminal.model.TeamDismiss;
 import ru.mmb.terminal.model.registry.Settings;
@@ -15,6 +16,7 @@ import ru.mmb.terminal.model.registry.UsersRegistry;
 import ru.mmb.terminal.util.DateFormat;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
 
 public class TeamDismissed
 {
@@ -22,6 +24,7 @@ public class TeamDismissed
 	private static final String TABLE_LEVELPOINTS = "LevelPoints";
 
 	private static final String DISMISS_DATE = "teamleveldismiss_date";
+	private static final String DISMISS_TIME = SchemaUpdater.TEAMLEVELDISMISS_TIME;
 	private static final String DEVICE_ID = "device_id";
 	private static final String USER_ID = "user_id";
 	private static final String TEAM_ID = "team_id";
@@ -30,8 +33,6 @@ public class TeamDismissed
 	private static final String TEAMUSER_ID = "teamuser_id";
 	private static final String DISTANCE_ID = "distance_id";
 
-	private static final String TEMPLATE_TEAMUSER_ID = "%teamuser_id%";
-
 	private final SQLiteDatabase db;
 
 	public TeamDismissed(SQLiteDatabase db)
@@ -42,28 +43,13 @@ public class TeamDismissed
 	public List<Participant> getDismissedMembers(LevelPoint levelPoint, Team team)
 	{
 		List<Participant> result = new ArrayList<Participant>();
-		String sql =
-		    "select distinct d." + TEAMUSER_ID + ", lp." + LEVELPOINT_ID + ", lp."
-		            + LEVELPOINT_ORDER + " from " + TABLE_DISMISS + " as d join "
-		            + TABLE_LEVELPOINTS + " as lp on (d." + LEVELPOINT_ID + " = lp."
-		            + LEVELPOINT_ID + ") where d." + TEAM_ID + " = " + team.getTeamId()
-		            + " and lp." + LEVELPOINT_ORDER + " <= " + levelPoint.getLevelPointOrder();
+		String sql = getDismissedMembersSQL(levelPoint, team.getTeamId());
 		Cursor resultCursor = db.rawQuery(sql, null);
 
 		resultCursor.moveToFirst();
 		while (!resultCursor.isAfterLast())
 		{
-			int participantId = resultCursor.getInt(0);
-			int levelPointId = resultCursor.getInt(1);
-			int levelPointOrder = resultCursor.getInt(2);
-			if (isDBLevelPointEarlier(levelPoint, levelPointId, levelPointOrder))
-			{
-				Participant member = team.getMember(participantId);
-				if (!result.contains(member))
-				{
-					result.add(member);
-				}
-			}
+			result.add(team.getMember(resultCursor.getInt(0)));
 			resultCursor.moveToNext();
 		}
 		resultCursor.close();
@@ -71,89 +57,90 @@ public class TeamDismissed
 		return result;
 	}
 
-	private boolean isDBLevelPointEarlier(LevelPoint currLevelPoint, int dbLevelPointId,
-	        int dbLevelOrder)
+	public static String getDismissedMembersSQL(LevelPoint levelPoint, int teamId)
 	{
-		if (currLevelPoint.getLevelPointOrder() > dbLevelOrder) return true;
-		if (currLevelPoint.getPointType().isFinish()) return true;
-		if (currLevelPoint.getPointType().isStart()
-		        && currLevelPoint.getLevelPointId() == dbLevelPointId) return true;
-		return false;
+		return "select distinct d." + TEAMUSER_ID + " from " + TABLE_DISMISS + " as d join "
+		        + TABLE_LEVELPOINTS + " as lp on (d." + LEVELPOINT_ID + " = lp."
+		        + LEVELPOINT_ID + ") where d." + TEAM_ID + " = " + teamId + " and "
+		        + getEarlierLevelPointsCondition(levelPoint);
 	}
 
+	/**
+	 * Members dismissed at earlier level points, at the finish and at the start itself are
+	 * dismissed for the level point.
+	 */
+	private static String getEarlierLevelPointsCondition(LevelPoint levelPoint)
+	{
+		int order = levelPoint.getLevelPointOrder();
+		if (levelPoint.getPointType().isFinish())
+		{
+			return "lp." + LEVELPOINT_ORDER + " <= " + order;
+		}
+		if (levelPoint.getPointType().isStart())
+		{
+			return "(lp." + LEVELPOINT_ORDER + " < " + order + " or lp." + LEVELPOINT_ID + " = "
+			        + levelPoint.getLevelPointId() + ")";
+		}
+		return "lp." + LEVELPOINT_ORDER + " < " + order;
+	}
+
+	/**
+	 * Existing records are skipped by primary key with "insert or ignore".
+	 */
 	public void saveDismissedMembers(LevelPoint levelPoint, Team team,
 	        List<Participant> dismissedMembers, Date recordDateTime)
 	{
-		String selectSql =
-		    "select count(*) from " + TABLE_DISMISS + " where " + USER_ID + " = "
-		            + Settings.getInstance().getUserId() + " and " + LEVELPOINT_ID + " = "
-		            + levelPoint.getLevelPointId() + " and " + TEAM_ID + " = " + team.getTeamId()
-		            + " and " + TEAMUSER_ID + " = " + TEMPLATE_TEAMUSER_ID;
 		String insertSql =
-		    "insert into " + TABLE_DISMISS + "(" + DISMISS_DATE + ", " + DEVICE_ID + ", " + USER_ID
-		            + ", " + LEVELPOINT_ID + ", " + TEAM_ID + ", " + TEAMUSER_ID + ") values (?, "
-		            + Settings.getInstance().getDeviceId() + ", "
-		            + Settings.getInstance().getUserId() + ", " + levelPoint.getLevelPointId()
-		            + ", " + team.getTeamId() + ", ?)";
+		    "insert or ignore into " + TABLE_DISMISS + "(" + DISMISS_DATE + ", " + DEVICE_ID + ", "
+		            + USER_ID + ", " + LEVELPOINT_ID + ", " + TEAM_ID + ", " + TEAMUSER_ID
+		            + ") values (?, ?, ?, ?, ?, ?)";
 		db.beginTransaction();
+		SQLiteStatement insertStatement = db.compileStatement(insertSql);
 		try
 		{
+			insertStatement.bindString(1, DateFormat.format(recordDateTime));
+			insertStatement.bindLong(2, Settings.getInstance().getDeviceId());
+			insertStatement.bindLong(3, Settings.getInstance().getUserId());
+			insertStatement.bindLong(4, levelPoint.getLevelPointId());
+			insertStatement.bindLong(5, team.getTeamId());
 			for (Participant member : dismissedMembers)
 			{
-				if (isRecordExists(selectSql, member)) continue;
-				db.execSQL(insertSql, new Object[] { DateFormat.format(recordDateTime),
-				        new Integer(member.getUserId()) });
+				insertStatement.bindLong(6, member.getUserId());
+				insertStatement.execute();
 			}
 			db.setTransactionSuccessful();
 		}
 		finally
 		{
+			insertStatement.close();
 			db.endTransaction();
 		}
 	}
 
-	private boolean isRecordExists(String selectSql, Participant member)
-	{
-		Cursor resultCursor =
-		    db.rawQuery(selectSql.replace(TEMPLATE_TEAMUSER_ID, Integer.toString(member.getUserId())), null);
-		resultCursor.moveToFirst();
-		int recordCount = resultCursor.getInt(0);
-		resultCursor.close();
-		return recordCount > 0;
-	}
-
-	public List<TeamDismiss> loadDismissedMembers(LevelPoint levelPoint)
+	/**
+	 * Loads dismissed members of page of scan point history with one query.
+	 */
+	public List<TeamDismiss> loadDismissedMembers(ScanPoint scanPoint, Collection<Integer> teamIds)
 	{
 		List<TeamDismiss> result = new ArrayList<TeamDismiss>();
-		Integer distanceId = levelPoint.getDistanceId();
-		String sql =
-		    "select distinct d." + DISMISS_DATE + ", d." + TEAM_ID + ", d." + TEAMUSER_ID + ", lp."
-		            + LEVELPOINT_ID + ", lp." + LEVELPOINT_ORDER + " from " + TABLE_DISMISS
-		            + " as d join " + TABLE_LEVELPOINTS + " as lp on (d." + LEVELPOINT_ID
-		            + " = lp." + LEVELPOINT_ID + ") where lp." + DISTANCE_ID + " = " + distanceId
-		            + " and lp." + LEVELPOINT_ORDER + " <= " + levelPoint.getLevelPointOrder();
+		String sql = getTeamsDismissedSQL(scanPoint.getLevelPoints().values(), teamIds);
 		Cursor resultCursor = db.rawQuery(sql, null);
 
+		int scanPointId = scanPoint.getScanPointId();
 		resultCursor.moveToFirst();
 		while (!resultCursor.isAfterLast())
 		{
-			Date recordDateTime = DateFormat.parse(resultCursor.getString(0));
+			long recordTime = DateFormat.fromDBTime(resultCursor.getLong(0));
 			int teamId = resultCursor.getInt(1);
 			int teamUserId = resultCursor.getInt(2);
-			int levelPointId = resultCursor.getInt(3);
-			int levelPointOrder = resultCursor.getInt(4);
-			if (isDBLevelPointEarlier(levelPoint, levelPointId, levelPointOrder))
-			{
-				TeamDismiss teamDismiss =
-				    new TeamDismiss(levelPoint.getScanPoint().getScanPointId(), teamId, teamUserId, recordDateTime);
+			TeamDismiss teamDismiss = new TeamDismiss(scanPointId, teamId, teamUserId, recordTime);
 
-				// init reference fields
-				teamDismiss.setScanPoint(levelPoint.getScanPoint());
-				teamDismiss.setTeam(TeamsRegistry.getInstance().getTeamById(teamId));
-				teamDismiss.setTeamUser(UsersRegistry.getInstance().getUserById(teamUserId));
+			// init reference fields
+			teamDismiss.setScanPoint(scanPoint);
+			teamDismiss.setTeam(TeamsRegistry.getInstance().getTeamById(teamId));
+			teamDismiss.setTeamUser(UsersRegistry.getInstance().getUserById(teamUserId));
 
-				result.add(teamDismiss);
-			}
+			result.add(teamDismiss);
 			resultCursor.moveToNext();
 		}
 		resultCursor.close();
@@ -161,19 +148,29 @@ public class TeamDismissed
 		return result;
 	}
 
-	public void appendLevelPointTeams(LevelPoint levelPoint, Set<Integer> teams)
+	/**
+	 * Every team is dismissed at level point of its distance only, so queries of all distances
+	 * are joined without duplicates.
+	 */
+	public static String getTeamsDismissedSQL(Collection<LevelPoint> levelPoints,
+	        Collection<Integer> teamIds)
 	{
-		String sql =
-		    "select distinct " + TEAM_ID + " from " + TABLE_DISMISS + " where " + LEVELPOINT_ID
-		            + " = " + levelPoint.getLevelPointId();
-		Cursor resultCursor = db.rawQuery(sql, null);
-
-		resultCursor.moveToFirst();
-		while (!resultCursor.isAfterLast())
+		StringBuilder sb = new StringBuilder();
+		for (LevelPoint levelPoint : levelPoints)
 		{
-			teams.add(resultCursor.getInt(0));
-			resultCursor.moveToNext();
+			if (sb.length() > 0) sb.append(" union all ");
+			sb.append(getLevelPointDismissedSQL(levelPoint)).append(" and ");
+			sb.append(ScanPointHistory.getInCondition("d." + TEAM_ID, teamIds));
 		}
-		resultCursor.close();
+		return sb.toString();
+	}
+
+	public static String getLevelPointDismissedSQL(LevelPoint levelPoint)
+	{
+		return "select distinct d." + DISMISS_TIME + ", d." + TEAM_ID + ", d." + TEAMUSER_ID + " from "
+		        + TABLE_LEVELPOINTS + " as lp join " + TABLE_DISMISS + " as d on (lp."
+		        + LEVELPOINT_ID + " = d." + LEVELPOINT_ID + ") where lp." + DISTANCE_ID + " = "
+		        + levelPoint.getDistanceId() + " and "
+		        + getEarlierLevelPointsCondition(levelPoint);
 	}
 }
@@ -7,18 +7,17 @@ import java.util.Map;
 
 import ru.mmb.terminal.model.Checkpoint;
 import ru.mmb.terminal.model.LevelPoint;
-import ru.mmb.terminal.util.DateFormat;
 
 public class TeamResultRecord implements Comparable<TeamResultRecord>
 {
-	private final Date recordDateTime;
-	private final Date checkDateTime;
+	private final long recordTime;
+	private final long checkTime;
 	private final Map<Integer, Boolean> checkedMap = new LinkedHashMap<Integer, Boolean>();
 
-	public TeamResultRecord(String recordDateTime, String checkDateTime, String takenCheckpoints, LevelPoint levelPoint)
+	public TeamResultRecord(long recordTime, long checkTime, String takenCheckpoints, LevelPoint levelPoint)
 	{
-		this.recordDateTime = DateFormat.parse(recordDateTime);
-		this.checkDateTime = DateFormat.parse(checkDateTime);
+		this.recordTime = recordTime;
+		this.checkTime = checkTime;
 
 		if (levelPoint.getPointType().isFinish())
 		{
@@ -39,17 +38,20 @@ public class TeamResultRecord implements Comparable<TeamResultRecord>
 	{
 		if (takenCheckpoints.length() == 0) return;
 
-		String[] pointNames = takenCheckpoints.split(",");
-		for (int i = 0; i < pointNames.length; i++)
+		int start = 0;
+		while (start <= takenCheckpoints.length())
 		{
-			Checkpoint checkpoint = levelPoint.getCheckpointByName(pointNames[i]);
-			checkedMap.put(checkpoint.getCheckpointOrder(), true);
+			int end = takenCheckpoints.indexOf(',', start);
+			if (end == -1) end = takenCheckpoints.length();
+			Checkpoint checkpoint = levelPoint.getCheckpointByName(takenCheckpoints, start, end);
+			if (checkpoint != null) checkedMap.put(checkpoint.getCheckpointOrder(), true);
+			start = end + 1;
 		}
 	}
 
 	public Date getCheckDateTime()
 	{
-		return checkDateTime;
+		return new Date(checkTime);
 	}
 
 	public Map<Integer, Boolean> getCheckedMap()
@@ -60,6 +62,7 @@ public class TeamResultRecord implements Comparable<TeamResultRecord>
 	@Override
 	public int compareTo(TeamResultRecord toCompare)
 	{
-		return this.recordDateTime.compareTo(toCompare.recordDateTime);
+		if (recordTime == toCompare.recordTime) return 0;
+		return (recordTime < toCompare.recordTime) ? -1 : 1;
 	}
 }
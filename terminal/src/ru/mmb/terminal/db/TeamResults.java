@@ -1,10 +1,12 @@
 package ru.mmb.terminal.db;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 import ru.mmb.terminal.model.LevelPoint;
 import ru.mmb.terminal.model.ScanPoint;
@@ -13,6 +15,7 @@ import ru.mmb.terminal.model.TeamResult;
 import ru.mmb.terminal.model.registry.ScanPointsRegistry;
 import ru.mmb.terminal.model.registry.Settings;
 import ru.mmb.terminal.model.registry.TeamsRegistry;
+import ru.mmb.terminal.report.LiveStandings;
 import ru.mmb.terminal.util.DateFormat;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
@@ -20,15 +23,19 @@ import android.database.sqlite.SQLiteDatabase;
 public class TeamResults
 {
 	private static final String TABLE_TEAM_LEVEL_POINTS = "TeamLevelPoints";
+	private static final String TABLE_TEAMS = "Teams";
 
 	private static final String TEAMLEVELPOINT_DATE = "teamlevelpoint_date";
 	private static final String DEVICE_ID = "device_id";
 	private static final String USER_ID = "user_id";
 	private static final String LEVELPOINT_ID = "levelpoint_id";
 	private static final String TEAM_ID = "team_id";
+	private static final String DISTANCE_ID = "distance_id";
 	private static final String TEAMLEVELPOINT_DATETIME = "teamlevelpoint_datetime";
 	private static final String TEAMLEVELPOINT_POINTS = "teamlevelpoint_points";
 	private static final String TEAMLEVELPOINT_COMMENT = "teamlevelpoint_comment";
+	private static final String TEAMLEVELPOINT_TIME = SchemaUpdater.TEAMLEVELPOINT_TIME;
+	private static final String TEAMLEVELPOINT_CHECKTIME = SchemaUpdater.TEAMLEVELPOINT_CHECKTIME;
 
 	private final SQLiteDatabase db;
 
@@ -40,11 +47,7 @@ public class TeamResults
 	public TeamResultRecord getExistingTeamResultRecord(LevelPoint levelPoint, Team team)
 	{
 		TeamResultRecord result = null;
-		String sql =
-		    "select " + TEAMLEVELPOINT_DATE + ", " + TEAMLEVELPOINT_DATETIME + ", "
-		            + TEAMLEVELPOINT_POINTS + " from " + TABLE_TEAM_LEVEL_POINTS + " where "
-		            + LEVELPOINT_ID + " = " + levelPoint.getLevelPointId() + " and " + TEAM_ID
-		            + " = " + team.getTeamId();
+		String sql = getExistingRecordSQL(levelPoint.getLevelPointId(), team.getTeamId());
 		Cursor resultCursor = db.rawQuery(sql, null);
 
 		if (resultCursor.moveToFirst() == false)
@@ -56,10 +59,10 @@ public class TeamResults
 		List<TeamResultRecord> records = new ArrayList<TeamResultRecord>();
 		while (!resultCursor.isAfterLast())
 		{
-			String recordDateTime = resultCursor.getString(0);
-			String checkDateTime = resultCursor.getString(1);
+			long recordTime = DateFormat.fromDBTime(resultCursor.getLong(0));
+			long checkTime = DateFormat.fromDBTime(resultCursor.getLong(1));
 			String takenCheckpoints = replaceNullWithEmptyString(resultCursor.getString(2));
-			records.add(new TeamResultRecord(recordDateTime, checkDateTime, takenCheckpoints, levelPoint));
+			records.add(new TeamResultRecord(recordTime, checkTime, takenCheckpoints, levelPoint));
 			resultCursor.moveToNext();
 		}
 		resultCursor.close();
@@ -70,6 +73,14 @@ public class TeamResults
 		return result;
 	}
 
+	public static String getExistingRecordSQL(int levelPointId, int teamId)
+	{
+		return "select " + TEAMLEVELPOINT_TIME + ", " + TEAMLEVELPOINT_CHECKTIME + ", "
+		        + TEAMLEVELPOINT_POINTS + " from " + TABLE_TEAM_LEVEL_POINTS + " where "
+		        + LEVELPOINT_ID + " = " + levelPointId + " and " + TEAM_ID
+		        + " = " + teamId;
+	}
+
 	private String replaceNullWithEmptyString(String takenCheckpoints)
 	{
 		if ("NULL".equals(takenCheckpoints))
@@ -102,6 +113,7 @@ public class TeamResults
 		{
 			db.endTransaction();
 		}
+		LiveStandings.getInstance().invalidateTeam(team.getTeamId());
 	}
 
 	private boolean isThisUserRecordExists(LevelPoint levelPoint, Team team)
@@ -146,30 +158,29 @@ public class TeamResults
 		db.execSQL(insertSql);
 	}
 
-	public List<TeamResult> loadTeamResults(LevelPoint levelPoint)
+	/**
+	 * Loads results of page of scan point history with one query.
+	 */
+	public List<TeamResult> loadTeamResults(ScanPoint scanPoint, Collection<Integer> teamIds)
 	{
 		List<TeamResult> result = new ArrayList<TeamResult>();
-		String sql =
-		    "select " + TEAMLEVELPOINT_DATE + ", " + USER_ID + ", " + DEVICE_ID + ", " + TEAM_ID
-		            + ", " + TEAMLEVELPOINT_DATETIME + ", " + TEAMLEVELPOINT_POINTS + " from "
-		            + TABLE_TEAM_LEVEL_POINTS + " where " + LEVELPOINT_ID + " = "
-		            + levelPoint.getLevelPointId();
+		String sql = getTeamsResultsSQL(scanPoint.getLevelPoints().values(), teamIds);
 		Cursor resultCursor = db.rawQuery(sql, null);
 
 		resultCursor.moveToFirst();
 		while (!resultCursor.isAfterLast())
 		{
-			Date recordDateTime = DateFormat.parse(resultCursor.getString(0));
+			long recordTime = DateFormat.fromDBTime(resultCursor.getLong(0));
 			Integer userId = resultCursor.getInt(1);
 			Integer deviceId = resultCursor.getInt(2);
 			Integer teamId = resultCursor.getInt(3);
-			Date checkDateTime = DateFormat.parse(resultCursor.getString(4));
+			long checkTime = DateFormat.fromDBTime(resultCursor.getLong(4));
 			String takenCheckpointNames = replaceNullWithEmptyString(resultCursor.getString(5));
 
 			TeamResult teamResult =
-			    new TeamResult(teamId, userId, deviceId, levelPoint.getScanPoint().getScanPointId(), takenCheckpointNames, checkDateTime, recordDateTime);
+			    new TeamResult(teamId, userId, deviceId, scanPoint.getScanPointId(), takenCheckpointNames, checkTime, recordTime);
 			// init reference fields
-			teamResult.setScanPoint(levelPoint.getScanPoint());
+			teamResult.setScanPoint(scanPoint);
 			teamResult.setTeam(TeamsRegistry.getInstance().getTeamById(teamId));
 			teamResult.initTakenCheckpoints();
 
@@ -181,50 +192,43 @@ public class TeamResults
 		return result;
 	}
 
-	public void appendLevelPointTeams(LevelPoint levelPoint, Set<Integer> teams)
+	public static String getTeamsResultsSQL(Collection<LevelPoint> levelPoints,
+	        Collection<Integer> teamIds)
 	{
-		String sql =
-		    "select distinct " + TEAM_ID + " from " + TABLE_TEAM_LEVEL_POINTS + " where "
-		            + LEVELPOINT_ID + " = " + levelPoint.getLevelPointId();
-		Cursor resultCursor = db.rawQuery(sql, null);
-
-		resultCursor.moveToFirst();
-		while (!resultCursor.isAfterLast())
+		List<Integer> levelPointIds = new ArrayList<Integer>(levelPoints.size());
+		for (LevelPoint levelPoint : levelPoints)
 		{
-			Integer teamId = resultCursor.getInt(0);
-			teams.add(teamId);
-			resultCursor.moveToNext();
+			levelPointIds.add(levelPoint.getLevelPointId());
 		}
-		resultCursor.close();
+		return "select " + TEAMLEVELPOINT_TIME + ", " + USER_ID + ", " + DEVICE_ID + ", " + TEAM_ID
+		        + ", " + TEAMLEVELPOINT_CHECKTIME + ", " + TEAMLEVELPOINT_POINTS + " from "
+		        + TABLE_TEAM_LEVEL_POINTS + " where "
+		        + ScanPointHistory.getInCondition(LEVELPOINT_ID, levelPointIds) + " and "
+		        + ScanPointHistory.getInCondition(TEAM_ID, teamIds);
 	}
 
 	public List<TeamResult> loadTeamResults(Team team)
 	{
 		List<TeamResult> result = new ArrayList<TeamResult>();
-		String sql =
-		    "select " + TEAMLEVELPOINT_DATE + ", " + USER_ID + ", " + DEVICE_ID + ", " + TEAM_ID
-		            + ", " + LEVELPOINT_ID + ", " + TEAMLEVELPOINT_DATETIME + ", "
-		            + TEAMLEVELPOINT_POINTS + " from " + TABLE_TEAM_LEVEL_POINTS + " where "
-		            + TEAM_ID + " = " + team.getTeamId() + " order by " + LEVELPOINT_ID + ", "
-		            + TEAMLEVELPOINT_DATE;
+		String sql = getTeamResultsSQL(team.getTeamId());
 		Cursor resultCursor = db.rawQuery(sql, null);
 
 		resultCursor.moveToFirst();
 		while (!resultCursor.isAfterLast())
 		{
-			Date recordDateTime = DateFormat.parse(resultCursor.getString(0));
+			long recordTime = DateFormat.fromDBTime(resultCursor.getLong(0));
 			Integer userId = resultCursor.getInt(1);
 			Integer deviceId = resultCursor.getInt(2);
 			Integer teamId = resultCursor.getInt(3);
 			int levelPointId = resultCursor.getInt(4);
-			Date checkDateTime = DateFormat.parse(resultCursor.getString(5));
+			long checkTime = DateFormat.fromDBTime(resultCursor.getLong(5));
 			String takenCheckpointNames = replaceNullWithEmptyString(resultCursor.getString(6));
 
 			ScanPoint scanPoint =
 			    ScanPointsRegistry.getInstance().getScanPointByLevelPointId(levelPointId);
 
 			TeamResult teamResult =
-			    new TeamResult(teamId, userId, deviceId, scanPoint.getScanPointId(), takenCheckpointNames, checkDateTime, recordDateTime);
+			    new TeamResult(teamId, userId, deviceId, scanPoint.getScanPointId(), takenCheckpointNames, checkTime, recordTime);
 			// init reference fields
 			teamResult.setScanPoint(scanPoint);
 			teamResult.setTeam(team);
@@ -237,4 +241,97 @@ public class TeamResults
 
 		return result;
 	}
+
+	public static String getTeamResultsSQL(int teamId)
+	{
+		return "select " + TEAMLEVELPOINT_TIME + ", " + USER_ID + ", " + DEVICE_ID + ", " + TEAM_ID
+		        + ", " + LEVELPOINT_ID + ", " + TEAMLEVELPOINT_CHECKTIME + ", "
+		        + TEAMLEVELPOINT_POINTS + " from " + TABLE_TEAM_LEVEL_POINTS + " where "
+		        + TEAM_ID + " = " + teamId + " order by " + LEVELPOINT_ID + ", "
+		        + TEAMLEVELPOINT_TIME;
+	}
+
+	/**
+	 * Loads results of all teams of the distance with one query.<br>
+	 * Rows are ordered by team, so results of each team are passed to handler as soon as
+	 * they are read. Handler is not called for teams without results and for teams absent in
+	 * teams list.
+	 */
+	public void loadTeamResults(int distanceId, List<Team> teams, TeamResultsHandler handler)
+	{
+		Map<Integer, Team> teamsById = new HashMap<Integer, Team>();
+		for (Team team : teams)
+		{
+			teamsById.put(team.getTeamId(), team);
+		}
+
+		String sql = getDistanceResultsSQL(distanceId);
+		Cursor resultCursor = db.rawQuery(sql, null);
+
+		Map<Integer, ScanPoint> scanPointsCache = new HashMap<Integer, ScanPoint>();
+		Team currentTeam = null;
+		int currentTeamId = -1;
+		List<TeamResult> currentResults = new ArrayList<TeamResult>();
+
+		resultCursor.moveToFirst();
+		while (!resultCursor.isAfterLast())
+		{
+			int teamId = resultCursor.getInt(3);
+			if (teamId != currentTeamId)
+			{
+				if (currentTeam != null && !currentResults.isEmpty())
+				{
+					handler.onTeamResults(currentTeam, currentResults);
+					currentResults = new ArrayList<TeamResult>();
+				}
+				currentTeamId = teamId;
+				currentTeam = teamsById.get(teamId);
+			}
+			if (currentTeam == null)
+			{
+				resultCursor.moveToNext();
+				continue;
+			}
+
+			long recordTime = DateFormat.fromDBTime(resultCursor.getLong(0));
+			Integer userId = resultCursor.getInt(1);
+			Integer deviceId = resultCursor.getInt(2);
+			int levelPointId = resultCursor.getInt(4);
+			long checkTime = DateFormat.fromDBTime(resultCursor.getLong(5));
+			String takenCheckpointNames = replaceNullWithEmptyString(resultCursor.getString(6));
+
+			ScanPoint scanPoint = scanPointsCache.get(levelPointId);
+			if (scanPoint == null)
+			{
+				scanPoint = ScanPointsRegistry.getInstance().getScanPointByLevelPointId(levelPointId);
+				scanPointsCache.put(levelPointId, scanPoint);
+			}
+
+			TeamResult teamResult =
+			    new TeamResult(teamId, userId, deviceId, scanPoint.getScanPointId(), takenCheckpointNames, checkTime, recordTime);
+			// init reference fields
+			teamResult.setScanPoint(scanPoint);
+			teamResult.setTeam(currentTeam);
+			teamResult.initTakenCheckpoints();
+
+			currentResults.add(teamResult);
+			resultCursor.moveToNext();
+		}
+		resultCursor.close();
+
+		if (currentTeam != null && !currentResults.isEmpty())
+		{
+			handler.onTeamResults(currentTeam, currentResults);
+		}
+	}
+
+	public static String getDistanceResultsSQL(int distanceId)
+	{
+		return "select " + TEAMLEVELPOINT_TIME + ", " + USER_ID + ", " + DEVICE_ID + ", " + TEAM_ID
+		        + ", " + LEVELPOINT_ID + ", " + TEAMLEVELPOINT_CHECKTIME + ", "
+		        + TEAMLEVELPOINT_POINTS + " from " + TABLE_TEAM_LEVEL_POINTS + " where "
+		        + TEAM_ID + " in (select " + TEAM_ID + " from " + TABLE_TEAMS + " where "
+		        + DISTANCE_ID + " = " + distanceId + ") order by " + TEAM_ID + ", "
+		        + LEVELPOINT_ID + ", " + TEAMLEVELPOINT_TIME;
+	}
 }
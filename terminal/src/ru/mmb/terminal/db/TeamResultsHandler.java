@@ -0,0 +1,11 @@
+package ru.mmb.terminal.db;
+
+import java.util.List;
+
+import ru.mmb.terminal.model.Team;
+import ru.mmb.terminal.model.TeamResult;
+
+public interface TeamResultsHandler
+{
+	void onTeamResults(Team team, List<TeamResult> teamResults);
+}
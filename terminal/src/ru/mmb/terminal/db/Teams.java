@@ -39,11 +39,7 @@ public class Teams
 	public List<Team> loadTeams()
 	{
 		List<Team> result = new ArrayList<Team>();
-		String sql =
-		    "select t." + TEAM_ID + ", t." + DISTANCE_ID + ", t." + TEAM_NAME + ", t." + TEAM_NUM
-		            + " from " + TABLE_TEAMS + " as t where t." + DISTANCE_ID + " in (select d."
-		            + DISTANCE_ID + " from " + TABLE_DISTANCES + " as d where d." + RAID_ID + " = "
-		            + CurrentRaid.getId() + ")";
+		String sql = getTeamsSQL(CurrentRaid.getId());
 		Cursor resultCursor = db.rawQuery(sql, null);
 
 		resultCursor.moveToFirst();
@@ -63,17 +59,18 @@ public class Teams
 		return result;
 	}
 
+	public static String getTeamsSQL(int raidId)
+	{
+		return "select t." + TEAM_ID + ", t." + DISTANCE_ID + ", t." + TEAM_NAME + ", t." + TEAM_NUM
+		        + " from " + TABLE_TEAMS + " as t where t." + DISTANCE_ID + " in (select d."
+		        + DISTANCE_ID + " from " + TABLE_DISTANCES + " as d where d." + RAID_ID + " = "
+		        + raidId + ")";
+	}
+
 	private void loadTeamUsers(List<Team> teams)
 	{
 		List<Participant> participants = new ArrayList<Participant>();
-		String sql =
-		    "select t." + TEAM_ID + ", u." + USER_ID + ", tu." + TEAMUSER_ID + ", u." + USER_NAME
-		            + ", u." + USER_BIRTHYEAR + " from " + TABLE_USERS + " as u join "
-		            + TABLE_TEAMUSERS + " as tu on (u." + USER_ID + " = tu." + USER_ID + ") join "
-		            + TABLE_TEAMS + " as t on (tu." + TEAM_ID + " = t." + TEAM_ID + ") where t."
-		            + DISTANCE_ID + " in (select d." + DISTANCE_ID + " from " + TABLE_DISTANCES
-		            + " as d where d." + RAID_ID + " = " + CurrentRaid.getId() + ") and (tu."
-		            + TEAMUSER_HIDE + " is NULL or tu." + TEAMUSER_HIDE + " = 0)";
+		String sql = getTeamUsersSQL(CurrentRaid.getId());
 		Cursor resultCursor = db.rawQuery(sql, null);
 
 		resultCursor.moveToFirst();
@@ -94,6 +91,17 @@ public class Teams
 		putParticipantsToTeams(teams, participants);
 	}
 
+	public static String getTeamUsersSQL(int raidId)
+	{
+		return "select t." + TEAM_ID + ", u." + USER_ID + ", tu." + TEAMUSER_ID + ", u." + USER_NAME
+		        + ", u." + USER_BIRTHYEAR + " from " + TABLE_USERS + " as u join "
+		        + TABLE_TEAMUSERS + " as tu on (u." + USER_ID + " = tu." + USER_ID + ") join "
+		        + TABLE_TEAMS + " as t on (tu." + TEAM_ID + " = t." + TEAM_ID + ") where t."
+		        + DISTANCE_ID + " in (select d." + DISTANCE_ID + " from " + TABLE_DISTANCES
+		        + " as d where d." + RAID_ID + " = " + raidId + ") and (tu."
+		        + TEAMUSER_HIDE + " is NULL or tu." + TEAMUSER_HIDE + " = 0)";
+	}
+
 	private void putParticipantsToTeams(List<Team> teams, List<Participant> participants)
 	{
 		Map<Integer, Team> teamsMap = createTeamsMap(teams);
@@ -1,8 +1,9 @@
 package ru.mmb.terminal.db;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
-import java.util.Set;
 
 import ru.mmb.terminal.model.Distance;
 import ru.mmb.terminal.model.LevelPoint;
@@ -13,6 +14,7 @@ import ru.mmb.terminal.model.Team;
 import ru.mmb.terminal.model.TeamDismiss;
 import ru.mmb.terminal.model.TeamResult;
 import ru.mmb.terminal.model.User;
+import ru.mmb.terminal.model.history.HistoryKey;
 import ru.mmb.terminal.model.registry.Settings;
 import ru.mmb.terminal.transport.model.MetaTable;
 import android.database.sqlite.SQLiteDatabase;
@@ -33,6 +35,9 @@ public class TerminalDB
 	private Users users;
 	private TeamResults teamResults;
 	private TeamDismissed teamDismissed;
+	private ScanPointHistory scanPointHistory;
+	private ExportChangeLog exportChangeLog;
+	private WriteQueue writeQueue;
 
 	private IDGenerator idGenerator;
 
@@ -65,6 +70,7 @@ public class TerminalDB
 			    SQLiteDatabase.openDatabase(Settings.getInstance().getPathToTerminalDB(), null, SQLiteDatabase.OPEN_READWRITE);
 			// Log.d("TerminalDB", "db open " + Settings.getInstance().getPathToTerminalDB());
 			performTestQuery();
+			new SchemaUpdater(db).update();
 			// Log.d("TerminalDB", "db open SUCCESS");
 			distances = new Distances(db);
 			scanPoints = new ScanPoints(db);
@@ -76,6 +82,9 @@ public class TerminalDB
 			users = new Users(db);
 			teamResults = new TeamResults(db);
 			teamDismissed = new TeamDismissed(db);
+			scanPointHistory = new ScanPointHistory(db);
+			exportChangeLog = new ExportChangeLog(db);
+			writeQueue = new WriteQueue(db);
 		}
 		catch (SQLiteException e)
 		{
@@ -105,6 +114,11 @@ public class TerminalDB
 	{
 		if (isConnected())
 		{
+			if (writeQueue != null)
+			{
+				writeQueue.close();
+				writeQueue = null;
+			}
 			db.close();
 			// Log.d("TerminalDB", "close connection OK");
 			db = null;
@@ -113,6 +127,7 @@ public class TerminalDB
 
 	public List<Participant> getDismissedMembers(LevelPoint levelPoint, Team team)
 	{
+		writeQueue.flush();
 		return teamDismissed.getDismissedMembers(levelPoint, team);
 	}
 
@@ -122,12 +137,69 @@ public class TerminalDB
 		teamDismissed.saveDismissedMembers(levelPoint, team, dismissedMembers, recordDateTime);
 	}
 
+	/**
+	 * Saves dismissed members in writer thread, see WriteQueue.
+	 */
+	public void queueDismissedMembers(final LevelPoint levelPoint, final Team team,
+	        List<Participant> dismissedMembers, final Date recordDateTime, WriteCallback callback)
+	{
+		final List<Participant> members = new ArrayList<Participant>(dismissedMembers);
+		writeQueue.put(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				teamDismissed.saveDismissedMembers(levelPoint, team, members, recordDateTime);
+			}
+		}, callback);
+	}
+
 	public void saveTeamResult(LevelPoint levelPoint, Team team, Date checkDateTime,
 	        String takenCheckpoints, Date recordDateTime)
 	{
 		teamResults.saveTeamResult(levelPoint, team, checkDateTime, takenCheckpoints, recordDateTime);
 	}
 
+	/**
+	 * Saves team result in writer thread, see WriteQueue.
+	 */
+	public void queueTeamResult(final LevelPoint levelPoint, final Team team,
+	        final Date checkDateTime, final String takenCheckpoints, final Date recordDateTime,
+	        WriteCallback callback)
+	{
+		writeQueue.put(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				teamResults.saveTeamResult(levelPoint, team, checkDateTime, takenCheckpoints, recordDateTime);
+			}
+		}, callback);
+	}
+
+	/**
+	 * Waits for queued input, so following reads see it.
+	 */
+	public void flushWrites()
+	{
+		writeQueue.flush();
+	}
+
+	public long getLastExportedChange()
+	{
+		return exportChangeLog.getLastExportedChange();
+	}
+
+	public long getLastChange()
+	{
+		return exportChangeLog.getLastChange();
+	}
+
+	public void commitExportedChanges(long lastChange)
+	{
+		exportChangeLog.commitExportedChanges(lastChange);
+	}
+
 	public SQLiteDatabase getDb()
 	{
 		return db;
@@ -150,6 +222,7 @@ public class TerminalDB
 
 	public TeamResultRecord getExistingTeamResultRecord(LevelPoint levelPoint, Team team)
 	{
+		writeQueue.flush();
 		return teamResults.getExistingTeamResultRecord(levelPoint, team);
 	}
 
@@ -158,25 +231,27 @@ public class TerminalDB
 		return metaTables.loadMetaTables();
 	}
 
-	public List<TeamResult> loadTeamResults(LevelPoint levelPoint)
+	public List<User> loadUsers()
 	{
-		return teamResults.loadTeamResults(levelPoint);
+		return users.loadUsers();
 	}
 
-	public List<User> loadUsers()
+	public List<TeamDismiss> loadDismissedMembers(ScanPoint scanPoint, Collection<Integer> teamIds)
 	{
-		return users.loadUsers();
+		writeQueue.flush();
+		return teamDismissed.loadDismissedMembers(scanPoint, teamIds);
 	}
 
-	public List<TeamDismiss> loadDismissedMembers(LevelPoint levelPoint)
+	public List<TeamResult> loadTeamResults(ScanPoint scanPoint, Collection<Integer> teamIds)
 	{
-		return teamDismissed.loadDismissedMembers(levelPoint);
+		writeQueue.flush();
+		return teamResults.loadTeamResults(scanPoint, teamIds);
 	}
 
-	public void appendLevelPointTeams(LevelPoint levelPoint, Set<Integer> teams)
+	public List<HistoryKey> loadHistoryKeys(Collection<LevelPoint> levelPoints, Integer teamId)
 	{
-		teamResults.appendLevelPointTeams(levelPoint, teams);
-		teamDismissed.appendLevelPointTeams(levelPoint, teams);
+		writeQueue.flush();
+		return scanPointHistory.loadHistoryKeys(levelPoints, teamId);
 	}
 
 	public List<ScanPoint> loadScanPoints(int raidId)
@@ -198,4 +273,9 @@ public class TerminalDB
 	{
 		return teamResults.loadTeamResults(team);
 	}
+
+	public void loadTeamResults(int distanceId, List<Team> teams, TeamResultsHandler handler)
+	{
+		teamResults.loadTeamResults(distanceId, teams, handler);
+	}
 }
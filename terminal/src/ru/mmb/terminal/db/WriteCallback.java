@@ -0,0 +1,11 @@
+package ru.mmb.terminal.db;
+
+/**
+ * Result of queued write, methods are called from writer thread.
+ */
+public interface WriteCallback
+{
+	void onCommitted();
+
+	void onFailed(RuntimeException e);
+}
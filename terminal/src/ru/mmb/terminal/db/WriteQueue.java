@@ -0,0 +1,257 @@
+package ru.mmb.terminal.db;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import android.database.sqlite.SQLiteDatabase;
+
+/**
+ * Single writer of terminal input.<br>
+ * Writes are committed by background thread, writes queued during group commit delay are
+ * committed in one transaction. If the transaction fails, writes are repeated one by one, so
+ * only failed write is lost.<br>
+ * Queue is bounded, producer waits when writer is far behind.
+ */
+public class WriteQueue
+{
+	public static final int CAPACITY = 256;
+	public static final long GROUP_COMMIT_MILLIS = 5;
+	private static final int MAX_GROUP_SIZE = 64;
+
+	private static final PendingWrite STOP = new PendingWrite(null, null);
+
+	private final SQLiteDatabase db;
+	private final BlockingQueue<PendingWrite> queue = new ArrayBlockingQueue<PendingWrite>(CAPACITY);
+	private final Thread writerThread;
+
+	// guarded by this
+	private int unfinishedCount = 0;
+
+	public WriteQueue(SQLiteDatabase db)
+	{
+		this.db = db;
+		writerThread = new Thread("TerminalDB writer")
+		{
+			@Override
+			public void run()
+			{
+				processWrites();
+			}
+		};
+		writerThread.setDaemon(true);
+		writerThread.start();
+	}
+
+	/**
+	 * @param callback
+	 *            Called from writer thread after the write is committed or failed, can be null.
+	 */
+	public void put(Runnable write, WriteCallback callback)
+	{
+		synchronized (this)
+		{
+			unfinishedCount++;
+		}
+		putToQueue(new PendingWrite(write, callback));
+	}
+
+	private void putToQueue(PendingWrite pendingWrite)
+	{
+		boolean interrupted = false;
+		while (true)
+		{
+			try
+			{
+				queue.put(pendingWrite);
+				break;
+			}
+			catch (InterruptedException e)
+			{
+				interrupted = true;
+			}
+		}
+		if (interrupted) Thread.currentThread().interrupt();
+	}
+
+	/**
+	 * Waits until all queued writes are committed or failed.<br>
+	 * Called before reads which must see all input and before connection is closed.
+	 */
+	public synchronized void flush()
+	{
+		// callbacks are called by writer itself
+		if (Thread.currentThread() == writerThread) return;
+
+		boolean interrupted = false;
+		while (unfinishedCount > 0)
+		{
+			try
+			{
+				wait();
+			}
+			catch (InterruptedException e)
+			{
+				interrupted = true;
+			}
+		}
+		if (interrupted) Thread.currentThread().interrupt();
+	}
+
+	public void close()
+	{
+		flush();
+		putToQueue(STOP);
+		try
+		{
+			writerThread.join();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void processWrites()
+	{
+		List<PendingWrite> group = new ArrayList<PendingWrite>();
+		while (true)
+		{
+			PendingWrite pendingWrite = take();
+			if (pendingWrite == STOP) return;
+			group.add(pendingWrite);
+
+			boolean stop = false;
+			long groupEnd = System.currentTimeMillis() + GROUP_COMMIT_MILLIS;
+			while (group.size() < MAX_GROUP_SIZE)
+			{
+				pendingWrite = poll(groupEnd - System.currentTimeMillis());
+				if (pendingWrite == null) break;
+				if (pendingWrite == STOP)
+				{
+					stop = true;
+					break;
+				}
+				group.add(pendingWrite);
+			}
+
+			commitGroup(group);
+			group.clear();
+			if (stop) return;
+		}
+	}
+
+	private PendingWrite take()
+	{
+		while (true)
+		{
+			try
+			{
+				return queue.take();
+			}
+			catch (InterruptedException e)
+			{
+				// writer is stopped only by STOP write
+			}
+		}
+	}
+
+	private PendingWrite poll(long timeoutMillis)
+	{
+		if (timeoutMillis <= 0) return queue.poll();
+		try
+		{
+			return queue.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException e)
+		{
+			return null;
+		}
+	}
+
+	private void commitGroup(List<PendingWrite> group)
+	{
+		RuntimeException error = commit(group);
+		if (error == null)
+		{
+			for (PendingWrite pendingWrite : group)
+			{
+				finish(pendingWrite, null);
+			}
+			return;
+		}
+
+		List<PendingWrite> single = new ArrayList<PendingWrite>(1);
+		for (PendingWrite pendingWrite : group)
+		{
+			single.clear();
+			single.add(pendingWrite);
+			finish(pendingWrite, (group.size() == 1) ? error : commit(single));
+		}
+	}
+
+	private RuntimeException commit(List<PendingWrite> writes)
+	{
+		try
+		{
+			db.beginTransaction();
+			try
+			{
+				for (PendingWrite pendingWrite : writes)
+				{
+					pendingWrite.write.run();
+				}
+				db.setTransactionSuccessful();
+			}
+			finally
+			{
+				db.endTransaction();
+			}
+			return null;
+		}
+		catch (RuntimeException e)
+		{
+			return e;
+		}
+	}
+
+	private void finish(PendingWrite pendingWrite, RuntimeException error)
+	{
+		try
+		{
+			if (pendingWrite.callback != null)
+			{
+				if (error == null)
+					pendingWrite.callback.onCommitted();
+				else
+					pendingWrite.callback.onFailed(error);
+			}
+		}
+		catch (RuntimeException e)
+		{
+			// callback error must not stop the writer
+		}
+		finally
+		{
+			synchronized (this)
+			{
+				unfinishedCount--;
+				notifyAll();
+			}
+		}
+	}
+
+	private static class PendingWrite
+	{
+		private final Runnable write;
+		private final WriteCallback callback;
+
+		private PendingWrite(Runnable write, WriteCallback callback)
+		{
+			this.write = write;
+			this.callback = callback;
+		}
+	}
+}
@@ -176,9 +176,23 @@ public class LevelPoint implements Serializable
 
 	public Checkpoint getCheckpointByName(String checkpointName)
 	{
-		for (Checkpoint checkpoint : getCheckpoints())
+		return getCheckpointByName(checkpointName, 0, checkpointName.length());
+	}
+
+	/**
+	 * Finds checkpoint by name which is a part of text from start to end.<br>
+	 * Used to parse checkpoint lists without splitting text into substrings.
+	 */
+	public Checkpoint getCheckpointByName(String text, int start, int end)
+	{
+		int length = end - start;
+		List<Checkpoint> checkpointsList = getCheckpointsInstance();
+		for (int i = 0; i < checkpointsList.size(); i++)
 		{
-			if (checkpoint.getCheckpointName().equalsIgnoreCase(checkpointName)) return checkpoint;
+			String checkpointName = checkpointsList.get(i).getCheckpointName();
+			if (checkpointName.length() == length
+			        && checkpointName.regionMatches(true, 0, text, start, length))
+			    return checkpointsList.get(i);
 		}
 		return null;
 	}
@@ -7,18 +7,18 @@ public class TeamDismiss
 	private final int scanPointId;
 	private final int teamId;
 	private final int teamUserId;
-	private final Date recordDateTime;
+	private final long recordTime;
 
 	private ScanPoint scanPoint = null;
 	private Team team = null;
 	private User teamUser = null;
 
-	public TeamDismiss(int scanPointId, int teamId, int teamUserId, Date recordDateTime)
+	public TeamDismiss(int scanPointId, int teamId, int teamUserId, long recordTime)
 	{
 		this.scanPointId = scanPointId;
 		this.teamId = teamId;
 		this.teamUserId = teamUserId;
-		this.recordDateTime = recordDateTime;
+		this.recordTime = recordTime;
 	}
 
 	public ScanPoint getScanPoint()
@@ -66,9 +66,14 @@ public class TeamDismiss
 		return teamUserId;
 	}
 
+	public long getRecordTime()
+	{
+		return recordTime;
+	}
+
 	public Date getRecordDateTime()
 	{
-		return recordDateTime;
+		return new Date(recordTime);
 	}
 
 	public LevelPoint getLevelPoint()
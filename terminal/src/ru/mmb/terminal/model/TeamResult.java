@@ -14,8 +14,8 @@ public class TeamResult implements Comparable<TeamResult>
 	private final int deviceId;
 	private final int scanPointId;
 	private final String takenCheckpointNames;
-	private final Date checkDateTime;
-	private final Date recordDateTime;
+	private final long checkTime;
+	private final long recordTime;
 
 	private Team team = null;
 	private ScanPoint scanPoint = null;
@@ -26,15 +26,15 @@ public class TeamResult implements Comparable<TeamResult>
 	private String missedCheckpointsText;
 	private String takenCheckpointsText;
 
-	public TeamResult(int teamId, int userId, int deviceId, int scanPointId, String takenCheckpointNames, Date checkDateTime, Date recordDateTime)
+	public TeamResult(int teamId, int userId, int deviceId, int scanPointId, String takenCheckpointNames, long checkTime, long recordTime)
 	{
 		this.teamId = teamId;
 		this.userId = userId;
 		this.deviceId = deviceId;
 		this.scanPointId = scanPointId;
 		this.takenCheckpointNames = takenCheckpointNames;
-		this.checkDateTime = checkDateTime;
-		this.recordDateTime = recordDateTime;
+		this.checkTime = checkTime;
+		this.recordTime = recordTime;
 	}
 
 	public Team getTeam()
@@ -67,14 +67,24 @@ public class TeamResult implements Comparable<TeamResult>
 		return takenCheckpoints;
 	}
 
+	public long getCheckTime()
+	{
+		return checkTime;
+	}
+
+	public long getRecordTime()
+	{
+		return recordTime;
+	}
+
 	public Date getCheckDateTime()
 	{
-		return checkDateTime;
+		return new Date(checkTime);
 	}
 
 	public Date getRecordDateTime()
 	{
-		return recordDateTime;
+		return new Date(recordTime);
 	}
 
 	public ScanPoint getScanPoint()
@@ -103,12 +113,15 @@ public class TeamResult implements Comparable<TeamResult>
 
 		takenCheckpoints.clear();
 
-		String[] pointNames = takenCheckpointNames.split(",");
-		for (int i = 0; i < pointNames.length; i++)
+		LevelPoint levelPoint = getLevelPoint();
+		int start = 0;
+		while (start <= takenCheckpointNames.length())
 		{
-			Checkpoint checkpoint = getLevelPoint().getCheckpointByName(pointNames[i]);
-			if (checkpoint == null) continue;
-			takenCheckpoints.add(checkpoint);
+			int end = takenCheckpointNames.indexOf(',', start);
+			if (end == -1) end = takenCheckpointNames.length();
+			Checkpoint checkpoint = levelPoint.getCheckpointByName(takenCheckpointNames, start, end);
+			if (checkpoint != null) takenCheckpoints.add(checkpoint);
+			start = end + 1;
 		}
 
 		initCheckpointsTexts();
@@ -140,7 +153,8 @@ public class TeamResult implements Comparable<TeamResult>
 	@Override
 	public int compareTo(TeamResult another)
 	{
-		int result = recordDateTime.compareTo(another.recordDateTime);
+		int result = 0;
+		if (recordTime != another.recordTime) result = (recordTime < another.recordTime) ? -1 : 1;
 		if (result == 0)
 		{
 			result = (new Integer(userId)).compareTo(new Integer(another.userId));
@@ -151,7 +165,7 @@ public class TeamResult implements Comparable<TeamResult>
 	public String buildInfoText()
 	{
 		StringBuilder sb = new StringBuilder();
-		sb.append(PrettyDateFormat.format(checkDateTime));
+		sb.append(PrettyDateFormat.format(getCheckDateTime()));
 		if (getLevelPoint().getPointType().isFinish())
 		    sb.append("\n").append(takenCheckpointsText);
 		return sb.toString();
@@ -162,8 +176,8 @@ public class TeamResult implements Comparable<TeamResult>
 	{
 		return "TeamLevelPoint [teamId=" + teamId + ", userId=" + userId + ", deviceId=" + deviceId
 		        + ", levelPointId=" + getLevelPoint().getLevelPointId() + ", takenCheckpointNames="
-		        + takenCheckpointNames + ", checkDateTime=" + checkDateTime + ", recordDateTime="
-		        + recordDateTime + ", takenCheckpoints=" + takenCheckpoints
+		        + takenCheckpointNames + ", checkDateTime=" + getCheckDateTime() + ", recordDateTime="
+		        + getRecordDateTime() + ", takenCheckpoints=" + takenCheckpoints
 		        + ", takenCheckpointsText=" + takenCheckpointsText + "]";
 	}
 }
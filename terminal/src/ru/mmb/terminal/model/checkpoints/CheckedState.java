@@ -2,7 +2,7 @@ package ru.mmb.terminal.model.checkpoints;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 
@@ -11,9 +11,11 @@ import ru.mmb.terminal.model.LevelPoint;
 
 public class CheckedState implements Serializable
 {
-	private static final long serialVersionUID = -1671058824332140814L;
+	private static final long serialVersionUID = 4307527018625283315L;
 
-	private final Map<Integer, Boolean> checkedMap = new LinkedHashMap<Integer, Boolean>();
+	// Bit number is checkpoint order.
+	private final BitSet checkpoints = new BitSet();
+	private final BitSet checked = new BitSet();
 	private LevelPoint levelPoint;
 
 	public CheckedState()
@@ -30,17 +32,19 @@ public class CheckedState implements Serializable
 		}
 		else
 		{
-			checkedMap.clear();
+			checkpoints.clear();
+			checked.clear();
 		}
 		this.levelPoint = levelPoint;
 	}
 
 	private void rebuildCheckedMap(LevelPoint levelPoint)
 	{
-		checkedMap.clear();
+		checkpoints.clear();
+		checked.clear();
 		for (Checkpoint checkpoint : levelPoint.getCheckpoints())
 		{
-			checkedMap.put(checkpoint.getCheckpointOrder(), false);
+			checkpoints.set(checkpoint.getCheckpointOrder());
 		}
 	}
 
@@ -51,16 +55,13 @@ public class CheckedState implements Serializable
 
 	public void setChecked(int orderNum, boolean checked)
 	{
-		checkedMap.put(orderNum, checked);
+		checkpoints.set(orderNum);
+		this.checked.set(orderNum, checked);
 	}
 
 	public boolean isChecked(int orderNum)
 	{
-		if (checkedMap.containsKey(orderNum))
-		{
-			return checkedMap.get(orderNum);
-		}
-		return false;
+		return checked.get(orderNum);
 	}
 
 	public String getTakenCheckpointsText()
@@ -101,40 +102,32 @@ public class CheckedState implements Serializable
 
 	public List<Integer> getCheckedList()
 	{
-		List<Integer> result = new ArrayList<Integer>();
-		for (Map.Entry<Integer, Boolean> checkedEntry : checkedMap.entrySet())
-		{
-			if (checkedEntry.getValue() == true) result.add(checkedEntry.getKey());
-		}
-		return result;
+		return getCheckpointsList(true);
 	}
 
 	public List<Integer> getNotCheckedList()
+	{
+		return getCheckpointsList(false);
+	}
+
+	private List<Integer> getCheckpointsList(boolean checkedValue)
 	{
 		List<Integer> result = new ArrayList<Integer>();
-		for (Map.Entry<Integer, Boolean> checkedEntry : checkedMap.entrySet())
+		for (int i = checkpoints.nextSetBit(0); i >= 0; i = checkpoints.nextSetBit(i + 1))
 		{
-			if (checkedEntry.getValue() == false) result.add(checkedEntry.getKey());
+			if (checked.get(i) == checkedValue) result.add(i);
 		}
 		return result;
 	}
 
 	public void checkAll()
 	{
-		setAllChecked(true);
+		checked.or(checkpoints);
 	}
 
 	public void uncheckAll()
 	{
-		setAllChecked(false);
-	}
-
-	private void setAllChecked(boolean value)
-	{
-		for (Integer orderNum : checkedMap.keySet())
-		{
-			checkedMap.put(orderNum, value);
-		}
+		checked.clear();
 	}
 
 	public void loadTakenCheckpoints(Map<Integer, Boolean> checkedMap)
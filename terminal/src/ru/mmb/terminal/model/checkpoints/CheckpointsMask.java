@@ -0,0 +1,57 @@
+package ru.mmb.terminal.model.checkpoints;
+
+/**
+ * Operations with checkpoints sets stored as long[] bit masks.<br>
+ * Bit number is checkpoint order, so masks of one level point can be combined directly.
+ */
+public class CheckpointsMask
+{
+	private static final int WORD_BITS = 6;
+
+	private CheckpointsMask()
+	{
+	}
+
+	public static long[] create(int maxOrder)
+	{
+		return new long[(maxOrder >> WORD_BITS) + 1];
+	}
+
+	public static void set(long[] mask, int order)
+	{
+		if (order < 0 || (order >> WORD_BITS) >= mask.length) return;
+		mask[order >> WORD_BITS] |= 1L << order;
+	}
+
+	public static boolean isSet(long[] mask, int order)
+	{
+		if (order < 0 || (order >> WORD_BITS) >= mask.length) return false;
+		return (mask[order >> WORD_BITS] & (1L << order)) != 0;
+	}
+
+	/**
+	 * @return sum of weights of checkpoints from mask which are not taken
+	 */
+	public static int sumMissed(long[] mask, long[] taken, int[] weights, int uniformWeight)
+	{
+		int result = 0;
+		if (uniformWeight >= 0)
+		{
+			for (int i = 0; i < mask.length; i++)
+			{
+				result += Long.bitCount(mask[i] & ~taken[i]);
+			}
+			return result * uniformWeight;
+		}
+		for (int i = 0; i < mask.length; i++)
+		{
+			long missed = mask[i] & ~taken[i];
+			while (missed != 0)
+			{
+				result += weights[(i << WORD_BITS) + Long.numberOfTrailingZeros(missed)];
+				missed &= missed - 1;
+			}
+		}
+		return result;
+	}
+}
@@ -1,14 +1,7 @@
 package ru.mmb.terminal.model.history;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
-import ru.mmb.terminal.db.TerminalDB;
-import ru.mmb.terminal.model.LevelPoint;
 import ru.mmb.terminal.model.ScanPoint;
 import ru.mmb.terminal.model.TeamDismiss;
 import ru.mmb.terminal.model.TeamResult;
@@ -45,105 +38,35 @@ public class DataStorage
 
 	private final ScanPoint scanPoint;
 
-	private final Set<Integer> scanPointTeams = new HashSet<Integer>();
-	private final TeamResultsStorage teamResultsStorage = new TeamResultsStorage();
-	private final TeamDismissedStorage teamDismissedStorage = new TeamDismissedStorage();
+	private final PagedHistory history;
 
 	private DataStorage(ScanPoint scanPoint)
 	{
 		this.scanPoint = scanPoint;
-		initScanPointTeams();
-		initTeamResultsStorage();
-		initTeamDismissedStorage();
+		this.history = new PagedHistory(scanPoint);
 	}
 
-	private void initScanPointTeams()
+	public int getHistorySize()
 	{
-		scanPointTeams.clear();
-		for (LevelPoint levelPoint : scanPoint.getLevelPoints().values())
-		{
-			TerminalDB.getConnectedInstance().appendLevelPointTeams(levelPoint, scanPointTeams);
-		}
-	}
-
-	private void initTeamResultsStorage()
-	{
-		for (LevelPoint levelPoint : scanPoint.getLevelPoints().values())
-		{
-			List<TeamResult> inputData =
-			    TerminalDB.getConnectedInstance().loadTeamResults(levelPoint);
-			for (TeamResult teamLevelPoint : inputData)
-			{
-				teamResultsStorage.put(teamLevelPoint);
-			}
-		}
+		return history.size();
 	}
 
-	private void initTeamDismissedStorage()
+	/**
+	 * Records are loaded by pages, so only shown part of history is loaded from DB.
+	 */
+	public HistoryInfo getHistoryInfo(int position)
 	{
-		for (LevelPoint levelPoint : scanPoint.getLevelPoints().values())
-		{
-			List<TeamDismiss> dismissed =
-			    TerminalDB.getConnectedInstance().loadDismissedMembers(levelPoint);
-			for (TeamDismiss teamDismiss : dismissed)
-			{
-				teamDismissedStorage.put(teamDismiss);
-			}
-		}
+		return history.get(position);
 	}
 
 	public List<HistoryInfo> getHistory()
 	{
-		List<HistoryInfo> result = new ArrayList<HistoryInfo>();
-		Set<Integer> teamIds = new HashSet<Integer>(scanPointTeams);
-		List<TeamResult> resultsHistory = teamResultsStorage.getHistory();
-		for (TeamResult teamResult : resultsHistory)
-		{
-			Integer teamId = teamResult.getTeam().getTeamId();
-			TeamDismissedState teamDismissedState =
-			    teamDismissedStorage.getTeamDismissedState(teamId);
-			result.add(new HistoryInfo(teamId, teamResult, teamDismissedState));
-			teamIds.remove(teamId);
-		}
-		appendDismissedWithoutData(teamIds, result);
-		return result;
-	}
-
-	private void appendDismissedWithoutData(Set<Integer> teamIds, List<HistoryInfo> result)
-	{
-		if (teamIds.isEmpty()) return;
-		int addedCount = 0;
-		for (Integer teamId : teamIds)
-		{
-			if (teamDismissedStorage.containsTeamId(teamId))
-			{
-				TeamDismissedState teamDismissedState =
-				    teamDismissedStorage.getTeamDismissedState(teamId);
-				result.add(new HistoryInfo(teamId, null, teamDismissedState));
-				addedCount++;
-			}
-		}
-		if (addedCount > 0)
-		{
-			Collections.sort(result, new Comparator<HistoryInfo>()
-			{
-				@Override
-				public int compare(HistoryInfo object1, HistoryInfo object2)
-				{
-					return -1 * object1.compareTo(object2);
-				}
-			});
-		}
+		return history.getAll();
 	}
 
-	private Set<Integer> getScanPointTeams()
+	private PagedHistory getPagedHistory()
 	{
-		return scanPointTeams;
-	}
-
-	private TeamResultsStorage getTeamResultsStorage()
-	{
-		return teamResultsStorage;
+		return history;
 	}
 
 	public ScanPoint getScanPoint()
@@ -151,17 +74,11 @@ public class DataStorage
 		return scanPoint;
 	}
 
-	private TeamDismissedStorage getTeamDismissedStorage()
-	{
-		return teamDismissedStorage;
-	}
-
 	public static void putTeamResult(TeamResult teamResult)
 	{
 		if (instance.getScanPoint().getScanPointId() == teamResult.getScanPointId())
 		{
-			instance.getTeamResultsStorage().put(teamResult);
-			instance.getScanPointTeams().add(teamResult.getTeamId());
+			instance.getPagedHistory().putTeamResult(teamResult);
 		}
 		else
 		{
@@ -177,8 +94,7 @@ public class DataStorage
 	{
 		if (instance.getScanPoint().getScanPointId() == teamDismiss.getScanPointId())
 		{
-			instance.getTeamDismissedStorage().put(teamDismiss);
-			instance.getScanPointTeams().add(teamDismiss.getTeamId());
+			instance.getPagedHistory().putTeamDismiss(teamDismiss);
 		}
 		else
 		{
@@ -62,6 +62,16 @@ public class HistoryInfo implements Comparable<HistoryInfo>
 		return teamResult.getUserId();
 	}
 
+	public TeamResult getTeamResult()
+	{
+		return teamResult;
+	}
+
+	public TeamDismissedState getTeamDismissedState()
+	{
+		return teamDismissedState;
+	}
+
 	@Override
 	public int compareTo(HistoryInfo another)
 	{
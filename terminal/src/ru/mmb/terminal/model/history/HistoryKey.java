@@ -0,0 +1,41 @@
+package ru.mmb.terminal.model.history;
+
+/**
+ * Position of history record, HistoryInfo is loaded only when the record is shown.
+ */
+public class HistoryKey
+{
+	private final int teamId;
+	private final Integer userId;
+	private HistoryInfo historyInfo = null;
+
+	/**
+	 * @param userId
+	 *            Author of team result or null for team with dismissed members only.
+	 */
+	public HistoryKey(int teamId, Integer userId)
+	{
+		this.teamId = teamId;
+		this.userId = userId;
+	}
+
+	public int getTeamId()
+	{
+		return teamId;
+	}
+
+	public Integer getUserId()
+	{
+		return userId;
+	}
+
+	public HistoryInfo getHistoryInfo()
+	{
+		return historyInfo;
+	}
+
+	public void setHistoryInfo(HistoryInfo historyInfo)
+	{
+		this.historyInfo = historyInfo;
+	}
+}
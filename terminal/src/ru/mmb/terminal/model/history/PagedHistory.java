@@ -0,0 +1,214 @@
+package ru.mmb.terminal.model.history;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import ru.mmb.terminal.db.TerminalDB;
+import ru.mmb.terminal.model.ScanPoint;
+import ru.mmb.terminal.model.Team;
+import ru.mmb.terminal.model.TeamDismiss;
+import ru.mmb.terminal.model.TeamResult;
+import ru.mmb.terminal.model.registry.TeamsRegistry;
+
+/**
+ * Scan point history ordered by record time descending.<br>
+ * Only order of records is loaded at once, results and dismissed members are loaded by pages
+ * when records are requested, with one query for all teams of the page.
+ */
+public class PagedHistory
+{
+	public static final int PAGE_SIZE = 50;
+
+	private final ScanPoint scanPoint;
+	private final List<HistoryKey> keys;
+
+	public PagedHistory(ScanPoint scanPoint)
+	{
+		this.scanPoint = scanPoint;
+		this.keys = loadKeys(null);
+	}
+
+	private List<HistoryKey> loadKeys(Integer teamId)
+	{
+		return TerminalDB.getConnectedInstance().loadHistoryKeys(scanPoint.getLevelPoints().values(),
+		        teamId);
+	}
+
+	public int size()
+	{
+		return keys.size();
+	}
+
+	public HistoryInfo get(int position)
+	{
+		HistoryKey key = keys.get(position);
+		if (key.getHistoryInfo() == null) loadPage(position / PAGE_SIZE);
+		return key.getHistoryInfo();
+	}
+
+	private void loadPage(int page)
+	{
+		int start = page * PAGE_SIZE;
+		int end = Math.min(start + PAGE_SIZE, keys.size());
+		Set<Integer> teamIds = new LinkedHashSet<Integer>();
+		for (int i = start; i < end; i++)
+		{
+			HistoryKey key = keys.get(i);
+			if (key.getHistoryInfo() == null) teamIds.add(key.getTeamId());
+		}
+		if (teamIds.isEmpty()) return;
+
+		Map<Integer, List<TeamResult>> teamResults = loadTeamResults(teamIds);
+		Map<Integer, TeamDismissedState> teamDismissedStates = loadTeamDismissedStates(teamIds);
+		for (int i = start; i < end; i++)
+		{
+			HistoryKey key = keys.get(i);
+			if (key.getHistoryInfo() != null) continue;
+			int teamId = key.getTeamId();
+			TeamResult teamResult = selectTeamResult(key, teamResults.get(teamId));
+			key.setHistoryInfo(new HistoryInfo(teamId, teamResult, teamDismissedStates.get(teamId)));
+		}
+	}
+
+	private Map<Integer, List<TeamResult>> loadTeamResults(Collection<Integer> teamIds)
+	{
+		Map<Integer, List<TeamResult>> result = new HashMap<Integer, List<TeamResult>>();
+		List<TeamResult> loaded =
+		    TerminalDB.getConnectedInstance().loadTeamResults(scanPoint, teamIds);
+		for (TeamResult teamResult : loaded)
+		{
+			List<TeamResult> teamResults = result.get(teamResult.getTeamId());
+			if (teamResults == null)
+			{
+				teamResults = new ArrayList<TeamResult>();
+				result.put(teamResult.getTeamId(), teamResults);
+			}
+			teamResults.add(teamResult);
+		}
+		return result;
+	}
+
+	/**
+	 * @return the latest result of key user
+	 */
+	private TeamResult selectTeamResult(HistoryKey key, List<TeamResult> teamResults)
+	{
+		if (key.getUserId() == null || teamResults == null) return null;
+
+		TeamResult result = null;
+		for (TeamResult teamResult : teamResults)
+		{
+			if (teamResult.getUserId() != key.getUserId().intValue()) continue;
+			if (result == null || result.getRecordTime() < teamResult.getRecordTime())
+			    result = teamResult;
+		}
+		return result;
+	}
+
+	private TeamResult loadTeamResult(HistoryKey key)
+	{
+		Map<Integer, List<TeamResult>> teamResults =
+		    loadTeamResults(Collections.singleton(key.getTeamId()));
+		return selectTeamResult(key, teamResults.get(key.getTeamId()));
+	}
+
+	private Map<Integer, TeamDismissedState> loadTeamDismissedStates(Collection<Integer> teamIds)
+	{
+		Map<Integer, TeamDismissedState> result = new HashMap<Integer, TeamDismissedState>();
+		for (Integer teamId : teamIds)
+		{
+			Team team = TeamsRegistry.getInstance().getTeamById(teamId);
+			result.put(teamId, new TeamDismissedState(team));
+		}
+		List<TeamDismiss> dismissed =
+		    TerminalDB.getConnectedInstance().loadDismissedMembers(scanPoint, teamIds);
+		for (TeamDismiss teamDismiss : dismissed)
+		{
+			result.get(teamDismiss.getTeamId()).add(teamDismiss);
+		}
+		return result;
+	}
+
+	/**
+	 * New result is the latest record of the team, it replaces all team records and goes to the
+	 * head without sorting.<br>
+	 * Result is put before it is saved to DB, so it is not loaded back.
+	 */
+	public void putTeamResult(TeamResult teamResult)
+	{
+		int teamId = teamResult.getTeamId();
+		List<HistoryKey> teamKeys = removeTeamKeys(teamId);
+		TeamDismissedState teamDismissedState =
+		    getTeamDismissedState(teamResult.getTeam(), teamKeys);
+
+		HistoryKey key = new HistoryKey(teamId, teamResult.getUserId());
+		key.setHistoryInfo(new HistoryInfo(teamId, teamResult, teamDismissedState));
+		keys.add(0, key);
+	}
+
+	/**
+	 * Team records are updated with new dismissed member and moved to the head.
+	 */
+	public void putTeamDismiss(TeamDismiss teamDismiss)
+	{
+		int teamId = teamDismiss.getTeamId();
+		List<HistoryKey> teamKeys = removeTeamKeys(teamId);
+		TeamDismissedState teamDismissedState =
+		    getTeamDismissedState(teamDismiss.getTeam(), teamKeys);
+		teamDismissedState.add(teamDismiss);
+
+		if (teamKeys.isEmpty()) teamKeys.add(new HistoryKey(teamId, null));
+		for (HistoryKey key : teamKeys)
+		{
+			HistoryInfo historyInfo = key.getHistoryInfo();
+			TeamResult teamResult =
+			    (historyInfo != null) ? historyInfo.getTeamResult() : loadTeamResult(key);
+			// comparison date depends on dismissed state, so info is rebuilt
+			key.setHistoryInfo(new HistoryInfo(teamId, teamResult, teamDismissedState));
+		}
+		keys.addAll(0, teamKeys);
+	}
+
+	private List<HistoryKey> removeTeamKeys(int teamId)
+	{
+		List<HistoryKey> result = new ArrayList<HistoryKey>();
+		Iterator<HistoryKey> iterator = keys.iterator();
+		while (iterator.hasNext())
+		{
+			HistoryKey key = iterator.next();
+			if (key.getTeamId() == teamId)
+			{
+				result.add(key);
+				iterator.remove();
+			}
+		}
+		return result;
+	}
+
+	private TeamDismissedState getTeamDismissedState(Team team, List<HistoryKey> teamKeys)
+	{
+		for (HistoryKey key : teamKeys)
+		{
+			if (key.getHistoryInfo() != null) return key.getHistoryInfo().getTeamDismissedState();
+		}
+		Integer teamId = team.getTeamId();
+		return loadTeamDismissedStates(Collections.singleton(teamId)).get(teamId);
+	}
+
+	public List<HistoryInfo> getAll()
+	{
+		List<HistoryInfo> result = new ArrayList<HistoryInfo>();
+		for (int i = 0; i < keys.size(); i++)
+		{
+			result.add(get(i));
+		}
+		return result;
+	}
+}
@@ -1,11 +0,0 @@
-package ru.mmb.terminal.model.history;
-
-public class ScanPointRecordsException extends RuntimeException
-{
-	private static final long serialVersionUID = -8984242058772628234L;
-
-	public ScanPointRecordsException(String detailMessage)
-	{
-		super(detailMessage);
-	}
-}
@@ -2,16 +2,21 @@ package ru.mmb.terminal.model.registry;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import ru.mmb.terminal.db.TerminalDB;
 import ru.mmb.terminal.model.Distance;
 
+/**
+ * Distances are kept in immutable snapshot, which is replaced as a whole by refresh.
+ */
 public class DistancesRegistry
 {
 	private static DistancesRegistry instance = null;
 
-	private List<Distance> distances = null;
+	private volatile Snapshot snapshot = new Snapshot(new ArrayList<Distance>());
 
 	public static DistancesRegistry getInstance()
 	{
@@ -29,6 +34,7 @@ public class DistancesRegistry
 
 	public void refresh()
 	{
+		List<Distance> distances;
 		try
 		{
 			distances = TerminalDB.getConnectedInstance().loadDistances(CurrentRaid.getId());
@@ -38,29 +44,27 @@ public class DistancesRegistry
 			e.printStackTrace();
 			distances = new ArrayList<Distance>();
 		}
+		snapshot = new Snapshot(distances);
 	}
 
 	public List<Distance> getDistances()
 	{
-		return Collections.unmodifiableList(distances);
+		return snapshot.distances;
 	}
 
 	public Distance getDistanceByIndex(int index)
 	{
-		return distances.get(index);
+		return snapshot.distances.get(index);
 	}
 
 	public Distance getDistanceById(int id)
 	{
-		for (Distance distance : distances)
-		{
-			if (distance.getDistanceId() == id) return distance;
-		}
-		return null;
+		return snapshot.distanceById.get(new Integer(id));
 	}
 
 	public String[] getDistanceNamesArray()
 	{
+		List<Distance> distances = snapshot.distances;
 		String[] result = new String[distances.size()];
 		for (int i = 0; i < distances.size(); i++)
 		{
@@ -71,6 +75,23 @@ public class DistancesRegistry
 
 	public int getDistanceIndex(Distance distance)
 	{
-		return distances.indexOf(distance);
+		return snapshot.distances.indexOf(distance);
+	}
+
+	private static class Snapshot
+	{
+		private final List<Distance> distances;
+		private final Map<Integer, Distance> distanceById = new HashMap<Integer, Distance>();
+
+		public Snapshot(List<Distance> distances)
+		{
+			this.distances = Collections.unmodifiableList(new ArrayList<Distance>(distances));
+			for (Distance distance : distances)
+			{
+				// first distance wins as in list search
+				Integer id = new Integer(distance.getDistanceId());
+				if (!distanceById.containsKey(id)) distanceById.put(id, distance);
+			}
+		}
 	}
 }
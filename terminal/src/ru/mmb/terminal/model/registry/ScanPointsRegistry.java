@@ -12,14 +12,18 @@ import ru.mmb.terminal.model.LevelPoint;
 import ru.mmb.terminal.model.LevelPointDiscount;
 import ru.mmb.terminal.model.ScanPoint;
 import ru.mmb.terminal.model.report.LevelsRegistry;
+import ru.mmb.terminal.report.LiveStandings;
 
+/**
+ * Scan points and level points are loaded and linked by refresh, then published as immutable
+ * snapshot with lookup indexes. Readers of previous snapshot are not affected by refresh.
+ */
 public class ScanPointsRegistry
 {
 	private static ScanPointsRegistry instance = null;
 
-	private List<ScanPoint> scanPoints = null;
-	private List<LevelPoint> levelPoints = null;
-	private DistancesRegistry distancesRegistry;
+	private volatile Snapshot snapshot =
+	    new Snapshot(new ArrayList<ScanPoint>(), new ArrayList<LevelPoint>());
 
 	public static ScanPointsRegistry getInstance()
 	{
@@ -40,23 +44,24 @@ public class ScanPointsRegistry
 		try
 		{
 			// Init distances registry first.
-			distancesRegistry = DistancesRegistry.getInstance();
+			DistancesRegistry distancesRegistry = DistancesRegistry.getInstance();
 
 			// Now load scanPoints and levelPoints.
-			scanPoints = TerminalDB.getConnectedInstance().loadScanPoints(CurrentRaid.getId());
+			List<ScanPoint> scanPoints =
+			    TerminalDB.getConnectedInstance().loadScanPoints(CurrentRaid.getId());
 			Collections.sort(scanPoints);
 
-			levelPoints = TerminalDB.getConnectedInstance().loadLevelPoints(CurrentRaid.getId());
-			updateDistanceForLevelPoints(levelPoints);
-			for (ScanPoint scanPoint : scanPoints)
-			{
-				addLevelPointsToScanPoint(scanPoint, levelPoints);
-			}
+			List<LevelPoint> levelPoints =
+			    TerminalDB.getConnectedInstance().loadLevelPoints(CurrentRaid.getId());
+			updateDistanceForLevelPoints(distancesRegistry, levelPoints);
+			addLevelPointsToScanPoints(scanPoints, levelPoints);
 
 			// Load levelPointDiscounts.
 			List<LevelPointDiscount> discounts =
 			    TerminalDB.getConnectedInstance().loadLevelPointDiscounts(CurrentRaid.getId());
-			addDiscountsToLevelPoints(discounts);
+			addDiscountsToLevelPoints(levelPoints, discounts);
+
+			snapshot = new Snapshot(scanPoints, levelPoints);
 
 			// Rebuild report levels.
 			LevelsRegistry.buildLevels(scanPoints);
@@ -64,11 +69,14 @@ public class ScanPointsRegistry
 		catch (Exception e)
 		{
 			e.printStackTrace();
-			scanPoints = new ArrayList<ScanPoint>();
+			snapshot = new Snapshot(new ArrayList<ScanPoint>(), new ArrayList<LevelPoint>());
 		}
+		// Cached reports refer to levels of previous snapshot.
+		LiveStandings.getInstance().invalidateAll();
 	}
 
-	private void updateDistanceForLevelPoints(List<LevelPoint> levelPoints)
+	private void updateDistanceForLevelPoints(DistancesRegistry distancesRegistry,
+	        List<LevelPoint> levelPoints)
 	{
 		for (LevelPoint levelPoint : levelPoints)
 		{
@@ -77,11 +85,18 @@ public class ScanPointsRegistry
 		}
 	}
 
-	private void addLevelPointsToScanPoint(ScanPoint scanPoint, List<LevelPoint> levelPoints)
+	private void addLevelPointsToScanPoints(List<ScanPoint> scanPoints, List<LevelPoint> levelPoints)
 	{
+		Map<Integer, ScanPoint> scanPointById = new HashMap<Integer, ScanPoint>();
+		for (ScanPoint scanPoint : scanPoints)
+		{
+			if (!scanPointById.containsKey(scanPoint.getScanPointId()))
+			    scanPointById.put(scanPoint.getScanPointId(), scanPoint);
+		}
 		for (LevelPoint levelPoint : levelPoints)
 		{
-			if (levelPoint.getScanPointId() == scanPoint.getScanPointId())
+			ScanPoint scanPoint = scanPointById.get(levelPoint.getScanPointId());
+			if (scanPoint != null)
 			{
 				scanPoint.addLevelPoint(levelPoint);
 				levelPoint.setScanPoint(scanPoint);
@@ -89,9 +104,10 @@ public class ScanPointsRegistry
 		}
 	}
 
-	private void addDiscountsToLevelPoints(List<LevelPointDiscount> discounts)
+	private void addDiscountsToLevelPoints(List<LevelPoint> levelPoints,
+	        List<LevelPointDiscount> discounts)
 	{
-		Map<Integer, List<LevelPoint>> distanceLevelPoints = groupLevelPointsByDistance();
+		Map<Integer, List<LevelPoint>> distanceLevelPoints = groupLevelPointsByDistance(levelPoints);
 		for (LevelPointDiscount discount : discounts)
 		{
 			int distanceId = discount.getDistanceId();
@@ -107,7 +123,8 @@ public class ScanPointsRegistry
 		}
 	}
 
-	private Map<Integer, List<LevelPoint>> groupLevelPointsByDistance()
+	private static Map<Integer, List<LevelPoint>> groupLevelPointsByDistance(
+	        List<LevelPoint> levelPoints)
 	{
 		Map<Integer, List<LevelPoint>> result = new HashMap<Integer, List<LevelPoint>>();
 		for (LevelPoint levelPoint : levelPoints)
@@ -125,25 +142,22 @@ public class ScanPointsRegistry
 
 	public List<ScanPoint> getScanPoints()
 	{
-		return Collections.unmodifiableList(scanPoints);
+		return snapshot.scanPoints;
 	}
 
 	public ScanPoint getScanPointByIndex(int index)
 	{
-		return scanPoints.get(index);
+		return snapshot.scanPoints.get(index);
 	}
 
 	public ScanPoint getScanPointById(int id)
 	{
-		for (ScanPoint scanPoint : scanPoints)
-		{
-			if (scanPoint.getScanPointId() == id) return scanPoint;
-		}
-		return null;
+		return snapshot.scanPointById.get(id);
 	}
 
 	public String[] getScanPointNamesArray()
 	{
+		List<ScanPoint> scanPoints = snapshot.scanPoints;
 		String[] result = new String[scanPoints.size()];
 		for (int i = 0; i < scanPoints.size(); i++)
 		{
@@ -154,27 +168,57 @@ public class ScanPointsRegistry
 
 	public int getScanPointIndex(ScanPoint scanPoint)
 	{
-		return scanPoints.indexOf(scanPoint);
+		return snapshot.scanPoints.indexOf(scanPoint);
 	}
 
 	public ScanPoint getScanPointByOrder(int scanPointOrder)
 	{
-		for (ScanPoint scanPoint : scanPoints)
-		{
-			if (scanPoint.getScanPointOrder() == scanPointOrder) return scanPoint;
-		}
-		return null;
+		return snapshot.scanPointByOrder.get(scanPointOrder);
 	}
 
 	public ScanPoint getScanPointByLevelPointId(int levelPointId)
 	{
-		for (LevelPoint levelPoint : levelPoints)
+		LevelPoint levelPoint = snapshot.levelPointById.get(levelPointId);
+		return levelPoint == null ? null : levelPoint.getScanPoint();
+	}
+
+	public List<LevelPoint> getLevelPoints(int distanceId)
+	{
+		List<LevelPoint> result = snapshot.levelPointsByDistance.get(distanceId);
+		if (result == null) return Collections.emptyList();
+		return result;
+	}
+
+	private static class Snapshot
+	{
+		private final List<ScanPoint> scanPoints;
+		private final Map<Integer, ScanPoint> scanPointById = new HashMap<Integer, ScanPoint>();
+		private final Map<Integer, ScanPoint> scanPointByOrder = new HashMap<Integer, ScanPoint>();
+		private final Map<Integer, LevelPoint> levelPointById = new HashMap<Integer, LevelPoint>();
+		private final Map<Integer, List<LevelPoint>> levelPointsByDistance =
+		    new HashMap<Integer, List<LevelPoint>>();
+
+		public Snapshot(List<ScanPoint> scanPoints, List<LevelPoint> levelPoints)
 		{
-			if (levelPoint.getLevelPointId() == levelPointId)
+			this.scanPoints = Collections.unmodifiableList(new ArrayList<ScanPoint>(scanPoints));
+			// first match wins as in list search
+			for (ScanPoint scanPoint : scanPoints)
+			{
+				if (!scanPointById.containsKey(scanPoint.getScanPointId()))
+				    scanPointById.put(scanPoint.getScanPointId(), scanPoint);
+				if (!scanPointByOrder.containsKey(scanPoint.getScanPointOrder()))
+				    scanPointByOrder.put(scanPoint.getScanPointOrder(), scanPoint);
+			}
+			for (LevelPoint levelPoint : levelPoints)
+			{
+				if (!levelPointById.containsKey(levelPoint.getLevelPointId()))
+				    levelPointById.put(levelPoint.getLevelPointId(), levelPoint);
+			}
+			Map<Integer, List<LevelPoint>> groups = groupLevelPointsByDistance(levelPoints);
+			for (Map.Entry<Integer, List<LevelPoint>> entry : groups.entrySet())
 			{
-				return levelPoint.getScanPoint();
+				levelPointsByDistance.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
 			}
 		}
-		return null;
 	}
 }
@@ -1,20 +1,24 @@
 package ru.mmb.terminal.model.registry;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import ru.mmb.terminal.db.TerminalDB;
 import ru.mmb.terminal.model.Team;
+import ru.mmb.terminal.report.LiveStandings;
 
+/**
+ * Teams are kept in immutable snapshot, which is replaced as a whole by refresh.<br>
+ * Report and import threads read current snapshot without locks.
+ */
 public class TeamsRegistry
 {
 	private static TeamsRegistry instance = null;
 
-	private List<Team> teams = null;
-	private final Map<Integer, Team> teamByIdMap = new HashMap<Integer, Team>();
-	private final Map<Integer, Team> teamByNumberMap = new HashMap<Integer, Team>();
+	private volatile Snapshot snapshot = new Snapshot(new ArrayList<Team>(), 0);
 
 	public static TeamsRegistry getInstance()
 	{
@@ -34,9 +38,10 @@ public class TeamsRegistry
 	{
 		try
 		{
-			teams = TerminalDB.getConnectedInstance().loadTeams();
-			refreshTeamByIdMap();
-			refreshTeamsByNumberMap();
+			List<Team> teams = TerminalDB.getConnectedInstance().loadTeams();
+			snapshot = new Snapshot(teams, snapshot.version + 1);
+			// Cached reports refer to teams of previous snapshot.
+			LiveStandings.getInstance().invalidateAll();
 		}
 		catch (Exception e)
 		{
@@ -44,46 +49,65 @@ public class TeamsRegistry
 		}
 	}
 
-	private void refreshTeamByIdMap()
+	public List<Team> getTeams(int distanceId)
 	{
-		teamByIdMap.clear();
-		for (Team team : teams)
-		{
-			teamByIdMap.put(new Integer(team.getTeamId()), team);
-		}
+		List<Team> result = snapshot.teamsByDistance.get(new Integer(distanceId));
+		if (result == null) return Collections.emptyList();
+		return result;
 	}
 
-	private void refreshTeamsByNumberMap()
+	public List<Team> getTeams()
 	{
-		teamByNumberMap.clear();
-		for (Team team : teams)
-		{
-			teamByNumberMap.put(new Integer(team.getTeamNum()), team);
-		}
+		return snapshot.teams;
 	}
 
-	public List<Team> getTeams(int distanceId)
+	public Team getTeamById(int teamId)
 	{
-		List<Team> result = new ArrayList<Team>();
-		for (Team team : teams)
-		{
-			if (team.getDistanceId() == distanceId) result.add(team);
-		}
-		return result;
+		return snapshot.teamById.get(new Integer(teamId));
 	}
 
-	public List<Team> getTeams()
+	public Team getTeamByNumber(int teamNumber)
 	{
-		return new ArrayList<Team>(teams);
+		return snapshot.teamByNumber.get(new Integer(teamNumber));
 	}
 
-	public Team getTeamById(int teamId)
+	/**
+	 * Changed by every refresh, so data built from teams can be rebuilt only when needed.
+	 */
+	public int getVersion()
 	{
-		return teamByIdMap.get(new Integer(teamId));
+		return snapshot.version;
 	}
 
-	public Team getTeamByNumber(int teamNumber)
+	private static class Snapshot
 	{
-		return teamByNumberMap.get(teamNumber);
+		private final List<Team> teams;
+		private final Map<Integer, Team> teamById = new HashMap<Integer, Team>();
+		private final Map<Integer, Team> teamByNumber = new HashMap<Integer, Team>();
+		private final Map<Integer, List<Team>> teamsByDistance = new HashMap<Integer, List<Team>>();
+		private final int version;
+
+		public Snapshot(List<Team> teams, int version)
+		{
+			this.teams = Collections.unmodifiableList(new ArrayList<Team>(teams));
+			this.version = version;
+			Map<Integer, List<Team>> distanceTeams = new HashMap<Integer, List<Team>>();
+			for (Team team : teams)
+			{
+				teamById.put(new Integer(team.getTeamId()), team);
+				teamByNumber.put(new Integer(team.getTeamNum()), team);
+				List<Team> group = distanceTeams.get(team.getDistanceId());
+				if (group == null)
+				{
+					group = new ArrayList<Team>();
+					distanceTeams.put(team.getDistanceId(), group);
+				}
+				group.add(team);
+			}
+			for (Map.Entry<Integer, List<Team>> entry : distanceTeams.entrySet())
+			{
+				teamsByDistance.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+			}
+		}
 	}
 }
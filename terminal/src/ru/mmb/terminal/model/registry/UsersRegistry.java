@@ -8,11 +8,15 @@ import java.util.Map;
 import ru.mmb.terminal.db.TerminalDB;
 import ru.mmb.terminal.model.User;
 
+/**
+ * Users map is built by refresh and replaced as a whole, readers never see partially loaded
+ * users.
+ */
 public class UsersRegistry
 {
 	private static UsersRegistry instance = null;
 
-	private final Map<Integer, User> users = new HashMap<Integer, User>();
+	private volatile Map<Integer, User> users = Collections.emptyMap();
 
 	public static UsersRegistry getInstance()
 	{
@@ -32,12 +36,13 @@ public class UsersRegistry
 	{
 		try
 		{
-			users.clear();
+			Map<Integer, User> loaded = new HashMap<Integer, User>();
 			List<User> loadedUsers = TerminalDB.getConnectedInstance().loadUsers();
 			for (User user : loadedUsers)
 			{
-				users.put(new Integer(user.getUserId()), user);
+				loaded.put(new Integer(user.getUserId()), user);
 			}
+			users = Collections.unmodifiableMap(loaded);
 		}
 		catch (Exception e)
 		{
@@ -47,7 +52,7 @@ public class UsersRegistry
 
 	public Map<Integer, User> getUsers()
 	{
-		return Collections.unmodifiableMap(users);
+		return users;
 	}
 
 	public User getUserById(int userId)
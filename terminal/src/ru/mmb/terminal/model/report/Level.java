@@ -4,25 +4,113 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import ru.mmb.terminal.model.Checkpoint;
 import ru.mmb.terminal.model.LevelPoint;
+import ru.mmb.terminal.model.LevelPointDiscount;
 import ru.mmb.terminal.model.PointType;
+import ru.mmb.terminal.model.checkpoints.CheckpointsMask;
 
+/**
+ * Level points from start to finish.<br>
+ * Point positions, checkpoint penalty weights and discount masks are precomputed when
+ * points are added, so team level calculation does not allocate anything per team.
+ */
 public class Level
 {
+	private static final int[] NO_VALUES = new int[0];
+	private static final long[] NO_MASK = new long[0];
+	private static final long[][] NO_MASKS = new long[0][];
+
 	private final List<LevelPoint> levelPoints = new ArrayList<LevelPoint>();
 	private LevelPoint startPoint;
 	private LevelPoint finishPoint;
 
+	private LevelPoint[] pointsArray = new LevelPoint[0];
+	private int startIndex = -1;
+	private int finishIndex = -1;
+	// Indexed by level point position, empty for not finish points.
+	// Masks and penalty weights are indexed by checkpoint order.
+	private long[][] checkpointMasks = new long[0][];
+	private int[][] penaltyWeights = new int[0][];
+	// Penalty of all level point checkpoints if it is the same, otherwise -1.
+	private int[] uniformPenalties = new int[0];
+	private long[][][] discountMasks = new long[0][][];
+	private int[][] discountValues = new int[0][];
+
 	public void addLevelPoint(LevelPoint levelPoint)
 	{
 		levelPoints.add(levelPoint);
 		if (levelPoint.getPointType() == PointType.START)
 		{
 			startPoint = levelPoint;
+			startIndex = levelPoints.size() - 1;
 		}
 		else if (levelPoint.getPointType() == PointType.FINISH)
 		{
 			finishPoint = levelPoint;
+			finishIndex = levelPoints.size() - 1;
+		}
+		buildArrays();
+	}
+
+	private void buildArrays()
+	{
+		int count = levelPoints.size();
+		pointsArray = levelPoints.toArray(new LevelPoint[count]);
+		checkpointMasks = new long[count][];
+		penaltyWeights = new int[count][];
+		uniformPenalties = new int[count];
+		discountMasks = new long[count][][];
+		discountValues = new int[count][];
+		for (int i = 0; i < count; i++)
+		{
+			LevelPoint levelPoint = pointsArray[i];
+			if (levelPoint.getPointType().isFinish())
+			{
+				buildCheckpointMasks(i, levelPoint);
+			}
+			else
+			{
+				checkpointMasks[i] = NO_MASK;
+				penaltyWeights[i] = NO_VALUES;
+				uniformPenalties[i] = 0;
+				discountMasks[i] = NO_MASKS;
+				discountValues[i] = NO_VALUES;
+			}
+		}
+	}
+
+	private void buildCheckpointMasks(int index, LevelPoint levelPoint)
+	{
+		List<Checkpoint> checkpoints = levelPoint.getCheckpoints();
+		int maxOrder = 0;
+		for (Checkpoint checkpoint : checkpoints)
+		{
+			maxOrder = Math.max(maxOrder, checkpoint.getCheckpointOrder());
+		}
+		checkpointMasks[index] = CheckpointsMask.create(maxOrder);
+		penaltyWeights[index] = new int[maxOrder + 1];
+		uniformPenalties[index] = checkpoints.isEmpty() ? 0 : checkpoints.get(0).getCheckpointPenalty();
+		for (Checkpoint checkpoint : checkpoints)
+		{
+			CheckpointsMask.set(checkpointMasks[index], checkpoint.getCheckpointOrder());
+			penaltyWeights[index][checkpoint.getCheckpointOrder()] = checkpoint.getCheckpointPenalty();
+			if (checkpoint.getCheckpointPenalty() != uniformPenalties[index])
+			    uniformPenalties[index] = -1;
+		}
+		List<LevelPointDiscount> discounts = levelPoint.getLevelPointDiscounts();
+		discountMasks[index] = new long[discounts.size()][];
+		discountValues[index] = new int[discounts.size()];
+		for (int j = 0; j < discounts.size(); j++)
+		{
+			LevelPointDiscount discount = discounts.get(j);
+			discountMasks[index][j] = CheckpointsMask.create(maxOrder);
+			for (Checkpoint checkpoint : checkpoints)
+			{
+				if (discount.contains(checkpoint))
+				    CheckpointsMask.set(discountMasks[index][j], checkpoint.getCheckpointOrder());
+			}
+			discountValues[index][j] = discount.getLevelPointDiscountValue();
 		}
 	}
 
@@ -40,4 +128,64 @@ public class Level
 	{
 		return startPoint;
 	}
+
+	public int getLevelPointsCount()
+	{
+		return pointsArray.length;
+	}
+
+	public LevelPoint getLevelPoint(int index)
+	{
+		return pointsArray[index];
+	}
+
+	/**
+	 * @return position of level point in level or -1 if point is not from this level
+	 */
+	public int indexOf(LevelPoint levelPoint)
+	{
+		for (int i = 0; i < pointsArray.length; i++)
+		{
+			if (pointsArray[i].getLevelPointId() == levelPoint.getLevelPointId()) return i;
+		}
+		return -1;
+	}
+
+	public int getStartIndex()
+	{
+		return startIndex;
+	}
+
+	public int getFinishIndex()
+	{
+		return finishIndex;
+	}
+
+	/**
+	 * @return mask of all level point checkpoints
+	 */
+	public long[] getCheckpointMask(int index)
+	{
+		return checkpointMasks[index];
+	}
+
+	public int[] getPenaltyWeights(int index)
+	{
+		return penaltyWeights[index];
+	}
+
+	public int getUniformPenalty(int index)
+	{
+		return uniformPenalties[index];
+	}
+
+	public long[][] getDiscountMasks(int index)
+	{
+		return discountMasks[index];
+	}
+
+	public int[] getDiscountValues(int index)
+	{
+		return discountValues[index];
+	}
 }
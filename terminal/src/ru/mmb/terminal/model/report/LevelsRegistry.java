@@ -13,24 +13,30 @@ import ru.mmb.terminal.model.registry.DistancesRegistry;
 
 public class LevelsRegistry
 {
-	private static final Map<Integer, List<Level>> levels = new HashMap<Integer, List<Level>>();
-	private static final Map<Integer, Level> levelsByLevelPoints = new HashMap<Integer, Level>();
+	// maps are built completely and then replaced, so report threads read them without locks
+	private static volatile Map<Integer, List<Level>> levels = new HashMap<Integer, List<Level>>();
+	private static volatile Map<Integer, Level> levelsByLevelPoints = new HashMap<Integer, Level>();
 
 	public static void buildLevels(List<ScanPoint> scanPoints)
 	{
-		levels.clear();
-		levelsByLevelPoints.clear();
+		Map<Integer, List<Level>> newLevels = new HashMap<Integer, List<Level>>();
+		Map<Integer, Level> newLevelsByLevelPoints = new HashMap<Integer, Level>();
 
 		List<Distance> distances = DistancesRegistry.getInstance().getDistances();
 		for (Distance distance : distances)
 		{
 			int distanceId = distance.getDistanceId();
-			List<Level> distanceLevels = buildDistanceLevels(distanceId, scanPoints);
-			levels.put(distanceId, distanceLevels);
+			List<Level> distanceLevels =
+			    buildDistanceLevels(distanceId, scanPoints, newLevelsByLevelPoints);
+			newLevels.put(distanceId, distanceLevels);
 		}
+
+		levelsByLevelPoints = newLevelsByLevelPoints;
+		levels = newLevels;
 	}
 
-	private static List<Level> buildDistanceLevels(int distanceId, List<ScanPoint> scanPoints)
+	private static List<Level> buildDistanceLevels(int distanceId, List<ScanPoint> scanPoints,
+	        Map<Integer, Level> levelPointLevels)
 	{
 		List<Level> result = new ArrayList<Level>();
 		Level level = null;
@@ -44,7 +50,7 @@ public class LevelsRegistry
 					level = new Level();
 				}
 				level.addLevelPoint(levelPoint);
-				levelsByLevelPoints.put(levelPoint.getLevelPointId(), level);
+				levelPointLevels.put(levelPoint.getLevelPointId(), level);
 				if (levelPoint.getPointType() == PointType.FINISH)
 				{
 					result.add(level);
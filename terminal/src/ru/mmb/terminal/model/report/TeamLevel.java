@@ -5,28 +5,29 @@ import static ru.mmb.terminal.model.report.LevelCalcResult.EMPTY;
 import static ru.mmb.terminal.model.report.LevelCalcResult.FAIL;
 import static ru.mmb.terminal.model.report.LevelCalcResult.NOT_FINISHED;
 
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.Date;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
 
 import ru.mmb.terminal.model.Checkpoint;
 import ru.mmb.terminal.model.LevelPoint;
-import ru.mmb.terminal.model.LevelPointDiscount;
 import ru.mmb.terminal.model.TeamResult;
 import ru.mmb.terminal.model.checkpoints.CheckedState;
+import ru.mmb.terminal.model.checkpoints.CheckpointsMask;
+import ru.mmb.terminal.util.DateCodec;
 
 public class TeamLevel
 {
-	private static final SimpleDateFormat TIME_FORMAT = new SimpleDateFormat("HH:mm");
+	private static final DateCodec TIME_FORMAT = new DateCodec("HH:mm");
+
+	private static final long NO_TIME = Long.MIN_VALUE;
 
 	private final Level level;
 
-	private final Map<LevelPoint, Date> levelPointTimes = new LinkedHashMap<LevelPoint, Date>();
-	private final Map<LevelPoint, CheckedState> levelPointChecked =
-	    new LinkedHashMap<LevelPoint, CheckedState>();
+	// Indexed by level point position in level.
+	private final long[] levelPointTimes;
+	// Taken checkpoints masks, null for not visited or not finish points.
+	private final long[][] levelPointChecked;
 	private long durationMinutes = 0;
 	private long penaltyMinutes = 0;
 	private int lastVisitedPointOrder = -1;
@@ -35,17 +36,13 @@ public class TeamLevel
 	public TeamLevel(Level level)
 	{
 		this.level = level;
-		initInnerStructures();
-		calcResult = EMPTY;
-	}
-
-	private void initInnerStructures()
-	{
-		for (LevelPoint levelPoint : level.getLevelPoints())
+		levelPointTimes = new long[level.getLevelPointsCount()];
+		levelPointChecked = new long[level.getLevelPointsCount()][];
+		for (int i = 0; i < levelPointTimes.length; i++)
 		{
-			levelPointTimes.put(levelPoint, null);
-			levelPointChecked.put(levelPoint, null);
+			levelPointTimes[i] = NO_TIME;
 		}
+		calcResult = EMPTY;
 	}
 
 	public int getLastVisitedPointOrder()
@@ -75,19 +72,23 @@ public class TeamLevel
 
 	public void addTeamResult(LevelPoint levelPoint, TeamResult teamResult)
 	{
-		levelPointTimes.put(levelPoint, teamResult.getCheckDateTime());
+		int index = level.indexOf(levelPoint);
+		if (index == -1) return;
+		levelPointTimes[index] = teamResult.getCheckTime();
 		if (levelPoint.getPointType().isFinish())
 		{
-			CheckedState checkedState = new CheckedState();
-			checkedState.setLevelPoint(levelPoint);
-			checkedState.loadTakenCheckpoints(teamResult.getTakenCheckpoints());
-			levelPointChecked.put(levelPoint, checkedState);
+			long[] checked = new long[level.getCheckpointMask(index).length];
+			for (Checkpoint checkpoint : teamResult.getTakenCheckpoints())
+			{
+				CheckpointsMask.set(checked, checkpoint.getCheckpointOrder());
+			}
+			levelPointChecked[index] = checked;
 		}
 	}
 
 	public void processData()
 	{
-		if (level.getLevelPoints().isEmpty()) return;
+		if (levelPointTimes.length == 0) return;
 
 		fillCommonStartTime();
 		// Check level point times consistency.
@@ -103,9 +104,9 @@ public class TeamLevel
 	private void fillCommonStartTime()
 	{
 		boolean notEmpty = false;
-		for (Map.Entry<LevelPoint, Date> entry : levelPointTimes.entrySet())
+		for (int i = 0; i < levelPointTimes.length; i++)
 		{
-			if (entry.getValue() != null)
+			if (levelPointTimes[i] != NO_TIME)
 			{
 				notEmpty = true;
 			}
@@ -115,19 +116,19 @@ public class TeamLevel
 			LevelPoint startPoint = level.getStartPoint();
 			if (startPoint.isCommonStart())
 			{
-				levelPointTimes.put(startPoint, startPoint.getLevelPointMinDateTime());
+				levelPointTimes[level.getStartIndex()] =
+				    startPoint.getLevelPointMinDateTime().getTime();
 			}
 		}
 	}
 
 	private void updateCalcResult()
 	{
-		List<Date> times = new ArrayList<Date>(levelPointTimes.values());
 		int emptyCount = 0;
 		int lastEmptyCount = 0;
-		for (int i = 0; i < times.size(); i++)
+		for (int i = 0; i < levelPointTimes.length; i++)
 		{
-			if (times.get(i) == null)
+			if (levelPointTimes[i] == NO_TIME)
 			{
 				emptyCount++;
 				lastEmptyCount++;
@@ -137,7 +138,7 @@ public class TeamLevel
 				lastEmptyCount = 0;
 			}
 		}
-		if (emptyCount == times.size())
+		if (emptyCount == levelPointTimes.length)
 		{
 			calcResult = EMPTY;
 		}
@@ -159,15 +160,14 @@ public class TeamLevel
 	{
 		if (isAcceptable())
 		{
-			List<Date> times = new ArrayList<Date>(levelPointTimes.values());
 			int firstEmptyIndex = 0;
-			// If level is COMPLETE, then there is no null times in list.
-			while (firstEmptyIndex < times.size() && times.get(firstEmptyIndex) != null)
+			// If level is COMPLETE, then there is no empty times in array.
+			while (firstEmptyIndex < levelPointTimes.length
+			        && levelPointTimes[firstEmptyIndex] != NO_TIME)
 			{
 				firstEmptyIndex++;
 			}
-			lastVisitedPointOrder =
-			    level.getLevelPoints().get(firstEmptyIndex - 1).getLevelPointOrder();
+			lastVisitedPointOrder = level.getLevelPoint(firstEmptyIndex - 1).getLevelPointOrder();
 		}
 	}
 
@@ -175,66 +175,43 @@ public class TeamLevel
 	{
 		if (calcResult != COMPLETE) return;
 
-		long millisStart = levelPointTimes.get(level.getStartPoint()).getTime();
-		long millisEnd = levelPointTimes.get(level.getFinishPoint()).getTime();
+		long millisStart = levelPointTimes[level.getStartIndex()];
+		long millisEnd = levelPointTimes[level.getFinishIndex()];
 
 		durationMinutes = (millisEnd - millisStart) / 1000 / 60;
 	}
 
 	private void calculatePenalty()
 	{
-		for (LevelPoint levelPoint : level.getLevelPoints())
+		for (int i = 0; i < levelPointChecked.length; i++)
 		{
-			if (levelPoint.getPointType().isFinish())
+			if (level.getLevelPoint(i).getPointType().isFinish())
 			{
-				penaltyMinutes += calculatePointPenalty(levelPoint);
+				penaltyMinutes += calculatePointPenalty(i);
 			}
 		}
 	}
 
-	private long calculatePointPenalty(LevelPoint levelPoint)
+	private long calculatePointPenalty(int index)
 	{
-		long penalty = 0;
-		CheckedState checkedState = levelPointChecked.get(levelPoint);
-		for (Checkpoint checkpoint : levelPoint.getCheckpoints())
+		long[] checked = levelPointChecked[index];
+		int[] penaltyWeights = level.getPenaltyWeights(index);
+		int uniformPenalty = level.getUniformPenalty(index);
+		long penalty =
+		    CheckpointsMask.sumMissed(level.getCheckpointMask(index), checked, penaltyWeights, uniformPenalty);
+		long[][] discountMasks = level.getDiscountMasks(index);
+		int[] discountValues = level.getDiscountValues(index);
+		for (int i = 0; i < discountMasks.length; i++)
 		{
-			if (!checkedState.isChecked(checkpoint.getCheckpointOrder()))
-			{
-				penalty += checkpoint.getCheckpointPenalty();
-			}
-		}
-		for (LevelPointDiscount discount : levelPoint.getLevelPointDiscounts())
-		{
-			penalty -= calculateDiscount(levelPoint, checkedState, discount);
+			// Team can take all checkpoints in discountable area, then discount is ignored.
+			// We MUST NOT apply discount to other checkpoints for level point.
+			int discountablePenalty =
+			    CheckpointsMask.sumMissed(discountMasks[i], checked, penaltyWeights, uniformPenalty);
+			penalty -= Math.min(discountablePenalty, discountValues[i]);
 		}
 		return penalty;
 	}
 
-	private long calculateDiscount(LevelPoint levelPoint, CheckedState checkedState,
-	        LevelPointDiscount discount)
-	{
-		int discountValue = discount.getLevelPointDiscountValue();
-		// Team can take all checkpoints in discountable area, then discount is ignored.
-		// We MUST NOT apply discount to other checkpoints for level point.
-		int discountablePenalty = 0;
-		for (Checkpoint checkpoint : levelPoint.getCheckpoints())
-		{
-			if (discount.contains(checkpoint)
-			        && !checkedState.isChecked(checkpoint.getCheckpointOrder()))
-			{
-				discountablePenalty += checkpoint.getCheckpointPenalty();
-			}
-		}
-		if (discountablePenalty >= discountValue)
-		{
-			return discountValue;
-		}
-		else
-		{
-			return discountablePenalty;
-		}
-	}
-
 	public long getDurationMinutes()
 	{
 		return durationMinutes;
@@ -255,31 +232,54 @@ public class TeamLevel
 		return durationMinutes + penaltyMinutes;
 	}
 
-	public String toFullHtml()
+	public Date getLevelPointTime(LevelPoint levelPoint)
 	{
-		StringBuilder sb = new StringBuilder();
-		sb.append("<tr><td colspan=3 style=\"background-color:grey\">&nbsp;</td></tr>");
+		int index = level.indexOf(levelPoint);
+		if (index == -1 || levelPointTimes[index] == NO_TIME) return null;
+		return new Date(levelPointTimes[index]);
+	}
+
+	public String getMissedCheckpointsText(LevelPoint levelPoint)
+	{
+		int index = level.indexOf(levelPoint);
+		if (index == -1 || levelPointChecked[index] == null) return null;
+		CheckedState checkedState = new CheckedState();
+		checkedState.setLevelPoint(levelPoint);
+		for (Checkpoint checkpoint : levelPoint.getCheckpoints())
+		{
+			int order = checkpoint.getCheckpointOrder();
+			checkedState.setChecked(order, CheckpointsMask.isSet(levelPointChecked[index], order));
+		}
+		return checkedState.getMissedCheckpointsText();
+	}
+
+	public void writeFullHtml(Writer writer) throws IOException
+	{
+		writer.write("<tr><td colspan=3 style=\"background-color:grey\">&nbsp;</td></tr>");
 		for (LevelPoint levelPoint : level.getLevelPoints())
 		{
-			sb.append("<tr><td>");
-			sb.append(getFixedLengthName(15, levelPoint));
-			sb.append("</td><td>");
-			sb.append(getTimeString(levelPoint));
-			sb.append("</td><td>");
+			writer.write("<tr><td>");
+			writer.write(getFixedLengthName(15, levelPoint));
+			writer.write("</td><td>");
+			writer.write(getTimeString(levelPoint));
+			writer.write("</td><td>");
 			if (levelPoint.getPointType().isFinish())
 			{
-				sb.append("missed ").append(getMissedString(levelPoint));
+				writer.write("missed ");
+				writer.write(getMissedString(levelPoint));
 			}
-			sb.append("</td></tr>");
+			writer.write("</td></tr>");
 		}
 		if (calcResult == COMPLETE)
 		{
-			sb.append("<tr><td colspan=3>");
-			sb.append("duration [" + toHourMinuteString((int) durationMinutes) + "], penalty ["
-			        + toHourMinuteString((int) penaltyMinutes) + "]");
-			sb.append("</td></tr>");
+			writer.write("<tr><td colspan=3>");
+			writer.write("duration [");
+			writer.write(toHourMinuteString((int) durationMinutes));
+			writer.write("], penalty [");
+			writer.write(toHourMinuteString((int) penaltyMinutes));
+			writer.write("]");
+			writer.write("</td></tr>");
 		}
-		return sb.toString();
 	}
 
 	private String getFixedLengthName(int fixedLength, LevelPoint levelPoint)
@@ -294,14 +294,14 @@ public class TeamLevel
 
 	private String getTimeString(LevelPoint levelPoint)
 	{
-		Date levelPointTime = levelPointTimes.get(levelPoint);
+		Date levelPointTime = getLevelPointTime(levelPoint);
 		return (levelPointTime == null) ? "??:??" : TIME_FORMAT.format(levelPointTime);
 	}
 
 	private String getMissedString(LevelPoint levelPoint)
 	{
-		CheckedState checkedState = levelPointChecked.get(levelPoint);
-		return (checkedState == null) ? "???" : checkedState.getMissedCheckpointsText();
+		String result = getMissedCheckpointsText(levelPoint);
+		return (result == null) ? "???" : result;
 	}
 
 	private String toHourMinuteString(int duration)
@@ -309,31 +309,25 @@ public class TeamLevel
 		return TeamReport.toHourMinuteString(duration);
 	}
 
-	public String toCompactHtml()
+	public void writeCompactHtml(Writer writer) throws IOException
 	{
-		String timesString = "";
-		String missedString = "";
-		StringBuilder sb = new StringBuilder();
-		sb.append("<tr>");
+		writer.write("<tr><td>");
+		boolean first = true;
 		for (LevelPoint levelPoint : level.getLevelPoints())
 		{
-			if (timesString.length() > 0)
-			{
-				timesString += " - ";
-			}
-			timesString += getTimeString(levelPoint);
-			if (levelPoint.getPointType().isFinish())
-			{
-				if (missedString.length() > 0)
-				{
-					missedString += "; ";
-				}
-				missedString += getMissedString(levelPoint);
-			}
+			if (!first) writer.write(" - ");
+			writer.write(getTimeString(levelPoint));
+			first = false;
+		}
+		writer.write("</td><td>");
+		first = true;
+		for (LevelPoint levelPoint : level.getLevelPoints())
+		{
+			if (!levelPoint.getPointType().isFinish()) continue;
+			if (!first) writer.write("; ");
+			writer.write(getMissedString(levelPoint));
+			first = false;
 		}
-		sb.append("<td>").append(timesString).append("</td>");
-		sb.append("<td>").append(missedString).append("</td>");
-		sb.append("</tr>");
-		return sb.toString();
+		writer.write("</td></tr>");
 	}
 }
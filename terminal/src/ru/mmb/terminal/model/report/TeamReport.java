@@ -5,7 +5,12 @@ import static ru.mmb.terminal.model.report.LevelCalcResult.EMPTY;
 import static ru.mmb.terminal.model.report.LevelCalcResult.FAIL;
 import static ru.mmb.terminal.model.report.LevelCalcResult.NOT_FINISHED;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import ru.mmb.terminal.model.LevelPoint;
 import ru.mmb.terminal.model.Team;
@@ -36,20 +41,24 @@ public class TeamReport implements Comparable<TeamReport>
 
 	private void prepareTeamLevels(List<TeamResult> teamResults)
 	{
+		Map<Level, TeamLevel> teamLevelsByLevel = new HashMap<Level, TeamLevel>(teamLevels.size() * 2);
+		for (int i = 0; i < teamLevels.size(); i++)
+		{
+			TeamLevel teamLevel = teamLevels.get(i);
+			teamLevelsByLevel.put(teamLevel.getLevel(), teamLevel);
+		}
 		int distanceId = team.getDistanceId();
-		for (TeamLevel teamLevel : teamLevels)
+		for (int i = 0; i < teamResults.size(); i++)
 		{
-			for (TeamResult teamResult : teamResults)
-			{
-				LevelPoint levelPoint =
-				    teamResult.getScanPoint().getLevelPointByDistance(distanceId);
-				Level level = LevelsRegistry.getLevelByLevelPointId(levelPoint.getLevelPointId());
-				if (teamLevel.getLevel() == level)
-				{
-					teamLevel.addTeamResult(levelPoint, teamResult);
-				}
-			}
-			teamLevel.processData();
+			TeamResult teamResult = teamResults.get(i);
+			LevelPoint levelPoint = teamResult.getScanPoint().getLevelPointByDistance(distanceId);
+			Level level = LevelsRegistry.getLevelByLevelPointId(levelPoint.getLevelPointId());
+			TeamLevel teamLevel = teamLevelsByLevel.get(level);
+			if (teamLevel != null) teamLevel.addTeamResult(levelPoint, teamResult);
+		}
+		for (int i = 0; i < teamLevels.size(); i++)
+		{
+			teamLevels.get(i).processData();
 		}
 	}
 
@@ -108,27 +117,82 @@ public class TeamReport implements Comparable<TeamReport>
 
 	}
 
+	public Team getTeam()
+	{
+		return team;
+	}
+
+	public LevelCalcResult getCalcResult()
+	{
+		return calcResult;
+	}
+
+	public long getDuration()
+	{
+		return duration;
+	}
+
+	public int getLastVisitedPointOrder()
+	{
+		return lastVisitedPointOrder;
+	}
+
+	public List<TeamLevel> getTeamLevels()
+	{
+		return teamLevels;
+	}
+
 	public String toFullHtml()
+	{
+		return toFullHtml(-1);
+	}
+
+	/**
+	 * @param rank team rank in distance starting from 1, not shown if not positive
+	 */
+	public String toFullHtml(int rank)
+	{
+		StringWriter result = new StringWriter();
+		try
+		{
+			writeFullHtml(result, rank);
+		}
+		catch (IOException e)
+		{
+			// StringWriter never throws IOException.
+			throw new RuntimeException(e.getMessage());
+		}
+		return result.toString();
+	}
+
+	public void writeFullHtml(Writer writer, int rank) throws IOException
 	{
 		if (calcResult == EMPTY)
-		    return "<html><head><meta charset=\"UTF-8\"></head><body>NO DATA</body></html>";
+		{
+			writer.write("<html><head><meta charset=\"UTF-8\"></head><body>NO DATA</body></html>");
+			return;
+		}
 
-		StringBuilder sb = new StringBuilder();
-		sb.append("<html><head><meta charset=\"UTF-8\"></head><body>");
-		sb.append("<table cellspacing=\"5\"><col width=\"150\"><col width=\"100\"><col width=\"250\">");
+		writer.write("<html><head><meta charset=\"UTF-8\"></head><body>");
+		writer.write("<table cellspacing=\"5\"><col width=\"150\"><col width=\"100\"><col width=\"250\">");
 		for (TeamLevel teamLevel : teamLevels)
 		{
-			sb.append(teamLevel.toFullHtml());
+			teamLevel.writeFullHtml(writer);
 		}
 		if (calcResult != FAIL)
 		{
-			sb.append("<tr><td colspan=3 style=\"background-color:grey\">&nbsp;</td></tr>");
-			sb.append("<tr><td colspan=3 style=\"background-color:cyan\">");
-			sb.append("Total time: " + toHourMinuteString((int) duration));
-			sb.append("</td></tr>");
+			writer.write("<tr><td colspan=3 style=\"background-color:grey\">&nbsp;</td></tr>");
+			writer.write("<tr><td colspan=3 style=\"background-color:cyan\">");
+			writer.write("Total time: ");
+			writer.write(toHourMinuteString((int) duration));
+			if (rank > 0)
+			{
+				writer.write(", place: ");
+				writer.write(Integer.toString(rank));
+			}
+			writer.write("</td></tr>");
 		}
-		sb.append("</table></body></html>");
-		return sb.toString();
+		writer.write("</table></body></html>");
 	}
 
 	public static String toHourMinuteString(int duration)
@@ -163,27 +227,44 @@ public class TeamReport implements Comparable<TeamReport>
 
 	public String toCompactHtml(int rowNum)
 	{
-		StringBuilder sb = new StringBuilder();
+		StringWriter result = new StringWriter();
+		try
+		{
+			writeCompactHtml(result, rowNum);
+		}
+		catch (IOException e)
+		{
+			// StringWriter never throws IOException.
+			throw new RuntimeException(e.getMessage());
+		}
+		return result.toString();
+	}
+
+	public void writeCompactHtml(Writer writer, int rowNum) throws IOException
+	{
 		if (rowNum % 2 == 0)
 		{
-			sb.append("<tr>");
+			writer.write("<tr>");
 		}
 		else
 		{
-			sb.append("<tr style=\"background-color:lightgrey\">");
+			writer.write("<tr style=\"background-color:lightgrey\">");
 		}
-		sb.append("<td>[? ").append(rowNum + 1).append("]</td>");
-		sb.append("<td>").append(team.getTeamNum()).append("</td>");
-		sb.append("<td>").append(team.getTeamName()).append("</td>");
-		sb.append("<td>").append(team.getMembersHtml()).append("</td>");
-		sb.append("<td>").append(toHourMinuteString((int) duration)).append("</td>");
-		sb.append("<td><table cellspacing=\"3\"><col width=\"150\"><col width=\"300\">");
+		writer.write("<td>[? ");
+		writer.write(Integer.toString(rowNum + 1));
+		writer.write("]</td><td>");
+		writer.write(Integer.toString(team.getTeamNum()));
+		writer.write("</td><td>");
+		writer.write(team.getTeamName());
+		writer.write("</td><td>");
+		writer.write(team.getMembersHtml());
+		writer.write("</td><td>");
+		writer.write(toHourMinuteString((int) duration));
+		writer.write("</td><td><table cellspacing=\"3\"><col width=\"150\"><col width=\"300\">");
 		for (TeamLevel teamLevel : teamLevels)
 		{
-			sb.append(teamLevel.toCompactHtml());
+			teamLevel.writeCompactHtml(writer);
 		}
-		sb.append("</table></td>");
-		sb.append("</tr>");
-		return sb.toString();
+		writer.write("</table></td></tr>");
 	}
 }
@@ -0,0 +1,131 @@
+package ru.mmb.terminal.report;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Date;
+
+import ru.mmb.terminal.model.Distance;
+import ru.mmb.terminal.model.LevelPoint;
+import ru.mmb.terminal.model.report.TeamLevel;
+import ru.mmb.terminal.model.report.TeamReport;
+import ru.mmb.terminal.util.DateFormat;
+
+/**
+ * One row per team.<br>
+ * Level point times are separated by " - " inside level and by " | " between levels,
+ * missed checkpoints are written the same way.
+ */
+public class CsvReportWriter implements ReportWriter
+{
+	private static final char SEPARATOR = ';';
+
+	private final Writer writer;
+	private Distance distance;
+
+	public CsvReportWriter(Writer writer)
+	{
+		this.writer = writer;
+	}
+
+	@Override
+	public void startReport() throws IOException
+	{
+		writer.write("distance_id;distance_name;row_num;team_id;team_num;team_name;members;result;duration_minutes;times;missed\n");
+	}
+
+	@Override
+	public void startDistance(Distance distance) throws IOException
+	{
+		this.distance = distance;
+	}
+
+	@Override
+	public void writeTeam(int rowNum, TeamReport teamReport) throws IOException
+	{
+		writer.write(Integer.toString(distance.getDistanceId()));
+		writer.write(SEPARATOR);
+		writeQuoted(distance.getDistanceName());
+		writer.write(SEPARATOR);
+		writer.write(Integer.toString(rowNum + 1));
+		writer.write(SEPARATOR);
+		writer.write(Integer.toString(teamReport.getTeam().getTeamId()));
+		writer.write(SEPARATOR);
+		writer.write(Integer.toString(teamReport.getTeam().getTeamNum()));
+		writer.write(SEPARATOR);
+		writeQuoted(teamReport.getTeam().getTeamName());
+		writer.write(SEPARATOR);
+		writeQuoted(teamReport.getTeam().getMembersText());
+		writer.write(SEPARATOR);
+		writer.write(teamReport.getCalcResult().name());
+		writer.write(SEPARATOR);
+		writer.write(Long.toString(teamReport.getDuration()));
+		writer.write(SEPARATOR);
+		writeTimes(teamReport);
+		writer.write(SEPARATOR);
+		writeMissed(teamReport);
+		writer.write('\n');
+	}
+
+	private void writeTimes(TeamReport teamReport) throws IOException
+	{
+		boolean firstLevel = true;
+		for (TeamLevel teamLevel : teamReport.getTeamLevels())
+		{
+			if (!firstLevel) writer.write(" | ");
+			boolean firstPoint = true;
+			for (LevelPoint levelPoint : teamLevel.getLevel().getLevelPoints())
+			{
+				if (!firstPoint) writer.write(" - ");
+				Date time = teamLevel.getLevelPointTime(levelPoint);
+				if (time != null) writer.write(DateFormat.format(time));
+				firstPoint = false;
+			}
+			firstLevel = false;
+		}
+	}
+
+	private void writeMissed(TeamReport teamReport) throws IOException
+	{
+		writer.write('"');
+		boolean firstLevel = true;
+		for (TeamLevel teamLevel : teamReport.getTeamLevels())
+		{
+			if (!firstLevel) writer.write(" | ");
+			boolean firstPoint = true;
+			for (LevelPoint levelPoint : teamLevel.getLevel().getLevelPoints())
+			{
+				if (!levelPoint.getPointType().isFinish()) continue;
+				if (!firstPoint) writer.write(" - ");
+				String missed = teamLevel.getMissedCheckpointsText(levelPoint);
+				if (missed != null) writer.write(missed.replace("\"", "\"\""));
+				firstPoint = false;
+			}
+			firstLevel = false;
+		}
+		writer.write('"');
+	}
+
+	private void writeQuoted(String value) throws IOException
+	{
+		writer.write('"');
+		if (value != null) writer.write(value.replace("\"", "\"\""));
+		writer.write('"');
+	}
+
+	@Override
+	public void endDistance() throws IOException
+	{
+		writer.flush();
+	}
+
+	@Override
+	public void endReport() throws IOException
+	{
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		writer.close();
+	}
+}
@@ -1,18 +1,32 @@
 package ru.mmb.terminal.report;
 
 import java.io.BufferedWriter;
+import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import ru.mmb.terminal.activity.report.global.GlobalReportMode;
+import ru.mmb.terminal.db.TeamResultsHandler;
+import ru.mmb.terminal.db.TerminalDB;
 import ru.mmb.terminal.model.Distance;
 import ru.mmb.terminal.model.Team;
+import ru.mmb.terminal.model.TeamResult;
 import ru.mmb.terminal.model.registry.DistancesRegistry;
 import ru.mmb.terminal.model.registry.Settings;
 import ru.mmb.terminal.model.registry.TeamsRegistry;
@@ -20,14 +34,28 @@ import ru.mmb.terminal.model.report.TeamReport;
 
 public class GlobalReportBuilder
 {
+	private static final int QUEUED_TEAMS_PER_THREAD = 16;
+
 	private final GlobalReportMode reportMode;
 	private Set<Integer> selectedTeams = null;
 
-	private BufferedWriter writer;
+	private final GlobalReportProgressListener progressListener;
+
+	private final List<ReportWriter> writers = new ArrayList<ReportWriter>();
+	private ExecutorService executor;
+	private final AtomicInteger teamsDone = new AtomicInteger(0);
+	private int teamsTotal = 0;
 
 	public GlobalReportBuilder(GlobalReportMode reportMode, String selectedTeams)
+	{
+		this(reportMode, selectedTeams, null);
+	}
+
+	public GlobalReportBuilder(GlobalReportMode reportMode, String selectedTeams,
+	        GlobalReportProgressListener progressListener)
 	{
 		this.reportMode = reportMode;
+		this.progressListener = progressListener;
 		if (reportMode == GlobalReportMode.SELECTED_TEAMS)
 		{
 			this.selectedTeams = parseSelectedTeams(selectedTeams);
@@ -46,58 +74,121 @@ public class GlobalReportBuilder
 		return result.isEmpty() ? null : result;
 	}
 
+	/**
+	 * Builds HTML report and CSV and JSON reports with the same data for site import.<br>
+	 * All reports are written in one pass, rows are streamed directly to files.
+	 * 
+	 * @return HTML report file name
+	 */
 	public String buildReport() throws IOException
 	{
-		String fileName = generateFileName();
-		writer =
-		    new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fileName, false), "UTF8"));
+		String fileName = generateFileName("html");
+		executor = createExecutor();
 		try
 		{
+			writers.add(new HtmlReportWriter(openFile(fileName)));
+			writers.add(new CsvReportWriter(openFile(generateFileName("csv"))));
+			writers.add(new JsonReportWriter(openFile(generateFileName("json"))));
 			innerBuildReport();
 		}
 		finally
 		{
-			writer.close();
+			executor.shutdownNow();
+			closeWriters();
 		}
 		return fileName;
 	}
 
-	private String generateFileName()
+	/**
+	 * Team reports are independent, they are calculated on all available cores.<br>
+	 * Queue is bounded, when it is full results reading thread calculates report itself.
+	 */
+	private ExecutorService createExecutor()
+	{
+		int threads = Runtime.getRuntime().availableProcessors();
+		ArrayBlockingQueue<Runnable> queue =
+		    new ArrayBlockingQueue<Runnable>(threads * QUEUED_TEAMS_PER_THREAD);
+		return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, queue, new ThreadPoolExecutor.CallerRunsPolicy());
+	}
+
+	private String generateFileName(String extension)
 	{
 		return Settings.getInstance().getExportDir() + "/report_global_"
-		        + reportMode.getShortName() + "." + "html";
+		        + reportMode.getShortName() + "." + extension;
+	}
+
+	private BufferedWriter openFile(String fileName) throws IOException
+	{
+		return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(new File(fileName), false), "UTF8"));
+	}
+
+	private void closeWriters() throws IOException
+	{
+		IOException closeError = null;
+		for (ReportWriter writer : writers)
+		{
+			try
+			{
+				writer.close();
+			}
+			catch (IOException e)
+			{
+				closeError = e;
+			}
+		}
+		writers.clear();
+		if (closeError != null) throw closeError;
 	}
 
 	private void innerBuildReport() throws IOException
 	{
 		List<Distance> distances = DistancesRegistry.getInstance().getDistances();
-		writer.write("<html><head><meta charset=\"UTF-8\"></head><body>");
 		for (Distance distance : distances)
 		{
-			String distanceReport = buildDistanceTeamsReport(distance);
-			if (distanceReport != null && distanceReport.length() > 0)
+			teamsTotal += getReportTeams(distance).size();
+		}
+		for (ReportWriter writer : writers)
+		{
+			writer.startReport();
+		}
+		for (Distance distance : distances)
+		{
+			writeDistanceTeamsReport(distance);
+		}
+		for (ReportWriter writer : writers)
+		{
+			writer.endReport();
+		}
+	}
+
+	private void writeDistanceTeamsReport(Distance distance) throws IOException
+	{
+		List<TeamReport> calculatedReports = buildTeamReports(distance);
+		if (calculatedReports.isEmpty()) return;
+
+		Collections.sort(calculatedReports);
+		for (ReportWriter writer : writers)
+		{
+			writer.startDistance(distance);
+		}
+		int rowNum = 0;
+		for (TeamReport teamReport : calculatedReports)
+		{
+			for (ReportWriter writer : writers)
 			{
-				// row_number; team number; team name; team members; total time; table with levels
-				writer.write("<table cellspacing=\"5\">");
-				writer.write("<col width=\"50\"><col width=\"50\"><col width=\"175\"><col width=\"150\"><col width=\"50\"><col width=\"500\">");
-				int columnCount = 6;
-				writer.write("<tr><td colspan=\"" + columnCount + "\" /></tr>");
-				writer.write("<tr><td colspan=\"" + columnCount + "\">");
-				writer.write(distance.getDistanceName());
-				writer.write("</td></tr>");
-				writer.write("<tr><td colspan=\"" + columnCount + "\" /></tr>");
-				writer.write(distanceReport);
-				writer.write("</table>");
-				writer.flush();
+				writer.writeTeam(rowNum, teamReport);
 			}
+			rowNum++;
+		}
+		for (ReportWriter writer : writers)
+		{
+			writer.endDistance();
 		}
-		writer.write("</body></html>");
 	}
 
-	private String buildDistanceTeamsReport(Distance distance)
+	private List<Team> getReportTeams(Distance distance)
 	{
-		StringBuilder sb = new StringBuilder();
-		List<TeamReport> calculatedReports = new ArrayList<TeamReport>();
+		List<Team> result = new ArrayList<Team>();
 		List<Team> teams = TeamsRegistry.getInstance().getTeams(distance.getDistanceId());
 		for (Team team : teams)
 		{
@@ -105,16 +196,75 @@ public class GlobalReportBuilder
 			{
 				if (!selectedTeams.contains(team.getTeamNum())) continue;
 			}
-			TeamReportBuilder builder = new TeamReportBuilder(team);
-			calculatedReports.add(builder.buildReport());
+			result.add(team);
 		}
-		Collections.sort(calculatedReports);
-		int rowNum = 0;
-		for (TeamReport teamReport : calculatedReports)
+		return result;
+	}
+
+	private List<TeamReport> buildTeamReports(Distance distance)
+	{
+		List<Team> teams = getReportTeams(distance);
+		final Map<Integer, Future<TeamReport>> reports = new HashMap<Integer, Future<TeamReport>>();
+		// all results of distance teams are loaded with one query and processed team by team
+		TeamResultsHandler handler = new TeamResultsHandler()
 		{
-			sb.append(teamReport.toCompactHtml(rowNum));
-			rowNum++;
+			@Override
+			public void onTeamResults(Team team, List<TeamResult> teamResults)
+			{
+				reports.put(team.getTeamId(), submitTeamReport(team, teamResults));
+			}
+		};
+		TerminalDB.getConnectedInstance().loadTeamResults(distance.getDistanceId(), teams, handler);
+		for (Team team : teams)
+		{
+			if (!reports.containsKey(team.getTeamId()))
+			{
+				reports.put(team.getTeamId(), submitTeamReport(team, new ArrayList<TeamResult>()));
+			}
+		}
+
+		// Reports are collected in teams order, so following sort is deterministic.
+		List<TeamReport> result = new ArrayList<TeamReport>();
+		for (Team team : teams)
+		{
+			result.add(waitTeamReport(reports.get(team.getTeamId())));
+		}
+		return result;
+	}
+
+	private Future<TeamReport> submitTeamReport(final Team team, final List<TeamResult> teamResults)
+	{
+		return executor.submit(new Callable<TeamReport>()
+		{
+			@Override
+			public TeamReport call()
+			{
+				TeamReport result = new TeamReportBuilder(team).buildReport(teamResults);
+				int done = teamsDone.incrementAndGet();
+				// progress is posted to UI once per percent
+				if (progressListener != null
+				        && done * 100 / teamsTotal != (done - 1) * 100 / teamsTotal)
+				{
+					progressListener.onProgress(done, teamsTotal);
+				}
+				return result;
+			}
+		});
+	}
+
+	private TeamReport waitTeamReport(Future<TeamReport> report)
+	{
+		try
+		{
+			return report.get();
+		}
+		catch (InterruptedException e)
+		{
+			throw new RuntimeException("Global report building interrupted.");
+		}
+		catch (ExecutionException e)
+		{
+			throw new RuntimeException(e.getCause());
 		}
-		return sb.toString();
 	}
 }
@@ -0,0 +1,6 @@
+package ru.mmb.terminal.report;
+
+public interface GlobalReportProgressListener
+{
+	void onProgress(int teamsDone, int teamsTotal);
+}
@@ -0,0 +1,63 @@
+package ru.mmb.terminal.report;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import ru.mmb.terminal.model.Distance;
+import ru.mmb.terminal.model.report.TeamReport;
+
+public class HtmlReportWriter implements ReportWriter
+{
+	private static final int COLUMN_COUNT = 6;
+
+	private final Writer writer;
+
+	public HtmlReportWriter(Writer writer)
+	{
+		this.writer = writer;
+	}
+
+	@Override
+	public void startReport() throws IOException
+	{
+		writer.write("<html><head><meta charset=\"UTF-8\"></head><body>");
+	}
+
+	@Override
+	public void startDistance(Distance distance) throws IOException
+	{
+		// row_number; team number; team name; team members; total time; table with levels
+		writer.write("<table cellspacing=\"5\">");
+		writer.write("<col width=\"50\"><col width=\"50\"><col width=\"175\"><col width=\"150\"><col width=\"50\"><col width=\"500\">");
+		writer.write("<tr><td colspan=\"" + COLUMN_COUNT + "\" /></tr>");
+		writer.write("<tr><td colspan=\"" + COLUMN_COUNT + "\">");
+		writer.write(distance.getDistanceName());
+		writer.write("</td></tr>");
+		writer.write("<tr><td colspan=\"" + COLUMN_COUNT + "\" /></tr>");
+	}
+
+	@Override
+	public void writeTeam(int rowNum, TeamReport teamReport) throws IOException
+	{
+		teamReport.writeCompactHtml(writer, rowNum);
+	}
+
+	@Override
+	public void endDistance() throws IOException
+	{
+		writer.write("</table>");
+		writer.flush();
+	}
+
+	@Override
+	public void endReport() throws IOException
+	{
+		writer.write("</body></html>");
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		writer.close();
+	}
+}
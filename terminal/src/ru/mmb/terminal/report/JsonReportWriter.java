@@ -0,0 +1,175 @@
+package ru.mmb.terminal.report;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Date;
+
+import ru.mmb.terminal.model.Distance;
+import ru.mmb.terminal.model.LevelPoint;
+import ru.mmb.terminal.model.Participant;
+import ru.mmb.terminal.model.report.TeamLevel;
+import ru.mmb.terminal.model.report.TeamReport;
+import ru.mmb.terminal.util.DateFormat;
+
+/**
+ * Machine-readable report for site import.<br>
+ * Times are written in the same format as in exported data (yyyyMMddHHmm).
+ */
+public class JsonReportWriter implements ReportWriter
+{
+	private final Writer writer;
+	private boolean firstDistance = true;
+	private boolean firstTeam = true;
+
+	public JsonReportWriter(Writer writer)
+	{
+		this.writer = writer;
+	}
+
+	@Override
+	public void startReport() throws IOException
+	{
+		writer.write("{\"distances\":[");
+	}
+
+	@Override
+	public void startDistance(Distance distance) throws IOException
+	{
+		if (!firstDistance) writer.write(",");
+		firstDistance = false;
+		firstTeam = true;
+		writer.write("{\"distance_id\":");
+		writer.write(Integer.toString(distance.getDistanceId()));
+		writer.write(",\"distance_name\":");
+		writeString(distance.getDistanceName());
+		writer.write(",\"teams\":[");
+	}
+
+	@Override
+	public void writeTeam(int rowNum, TeamReport teamReport) throws IOException
+	{
+		if (!firstTeam) writer.write(",");
+		firstTeam = false;
+		writer.write("{\"row_num\":");
+		writer.write(Integer.toString(rowNum + 1));
+		writer.write(",\"team_id\":");
+		writer.write(Integer.toString(teamReport.getTeam().getTeamId()));
+		writer.write(",\"team_num\":");
+		writer.write(Integer.toString(teamReport.getTeam().getTeamNum()));
+		writer.write(",\"team_name\":");
+		writeString(teamReport.getTeam().getTeamName());
+		writer.write(",\"members\":[");
+		boolean first = true;
+		for (Participant member : teamReport.getTeam().getMembers())
+		{
+			if (!first) writer.write(",");
+			writeString(member.getUserName());
+			first = false;
+		}
+		writer.write("],\"result\":\"");
+		writer.write(teamReport.getCalcResult().name());
+		writer.write("\",\"duration_minutes\":");
+		writer.write(Long.toString(teamReport.getDuration()));
+		writer.write(",\"levels\":[");
+		first = true;
+		for (TeamLevel teamLevel : teamReport.getTeamLevels())
+		{
+			if (!first) writer.write(",");
+			writeLevel(teamLevel);
+			first = false;
+		}
+		writer.write("]}");
+	}
+
+	private void writeLevel(TeamLevel teamLevel) throws IOException
+	{
+		writer.write("{\"result\":\"");
+		writer.write(teamLevel.getCalcResult().name());
+		writer.write("\",\"duration_minutes\":");
+		writer.write(Long.toString(teamLevel.getDurationMinutes()));
+		writer.write(",\"penalty_minutes\":");
+		writer.write(Long.toString(teamLevel.getPenaltyMinutes()));
+		writer.write(",\"points\":[");
+		boolean first = true;
+		for (LevelPoint levelPoint : teamLevel.getLevel().getLevelPoints())
+		{
+			if (!first) writer.write(",");
+			first = false;
+			writer.write("{\"levelpoint_id\":");
+			writer.write(Integer.toString(levelPoint.getLevelPointId()));
+			writer.write(",\"scanpoint_name\":");
+			writeString(levelPoint.getScanPoint().getScanPointName());
+			writer.write(",\"time\":");
+			Date time = teamLevel.getLevelPointTime(levelPoint);
+			writeString(time == null ? null : DateFormat.format(time));
+			if (levelPoint.getPointType().isFinish())
+			{
+				writer.write(",\"missed\":");
+				writeString(teamLevel.getMissedCheckpointsText(levelPoint));
+			}
+			writer.write("}");
+		}
+		writer.write("]}");
+	}
+
+	private void writeString(String value) throws IOException
+	{
+		if (value == null)
+		{
+			writer.write("null");
+			return;
+		}
+		writer.write('"');
+		for (int i = 0; i < value.length(); i++)
+		{
+			char c = value.charAt(i);
+			switch (c)
+			{
+				case '"':
+					writer.write("\\\"");
+					break;
+				case '\\':
+					writer.write("\\\\");
+					break;
+				case '\n':
+					writer.write("\\n");
+					break;
+				case '\r':
+					writer.write("\\r");
+					break;
+				case '\t':
+					writer.write("\\t");
+					break;
+				default:
+					if (c < 0x20)
+					{
+						writer.write(String.format("\\u%04x", (int) c));
+					}
+					else
+					{
+						writer.write(c);
+					}
+			}
+		}
+		writer.write('"');
+	}
+
+	@Override
+	public void endDistance() throws IOException
+	{
+		writer.write("]}");
+		writer.flush();
+	}
+
+	@Override
+	public void endReport() throws IOException
+	{
+		writer.write("]}");
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		writer.close();
+	}
+}
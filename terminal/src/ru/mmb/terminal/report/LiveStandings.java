@@ -0,0 +1,254 @@
+package ru.mmb.terminal.report;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import ru.mmb.terminal.db.TeamResultsHandler;
+import ru.mmb.terminal.db.TerminalDB;
+import ru.mmb.terminal.model.Team;
+import ru.mmb.terminal.model.TeamResult;
+import ru.mmb.terminal.model.registry.TeamsRegistry;
+import ru.mmb.terminal.model.report.LevelCalcResult;
+import ru.mmb.terminal.model.report.TeamReport;
+import ru.mmb.terminal.util.RankTree;
+
+/**
+ * In-memory standings of all distances.<br>
+ * Team reports are cached per team. When team results are saved or imported, only this
+ * team is marked as changed and recalculated on next request. Sorted reports of each
+ * distance are kept in RankTree, so top of standings and rank of a team are got without
+ * full report rebuilding.<br>
+ * Writers invalidate teams after their transaction ends. Reports are loaded from DB without
+ * holding the lock taken by writers, only one thread loads them at a time.
+ */
+public class LiveStandings
+{
+	private static LiveStandings instance = null;
+
+	private static final Comparator<TeamReport> STANDINGS_ORDER = new Comparator<TeamReport>()
+	{
+		@Override
+		public int compare(TeamReport report1, TeamReport report2)
+		{
+			boolean fail1 = report1.getCalcResult() == LevelCalcResult.FAIL;
+			boolean fail2 = report2.getCalcResult() == LevelCalcResult.FAIL;
+			int result;
+			if (fail1 != fail2)
+			{
+				result = fail1 ? 1 : -1;
+			}
+			else if (fail1)
+			{
+				result = 0;
+			}
+			else
+			{
+				result = report1.compareTo(report2);
+			}
+			// Teams with equal results are ordered by number, order must be total for RankTree.
+			if (result == 0)
+			{
+				result = compareInts(report1.getTeam().getTeamNum(), report2.getTeam().getTeamNum());
+			}
+			if (result == 0)
+			{
+				result = compareInts(report1.getTeam().getTeamId(), report2.getTeam().getTeamId());
+			}
+			return result;
+		}
+	};
+
+	private final Map<Integer, RankTree<TeamReport>> distanceStandings =
+	    new HashMap<Integer, RankTree<TeamReport>>();
+	private final Map<Integer, TeamReport> teamReports = new HashMap<Integer, TeamReport>();
+	private final Set<Integer> changedTeams = new HashSet<Integer>();
+	// incremented by invalidateAll, reports loaded before it are not kept
+	private int generation = 0;
+
+	private final Object loadLock = new Object();
+
+	public static synchronized LiveStandings getInstance()
+	{
+		if (instance == null)
+		{
+			instance = new LiveStandings();
+		}
+		return instance;
+	}
+
+	private LiveStandings()
+	{
+	}
+
+	private static int compareInts(int value1, int value2)
+	{
+		return (value1 < value2) ? -1 : ((value1 == value2) ? 0 : 1);
+	}
+
+	public synchronized void invalidateTeam(int teamId)
+	{
+		changedTeams.add(teamId);
+	}
+
+	public synchronized void invalidateTeams(Collection<Integer> teamIds)
+	{
+		changedTeams.addAll(teamIds);
+	}
+
+	public synchronized void invalidateAll()
+	{
+		distanceStandings.clear();
+		teamReports.clear();
+		changedTeams.clear();
+		generation++;
+	}
+
+	/**
+	 * @return reports of first count teams of the distance in standings order
+	 */
+	public List<TeamReport> getTop(int distanceId, int count)
+	{
+		RankTree<TeamReport> standings = getDistanceStandings(distanceId);
+		synchronized (this)
+		{
+			return standings.head(count);
+		}
+	}
+
+	/**
+	 * @return team rank in its distance starting from 1 or -1 for unknown team
+	 */
+	public int getRank(int teamId)
+	{
+		Team team = TeamsRegistry.getInstance().getTeamById(teamId);
+		if (team == null) return -1;
+		RankTree<TeamReport> standings = getDistanceStandings(team.getDistanceId());
+		synchronized (this)
+		{
+			TeamReport report = teamReports.get(teamId);
+			if (report == null) return -1;
+			int rank = standings.rank(report);
+			return (rank < 0) ? -1 : rank + 1;
+		}
+	}
+
+	public TeamReport getTeamReport(int teamId)
+	{
+		Team team = TeamsRegistry.getInstance().getTeamById(teamId);
+		if (team == null) return null;
+		getDistanceStandings(team.getDistanceId());
+		synchronized (this)
+		{
+			return teamReports.get(teamId);
+		}
+	}
+
+	private RankTree<TeamReport> getDistanceStandings(int distanceId)
+	{
+		synchronized (loadLock)
+		{
+			// Got before the lock, first registry refresh invalidates standings.
+			TeamsRegistry teamsRegistry = TeamsRegistry.getInstance();
+			int loadGeneration;
+			RankTree<TeamReport> result;
+			List<Team> changed;
+			synchronized (this)
+			{
+				loadGeneration = generation;
+				result = distanceStandings.get(distanceId);
+				// Teams invalidated after this point are loaded again on next request.
+				changed = takeChangedTeams(teamsRegistry, distanceId);
+			}
+			if (result == null)
+			{
+				List<TeamReport> reports = loadDistanceReports(distanceId);
+				synchronized (this)
+				{
+					result = new RankTree<TeamReport>(STANDINGS_ORDER);
+					for (TeamReport report : reports)
+					{
+						if (loadGeneration == generation)
+						{
+							teamReports.put(report.getTeam().getTeamId(), report);
+						}
+						result.add(report);
+					}
+					if (loadGeneration == generation) distanceStandings.put(distanceId, result);
+				}
+			}
+			else if (!changed.isEmpty())
+			{
+				List<TeamReport> reports = new ArrayList<TeamReport>(changed.size());
+				for (Team team : changed)
+				{
+					reports.add(new TeamReportBuilder(team).buildReport());
+				}
+				synchronized (this)
+				{
+					if (loadGeneration != generation) return result;
+					for (TeamReport report : reports)
+					{
+						TeamReport oldReport = teamReports.get(report.getTeam().getTeamId());
+						if (oldReport != null) result.remove(oldReport);
+						teamReports.put(report.getTeam().getTeamId(), report);
+						result.add(report);
+					}
+				}
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Removes changed teams of the distance from changed set.<br>
+	 * Teams not yet known to TeamsRegistry stay changed until registry is refreshed.
+	 */
+	private List<Team> takeChangedTeams(TeamsRegistry teamsRegistry, int distanceId)
+	{
+		if (changedTeams.isEmpty()) return Collections.emptyList();
+		List<Team> result = new ArrayList<Team>();
+		for (Iterator<Integer> iterator = changedTeams.iterator(); iterator.hasNext();)
+		{
+			Team team = teamsRegistry.getTeamById(iterator.next());
+			if (team != null && team.getDistanceId() == distanceId)
+			{
+				result.add(team);
+				iterator.remove();
+			}
+		}
+		return result;
+	}
+
+	private List<TeamReport> loadDistanceReports(int distanceId)
+	{
+		final List<TeamReport> result = new ArrayList<TeamReport>();
+		List<Team> teams = TeamsRegistry.getInstance().getTeams(distanceId);
+		final Set<Integer> loadedTeams = new HashSet<Integer>();
+		TeamResultsHandler handler = new TeamResultsHandler()
+		{
+			@Override
+			public void onTeamResults(Team team, List<TeamResult> teamResults)
+			{
+				result.add(new TeamReportBuilder(team).buildReport(teamResults));
+				loadedTeams.add(team.getTeamId());
+			}
+		};
+		TerminalDB.getConnectedInstance().loadTeamResults(distanceId, teams, handler);
+		for (Team team : teams)
+		{
+			if (!loadedTeams.contains(team.getTeamId()))
+			{
+				result.add(new TeamReportBuilder(team).buildReport(new ArrayList<TeamResult>()));
+			}
+		}
+		return result;
+	}
+}
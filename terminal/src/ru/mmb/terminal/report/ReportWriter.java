@@ -0,0 +1,25 @@
+package ru.mmb.terminal.report;
+
+import java.io.IOException;
+
+import ru.mmb.terminal.model.Distance;
+import ru.mmb.terminal.model.report.TeamReport;
+
+/**
+ * Streaming writer of global report.<br>
+ * Rows are written directly to output as soon as team report is ready.
+ */
+public interface ReportWriter
+{
+	void startReport() throws IOException;
+
+	void startDistance(Distance distance) throws IOException;
+
+	void writeTeam(int rowNum, TeamReport teamReport) throws IOException;
+
+	void endDistance() throws IOException;
+
+	void endReport() throws IOException;
+
+	void close() throws IOException;
+}
@@ -28,10 +28,18 @@ public class TeamReportBuilder
 	public TeamReport buildReport()
 	{
 		List<TeamResult> teamResults = TerminalDB.getConnectedInstance().loadTeamResults(team);
-		teamResults = removeDuplicateDBRecords(teamResults);
 		return buildReport(teamResults);
 	}
 
+	/**
+	 * Builds report from already loaded team results.<br>
+	 * Results must be ordered by level point and record date, as they are loaded from DB.
+	 */
+	public TeamReport buildReport(List<TeamResult> teamResults)
+	{
+		return calculateReport(removeDuplicateDBRecords(teamResults));
+	}
+
 	private List<TeamResult> removeDuplicateDBRecords(List<TeamResult> teamResults)
 	{
 		List<TeamResult> result = new ArrayList<TeamResult>();
@@ -60,7 +68,7 @@ public class TeamReportBuilder
 		return result;
 	}
 
-	private TeamReport buildReport(List<TeamResult> teamResults)
+	private TeamReport calculateReport(List<TeamResult> teamResults)
 	{
 		List<TeamLevel> teamLevels = createTeamLevels();
 		TeamReport teamReport = new TeamReport(team, teamLevels);
@@ -1,28 +1,36 @@
 package ru.mmb.terminal.transport.exporter;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
+import java.io.Writer;
 
+import ru.mmb.terminal.transport.model.MetaTable;
 import android.database.Cursor;
 
+/**
+ * Writes rows of current table as JSON objects separated by commas directly from cursor.
+ */
 public class DataExtractorToJson extends DataExtractor
 {
-	private JSONArray records;
+	private final Writer writer;
+	private boolean firstRow = true;
 
-	public DataExtractorToJson(ExportMode exportMode)
+	public DataExtractorToJson(ExportMode exportMode, Writer writer)
 	{
 		super(exportMode);
+		this.writer = writer;
 	}
 
-	public void setTargetRecords(JSONArray records)
+	@Override
+	public void setCurrentTable(MetaTable metaTable)
 	{
-		this.records = records;
+		super.setCurrentTable(metaTable);
+		firstRow = true;
 	}
 
 	@Override
 	protected void exportRow(Cursor cursor) throws Exception
 	{
-		JSONObject rowJSON = getCurrentTable().generateExportRowJSON(cursor);
-		records.put(rowJSON);
+		if (!firstRow) writer.write(",");
+		firstRow = false;
+		getCurrentTable().writeExportRowJSON(cursor, writer);
 	}
 }
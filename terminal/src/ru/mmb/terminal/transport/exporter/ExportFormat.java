@@ -4,7 +4,9 @@ public enum ExportFormat
 {
 	TXT,
 
-	JSON;
+	JSON,
+
+	JSON_GZIP;
 
 	public String getFileExtension()
 	{
@@ -12,9 +14,18 @@ public enum ExportFormat
 		{
 			return "txt";
 		}
-		else
+		else if (this == ExportFormat.JSON)
 		{
 			return "json";
 		}
+		else
+		{
+			return "json.gz";
+		}
+	}
+
+	public boolean isCompressed()
+	{
+		return this == ExportFormat.JSON_GZIP;
 	}
 }
@@ -0,0 +1,34 @@
+package ru.mmb.terminal.transport.exporter;
+
+/**
+ * Range of change log ids (afterChange, lastChange] selected by incremental export.
+ */
+public class ExportRange
+{
+	private final long afterChange;
+	private final long lastChange;
+
+	public ExportRange(long afterChange, long lastChange)
+	{
+		this.afterChange = afterChange;
+		this.lastChange = lastChange;
+	}
+
+	public long getAfterChange()
+	{
+		return afterChange;
+	}
+
+	public long getLastChange()
+	{
+		return lastChange;
+	}
+
+	/**
+	 * @return false until the first incremental export over the change log is committed
+	 */
+	public boolean isKnown()
+	{
+		return afterChange >= 0;
+	}
+}
@@ -2,15 +2,19 @@ package ru.mmb.terminal.transport.exporter.data;
 
 import java.io.BufferedWriter;
 import java.io.FileOutputStream;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.util.Date;
+import java.util.zip.GZIPOutputStream;
 
+import ru.mmb.terminal.db.TerminalDB;
 import ru.mmb.terminal.model.registry.Settings;
 import ru.mmb.terminal.transport.exporter.DataExtractor;
 import ru.mmb.terminal.transport.exporter.DataExtractorToFile;
 import ru.mmb.terminal.transport.exporter.DataExtractorToJson;
 import ru.mmb.terminal.transport.exporter.ExportFormat;
 import ru.mmb.terminal.transport.exporter.ExportMode;
+import ru.mmb.terminal.transport.exporter.ExportRange;
 import ru.mmb.terminal.transport.exporter.ExportState;
 import ru.mmb.terminal.util.DateFormat;
 
@@ -22,6 +26,7 @@ public class DataExporter
 	private final ExportFormat exportFormat;
 
 	private BufferedWriter writer;
+	private ExportRange exportRange;
 
 	public DataExporter(ExportMode exportMode, ExportState exportState, ExportFormat exportFormat)
 	{
@@ -34,11 +39,18 @@ public class DataExporter
 	public String exportData() throws Exception
 	{
 		String fileName = generateFileName(exportMode, exportDate);
-		writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fileName), "UTF8"));
+		exportRange = createExportRange();
+		OutputStream output = new FileOutputStream(fileName);
+		if (exportFormat.isCompressed())
+		{
+			output = new GZIPOutputStream(output);
+		}
+		writer = new BufferedWriter(new OutputStreamWriter(output, "UTF8"));
 		try
 		{
 			createExportDataMethod().exportData();
 			updateLastExportDate();
+			commitExportRange();
 		}
 		finally
 		{
@@ -51,14 +63,22 @@ public class DataExporter
 	{
 		if (exportFormat == ExportFormat.TXT)
 		{
-			return new ExportDataMethodTxt(exportState, createDataExtractor(), writer);
+			return new ExportDataMethodTxt(exportState, createDataExtractor(), writer, exportRange);
 		}
 		else
 		{
-			return new ExportDataMethodJson(exportState, (DataExtractorToJson) createDataExtractor(), writer);
+			return new ExportDataMethodJson(exportState, (DataExtractorToJson) createDataExtractor(), writer, exportRange);
 		}
 	}
 
+	private ExportRange createExportRange()
+	{
+		// Upper bound is fixed before export, rows changed during export go to the next one.
+		TerminalDB terminalDB = TerminalDB.getRawInstance();
+		terminalDB.flushWrites();
+		return new ExportRange(terminalDB.getLastExportedChange(), terminalDB.getLastChange());
+	}
+
 	private DataExtractor createDataExtractor()
 	{
 		if (exportFormat == ExportFormat.TXT)
@@ -67,7 +87,7 @@ public class DataExporter
 		}
 		else
 		{
-			return new DataExtractorToJson(exportMode);
+			return new DataExtractorToJson(exportMode, writer);
 		}
 	}
 
@@ -88,4 +108,12 @@ public class DataExporter
 			Settings.getInstance().setLastExportDate(DateFormat.format(exportDate));
 		}
 	}
+
+	private void commitExportRange()
+	{
+		if (exportMode == ExportMode.INCREMENTAL)
+		{
+			TerminalDB.getRawInstance().commitExportedChanges(exportRange.getLastChange());
+		}
+	}
 }
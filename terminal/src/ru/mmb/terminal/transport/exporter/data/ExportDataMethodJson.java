@@ -1,54 +1,70 @@
 package ru.mmb.terminal.transport.exporter.data;
 
 import java.io.BufferedWriter;
+import java.io.IOException;
 
-import org.json.JSONArray;
 import org.json.JSONObject;
 
 import ru.mmb.terminal.model.registry.Settings;
 import ru.mmb.terminal.transport.exporter.DataExtractorToJson;
+import ru.mmb.terminal.transport.exporter.ExportRange;
 import ru.mmb.terminal.transport.exporter.ExportState;
 import ru.mmb.terminal.transport.model.MetaTable;
 import ru.mmb.terminal.transport.registry.MetaTablesRegistry;
 
+/**
+ * Streams tables to writer row by row, the export is never kept in memory.
+ */
 public class ExportDataMethodJson implements ExportDataMethod
 {
 	private final ExportState exportState;
 	private final DataExtractorToJson dataExtractor;
 	private final BufferedWriter writer;
+	private final ExportRange exportRange;
+	private boolean firstTable = true;
 
-	public ExportDataMethodJson(ExportState exportState, DataExtractorToJson dataExtractor, BufferedWriter writer)
+	public ExportDataMethodJson(ExportState exportState, DataExtractorToJson dataExtractor, BufferedWriter writer,
+	        ExportRange exportRange)
 	{
 		this.exportState = exportState;
 		this.dataExtractor = dataExtractor;
 		this.writer = writer;
+		this.exportRange = exportRange;
 	}
 
 	@Override
 	public void exportData() throws Exception
 	{
-		JSONObject mainContainer = new JSONObject();
+		writer.write("{");
 		if (exportState.isTerminated()) return;
-		exportTable("TeamLevelDismiss", mainContainer);
+		exportTable("TeamLevelDismiss");
 		if (exportState.isTerminated()) return;
-		exportTable("TeamLevelPoints", mainContainer);
+		exportTable("TeamLevelPoints");
 		if (exportState.isTerminated()) return;
-		writer.write(mainContainer.toString());
+		writer.write("}");
 	}
 
-	private void exportTable(String tableName, JSONObject mainContainer) throws Exception
+	private void exportTable(String tableName) throws Exception
 	{
 		MetaTable table = MetaTablesRegistry.getInstance().getTableByName(tableName);
 		table.setExportWhereAppendix("");
 		table.setLastExportDate(Settings.getInstance().getLastExportDate());
-		JSONArray records = new JSONArray();
-		dataExtractor.setTargetRecords(records);
+		table.setExportRange(exportRange);
 		dataExtractor.setCurrentTable(table);
 		if (dataExtractor.hasRecordsToExport())
 		{
 			if (exportState.isTerminated()) return;
+			writeTableStart(tableName);
 			dataExtractor.exportNewRecords(exportState);
-			mainContainer.put(tableName, records);
+			writer.write("]");
 		}
 	}
+
+	private void writeTableStart(String tableName) throws IOException
+	{
+		if (!firstTable) writer.write(",");
+		firstTable = false;
+		writer.write(JSONObject.quote(tableName));
+		writer.write(":[");
+	}
 }
@@ -5,6 +5,7 @@ import java.io.IOException;
 
 import ru.mmb.terminal.model.registry.Settings;
 import ru.mmb.terminal.transport.exporter.DataExtractor;
+import ru.mmb.terminal.transport.exporter.ExportRange;
 import ru.mmb.terminal.transport.exporter.ExportState;
 import ru.mmb.terminal.transport.model.MetaTable;
 import ru.mmb.terminal.transport.registry.MetaTablesRegistry;
@@ -14,12 +15,15 @@ public class ExportDataMethodTxt implements ExportDataMethod
 	private final ExportState exportState;
 	private final DataExtractor dataExtractor;
 	private final BufferedWriter writer;
+	private final ExportRange exportRange;
 
-	public ExportDataMethodTxt(ExportState exportState, DataExtractor dataExtractor, BufferedWriter writer)
+	public ExportDataMethodTxt(ExportState exportState, DataExtractor dataExtractor, BufferedWriter writer,
+	        ExportRange exportRange)
 	{
 		this.exportState = exportState;
 		this.dataExtractor = dataExtractor;
 		this.writer = writer;
+		this.exportRange = exportRange;
 	}
 
 	public void exportData() throws Exception
@@ -46,6 +50,7 @@ public class ExportDataMethodTxt implements ExportDataMethod
 		MetaTable table = MetaTablesRegistry.getInstance().getTableByName(tableName);
 		table.setExportWhereAppendix("");
 		table.setLastExportDate(Settings.getInstance().getLastExportDate());
+		table.setExportRange(exportRange);
 		dataExtractor.setCurrentTable(table);
 		if (dataExtractor.hasRecordsToExport())
 		{
@@ -1,21 +1,28 @@
 package ru.mmb.terminal.transport.importer;
 
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
 import ru.mmb.terminal.db.TerminalDB;
+import ru.mmb.terminal.report.LiveStandings;
 import ru.mmb.terminal.transport.model.MetaTable;
-import android.database.Cursor;
+import ru.mmb.terminal.util.DateFormat;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteDoneException;
+import android.database.sqlite.SQLiteStatement;
 
 /**
  * Data synchronization disabled.<br>
  * All records MUST be removed from table before import.<br>
  * All rows from import package will be imported without any checks.<br>
  * 
- * But import with synchronization features can be restored at any moment.
+ * But import with synchronization features can be restored at any moment.<br>
+ * SQL statements are compiled once per table, only values are bound for every row.<br>
+ * Teams of saved rows are invalidated in live standings after transaction end.
  * 
  * @author yweiss
  */
@@ -24,6 +31,13 @@ public class DataSaver
 	private MetaTable currentTable = null;
 	private final SQLiteDatabase db;
 
+	private SQLiteStatement insertStatement = null;
+	private SQLiteStatement updateStatement = null;
+	// Selects update date or checks record existence, if table has no update date.
+	private SQLiteStatement selectStatement = null;
+
+	private final Set<Integer> changedTeams = new HashSet<Integer>();
+
 	public DataSaver()
 	{
 		// TerminalDB.getRawInstance() will never be null, but db can be null.
@@ -32,7 +46,41 @@ public class DataSaver
 
 	public void setCurrentTable(MetaTable metaTable)
 	{
+		closeStatements();
 		currentTable = metaTable;
+		if (currentTable != null) compileStatements();
+	}
+
+	private void compileStatements()
+	{
+		insertStatement = db.compileStatement(currentTable.generateInsertSQL());
+		if (currentTable.needClearBeforeImport()) return;
+
+		updateStatement = db.compileStatement(currentTable.generateUpdateSQL());
+		if (currentTable.getUpdateDateColumnName() == null)
+		{
+			selectStatement = db.compileStatement(currentTable.generateCheckExistsSQL());
+		}
+		else
+		{
+			selectStatement = db.compileStatement(currentTable.generateUpdateDateSelectSQL());
+		}
+	}
+
+	private void closeStatements()
+	{
+		if (insertStatement != null) insertStatement.close();
+		if (updateStatement != null) updateStatement.close();
+		if (selectStatement != null) selectStatement.close();
+		insertStatement = null;
+		updateStatement = null;
+		selectStatement = null;
+	}
+
+	public void close()
+	{
+		closeStatements();
+		currentTable = null;
 	}
 
 	public void saveRecordToDB(JSONObject tableRow) throws JSONException
@@ -40,6 +88,11 @@ public class DataSaver
 		if (currentTable == null) return;
 		if (tableRow == null) return;
 
+		if (tableRow.has("team_id"))
+		{
+			changedTeams.add(tableRow.getInt("team_id"));
+		}
+
 		// If table is cleared before import, then no PK violation possible.
 		if (currentTable.needClearBeforeImport())
 		{
@@ -93,53 +146,42 @@ public class DataSaver
 
 	private boolean isRecordExists(JSONObject tableRow) throws JSONException
 	{
-		String sql = currentTable.generateCheckExistsSQL(tableRow);
-		Cursor cursor = db.rawQuery(sql, null);
-		try
-		{
-			cursor.moveToFirst();
-			return cursor.getInt(0) == 1;
-		}
-		finally
-		{
-			cursor.close();
-		}
+		currentTable.bindPKValues(selectStatement, tableRow);
+		return selectStatement.simpleQueryForLong() > 0;
 	}
 
 	private Date getRecordUpdateDate(JSONObject tableRow) throws JSONException
 	{
-		Date result = null;
-		String sql = currentTable.generateUpdateDateSelectSQL(tableRow);
-		Cursor cursor = db.rawQuery(sql, null);
+		currentTable.bindPKValues(selectStatement, tableRow);
 		try
 		{
-			cursor.moveToFirst();
-			if (cursor.getCount() == 0) return null;
-			result = (Date) currentTable.getUpdateDateColumn().getValue(cursor, 0);
-			return result;
+			String updateDate = selectStatement.simpleQueryForString();
+			return (updateDate == null) ? null : DateFormat.parse(updateDate);
 		}
-		finally
+		catch (SQLiteDoneException e)
 		{
-			cursor.close();
+			// No such record.
+			return null;
 		}
 	}
 
 	private void updateRecord(JSONObject tableRow) throws JSONException
 	{
-		String sql = currentTable.generateUpdateSQL(tableRow);
-		db.execSQL(sql);
+		currentTable.bindUpdateValues(updateStatement, tableRow);
+		updateStatement.execute();
 	}
 
 	private void insertRecord(JSONObject tableRow) throws JSONException
 	{
-		String sql = currentTable.generateInsertSQL(tableRow);
-		db.execSQL(sql);
+		currentTable.bindInsertValues(insertStatement, tableRow);
+		insertStatement.execute();
 	}
 
 	public void clearCurrentTable()
 	{
 		String sql = currentTable.generateDeleteAllRowsSQL();
 		db.execSQL(sql);
+		LiveStandings.getInstance().invalidateAll();
 	}
 
 	public void beginTransaction()
@@ -155,5 +197,10 @@ public class DataSaver
 	public void endTransaction()
 	{
 		db.endTransaction();
+		if (!changedTeams.isEmpty())
+		{
+			LiveStandings.getInstance().invalidateTeams(changedTeams);
+			changedTeams.clear();
+		}
 	}
 }
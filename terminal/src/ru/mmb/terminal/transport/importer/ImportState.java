@@ -89,8 +89,12 @@ public class ImportState
 		return finished;
 	}
 
-	public String getProcessedRowsText()
+	/**
+	 * Total rows count is negative while streamed import doesn't know it.
+	 */
+	public synchronized String getProcessedRowsText()
 	{
-		return getRowsProcessed() + "/" + getTotalRows();
+		if (totalRows < 0) return Integer.toString(rowsProcessed);
+		return rowsProcessed + "/" + totalRows;
 	}
 }
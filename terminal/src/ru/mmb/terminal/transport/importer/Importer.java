@@ -1,19 +1,24 @@
 package ru.mmb.terminal.transport.importer;
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.List;
 
-import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
 import ru.mmb.terminal.model.ScanPoint;
 import ru.mmb.terminal.transport.importer.barcode.BarcodeFileReader;
+import ru.mmb.terminal.transport.importer.barcode.BarcodeFilesMerger;
+import ru.mmb.terminal.transport.importer.barcode.BarcodeScan;
+import ru.mmb.terminal.transport.importer.barcode.BarcodeScansReducer;
+import ru.mmb.terminal.transport.importer.barcode.BarcodeScansSaver;
+import ru.mmb.terminal.transport.importer.barcode.DataLogFiles;
 import ru.mmb.terminal.transport.model.ImportBarCodeMetaTable;
 import ru.mmb.terminal.transport.model.MetaTable;
 import ru.mmb.terminal.transport.registry.MetaTablesRegistry;
-import ru.mmb.terminal.util.JSONUtils;
 import android.util.Log;
 
 public class Importer
@@ -35,34 +40,58 @@ public class Importer
 	{
 		importState.appendMessage("Import started.");
 
-		JSONObject tables;
-		if (fileName.toUpperCase().endsWith(".TXT"))
+		File file = new File(fileName);
+		if (file.isDirectory() || fileName.toUpperCase().endsWith(".TXT"))
 		{
 			if (scanPoint == null)
 			{
 				importState.appendMessage("Import failed. ScanPoint for barcode scans import not defined.");
 				return;
 			}
-			tables = readBarCodeScanData(fileName);
+			if (file.isDirectory())
+				importBarCodeFiles(file);
+			else
+				importBarCodeScans(fileName);
+			return;
 		}
-		else
+
+		TablesReader tables = openJsonTablesPackage(fileName);
+		try
 		{
-			tables = readJsonTablesPackage(fileName);
+			importTables(tables);
 		}
+		finally
+		{
+			tables.close();
+		}
+	}
 
-		importState.appendMessage("File loaded to JSON object.");
-
+	private void importTables(TablesReader tables) throws IOException, JSONException
+	{
 		DataSaver dataSaver = new DataSaver();
-		JSONArray names = tables.names();
-		for (int i = 0; i < names.length(); i++)
+		try
+		{
+			importTables(tables, dataSaver);
+		}
+		finally
+		{
+			dataSaver.close();
+		}
+	}
+
+	private void importTables(TablesReader tables, DataSaver dataSaver) throws IOException,
+	        JSONException
+	{
+		String tableName = tables.nextTable();
+		while (tableName != null)
 		{
 			if (importState.isTerminated()) break;
-			String tableName = names.getString(i);
 			importState.appendMessage("Importing table: " + tableName);
 			MetaTable metaTable = getMetaTable(tableName);
 			if (metaTable == null)
 			{
 				importState.appendMessage("Meta table not found.");
+				tableName = tables.nextTable();
 				continue;
 			}
 			dataSaver.setCurrentTable(metaTable);
@@ -71,22 +100,165 @@ public class Importer
 				dataSaver.clearCurrentTable();
 				Log.d("data saver", "table cleared: " + tableName);
 			}
-			JSONArray tableRows = tables.getJSONArray(tableName);
-			resetImportState(metaTable, tableRows.length());
-			importTableRows(dataSaver, tableRows);
+			resetImportState(metaTable.getTableName());
+			importTableRows(dataSaver, tables);
+			tableName = tables.nextTable();
+		}
+	}
+
+	private void importBarCodeScans(String fileName) throws IOException
+	{
+		BarcodeFileReader reader = new BarcodeFileReader(fileName, scanPoint, importState);
+		try
+		{
+			BarcodeScansSaver saver = new BarcodeScansSaver();
+			try
+			{
+				importBarCodeScans(reader, saver);
+			}
+			finally
+			{
+				saver.close();
+			}
+		}
+		finally
+		{
+			reader.close();
+		}
+	}
+
+	/**
+	 * Scans are saved while file is read, so memory use doesn't depend on file size.
+	 */
+	private void importBarCodeScans(BarcodeFileReader reader, BarcodeScansSaver saver)
+	        throws IOException
+	{
+		resetImportState(TABLE_BAR_CODE_SCANS);
+		long started = System.currentTimeMillis();
+		saver.beginTransaction();
+		try
+		{
+			int j = 0;
+			BarcodeScan scan = reader.nextScan();
+			while (scan != null)
+			{
+				if (needSaveBatch(j))
+				{
+					saver.setTransactionSuccessful();
+					saver.endTransaction();
+					saver.beginTransaction();
+				}
+				if (importState.isTerminated()) break;
+				try
+				{
+					saver.saveScan(scan);
+				}
+				catch (Exception e)
+				{
+					importState.appendMessage("Scan not imported. " + scan);
+					importState.appendMessage("Error: " + e.getClass().getSimpleName() + " - "
+					        + e.getMessage());
+				}
+				importState.incRowsProcessed();
+				j++;
+				scan = reader.nextScan();
+			}
+			importState.setTotalRows(j);
+			saver.setTransactionSuccessful();
+		}
+		finally
+		{
+			saver.endTransaction();
+		}
+		long duration = Math.max(1, System.currentTimeMillis() - started);
+		importState.appendMessage("Lines read: " + reader.getLinesRead()
+		        + ", scans of selected scan point: " + reader.getScansFound() + " in " + duration
+		        + " ms (" + (reader.getLinesRead() * 1000L / duration) + " lines/s)");
+	}
+
+	/**
+	 * All barcode files of the directory are merged and reduced to one scan per team, then the
+	 * scans are saved in a single transaction.
+	 */
+	private void importBarCodeFiles(File directory) throws InterruptedException
+	{
+		List<String> fileNames = DataLogFiles.getFileNames(directory);
+		importState.appendMessage("Barcode files found: " + fileNames.size());
+		if (fileNames.isEmpty()) return;
+
+		resetImportState(TABLE_BAR_CODE_SCANS);
+		long started = System.currentTimeMillis();
+		BarcodeScansReducer reducer = new BarcodeScansReducer();
+		BarcodeFilesMerger merger = new BarcodeFilesMerger(fileNames, scanPoint, importState);
+		try
+		{
+			BarcodeScan scan = merger.nextScan();
+			while (scan != null)
+			{
+				if (importState.isTerminated()) return;
+				reducer.addScan(scan);
+				importState.incRowsProcessed();
+				scan = merger.nextScan();
+			}
+		}
+		finally
+		{
+			merger.close();
 		}
+		importState.appendMessage("Lines read: " + merger.getLinesRead()
+		        + ", scans of selected scan point: " + merger.getScansFound()
+		        + ", duplicates skipped: " + merger.getDuplicatesSkipped());
+
+		List<BarcodeScan> teamScans = reducer.getTeamScans();
+		saveTeamScans(teamScans);
+		long duration = Math.max(1, System.currentTimeMillis() - started);
+		importState.appendMessage("Team scans saved: " + teamScans.size() + " in " + duration
+		        + " ms (" + (merger.getLinesRead() * 1000L / duration) + " lines/s)");
 	}
 
-	private JSONObject readBarCodeScanData(String fileName) throws Exception
+	private void saveTeamScans(List<BarcodeScan> teamScans)
 	{
-		return new BarcodeFileReader(fileName, scanPoint, importState).readBarCodeScanData();
+		importState.setTotalRows(teamScans.size());
+		importState.setRowsProcessed(0);
+		BarcodeScansSaver saver = new BarcodeScansSaver();
+		try
+		{
+			saver.beginTransaction();
+			try
+			{
+				for (BarcodeScan scan : teamScans)
+				{
+					// not finished transaction is rolled back
+					if (importState.isTerminated()) return;
+					try
+					{
+						saver.saveTeamScan(scan);
+					}
+					catch (Exception e)
+					{
+						importState.appendMessage("Scan not imported. " + scan);
+						importState.appendMessage("Error: " + e.getClass().getSimpleName() + " - "
+						        + e.getMessage());
+					}
+					importState.incRowsProcessed();
+				}
+				saver.setTransactionSuccessful();
+			}
+			finally
+			{
+				saver.endTransaction();
+			}
+		}
+		finally
+		{
+			saver.close();
+		}
 	}
 
-	private JSONObject readJsonTablesPackage(String fileName) throws IOException, JSONException
+	private TablesReader openJsonTablesPackage(String fileName) throws IOException
 	{
 		InputStreamReader reader = new InputStreamReader(new FileInputStream(fileName), "UTF8");
-		String jsonString = JSONUtils.readFromInputStream(reader, 32768);
-		return new JSONObject(jsonString);
+		return new JsonTablesReader(reader);
 	}
 
 	private MetaTable getMetaTable(String tableName)
@@ -97,18 +269,23 @@ public class Importer
 			return MetaTablesRegistry.getInstance().getTableByName(tableName);
 	}
 
-	private void resetImportState(MetaTable metaTable, int totalRows)
+	private void resetImportState(String tableName)
 	{
-		importState.setCurrentTable(metaTable.getTableName());
-		importState.setTotalRows(totalRows);
+		importState.setCurrentTable(tableName);
+		// Rows count is not known until the whole table is read.
+		importState.setTotalRows(-1);
 		importState.setRowsProcessed(0);
 	}
 
-	private void importTableRows(DataSaver dataSaver, JSONArray tableRows) throws JSONException
+	private void importTableRows(DataSaver dataSaver, TablesReader tables) throws IOException,
+	        JSONException
 	{
+		long started = System.currentTimeMillis();
 		dataSaver.beginTransaction();
 		Log.d("data saver", "started first transaction");
-		for (int j = 0; j < tableRows.length(); j++)
+		int j = 0;
+		JSONObject tableRow = tables.nextRow();
+		while (tableRow != null)
 		{
 			if (needSaveBatch(j))
 			{
@@ -122,19 +299,25 @@ public class Importer
 			if (importState.isTerminated()) break;
 			try
 			{
-				dataSaver.saveRecordToDB(tableRows.getJSONObject(j));
+				dataSaver.saveRecordToDB(tableRow);
 			}
 			catch (Exception e)
 			{
-				importState.appendMessage("Row not imported." + tableRows.getJSONObject(j));
+				importState.appendMessage("Row not imported." + tableRow);
 				importState.appendMessage("Error: " + e.getClass().getSimpleName() + " - "
 				        + e.getMessage());
 			}
 			importState.incRowsProcessed();
+			j++;
+			tableRow = tables.nextRow();
 		}
+		importState.setTotalRows(j);
 		dataSaver.setTransactionSuccessful();
 		dataSaver.endTransaction();
 		Log.d("data saver", "remaining records batch commited");
+		long duration = Math.max(1, System.currentTimeMillis() - started);
+		importState.appendMessage("Rows imported: " + j + " in " + duration + " ms ("
+		        + (j * 1000L / duration) + " rows/s)");
 	}
 
 	private boolean needSaveBatch(int j)
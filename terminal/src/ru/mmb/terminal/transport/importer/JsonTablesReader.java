@@ -0,0 +1,269 @@
+package ru.mmb.terminal.transport.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Streaming reader of JSON tables package.<br>
+ * Package is an object with table names as keys and arrays of row objects as values.
+ * Only one row is kept in memory, it is parsed by org.json exactly as before, so memory
+ * use does not depend on package size.<br>
+ * android.util.JsonReader is not used, it is not available for API 7.
+ */
+public class JsonTablesReader implements TablesReader
+{
+	private static final int BUFFER_SIZE = 32768;
+
+	private final Reader reader;
+	private final char[] buffer = new char[BUFFER_SIZE];
+	private int position = 0;
+	private int limit = 0;
+
+	private final StringBuilder valueText = new StringBuilder();
+	private boolean started = false;
+	private boolean finished = false;
+	private boolean inTable = false;
+	private boolean firstRow = false;
+
+	public JsonTablesReader(Reader reader)
+	{
+		this.reader = reader;
+	}
+
+	@Override
+	public String nextTable() throws IOException, JSONException
+	{
+		while (inTable)
+		{
+			nextRow();
+		}
+		while (!finished)
+		{
+			int c = nextSignificant();
+			if (!started)
+			{
+				expect('{', c);
+				started = true;
+				c = nextSignificant();
+			}
+			else if (c != '}')
+			{
+				expect(',', c);
+				c = nextSignificant();
+			}
+			if (c == '}')
+			{
+				finished = true;
+				break;
+			}
+			expect('"', c);
+			String tableName = readString();
+			expect(':', nextSignificant());
+			c = nextSignificant();
+			if (c == '[')
+			{
+				inTable = true;
+				firstRow = true;
+				return tableName;
+			}
+			// Not a table, value is skipped.
+			captureValue(c);
+		}
+		return null;
+	}
+
+	@Override
+	public JSONObject nextRow() throws IOException, JSONException
+	{
+		if (!inTable) return null;
+		int c = nextSignificant();
+		if (c == ']')
+		{
+			inTable = false;
+			return null;
+		}
+		if (!firstRow)
+		{
+			expect(',', c);
+			c = nextSignificant();
+		}
+		firstRow = false;
+		expect('{', c);
+		captureValue(c);
+		return new JSONObject(valueText.toString());
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		reader.close();
+	}
+
+	private int read() throws IOException
+	{
+		if (position == limit)
+		{
+			limit = reader.read(buffer, 0, buffer.length);
+			position = 0;
+			if (limit <= 0)
+			{
+				limit = 0;
+				return -1;
+			}
+		}
+		return buffer[position++];
+	}
+
+	private int peek() throws IOException
+	{
+		int c = read();
+		if (c != -1) position--;
+		return c;
+	}
+
+	private int nextSignificant() throws IOException
+	{
+		int c = read();
+		while (c == ' ' || c == '\t' || c == '\r' || c == '\n')
+		{
+			c = read();
+		}
+		return c;
+	}
+
+	private void expect(char expected, int c) throws JSONException
+	{
+		if (c != expected)
+		{
+			String found = (c == -1) ? "end of file" : "'" + (char) c + "'";
+			throw new JSONException("Expected '" + expected + "' but found " + found);
+		}
+	}
+
+	/**
+	 * Reads string which opening quote is already read.
+	 */
+	private String readString() throws IOException, JSONException
+	{
+		StringBuilder result = new StringBuilder();
+		int c = read();
+		while (c != '"')
+		{
+			if (c == -1) throw new JSONException("Unterminated string");
+			if (c == '\\')
+			{
+				c = read();
+				switch (c)
+				{
+					case 'b':
+						c = '\b';
+						break;
+					case 'f':
+						c = '\f';
+						break;
+					case 'n':
+						c = '\n';
+						break;
+					case 'r':
+						c = '\r';
+						break;
+					case 't':
+						c = '\t';
+						break;
+					case 'u':
+						c = readHexChar();
+						break;
+					case -1:
+						throw new JSONException("Unterminated string");
+					default:
+						// \", \\ and \/ are the char itself.
+						break;
+				}
+			}
+			result.append((char) c);
+			c = read();
+		}
+		return result.toString();
+	}
+
+	private int readHexChar() throws IOException, JSONException
+	{
+		int result = 0;
+		for (int i = 0; i < 4; i++)
+		{
+			int digit = Character.digit(read(), 16);
+			if (digit == -1) throw new JSONException("Wrong unicode escape sequence");
+			result = (result << 4) + digit;
+		}
+		return result;
+	}
+
+	/**
+	 * Copies string to valueText up to closing quote, escape sequences are kept as is.
+	 */
+	private void copyStringTail() throws IOException, JSONException
+	{
+		int c = read();
+		while (c != '"')
+		{
+			if (c == -1) throw new JSONException("Unterminated string");
+			valueText.append((char) c);
+			if (c == '\\')
+			{
+				c = read();
+				if (c == -1) throw new JSONException("Unterminated string");
+				valueText.append((char) c);
+			}
+			c = read();
+		}
+		valueText.append('"');
+	}
+
+	/**
+	 * Copies JSON value to valueText, first value char is already read.
+	 */
+	private void captureValue(int first) throws IOException, JSONException
+	{
+		valueText.setLength(0);
+		if (first != '{' && first != '[')
+		{
+			// Scalar value.
+			if (first == '"')
+			{
+				valueText.append('"');
+				copyStringTail();
+				return;
+			}
+			valueText.append((char) first);
+			int c = peek();
+			while (c != -1 && c != ',' && c != '}' && c != ']' && !Character.isWhitespace(c))
+			{
+				valueText.append((char) read());
+				c = peek();
+			}
+			return;
+		}
+		int depth = 0;
+		int c = first;
+		do
+		{
+			if (c == -1) throw new JSONException("Unexpected end of file");
+			if (c == '"')
+			{
+				valueText.append('"');
+				copyStringTail();
+			}
+			else
+			{
+				valueText.append((char) c);
+				if (c == '{' || c == '[') depth++;
+				if (c == '}' || c == ']') depth--;
+			}
+			if (depth > 0) c = read();
+		}
+		while (depth > 0);
+	}
+}
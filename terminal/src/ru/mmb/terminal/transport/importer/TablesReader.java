@@ -0,0 +1,26 @@
+package ru.mmb.terminal.transport.importer;
+
+import java.io.IOException;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Import package read table by table and row by row.
+ */
+public interface TablesReader
+{
+	/**
+	 * Not read rows of previous table are skipped.
+	 * 
+	 * @return name of the next table or null if there are no more tables
+	 */
+	public String nextTable() throws IOException, JSONException;
+
+	/**
+	 * @return next row of current table or null if there are no more rows
+	 */
+	public JSONObject nextRow() throws IOException, JSONException;
+
+	public void close() throws IOException;
+}
@@ -2,171 +2,117 @@ package ru.mmb.terminal.transport.importer.barcode;
 
 import java.io.BufferedReader;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStreamReader;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
 
 import ru.mmb.terminal.model.LevelPoint;
 import ru.mmb.terminal.model.ScanPoint;
 import ru.mmb.terminal.model.Team;
 import ru.mmb.terminal.model.registry.ScanPointsRegistry;
-import ru.mmb.terminal.model.registry.Settings;
 import ru.mmb.terminal.model.registry.TeamsRegistry;
 import ru.mmb.terminal.transport.importer.ImportState;
-import ru.mmb.terminal.transport.importer.Importer;
-import ru.mmb.terminal.transport.model.datatype.DataTypes;
 
+/**
+ * Reads barcode logger file line by line, only current line is kept in memory.<br>
+ * Lines of other scan points are skipped, errors are reported to import state.
+ */
 public class BarcodeFileReader
 {
-	private static final SimpleDateFormat BARCODE_DATE_FORMAT =
-	    new SimpleDateFormat("yyyy/MM/dd HH:mm:ss");
-
-	private final String fileName;
+	private final BufferedReader reader;
 	private final int scanPointOrder;
 	private final ImportState importState;
 
-	private int recordsAdded = 0;
+	private int linesRead = 0;
+	private int scansFound = 0;
 
 	public BarcodeFileReader(String fileName, ScanPoint scanPoint, ImportState importState)
+	        throws IOException
 	{
-		this.fileName = fileName;
+		this.reader =
+		    new BufferedReader(new InputStreamReader(new FileInputStream(fileName), "US-ASCII"));
 		this.scanPointOrder = scanPoint.getScanPointOrder();
 		this.importState = importState;
 	}
 
-	public JSONObject readBarCodeScanData() throws Exception
+	/**
+	 * @return next scan of selected scan point or null if there are no more lines
+	 */
+	public BarcodeScan nextScan() throws IOException
 	{
-		BufferedReader reader =
-		    new BufferedReader(new InputStreamReader(new FileInputStream(fileName), "US-ASCII"));
-		try
+		String inputLine = reader.readLine();
+		while (inputLine != null)
 		{
-			JSONArray records = new JSONArray();
-			String inputLine = reader.readLine();
-			while (inputLine != null)
+			linesRead++;
+			//Log.d("ImportBarcodes", "inputLine: " + inputLine);
+			if (inputLine.trim().length() > 0)
 			{
-				//Log.d("ImportBarcodes", "inputLine: " + inputLine);
-				if (inputLine.trim().length() > 0)
+				BarcodeScan scan = parseScan(inputLine);
+				if (scan != null)
 				{
-					addLineToJSONArray(inputLine, records);
+					scansFound++;
+					return scan;
 				}
-				inputLine = reader.readLine();
 			}
-			JSONObject mainContainer = new JSONObject();
-			mainContainer.put(Importer.TABLE_BAR_CODE_SCANS, records);
-			importState.appendMessage("Parsed " + recordsAdded
-			        + " records for selected scan point.");
-			return mainContainer;
-		}
-		finally
-		{
-			reader.close();
+			inputLine = reader.readLine();
 		}
+		return null;
 	}
 
-	private void addLineToJSONArray(String inputLine, JSONArray records) throws JSONException
+	private BarcodeScan parseScan(String inputLine)
 	{
 		try
 		{
-			ParsedBarcode parsedBarcode = parseInputLine(inputLine);
-			//Log.d("ImportBarcodes", parsedBarcode.toString());
-
+			BarcodeLine barcodeLine = BarcodeLine.parse(inputLine);
 			// Ignore lines from other scan point.
-			if (parsedBarcode.scanPointOrder != scanPointOrder) return;
-			if (!parsedBarcode.prepareTeamAndLevelPoint())
-			{
-				if (parsedBarcode.errorMessage != null)
-				{
-					importState.appendMessage(parsedBarcode.errorMessage);
-				}
-			}
-			JSONObject recordObject = parsedBarcode.convertToJSON();
-			if (recordObject != null)
-			{
-				records.put(recordObject);
-				recordsAdded++;
-			}
+			if (barcodeLine.getScanPointOrder() != scanPointOrder) return null;
+			return findTeamAndLevelPoint(barcodeLine);
 		}
 		catch (Exception e)
 		{
 			importState.appendMessage("PARSE ERROR: " + e.getMessage());
+			return null;
 		}
 	}
 
-	private ParsedBarcode parseInputLine(String inputLine) throws ParseException
+	private BarcodeScan findTeamAndLevelPoint(BarcodeLine barcodeLine)
 	{
-		ParsedBarcode result = new ParsedBarcode();
-		String[] inputParts = inputLine.split(",");
-		// New field added: LOGGER_ID
-		// String loggerId = inputParts[0].trim();
-		result.scanPointOrder = Integer.parseInt(inputParts[1].trim());
-		result.teamNumber = Integer.parseInt(inputParts[2].trim().substring(2, 6));
-		String dateString = inputParts[4].trim() + " " + inputParts[3].trim();
-		result.barcodeScanDate = BARCODE_DATE_FORMAT.parse(dateString);
-		return result;
-	}
-
-	private class ParsedBarcode
-	{
-		private int scanPointOrder;
-		private int teamNumber;
-		private Date barcodeScanDate;
-		private String errorMessage = null;
-
-		private ScanPoint scanPoint = null;
-		private Team team = null;
-		private LevelPoint levelPoint = null;
-
-		private JSONObject convertToJSON() throws JSONException
+		ScanPoint scanPoint = ScanPointsRegistry.getInstance().getScanPointByOrder(scanPointOrder);
+		if (scanPoint == null)
 		{
-			if (team == null || levelPoint == null) return null;
-
-			JSONObject result = new JSONObject();
-			result.put("levelpoint_id", Integer.toString(levelPoint.getLevelPointId()));
-			result.put("team_id", Integer.toString(team.getTeamId()));
-			result.put("device_id", Integer.toString(Settings.getInstance().getDeviceId()));
-			String dateString = DataTypes.LONG_DATE_DATA_TYPE.encodeString(barcodeScanDate);
-			//Log.d("ImportBarcodes", "dateToJSON: " + dateString);
-			result.put("barcodescan_date", dateString);
-			result.put("teamlevelpoint_datetime", dateString);
-			return result;
+			importState.appendMessage("Scan point not found by order: " + scanPointOrder);
+			return null;
 		}
-
-		public boolean prepareTeamAndLevelPoint()
+		int teamNumber = barcodeLine.getTeamNumber();
+		Team team = TeamsRegistry.getInstance().getTeamByNumber(teamNumber);
+		if (team == null)
 		{
-			scanPoint = ScanPointsRegistry.getInstance().getScanPointByOrder(scanPointOrder);
-			if (scanPoint == null)
-			{
-				errorMessage = "Scan point not found by order: " + scanPointOrder;
-				return false;
-			}
-			team = TeamsRegistry.getInstance().getTeamByNumber(teamNumber);
-			if (team == null)
-			{
-				errorMessage = "Team not found by number: " + teamNumber;
-				return false;
-			}
-			levelPoint = scanPoint.getLevelPointByDistance(team.getDistanceId());
-			if (levelPoint == null)
-			{
-				errorMessage =
-				    "Level point not found by scan point [" + scanPoint.getScanPointName()
-				            + "] and team [" + teamNumber + "].";
-				return false;
-			}
-			return true;
+			importState.appendMessage("Team not found by number: " + teamNumber);
+			return null;
 		}
-
-		@Override
-		public String toString()
+		LevelPoint levelPoint = scanPoint.getLevelPointByDistance(team.getDistanceId());
+		if (levelPoint == null)
 		{
-			return "ParsedBarcode [scanPointOrder=" + scanPointOrder + ", teamNumber=" + teamNumber
-			        + ", barcodeScanDate=" + barcodeScanDate + ", errorMessage=" + errorMessage
-			        + "]";
+			importState.appendMessage("Level point not found by scan point ["
+			        + scanPoint.getScanPointName() + "] and team [" + teamNumber + "].");
+			return null;
 		}
+		return new BarcodeScan(barcodeLine.getLoggerId(), team.getTeamId(),
+		                       levelPoint.getLevelPointId(), levelPoint.getPointType().isStart(),
+		                       barcodeLine.getScanTime());
+	}
+
+	public int getLinesRead()
+	{
+		return linesRead;
+	}
+
+	public int getScansFound()
+	{
+		return scansFound;
+	}
+
+	public void close() throws IOException
+	{
+		reader.close();
 	}
 }
@@ -0,0 +1,163 @@
+package ru.mmb.terminal.transport.importer.barcode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import ru.mmb.terminal.model.ScanPoint;
+import ru.mmb.terminal.transport.importer.ImportState;
+
+/**
+ * Merges scans of several barcode logger files by scan time.<br>
+ * Every file is read by its own thread into a small queue, queues are merged by
+ * BarcodeScansMerger.
+ */
+public class BarcodeFilesMerger
+{
+	private static final int QUEUE_CAPACITY = 256;
+
+	// Marks end of file in source queue.
+	private static final BarcodeScan END = new BarcodeScan(-1, -1, -1, false, 0);
+
+	private final ImportState importState;
+	private final List<Source> sources = new ArrayList<Source>();
+	private final BarcodeScansMerger merger;
+
+	private int linesRead = 0;
+	private int scansFound = 0;
+
+	public BarcodeFilesMerger(List<String> fileNames, ScanPoint scanPoint, ImportState importState)
+	{
+		this.importState = importState;
+		for (String fileName : fileNames)
+		{
+			Source source = new Source(fileName, scanPoint);
+			sources.add(source);
+			source.start();
+		}
+		this.merger = new BarcodeScansMerger(sources);
+	}
+
+	/**
+	 * @return next scan of all files in time order or null if all files are read
+	 */
+	public BarcodeScan nextScan() throws InterruptedException
+	{
+		return merger.nextScan();
+	}
+
+	public int getLinesRead()
+	{
+		return linesRead;
+	}
+
+	public int getScansFound()
+	{
+		return scansFound;
+	}
+
+	public int getDuplicatesSkipped()
+	{
+		return merger.getDuplicatesSkipped();
+	}
+
+	/**
+	 * Stops reading threads, if merge was not finished.
+	 */
+	public void close()
+	{
+		for (Source source : sources)
+		{
+			source.interrupt();
+		}
+	}
+
+	private class Source extends Thread implements BarcodeScanSource
+	{
+		private final String fileName;
+		private final ScanPoint scanPoint;
+		private final BlockingQueue<BarcodeScan> queue =
+		    new ArrayBlockingQueue<BarcodeScan>(QUEUE_CAPACITY);
+
+		// Fields below are set by reading thread before END is put to queue.
+		private int sourceLinesRead = 0;
+		private int sourceScansFound = 0;
+
+		public Source(String fileName, ScanPoint scanPoint)
+		{
+			super("BarcodeFileReader " + fileName);
+			this.fileName = fileName;
+			this.scanPoint = scanPoint;
+			setDaemon(true);
+		}
+
+		@Override
+		public void run()
+		{
+			try
+			{
+				readFile();
+				// Not put after interrupt, queue may be full and nobody takes it.
+				queue.put(END);
+			}
+			catch (InterruptedException e)
+			{
+				// import terminated
+			}
+		}
+
+		private void readFile() throws InterruptedException
+		{
+			BarcodeFileReader reader = null;
+			try
+			{
+				reader = new BarcodeFileReader(fileName, scanPoint, importState);
+				BarcodeScan scan = reader.nextScan();
+				while (scan != null)
+				{
+					queue.put(scan);
+					scan = reader.nextScan();
+				}
+				sourceLinesRead = reader.getLinesRead();
+				sourceScansFound = reader.getScansFound();
+			}
+			catch (IOException e)
+			{
+				importState.appendMessage("File not read: " + fileName + " - " + e.getMessage());
+			}
+			catch (RuntimeException e)
+			{
+				importState.appendMessage("File not read: " + fileName + " - " + e.getMessage());
+			}
+			finally
+			{
+				closeReader(reader);
+			}
+		}
+
+		private void closeReader(BarcodeFileReader reader)
+		{
+			if (reader == null) return;
+			try
+			{
+				reader.close();
+			}
+			catch (IOException e)
+			{
+				// nothing to do, file was read
+			}
+		}
+
+		@Override
+		public BarcodeScan nextScan() throws InterruptedException
+		{
+			BarcodeScan scan = queue.take();
+			if (scan != END) return scan;
+			linesRead += sourceLinesRead;
+			scansFound += sourceScansFound;
+			return null;
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package ru.mmb.terminal.transport.importer.barcode;
+
+import java.text.ParseException;
+
+import ru.mmb.terminal.util.DateCodec;
+
+/**
+ * Line of barcode logger file: logger ID, scan point order, barcode, time and date.<br>
+ * Example: "00, 01, 90001129, 01:44:23, 2014/02/05", newer loggers append ", CRC8=102".<br>
+ * All fields except barcode have fixed width (see bc_reader/description.txt), barcode length
+ * depends on scanner settings, so only barcode end is searched. Line is parsed in place without
+ * splitting it to strings.
+ */
+public class BarcodeLine
+{
+	private static final DateCodec SCAN_TIME_FORMAT = new DateCodec("HH:mm:ss, yyyy/MM/dd");
+	private static final int SCAN_TIME_LENGTH = SCAN_TIME_FORMAT.getPattern().length();
+
+	private static final String SEPARATOR = ", ";
+	private static final int LOGGER_ID_OFFSET = 0;
+	private static final int SCAN_POINT_OFFSET = 4;
+	private static final int BARCODE_OFFSET = 8;
+	// Team number is in barcode positions 3-6.
+	private static final int TEAM_NUMBER_OFFSET = 2;
+	private static final int TEAM_NUMBER_LENGTH = 4;
+
+	private final int loggerId;
+	private final int scanPointOrder;
+	private final int teamNumber;
+	private final long scanTime;
+
+	public BarcodeLine(int loggerId, int scanPointOrder, int teamNumber, long scanTime)
+	{
+		this.loggerId = loggerId;
+		this.scanPointOrder = scanPointOrder;
+		this.teamNumber = teamNumber;
+		this.scanTime = scanTime;
+	}
+
+	public static BarcodeLine parse(String line) throws ParseException
+	{
+		int start = 0;
+		while (start < line.length() && Character.isWhitespace(line.charAt(start)))
+			start++;
+
+		checkSeparator(line, start + SCAN_POINT_OFFSET - SEPARATOR.length());
+		checkSeparator(line, start + BARCODE_OFFSET - SEPARATOR.length());
+		int loggerId = parseNumber(line, start + LOGGER_ID_OFFSET, 2);
+		int scanPointOrder = parseNumber(line, start + SCAN_POINT_OFFSET, 2);
+
+		int barcodeStart = start + BARCODE_OFFSET;
+		int barcodeEnd = line.indexOf(SEPARATOR, barcodeStart);
+		if (barcodeEnd < barcodeStart + TEAM_NUMBER_OFFSET + TEAM_NUMBER_LENGTH)
+		{
+			throw new ParseException("Barcode too short: " + line, barcodeStart);
+		}
+		int teamNumber =
+		    parseNumber(line, barcodeStart + TEAM_NUMBER_OFFSET, TEAM_NUMBER_LENGTH);
+
+		int timeStart = barcodeEnd + SEPARATOR.length();
+		if (line.length() < timeStart + SCAN_TIME_LENGTH)
+		{
+			throw new ParseException("Scan time not found: " + line, timeStart);
+		}
+		long scanTime =
+		    SCAN_TIME_FORMAT.parseMillis(line.substring(timeStart, timeStart + SCAN_TIME_LENGTH));
+
+		return new BarcodeLine(loggerId, scanPointOrder, teamNumber, scanTime);
+	}
+
+	private static void checkSeparator(String line, int offset) throws ParseException
+	{
+		if (!line.startsWith(SEPARATOR, offset))
+		{
+			throw new ParseException("Separator expected at " + offset + ": " + line, offset);
+		}
+	}
+
+	private static int parseNumber(String line, int offset, int length) throws ParseException
+	{
+		int result = 0;
+		for (int i = offset; i < offset + length; i++)
+		{
+			int digit = line.charAt(i) - '0';
+			if (digit < 0 || digit > 9)
+			{
+				throw new ParseException("Digit expected at " + i + ": " + line, i);
+			}
+			result = result * 10 + digit;
+		}
+		return result;
+	}
+
+	public int getLoggerId()
+	{
+		return loggerId;
+	}
+
+	public int getScanPointOrder()
+	{
+		return scanPointOrder;
+	}
+
+	public int getTeamNumber()
+	{
+		return teamNumber;
+	}
+
+	public long getScanTime()
+	{
+		return scanTime;
+	}
+}
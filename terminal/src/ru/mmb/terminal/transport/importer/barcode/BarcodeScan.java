@@ -0,0 +1,68 @@
+package ru.mmb.terminal.transport.importer.barcode;
+
+import java.util.Date;
+
+/**
+ * Barcode scan of selected scan point with found team and level point.
+ */
+public class BarcodeScan
+{
+	private final int loggerId;
+	private final int teamId;
+	private final int levelPointId;
+	private final boolean startPoint;
+	private final long scanTime;
+
+	public BarcodeScan(int loggerId, int teamId, int levelPointId, boolean startPoint, long scanTime)
+	{
+		this.loggerId = loggerId;
+		this.teamId = teamId;
+		this.levelPointId = levelPointId;
+		this.startPoint = startPoint;
+		this.scanTime = scanTime;
+	}
+
+	public int getLoggerId()
+	{
+		return loggerId;
+	}
+
+	public int getTeamId()
+	{
+		return teamId;
+	}
+
+	public int getLevelPointId()
+	{
+		return levelPointId;
+	}
+
+	/**
+	 * Level point of the team at scan point is start point.
+	 */
+	public boolean isStartPoint()
+	{
+		return startPoint;
+	}
+
+	public long getScanTime()
+	{
+		return scanTime;
+	}
+
+	/**
+	 * Same logger has scanned same team at the same time.
+	 */
+	public boolean isSameScan(BarcodeScan other)
+	{
+		return loggerId == other.loggerId && teamId == other.teamId
+		        && scanTime == other.scanTime;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "BarcodeScan [loggerId=" + loggerId + ", teamId=" + teamId + ", levelPointId="
+		        + levelPointId + ", scanTime=" + new Date(scanTime) + "]";
+	}
+}
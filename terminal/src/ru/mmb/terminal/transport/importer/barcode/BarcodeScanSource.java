@@ -0,0 +1,12 @@
+package ru.mmb.terminal.transport.importer.barcode;
+
+/**
+ * Scans of one barcode logger file in time order.
+ */
+public interface BarcodeScanSource
+{
+	/**
+	 * @return next scan or null if the source has no more scans
+	 */
+	BarcodeScan nextScan() throws InterruptedException;
+}
@@ -0,0 +1,112 @@
+package ru.mmb.terminal.transport.importer.barcode;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Merges scans of several sources by scan time.<br>
+ * Merger takes the earliest head of all sources from a heap. Loggers write scans in time order,
+ * so equal scans from copies of the same logger file come out at the same time and are skipped.
+ * Only scans of current time are kept for that.
+ */
+public class BarcodeScansMerger
+{
+	private static final Comparator<Head> HEAD_ORDER = new Comparator<Head>()
+	{
+		@Override
+		public int compare(Head head1, Head head2)
+		{
+			BarcodeScan scan1 = head1.scan;
+			BarcodeScan scan2 = head2.scan;
+			if (scan1.getScanTime() != scan2.getScanTime())
+			    return scan1.getScanTime() < scan2.getScanTime() ? -1 : 1;
+			if (scan1.getLoggerId() != scan2.getLoggerId())
+			    return scan1.getLoggerId() < scan2.getLoggerId() ? -1 : 1;
+			if (scan1.getTeamId() != scan2.getTeamId())
+			    return scan1.getTeamId() < scan2.getTeamId() ? -1 : 1;
+			return 0;
+		}
+	};
+
+	private final List<? extends BarcodeScanSource> sources;
+	private final PriorityQueue<Head> heads;
+
+	private boolean started = false;
+	private long currentTime = 0;
+	private final List<BarcodeScan> currentTimeScans = new ArrayList<BarcodeScan>();
+	private int duplicatesSkipped = 0;
+
+	public BarcodeScansMerger(List<? extends BarcodeScanSource> sources)
+	{
+		this.sources = sources;
+		this.heads = new PriorityQueue<Head>(Math.max(1, sources.size()), HEAD_ORDER);
+	}
+
+	/**
+	 * @return next scan of all sources in time order or null if all sources are read
+	 */
+	public BarcodeScan nextScan() throws InterruptedException
+	{
+		if (!started)
+		{
+			for (BarcodeScanSource source : sources)
+			{
+				addHead(source);
+			}
+			started = true;
+		}
+		while (!heads.isEmpty())
+		{
+			Head head = heads.poll();
+			addHead(head.source);
+
+			if (isDuplicate(head.scan))
+			{
+				duplicatesSkipped++;
+				continue;
+			}
+			return head.scan;
+		}
+		return null;
+	}
+
+	private void addHead(BarcodeScanSource source) throws InterruptedException
+	{
+		BarcodeScan scan = source.nextScan();
+		if (scan != null) heads.add(new Head(source, scan));
+	}
+
+	private boolean isDuplicate(BarcodeScan scan)
+	{
+		if (scan.getScanTime() != currentTime)
+		{
+			currentTime = scan.getScanTime();
+			currentTimeScans.clear();
+		}
+		for (BarcodeScan currentTimeScan : currentTimeScans)
+		{
+			if (currentTimeScan.isSameScan(scan)) return true;
+		}
+		currentTimeScans.add(scan);
+		return false;
+	}
+
+	public int getDuplicatesSkipped()
+	{
+		return duplicatesSkipped;
+	}
+
+	private static class Head
+	{
+		private final BarcodeScanSource source;
+		private final BarcodeScan scan;
+
+		public Head(BarcodeScanSource source, BarcodeScan scan)
+		{
+			this.source = source;
+			this.scan = scan;
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package ru.mmb.terminal.transport.importer.barcode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps one scan per team, like logger data load in datacollector does for existing records:
+ * first scan at start level point and last scan at other level points.
+ */
+public class BarcodeScansReducer
+{
+	private final Map<Integer, BarcodeScan> teamScans = new HashMap<Integer, BarcodeScan>();
+
+	public void addScan(BarcodeScan scan)
+	{
+		Integer teamId = new Integer(scan.getTeamId());
+		BarcodeScan teamScan = teamScans.get(teamId);
+		if (teamScan == null || needReplace(teamScan, scan)) teamScans.put(teamId, scan);
+	}
+
+	private boolean needReplace(BarcodeScan teamScan, BarcodeScan scan)
+	{
+		if (scan.isStartPoint())
+		{
+			// start - use first check
+			return teamScan.getScanTime() > scan.getScanTime();
+		}
+		else
+		{
+			// finish - use last check
+			return teamScan.getScanTime() < scan.getScanTime();
+		}
+	}
+
+	public List<BarcodeScan> getTeamScans()
+	{
+		return new ArrayList<BarcodeScan>(teamScans.values());
+	}
+}
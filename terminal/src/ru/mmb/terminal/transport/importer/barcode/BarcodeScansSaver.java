@@ -0,0 +1,159 @@
+package ru.mmb.terminal.transport.importer.barcode;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+import ru.mmb.terminal.db.TerminalDB;
+import ru.mmb.terminal.model.registry.Settings;
+import ru.mmb.terminal.report.LiveStandings;
+import ru.mmb.terminal.transport.model.MetaColumn;
+import ru.mmb.terminal.util.DateFormat;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+/**
+ * Saves barcode scans to TeamLevelPoints, values are bound to statements compiled once.<br>
+ * Scan is inserted, if there is no result of the team at the level point from current user, or
+ * replaces the result with earlier teamlevelpoint_date (or later one for first scan at start).
+ * SQLite of old devices has no upsert, so insert is ignored on primary key conflict and
+ * conditional update is executed then.<br>
+ * Teams of saved scans are invalidated in live standings after transaction end.
+ */
+public class BarcodeScansSaver
+{
+	private static final long MILLIS_IN_MINUTE = 60 * 1000L;
+
+	private static final String INSERT_SQL =
+	    "insert or ignore into TeamLevelPoints (user_id, levelpoint_id, team_id, "
+	            + "teamlevelpoint_date, device_id, teamlevelpoint_datetime, "
+	            + "teamlevelpoint_points, teamlevelpoint_comment) values (?, ?, ?, ?, ?, ?, ?, null)";
+	private static final String UPDATE_SQL =
+	    "update TeamLevelPoints set teamlevelpoint_date = ?, device_id = ?, "
+	            + "teamlevelpoint_datetime = ?, teamlevelpoint_points = ?, "
+	            + "teamlevelpoint_comment = null where user_id = ? and levelpoint_id = ? "
+	            + "and team_id = ? and teamlevelpoint_date ";
+	private static final String UPDATE_EARLIER_SQL = UPDATE_SQL + "< ?";
+	private static final String UPDATE_LATER_SQL = UPDATE_SQL + "> ?";
+	// executeInsert of API 7 returns last rowid for ignored insert, not -1.
+	private static final String CHANGES_SQL = "select changes()";
+	// Scans have no points, text "NULL" is saved like by other imports.
+	private static final String SCAN_POINTS = MetaColumn.NULL;
+
+	private final SQLiteDatabase db;
+	private final int userId;
+	private final int deviceId;
+
+	private final SQLiteStatement insertStatement;
+	private final SQLiteStatement updateEarlierStatement;
+	private final SQLiteStatement updateLaterStatement;
+	private final SQLiteStatement changesStatement;
+
+	private final Set<Integer> changedTeams = new HashSet<Integer>();
+
+	public BarcodeScansSaver()
+	{
+		// TerminalDB.getRawInstance() will never be null, but db can be null.
+		db = TerminalDB.getRawInstance().getDb();
+		userId = Settings.getInstance().getUserId();
+		deviceId = Settings.getInstance().getDeviceId();
+		insertStatement = db.compileStatement(INSERT_SQL);
+		updateEarlierStatement = db.compileStatement(UPDATE_EARLIER_SQL);
+		updateLaterStatement = db.compileStatement(UPDATE_LATER_SQL);
+		changesStatement = db.compileStatement(CHANGES_SQL);
+	}
+
+	/**
+	 * Scan replaces saved result, if saved time is earlier than scan time with seconds.
+	 */
+	public void saveScan(BarcodeScan scan)
+	{
+		String scanDate = DateFormat.format(new Date(scan.getScanTime()));
+		if (insertScan(scan, scanDate)) return;
+		updateScan(updateEarlierStatement, scan, scanDate, getEarlierDateBound(scan.getScanTime()));
+	}
+
+	/**
+	 * Scan is first or last scan of the team, see BarcodeScansReducer. Seconds are not compared,
+	 * because saved time has no seconds. First scan at start replaces later saved result, other
+	 * scans replace earlier one.
+	 */
+	public void saveTeamScan(BarcodeScan scan)
+	{
+		String scanDate = DateFormat.format(new Date(scan.getScanTime()));
+		if (insertScan(scan, scanDate)) return;
+		SQLiteStatement updateStatement =
+		    scan.isStartPoint() ? updateLaterStatement : updateEarlierStatement;
+		updateScan(updateStatement, scan, scanDate, scanDate);
+	}
+
+	/**
+	 * @return false if the team already has result at the level point
+	 */
+	private boolean insertScan(BarcodeScan scan, String scanDate)
+	{
+		changedTeams.add(scan.getTeamId());
+
+		insertStatement.bindLong(1, userId);
+		insertStatement.bindLong(2, scan.getLevelPointId());
+		insertStatement.bindLong(3, scan.getTeamId());
+		insertStatement.bindString(4, scanDate);
+		insertStatement.bindLong(5, deviceId);
+		insertStatement.bindString(6, scanDate);
+		insertStatement.bindString(7, SCAN_POINTS);
+		insertStatement.execute();
+		return changesStatement.simpleQueryForLong() > 0;
+	}
+
+	private void updateScan(SQLiteStatement updateStatement, BarcodeScan scan, String scanDate,
+	        String dateBound)
+	{
+		updateStatement.bindString(1, scanDate);
+		updateStatement.bindLong(2, deviceId);
+		updateStatement.bindString(3, scanDate);
+		updateStatement.bindString(4, SCAN_POINTS);
+		updateStatement.bindLong(5, userId);
+		updateStatement.bindLong(6, scan.getLevelPointId());
+		updateStatement.bindLong(7, scan.getTeamId());
+		updateStatement.bindString(8, dateBound);
+		updateStatement.execute();
+	}
+
+	/**
+	 * Saved date has no seconds, it is earlier than scan time, if it is less than scan time
+	 * rounded up to minute.
+	 */
+	private String getEarlierDateBound(long scanTime)
+	{
+		long roundedUp = ((scanTime + MILLIS_IN_MINUTE - 1) / MILLIS_IN_MINUTE) * MILLIS_IN_MINUTE;
+		return DateFormat.format(new Date(roundedUp));
+	}
+
+	public void beginTransaction()
+	{
+		db.beginTransaction();
+	}
+
+	public void setTransactionSuccessful()
+	{
+		db.setTransactionSuccessful();
+	}
+
+	public void endTransaction()
+	{
+		db.endTransaction();
+		if (!changedTeams.isEmpty())
+		{
+			LiveStandings.getInstance().invalidateTeams(changedTeams);
+			changedTeams.clear();
+		}
+	}
+
+	public void close()
+	{
+		insertStatement.close();
+		updateEarlierStatement.close();
+		updateLaterStatement.close();
+		changesStatement.close();
+	}
+}
@@ -0,0 +1,52 @@
+package ru.mmb.terminal.transport.importer.barcode;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Scans are written by barcode logger to DATALOGnn.TXT files.<br>
+ * Logger card also holds CONFIG.TXT and ERRORS.TXT, they are not scan files.
+ */
+public class DataLogFiles
+{
+	private static final String PREFIX = "DATALOG";
+	private static final String SUFFIX = ".TXT";
+
+	private static final FilenameFilter FILTER = new FilenameFilter()
+	{
+		@Override
+		public boolean accept(File dir, String name)
+		{
+			return isDataLogFile(name);
+		}
+	};
+
+	private DataLogFiles()
+	{
+	}
+
+	public static boolean isDataLogFile(String name)
+	{
+		String upperName = name.toUpperCase();
+		return upperName.startsWith(PREFIX) && upperName.endsWith(SUFFIX);
+	}
+
+	/**
+	 * @return paths of data log files of the directory sorted by name
+	 */
+	public static List<String> getFileNames(File directory)
+	{
+		List<String> result = new ArrayList<String>();
+		File[] files = directory.listFiles(FILTER);
+		if (files == null) return result;
+		for (File file : files)
+		{
+			if (file.isFile()) result.add(file.getPath());
+		}
+		Collections.sort(result);
+		return result;
+	}
+}
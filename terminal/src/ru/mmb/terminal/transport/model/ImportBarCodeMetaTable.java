@@ -9,6 +9,7 @@ import org.json.JSONObject;
 
 import ru.mmb.terminal.model.registry.Settings;
 import ru.mmb.terminal.transport.registry.MetaTablesRegistry;
+import android.database.sqlite.SQLiteStatement;
 
 public class ImportBarCodeMetaTable extends MetaTable
 {
@@ -92,44 +93,54 @@ public class ImportBarCodeMetaTable extends MetaTable
 	}
 
 	@Override
-	public String generateUpdateDateSelectSQL(JSONObject tableRow) throws JSONException
+	public String generateUpdateDateSelectSQL()
 	{
-		JSONObject convertedTableRow = convert(tableRow);
-		return teamLevelPointsTable.generateUpdateDateSelectSQL(convertedTableRow);
+		return teamLevelPointsTable.generateUpdateDateSelectSQL();
 	}
 
 	@Override
-	public String generateCheckExistsSQL(JSONObject tableRow) throws JSONException
+	public String generateCheckExistsSQL()
 	{
-		JSONObject convertedTableRow = convert(tableRow);
-		return teamLevelPointsTable.generateCheckExistsSQL(convertedTableRow);
+		return teamLevelPointsTable.generateCheckExistsSQL();
 	}
 
 	@Override
-	public String generateUpdateSQL(JSONObject tableRow) throws JSONException
+	public String generateUpdateSQL()
 	{
-		JSONObject convertedTableRow = convert(tableRow);
-		return teamLevelPointsTable.generateUpdateSQL(convertedTableRow);
+		return teamLevelPointsTable.generateUpdateSQL();
 	}
 
 	@Override
-	public String generateInsertSQL(JSONObject tableRow) throws JSONException
+	public String generateInsertSQL()
 	{
-		JSONObject convertedTableRow = convert(tableRow);
-		return teamLevelPointsTable.generateInsertSQL(convertedTableRow);
+		return teamLevelPointsTable.generateInsertSQL();
 	}
 
 	@Override
-	public boolean needClearBeforeImport()
+	public void bindPKValues(SQLiteStatement statement, JSONObject tableRow)
+	        throws JSONException
 	{
-		return false;
+		teamLevelPointsTable.bindPKValues(statement, convert(tableRow));
 	}
 
 	@Override
-	protected String generatePKCondition(JSONObject tableRow) throws JSONException
+	public void bindUpdateValues(SQLiteStatement statement, JSONObject tableRow)
+	        throws JSONException
 	{
-		JSONObject convertedTableRow = convert(tableRow);
-		return teamLevelPointsTable.generatePKCondition(convertedTableRow);
+		teamLevelPointsTable.bindUpdateValues(statement, convert(tableRow));
+	}
+
+	@Override
+	public void bindInsertValues(SQLiteStatement statement, JSONObject tableRow)
+	        throws JSONException
+	{
+		teamLevelPointsTable.bindInsertValues(statement, convert(tableRow));
+	}
+
+	@Override
+	public boolean needClearBeforeImport()
+	{
+		return false;
 	}
 
 	private JSONObject convert(JSONObject tableRow) throws JSONException
@@ -5,6 +5,7 @@ import org.json.JSONObject;
 
 import ru.mmb.terminal.transport.model.datatype.DataType;
 import android.database.Cursor;
+import android.database.sqlite.SQLiteStatement;
 
 public class MetaColumn
 {
@@ -85,11 +86,14 @@ public class MetaColumn
 		return tableRow.isNull(columnName) || tableRow.get(columnName) == null;
 	}
 
-	public String decorateForDBQuery(JSONObject tableRow) throws JSONException
+	public void bindToStatement(SQLiteStatement statement, int index, JSONObject tableRow)
+	        throws JSONException
 	{
 		Object value = getValue(tableRow);
-		if (value == null) return NULL;
-		return columnDataType.encodeToDB(value);
+		if (value == null)
+			statement.bindNull(index);
+		else
+			columnDataType.bindToDB(statement, index, value);
 	}
 
 	public Object getValue(Cursor cursor, int columnIndex)
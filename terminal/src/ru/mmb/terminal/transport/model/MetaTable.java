@@ -1,5 +1,7 @@
 package ru.mmb.terminal.transport.model;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
@@ -10,9 +12,12 @@ import java.util.TreeMap;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import ru.mmb.terminal.db.ExportChangeLog;
 import ru.mmb.terminal.model.registry.Settings;
 import ru.mmb.terminal.transport.exporter.ExportMode;
+import ru.mmb.terminal.transport.exporter.ExportRange;
 import android.database.Cursor;
+import android.database.sqlite.SQLiteStatement;
 import android.util.Log;
 
 public class MetaTable
@@ -26,6 +31,7 @@ public class MetaTable
 
 	private String exportWhereAppendix = "";
 	private String lastExportDate = "";
+	private ExportRange exportRange = null;
 
 	public MetaTable(int tableId, String tableName, String updateDateColumnName)
 	{
@@ -81,13 +87,13 @@ public class MetaTable
 		return (Date) updateDateColumn.getValue(tableRow);
 	}
 
-	public String generateUpdateDateSelectSQL(JSONObject tableRow) throws JSONException
+	public String generateUpdateDateSelectSQL()
 	{
 		return "select " + updateDateColumnName + " from " + tableName + " where "
-		        + generatePKCondition(tableRow);
+		        + generatePKCondition();
 	}
 
-	protected String generatePKCondition(JSONObject tableRow) throws JSONException
+	private String generatePKCondition()
 	{
 		StringBuilder sb = new StringBuilder();
 		int keyColumnIndex = 0;
@@ -96,7 +102,7 @@ public class MetaTable
 			if (column.isPrimaryKey())
 			{
 				if (keyColumnIndex != 0) sb.append(" and ");
-				sb.append(column.getColumnName()).append(" = ").append(column.decorateForDBQuery(tableRow));
+				sb.append(column.getColumnName()).append(" = ?");
 				keyColumnIndex++;
 			}
 		}
@@ -109,18 +115,21 @@ public class MetaTable
 		return getColumnByName(updateDateColumnName);
 	}
 
-	public String generateCheckExistsSQL(JSONObject tableRow) throws JSONException
+	public String generateCheckExistsSQL()
 	{
-		return "select count(*) from " + tableName + " where " + generatePKCondition(tableRow);
+		return "select count(*) from " + tableName + " where " + generatePKCondition();
 	}
 
-	public String generateUpdateSQL(JSONObject tableRow) throws JSONException
+	/**
+	 * Update statement parameters are bound by bindUpdateValues.
+	 */
+	public String generateUpdateSQL()
 	{
-		return "update " + tableName + " set " + generateColumnsUpdateClause(tableRow) + " where "
-		        + generatePKCondition(tableRow);
+		return "update " + tableName + " set " + generateColumnsUpdateClause() + " where "
+		        + generatePKCondition();
 	}
 
-	private String generateColumnsUpdateClause(JSONObject tableRow) throws JSONException
+	private String generateColumnsUpdateClause()
 	{
 		StringBuilder sb = new StringBuilder();
 		int columnIndex = 0;
@@ -129,17 +138,20 @@ public class MetaTable
 			if (!column.isPrimaryKey())
 			{
 				if (columnIndex != 0) sb.append(", ");
-				sb.append(column.getColumnName()).append(" = ").append(column.decorateForDBQuery(tableRow));
+				sb.append(column.getColumnName()).append(" = ?");
 				columnIndex++;
 			}
 		}
 		return sb.toString();
 	}
 
-	public String generateInsertSQL(JSONObject tableRow) throws JSONException
+	/**
+	 * Insert statement parameters are bound by bindInsertValues.
+	 */
+	public String generateInsertSQL()
 	{
 		return "insert into " + tableName + "(" + generateColumnNamesClause() + ") values ("
-		        + generateColumnValuesClause(tableRow) + ")";
+		        + generateColumnValuesClause() + ")";
 	}
 
 	private String generateColumnNamesClause()
@@ -155,19 +167,66 @@ public class MetaTable
 		return sb.toString();
 	}
 
-	private String generateColumnValuesClause(JSONObject tableRow) throws JSONException
+	private String generateColumnValuesClause()
 	{
 		StringBuilder sb = new StringBuilder();
-		int columnIndex = 0;
-		for (MetaColumn column : columnsByOrder.values())
+		for (int i = 0; i < columnsByOrder.size(); i++)
 		{
-			if (columnIndex != 0) sb.append(", ");
-			sb.append(column.decorateForDBQuery(tableRow));
-			columnIndex++;
+			if (i != 0) sb.append(", ");
+			sb.append("?");
 		}
 		return sb.toString();
 	}
 
+	public void bindPKValues(SQLiteStatement statement, JSONObject tableRow)
+	        throws JSONException
+	{
+		statement.clearBindings();
+		bindPKValues(statement, tableRow, 1);
+	}
+
+	private void bindPKValues(SQLiteStatement statement, JSONObject tableRow, int firstIndex)
+	        throws JSONException
+	{
+		int index = firstIndex;
+		for (MetaColumn column : columnsByOrder.values())
+		{
+			if (column.isPrimaryKey())
+			{
+				column.bindToStatement(statement, index, tableRow);
+				index++;
+			}
+		}
+	}
+
+	public void bindUpdateValues(SQLiteStatement statement, JSONObject tableRow)
+	        throws JSONException
+	{
+		statement.clearBindings();
+		int index = 1;
+		for (MetaColumn column : columnsByOrder.values())
+		{
+			if (!column.isPrimaryKey())
+			{
+				column.bindToStatement(statement, index, tableRow);
+				index++;
+			}
+		}
+		bindPKValues(statement, tableRow, index);
+	}
+
+	public void bindInsertValues(SQLiteStatement statement, JSONObject tableRow)
+	        throws JSONException
+	{
+		statement.clearBindings();
+		int index = 1;
+		for (MetaColumn column : columnsByOrder.values())
+		{
+			column.bindToStatement(statement, index, tableRow);
+			index++;
+		}
+	}
+
 	public void setExportWhereAppendix(String exportWhereAppendix)
 	{
 		this.exportWhereAppendix = exportWhereAppendix;
@@ -178,6 +237,11 @@ public class MetaTable
 		this.lastExportDate = lastExportDate;
 	}
 
+	public void setExportRange(ExportRange exportRange)
+	{
+		this.exportRange = exportRange;
+	}
+
 	public String generateCheckNewRecordsSQL(ExportMode exportMode)
 	{
 		String selectSql = "select count(*) from " + getTableName();
@@ -211,7 +275,12 @@ public class MetaTable
 		{
 			result = "device_id = " + Settings.getInstance().getDeviceId();
 		}
-		if (needSelectByDate(exportMode))
+		if (needSelectByChanges(exportMode))
+		{
+			if (result.length() > 0) result += " and ";
+			result += getChangesCondition();
+		}
+		else if (needSelectByDate(exportMode))
 		{
 			if (result.length() > 0) result += " and ";
 			result += getUpdateDateCondition();
@@ -225,6 +294,22 @@ public class MetaTable
 		return result;
 	}
 
+	private boolean needSelectByChanges(ExportMode exportMode)
+	{
+		if (getUpdateDateColumn() == null) return false;
+		if (exportMode == ExportMode.FULL) return false;
+		return exportRange != null && exportRange.isKnown();
+	}
+
+	private String getChangesCondition()
+	{
+		return "rowid in (select " + ExportChangeLog.ROW_ID + " from "
+		        + ExportChangeLog.TABLE_EXPORT_CHANGES + " where " + ExportChangeLog.CHANGE_ID
+		        + " > " + exportRange.getAfterChange() + " and " + ExportChangeLog.CHANGE_ID
+		        + " <= " + exportRange.getLastChange() + " and " + ExportChangeLog.TABLE_NAME
+		        + " = '" + getTableName() + "')";
+	}
+
 	private boolean needSelectByDate(ExportMode exportMode)
 	{
 		if (getUpdateDateColumn() == null) return false;
@@ -258,14 +343,20 @@ public class MetaTable
 		return "delete from " + getTableName();
 	}
 
-	public JSONObject generateExportRowJSON(Cursor cursor) throws JSONException
+	public void writeExportRowJSON(Cursor cursor, Writer writer) throws IOException
 	{
-		JSONObject result = new JSONObject();
+		writer.write("{");
+		int columnIndex = 0;
 		for (MetaColumn metaColumn : columnsByOrder.values())
 		{
-			result.put(metaColumn.getColumnName(), metaColumn.decorateForExportToJSON(cursor));
+			if (columnIndex > 0) writer.write(",");
+			writer.write(JSONObject.quote(metaColumn.getColumnName()));
+			writer.write(":");
+			Object value = metaColumn.decorateForExportToJSON(cursor);
+			writer.write((value == JSONObject.NULL) ? "null" : JSONObject.quote((String) value));
+			columnIndex++;
 		}
-		return result;
+		writer.write("}");
 	}
 
 	public boolean needClearBeforeImport()
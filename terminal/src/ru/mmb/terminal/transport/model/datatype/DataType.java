@@ -4,6 +4,7 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import android.database.Cursor;
+import android.database.sqlite.SQLiteStatement;
 
 public abstract class DataType<T>
 {
@@ -16,5 +17,5 @@ public abstract class DataType<T>
 
 	abstract public T getFromDB(Cursor cursor, int columnIndex);
 
-	abstract public String encodeToDB(Object value);
+	abstract public void bindToDB(SQLiteStatement statement, int index, Object value);
 }
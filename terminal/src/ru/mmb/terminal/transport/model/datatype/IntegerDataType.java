@@ -4,6 +4,7 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import android.database.Cursor;
+import android.database.sqlite.SQLiteStatement;
 
 public class IntegerDataType extends DataType<Integer>
 {
@@ -26,10 +27,9 @@ public class IntegerDataType extends DataType<Integer>
 	}
 
 	@Override
-	public String encodeToDB(Object value)
+	public void bindToDB(SQLiteStatement statement, int index, Object value)
 	{
-		Integer intValue = (Integer) value;
-		return Integer.toString(intValue);
+		statement.bindLong(index, (Integer) value);
 	}
 
 	@Override
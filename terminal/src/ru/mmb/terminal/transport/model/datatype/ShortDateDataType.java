@@ -8,6 +8,7 @@ import org.json.JSONObject;
 import ru.mmb.terminal.util.DateFormat;
 import ru.mmb.terminal.util.TransportDateFormat;
 import android.database.Cursor;
+import android.database.sqlite.SQLiteStatement;
 
 public class ShortDateDataType extends DataType<Date>
 {
@@ -30,10 +31,9 @@ public class ShortDateDataType extends DataType<Date>
 	}
 
 	@Override
-	public String encodeToDB(Object value)
+	public void bindToDB(SQLiteStatement statement, int index, Object value)
 	{
-		Date dateValue = (Date) value;
-		return "'" + DateFormat.format(dateValue) + "'";
+		statement.bindString(index, DateFormat.format((Date) value));
 	}
 
 	@Override
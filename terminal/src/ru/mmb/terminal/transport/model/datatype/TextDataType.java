@@ -4,6 +4,7 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import android.database.Cursor;
+import android.database.sqlite.SQLiteStatement;
 
 public class TextDataType extends DataType<String>
 {
@@ -26,11 +27,9 @@ public class TextDataType extends DataType<String>
 	}
 
 	@Override
-	public String encodeToDB(Object value)
+	public void bindToDB(SQLiteStatement statement, int index, Object value)
 	{
-		String stringValue = (String) value;
-		String prepared = stringValue.replace("'", "''");
-		return "'" + prepared + "'";
+		statement.bindString(index, (String) value);
 	}
 
 	@Override
@@ -0,0 +1,344 @@
+package ru.mmb.terminal.util;
+
+import java.text.ParseException;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Fixed layout date codec for numeric patterns like "yyyyMMddHHmm" or "yyyy-MM-dd HH:mm:ss".<br>
+ * Converts digits to epoch time and back without Calendar, caches time zone offset for the day
+ * in an immutable holder and keeps no other state between calls, so it can be used from any thread.<br>
+ * Supported fields are y, M, d, H, m, s, all other pattern chars are literals.<br>
+ * Parsing is lenient like SimpleDateFormat: out of range field values roll over to next field.
+ */
+public final class DateCodec
+{
+	private static final long MILLIS_IN_SECOND = 1000L;
+	private static final long MILLIS_IN_MINUTE = 60 * MILLIS_IN_SECOND;
+	private static final long MILLIS_IN_HOUR = 60 * MILLIS_IN_MINUTE;
+	private static final long MILLIS_IN_DAY = 24 * MILLIS_IN_HOUR;
+
+	private static final int MAX_FREE_DIGITS = 9;
+	// Greater than any daylight saving or time zone offset change.
+	private static final long MAX_OFFSET_SHIFT = 3 * MILLIS_IN_HOUR;
+
+	private final String pattern;
+	private final char[] fields;
+	private final int[] widths;
+	private final boolean[] abutting;
+	private final TimeZone timeZone;
+
+	private volatile OffsetWindow offsetWindow = new OffsetWindow(0, 0, 0);
+
+	public DateCodec(String pattern)
+	{
+		this(pattern, TimeZone.getDefault());
+	}
+
+	public DateCodec(String pattern, TimeZone timeZone)
+	{
+		this.pattern = pattern;
+		this.timeZone = (TimeZone) timeZone.clone();
+
+		int count = countTokens(pattern);
+		fields = new char[count];
+		widths = new int[count];
+		abutting = new boolean[count];
+		int token = 0;
+		int pos = 0;
+		while (pos < pattern.length())
+		{
+			char c = pattern.charAt(pos);
+			int end = pos + 1;
+			if (isField(c))
+			{
+				while (end < pattern.length() && pattern.charAt(end) == c)
+					end++;
+				if (c == 'y' && end - pos == 2)
+				{
+					throw new IllegalArgumentException("Two digit year is not supported: " + pattern);
+				}
+			}
+			else if (Character.isLetter(c))
+			{
+				throw new IllegalArgumentException("Unsupported pattern char '" + c + "': " + pattern);
+			}
+			fields[token] = c;
+			widths[token] = end - pos;
+			token++;
+			pos = end;
+		}
+		for (int i = 0; i < count - 1; i++)
+		{
+			abutting[i] = isField(fields[i]) && isField(fields[i + 1]);
+		}
+	}
+
+	private static int countTokens(String pattern)
+	{
+		int result = 0;
+		for (int i = 0; i < pattern.length(); i++)
+		{
+			char c = pattern.charAt(i);
+			if (!isField(c) || i == 0 || pattern.charAt(i - 1) != c) result++;
+		}
+		return result;
+	}
+
+	private static boolean isField(char c)
+	{
+		return c == 'y' || c == 'M' || c == 'd' || c == 'H' || c == 'm' || c == 's';
+	}
+
+	public String getPattern()
+	{
+		return pattern;
+	}
+
+	public Date parse(String text) throws ParseException
+	{
+		return new Date(parseMillis(text));
+	}
+
+	public long parseMillis(String text) throws ParseException
+	{
+		int year = 1970;
+		int month = 1;
+		int day = 1;
+		int hour = 0;
+		int minute = 0;
+		int second = 0;
+
+		int pos = 0;
+		for (int i = 0; i < fields.length; i++)
+		{
+			char field = fields[i];
+			if (!isField(field))
+			{
+				if (pos >= text.length() || text.charAt(pos) != field)
+				{
+					throw new ParseException("Unparseable date: \"" + text + "\"", pos);
+				}
+				pos++;
+				continue;
+			}
+
+			int maxDigits = widths[i];
+			if (!abutting[i])
+			{
+				while (pos < text.length() && (text.charAt(pos) == ' ' || text.charAt(pos) == '\t'))
+					pos++;
+				maxDigits = MAX_FREE_DIGITS;
+			}
+			int start = pos;
+			int value = 0;
+			while (pos < text.length() && pos - start < maxDigits)
+			{
+				int digit = text.charAt(pos) - '0';
+				if (digit < 0 || digit > 9) break;
+				value = value * 10 + digit;
+				pos++;
+			}
+			if (pos == start || (abutting[i] && pos - start < widths[i]))
+			{
+				throw new ParseException("Unparseable date: \"" + text + "\"", pos);
+			}
+
+			switch (field)
+			{
+				case 'y':
+					year = value;
+					break;
+				case 'M':
+					month = value;
+					break;
+				case 'd':
+					day = value;
+					break;
+				case 'H':
+					hour = value;
+					break;
+				case 'm':
+					minute = value;
+					break;
+				default:
+					second = value;
+					break;
+			}
+		}
+
+		long wallMillis =
+		    toEpochDay(year, month, day) * MILLIS_IN_DAY + hour * MILLIS_IN_HOUR + minute
+		            * MILLIS_IN_MINUTE + second * MILLIS_IN_SECOND;
+		return wallToUtc(wallMillis);
+	}
+
+	public String format(Date date)
+	{
+		return format(date.getTime());
+	}
+
+	public String format(long millis)
+	{
+		long wallMillis = millis + getOffset(millis);
+		long epochDay = floorDiv(wallMillis, MILLIS_IN_DAY);
+		int millisOfDay = (int) (wallMillis - epochDay * MILLIS_IN_DAY);
+
+		// Civil date from days since 1970-01-01 in proleptic Gregorian calendar.
+		long shifted = epochDay + 719468;
+		long era = floorDiv(shifted, 146097);
+		int dayOfEra = (int) (shifted - era * 146097);
+		int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+		int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+		int monthIndex = (5 * dayOfYear + 2) / 153;
+		int day = dayOfYear - (153 * monthIndex + 2) / 5 + 1;
+		int month = monthIndex < 10 ? monthIndex + 3 : monthIndex - 9;
+		long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+		char[] result = new char[formattedLength(year)];
+		int pos = 0;
+		for (int i = 0; i < fields.length; i++)
+		{
+			switch (fields[i])
+			{
+				case 'y':
+					pos = appendNumber(result, pos, year, widths[i]);
+					break;
+				case 'M':
+					pos = appendNumber(result, pos, month, widths[i]);
+					break;
+				case 'd':
+					pos = appendNumber(result, pos, day, widths[i]);
+					break;
+				case 'H':
+					pos = appendNumber(result, pos, millisOfDay / MILLIS_IN_HOUR, widths[i]);
+					break;
+				case 'm':
+					pos = appendNumber(result, pos, millisOfDay / MILLIS_IN_MINUTE % 60, widths[i]);
+					break;
+				case 's':
+					pos = appendNumber(result, pos, millisOfDay / MILLIS_IN_SECOND % 60, widths[i]);
+					break;
+				default:
+					result[pos++] = fields[i];
+					break;
+			}
+		}
+		return new String(result, 0, pos);
+	}
+
+	/**
+	 * @return local time minutes since 1970-01-01 00:00, the same value digits of text represent
+	 */
+	public long toWallMinutes(long millis)
+	{
+		return floorDiv(millis + getOffset(millis), MILLIS_IN_MINUTE);
+	}
+
+	public long fromWallMinutes(long wallMinutes)
+	{
+		return wallToUtc(wallMinutes * MILLIS_IN_MINUTE);
+	}
+
+	private int formattedLength(long year)
+	{
+		int result = 0;
+		for (int i = 0; i < fields.length; i++)
+		{
+			if (fields[i] == 'y')
+				result += Math.max(widths[i], Long.toString(year).length());
+			else if (isField(fields[i]))
+				result += Math.max(widths[i], 2);
+			else
+				result++;
+		}
+		return result;
+	}
+
+	private static int appendNumber(char[] buffer, int pos, long value, int width)
+	{
+		int digits = 1;
+		for (long rest = value / 10; rest > 0; rest /= 10)
+			digits++;
+		int length = Math.max(digits, width);
+		long rest = value;
+		for (int i = pos + length - 1; i >= pos; i--)
+		{
+			buffer[i] = (char) ('0' + rest % 10);
+			rest /= 10;
+		}
+		return pos + length;
+	}
+
+	/**
+	 * Days since 1970-01-01, month and day out of range are rolled over.
+	 */
+	private static long toEpochDay(int year, int month, int day)
+	{
+		long fullYear = year + floorDiv(month - 1, 12);
+		int monthOfYear = (int) (month - 1 - floorDiv(month - 1, 12) * 12) + 1;
+		if (monthOfYear <= 2) fullYear--;
+		long era = floorDiv(fullYear, 400);
+		int yearOfEra = (int) (fullYear - era * 400);
+		int dayOfYear = (153 * (monthOfYear + (monthOfYear > 2 ? -3 : 9)) + 2) / 5;
+		int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * 146097 + dayOfEra - 719468 + (day - 1);
+	}
+
+	private static long floorDiv(long value, long divisor)
+	{
+		long result = value / divisor;
+		if ((value % divisor != 0) && ((value < 0) != (divisor < 0))) result--;
+		return result;
+	}
+
+	/**
+	 * Near offset transition wall time can be skipped or repeated. It is resolved like Calendar
+	 * does: transition applies if wall time is not before transition moment in new offset.
+	 */
+	private long wallToUtc(long wallMillis)
+	{
+		long guess = wallMillis - timeZone.getRawOffset();
+		OffsetWindow window = offsetWindow;
+		if (guess - MAX_OFFSET_SHIFT >= window.start && guess + MAX_OFFSET_SHIFT < window.end)
+		{
+			return wallMillis - window.offset;
+		}
+		int minOffset =
+		    Math.min(getOffset(guess - MAX_OFFSET_SHIFT), getOffset(guess + MAX_OFFSET_SHIFT));
+		int newOffset = getOffset(wallMillis - minOffset);
+		return wallMillis - getOffset(wallMillis - newOffset);
+	}
+
+	private int getOffset(long utcMillis)
+	{
+		OffsetWindow window = offsetWindow;
+		if (utcMillis >= window.start && utcMillis < window.end) return window.offset;
+
+		int offset = timeZone.getOffset(utcMillis);
+		long start = utcMillis - MILLIS_IN_DAY / 2;
+		long end = utcMillis + MILLIS_IN_DAY / 2;
+		if (timeZone.getOffset(start) == offset && timeZone.getOffset(end - 1) == offset)
+		{
+			offsetWindow = new OffsetWindow(start, end, offset);
+		}
+		return offset;
+	}
+
+	/**
+	 * Immutable, so the window is replaced as a whole and read without locks.
+	 */
+	private static final class OffsetWindow
+	{
+		private final long start;
+		private final long end;
+		private final int offset;
+
+		private OffsetWindow(long start, long end, int offset)
+		{
+			this.start = start;
+			this.end = end;
+			this.offset = offset;
+		}
+	}
+}
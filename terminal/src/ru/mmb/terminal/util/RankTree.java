@@ -0,0 +1,219 @@
+package ru.mmb.terminal.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Sorted collection with O(log n) insert, remove, rank and get by position.<br>
+ * Randomized balanced tree (treap), every node keeps size of its subtree.<br>
+ * Comparator must define total order, equal elements are not allowed.
+ */
+public class RankTree<T>
+{
+	private final Comparator<T> comparator;
+	private final Random random = new Random();
+	private Node<T> root = null;
+	// Results of split operation.
+	private Node<T> splitLeft = null;
+	private Node<T> splitRight = null;
+
+	public RankTree(Comparator<T> comparator)
+	{
+		this.comparator = comparator;
+	}
+
+	public int size()
+	{
+		return size(root);
+	}
+
+	public void clear()
+	{
+		root = null;
+	}
+
+	public void add(T value)
+	{
+		root = insert(root, new Node<T>(value, random.nextInt()));
+	}
+
+	public boolean remove(T value)
+	{
+		int sizeBefore = size();
+		root = delete(root, value);
+		return size() < sizeBefore;
+	}
+
+	/**
+	 * @return zero based position of value or -1 if value not found
+	 */
+	public int rank(T value)
+	{
+		int result = 0;
+		Node<T> node = root;
+		while (node != null)
+		{
+			int compareResult = comparator.compare(value, node.value);
+			if (compareResult == 0)
+			{
+				return result + size(node.left);
+			}
+			if (compareResult < 0)
+			{
+				node = node.left;
+			}
+			else
+			{
+				result += size(node.left) + 1;
+				node = node.right;
+			}
+		}
+		return -1;
+	}
+
+	public T get(int position)
+	{
+		if (position < 0 || position >= size()) return null;
+		Node<T> node = root;
+		int index = position;
+		while (true)
+		{
+			int leftSize = size(node.left);
+			if (index == leftSize) return node.value;
+			if (index < leftSize)
+			{
+				node = node.left;
+			}
+			else
+			{
+				index -= leftSize + 1;
+				node = node.right;
+			}
+		}
+	}
+
+	public List<T> head(int count)
+	{
+		List<T> result = new ArrayList<T>();
+		appendInOrder(root, result, count);
+		return result;
+	}
+
+	private void appendInOrder(Node<T> node, List<T> result, int count)
+	{
+		if (node == null || result.size() >= count) return;
+		appendInOrder(node.left, result, count);
+		if (result.size() >= count) return;
+		result.add(node.value);
+		appendInOrder(node.right, result, count);
+	}
+
+	private Node<T> insert(Node<T> node, Node<T> newNode)
+	{
+		if (node == null) return newNode;
+		if (newNode.priority > node.priority)
+		{
+			split(node, newNode.value);
+			newNode.left = splitLeft;
+			newNode.right = splitRight;
+			newNode.updateSize();
+			return newNode;
+		}
+		if (comparator.compare(newNode.value, node.value) < 0)
+		{
+			node.left = insert(node.left, newNode);
+		}
+		else
+		{
+			node.right = insert(node.right, newNode);
+		}
+		node.updateSize();
+		return node;
+	}
+
+	private Node<T> delete(Node<T> node, T value)
+	{
+		if (node == null) return null;
+		int compareResult = comparator.compare(value, node.value);
+		if (compareResult == 0) return merge(node.left, node.right);
+		if (compareResult < 0)
+		{
+			node.left = delete(node.left, value);
+		}
+		else
+		{
+			node.right = delete(node.right, value);
+		}
+		node.updateSize();
+		return node;
+	}
+
+	private void split(Node<T> node, T value)
+	{
+		if (node == null)
+		{
+			splitLeft = null;
+			splitRight = null;
+			return;
+		}
+		if (comparator.compare(node.value, value) < 0)
+		{
+			split(node.right, value);
+			node.right = splitLeft;
+			node.updateSize();
+			splitLeft = node;
+		}
+		else
+		{
+			split(node.left, value);
+			node.left = splitRight;
+			node.updateSize();
+			splitRight = node;
+		}
+	}
+
+	private Node<T> merge(Node<T> left, Node<T> right)
+	{
+		if (left == null) return right;
+		if (right == null) return left;
+		if (left.priority > right.priority)
+		{
+			left.right = merge(left.right, right);
+			left.updateSize();
+			return left;
+		}
+		else
+		{
+			right.left = merge(left, right.left);
+			right.updateSize();
+			return right;
+		}
+	}
+
+	private static int size(Node<?> node)
+	{
+		return (node == null) ? 0 : node.size;
+	}
+
+	private static class Node<T>
+	{
+		private final T value;
+		private final int priority;
+		private Node<T> left = null;
+		private Node<T> right = null;
+		private int size = 1;
+
+		private Node(T value, int priority)
+		{
+			this.value = value;
+			this.priority = priority;
+		}
+
+		private void updateSize()
+		{
+			size = 1 + RankTree.size(left) + RankTree.size(right);
+		}
+	}
+}
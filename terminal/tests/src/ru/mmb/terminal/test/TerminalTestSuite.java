@@ -2,9 +2,19 @@ package ru.mmb.terminal.test;
 
 import junit.framework.TestSuite;
 import ru.mmb.terminal.test.activity.input.data.checkpoints.CheckedStateTest;
+import ru.mmb.terminal.test.activity.report.team.search.TeamSearchIndexTest;
+import ru.mmb.terminal.test.db.QueryPlanTest;
+import ru.mmb.terminal.test.db.TeamDismissedBenchmarkTest;
+import ru.mmb.terminal.test.db.WriteQueueTest;
 import ru.mmb.terminal.test.model.history.DataStorageTest;
-import ru.mmb.terminal.test.model.history.TeamLevelPointsStorageTest;
-import ru.mmb.terminal.test.model.history.ScanPointRecordsTest;
+import ru.mmb.terminal.test.report.GlobalReportBenchmarkTest;
+import ru.mmb.terminal.test.report.TeamReportBenchmarkTest;
+import ru.mmb.terminal.test.transport.BarcodeLineTest;
+import ru.mmb.terminal.test.transport.BarcodeScansMergerTest;
+import ru.mmb.terminal.test.transport.BarcodeScansReducerTest;
+import ru.mmb.terminal.test.transport.DataLogFilesTest;
+import ru.mmb.terminal.test.util.DateCodecTest;
+import ru.mmb.terminal.test.util.RankTreeTest;
 
 public class TerminalTestSuite extends TestSuite
 {
@@ -12,9 +22,19 @@ public class TerminalTestSuite extends TestSuite
 	{
 		TestSuite suite = new TestSuite("Terminal test suite");
 		suite.addTestSuite(CheckedStateTest.class);
-		suite.addTestSuite(ScanPointRecordsTest.class);
-		suite.addTestSuite(TeamLevelPointsStorageTest.class);
 		suite.addTestSuite(DataStorageTest.class);
+		suite.addTestSuite(GlobalReportBenchmarkTest.class);
+		suite.addTestSuite(TeamReportBenchmarkTest.class);
+		suite.addTestSuite(RankTreeTest.class);
+		suite.addTestSuite(DateCodecTest.class);
+		suite.addTestSuite(TeamDismissedBenchmarkTest.class);
+		suite.addTestSuite(QueryPlanTest.class);
+		suite.addTestSuite(WriteQueueTest.class);
+		suite.addTestSuite(TeamSearchIndexTest.class);
+		suite.addTestSuite(BarcodeLineTest.class);
+		suite.addTestSuite(BarcodeScansReducerTest.class);
+		suite.addTestSuite(BarcodeScansMergerTest.class);
+		suite.addTestSuite(DataLogFilesTest.class);
 		return suite;
 	}
 }
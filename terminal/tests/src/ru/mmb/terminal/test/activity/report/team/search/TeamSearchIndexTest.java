@@ -0,0 +1,200 @@
+package ru.mmb.terminal.test.activity.report.team.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+import ru.mmb.terminal.activity.report.team.search.SortColumn;
+import ru.mmb.terminal.activity.report.team.search.SortOrder;
+import ru.mmb.terminal.activity.report.team.search.model.TeamListRecord;
+import ru.mmb.terminal.activity.report.team.search.model.TeamMember;
+import ru.mmb.terminal.activity.report.team.search.model.TeamMembers;
+import ru.mmb.terminal.activity.report.team.search.model.TeamSearchIndex;
+import ru.mmb.terminal.activity.report.team.search.model.TeamSearchQuery;
+import ru.mmb.terminal.model.Participant;
+import ru.mmb.terminal.model.Team;
+
+public class TeamSearchIndexTest extends TestCase
+{
+	private static final String[] NAMES =
+	    { "Фёдоров", "Федорова", "Ёлкин", "Елкина", "Иванов", "Петров", "Сидорова", "Smith" };
+
+	private final List<Team> teams = new ArrayList<Team>();
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		Random random = new Random(7);
+		int userId = 1;
+		for (int i = 1; i <= 300; i++)
+		{
+			Team team = new Team(i, 1, random.nextInt(500) + 1, NAMES[random.nextInt(NAMES.length)] + " team");
+			int membersCount = random.nextInt(4) + 1;
+			for (int j = 1; j <= membersCount; j++)
+			{
+				team.addMember(new Participant(userId, i, j, NAMES[random.nextInt(NAMES.length)]));
+				userId++;
+			}
+			teams.add(team);
+		}
+	}
+
+	public void testFilterMatchesFullSearch()
+	{
+		List<TeamListRecord> records = getTeamsRecords();
+		checkQueries(new TeamSearchIndex(records), records);
+		records = getMemberRecords();
+		checkQueries(new TeamSearchIndex(records), records);
+	}
+
+	public void testRefinedFilterMatchesFullFilter()
+	{
+		TeamSearchIndex index = new TeamSearchIndex(getMemberRecords());
+		String[] steps = { "ф", "фе", "фед", "федо", "федоров" };
+		TeamSearchQuery previous = null;
+		int[] previousResult = null;
+		for (String step : steps)
+		{
+			TeamSearchQuery query =
+			    new TeamSearchQuery(null, false, null, step, SortColumn.MEMBER, SortOrder.DESC);
+			if (previous != null) assertTrue(query.refines(previous));
+			int[] refined = index.filter(query, previousResult);
+			assertEquals(toRecords(index, index.filter(query, null)), toRecords(index, refined));
+			previous = query;
+			previousResult = refined;
+		}
+
+		TeamSearchQuery shorter =
+		    new TeamSearchQuery(null, false, null, "фед", SortColumn.MEMBER, SortOrder.DESC);
+		assertFalse(shorter.refines(previous));
+		TeamSearchQuery otherSort =
+		    new TeamSearchQuery(null, false, null, "федоров", SortColumn.TEAM, SortOrder.DESC);
+		assertFalse(otherSort.refines(previous));
+		TeamSearchQuery exact = new TeamSearchQuery("12", true, null, null, SortColumn.NUMBER, SortOrder.ASC);
+		TeamSearchQuery exactLonger =
+		    new TeamSearchQuery("123", true, null, null, SortColumn.NUMBER, SortOrder.ASC);
+		assertFalse(exactLonger.refines(exact));
+	}
+
+	public void testYoIgnored()
+	{
+		TeamSearchIndex index = new TeamSearchIndex(getMemberRecords());
+		int[] withYo =
+		    index.filter(new TeamSearchQuery(null, false, null, "Фёдор", SortColumn.NUMBER, SortOrder.ASC), null);
+		int[] withoutYo =
+		    index.filter(new TeamSearchQuery(null, false, null, "федор", SortColumn.NUMBER, SortOrder.ASC), null);
+		assertTrue(withYo.length > 0);
+		assertEquals(toRecords(index, withYo), toRecords(index, withoutYo));
+		for (int position : withYo)
+		{
+			assertTrue(index.getRecord(position).getMemberText().startsWith("Ф"));
+		}
+	}
+
+	private void checkQueries(TeamSearchIndex index, List<TeamListRecord> records)
+	{
+		String[] numberFilters = { null, "1", "12", "250" };
+		String[] textFilters = { null, "е", "Петров", "ова", "smi" };
+		for (SortColumn sortColumn : SortColumn.values())
+		{
+			for (SortOrder sortOrder : SortOrder.values())
+			{
+				for (String numberFilter : numberFilters)
+				{
+					for (String textFilter : textFilters)
+					{
+						checkQuery(index, records, new TeamSearchQuery(numberFilter, false, textFilter,
+						                                               null, sortColumn, sortOrder));
+						checkQuery(index, records, new TeamSearchQuery(numberFilter,
+						                                               numberFilter != null, null,
+						                                               textFilter, sortColumn,
+						                                               sortOrder));
+					}
+				}
+			}
+		}
+	}
+
+	private void checkQuery(TeamSearchIndex index, List<TeamListRecord> records, TeamSearchQuery query)
+	{
+		List<TeamListRecord> expected = new ArrayList<TeamListRecord>();
+		for (TeamListRecord record : records)
+		{
+			if (matches(record, query)) expected.add(record);
+		}
+		Collections.sort(expected, getComparator(query));
+		assertEquals(expected, toRecords(index, index.filter(query, null)));
+	}
+
+	private boolean matches(TeamListRecord record, TeamSearchQuery query)
+	{
+		if (query.getNumberFilter() != null)
+		{
+			String number = Integer.toString(record.getTeamNumber());
+			if (query.isNumberExact() && !number.equals(query.getNumberFilter())) return false;
+			if (!query.isNumberExact() && !number.contains(query.getNumberFilter())) return false;
+		}
+		if (query.getTeamFilter() != null
+		        && !TeamSearchIndex.normalize(record.getTeamName()).contains(query.getTeamFilter()))
+		    return false;
+		if (query.getMemberFilter() != null
+		        && !TeamSearchIndex.normalize(record.getMemberText()).contains(query.getMemberFilter()))
+		    return false;
+		return true;
+	}
+
+	private Comparator<TeamListRecord> getComparator(final TeamSearchQuery query)
+	{
+		return new Comparator<TeamListRecord>()
+		{
+			@Override
+			public int compare(TeamListRecord item1, TeamListRecord item2)
+			{
+				int result = 0;
+				if (query.getSortColumn() == SortColumn.NUMBER)
+				    result = new Integer(item1.getTeamNumber()).compareTo(new Integer(item2.getTeamNumber()));
+				if (query.getSortColumn() == SortColumn.TEAM)
+				    result = item1.getTeamName().compareToIgnoreCase(item2.getTeamName());
+				if (query.getSortColumn() == SortColumn.MEMBER)
+				    result = item1.getMemberText().compareToIgnoreCase(item2.getMemberText());
+				return query.getSortOrder() == SortOrder.ASC ? result : -1 * result;
+			}
+		};
+	}
+
+	private List<TeamListRecord> toRecords(TeamSearchIndex index, int[] positions)
+	{
+		List<TeamListRecord> result = new ArrayList<TeamListRecord>();
+		for (int position : positions)
+		{
+			result.add(index.getRecord(position));
+		}
+		return result;
+	}
+
+	private List<TeamListRecord> getTeamsRecords()
+	{
+		List<TeamListRecord> result = new ArrayList<TeamListRecord>();
+		for (Team team : teams)
+		{
+			result.add(new TeamMembers(team));
+		}
+		return result;
+	}
+
+	private List<TeamListRecord> getMemberRecords()
+	{
+		List<TeamListRecord> result = new ArrayList<TeamListRecord>();
+		for (Team team : teams)
+		{
+			for (Participant participant : team.getMembers())
+			{
+				result.add(new TeamMember(team, participant.getUserName()));
+			}
+		}
+		return result;
+	}
+}
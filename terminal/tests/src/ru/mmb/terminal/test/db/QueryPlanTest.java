@@ -0,0 +1,230 @@
+package ru.mmb.terminal.test.db;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import ru.mmb.terminal.db.LevelPointDiscounts;
+import ru.mmb.terminal.db.LevelPoints;
+import ru.mmb.terminal.db.ScanPointHistory;
+import ru.mmb.terminal.db.SchemaUpdater;
+import ru.mmb.terminal.db.TeamDismissed;
+import ru.mmb.terminal.db.TeamResults;
+import ru.mmb.terminal.db.Teams;
+import ru.mmb.terminal.model.LevelPoint;
+import ru.mmb.terminal.model.PointType;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.test.AndroidTestCase;
+
+/**
+ * Checks that no hot terminal query reads whole table.<br>
+ * Raid database is generated in memory from terminal tables without any site indexes, so all
+ * used indexes must be created by SchemaUpdater.
+ */
+public class QueryPlanTest extends AndroidTestCase
+{
+	private static final int RAID_ID = 1;
+	private static final int DISTANCES_COUNT = 2;
+	private static final int LEVELPOINTS_COUNT = 20;
+	private static final int TEAMS_COUNT = 500;
+	private static final int MEMBERS_COUNT = 4;
+
+	// @formatter:off
+	public static final String[] TABLES = new String[] {
+	    "create table Raids (raid_registrationenddate TEXT, raid_id INTEGER NOT NULL, raid_name TEXT NOT NULL, PRIMARY KEY (raid_id))",
+	    "create table Distances (distance_id INTEGER NOT NULL, distance_name TEXT NOT NULL, raid_id INTEGER NOT NULL, PRIMARY KEY (distance_id))",
+	    "create table ScanPoints (scanpoint_id INTEGER NOT NULL, raid_id INTEGER NOT NULL, scanpoint_name TEXT NOT NULL, scanpoint_order INTEGER NOT NULL, PRIMARY KEY (scanpoint_id))",
+	    "create table LevelPoints (levelpoint_id INTEGER NOT NULL, pointtype_id INTEGER NOT NULL, distance_id INTEGER NOT NULL, levelpoint_order INTEGER NOT NULL, levelpoint_name TEXT NOT NULL, levelpoint_penalty INTEGER, levelpoint_mindatetime TEXT, levelpoint_maxdatetime TEXT, scanpoint_id INTEGER, PRIMARY KEY (levelpoint_id))",
+	    "create table LevelPointDiscounts (levelpointdiscount_id INTEGER NOT NULL, distance_id INTEGER NOT NULL, levelpointdiscount_value INTEGER, levelpointdiscount_start INTEGER, levelpointdiscount_finish INTEGER, PRIMARY KEY (levelpointdiscount_id))",
+	    "create table Teams (team_id INTEGER NOT NULL, team_name TEXT NOT NULL, distance_id INTEGER NOT NULL, team_num INTEGER NOT NULL, PRIMARY KEY (team_id))",
+	    "create table Users (user_id INTEGER NOT NULL, user_name TEXT NOT NULL, user_birthyear INTEGER, PRIMARY KEY (user_id))",
+	    "create table TeamUsers (teamuser_id INTEGER NOT NULL, user_id INTEGER NOT NULL, team_id INTEGER NOT NULL, teamuser_hide INTEGER, PRIMARY KEY (teamuser_id))",
+	    "create table TeamLevelDismiss (teamleveldismiss_date TEXT NOT NULL, user_id INTEGER NOT NULL, device_id INTEGER NOT NULL, levelpoint_id INTEGER NOT NULL, team_id INTEGER NOT NULL, teamuser_id INTEGER NOT NULL, PRIMARY KEY (user_id, levelpoint_id, team_id, teamuser_id))",
+	    "create table TeamLevelPoints (teamlevelpoint_date TEXT NOT NULL, user_id INTEGER NOT NULL, device_id INTEGER NOT NULL, levelpoint_id INTEGER NOT NULL, team_id INTEGER NOT NULL, teamlevelpoint_datetime TEXT NOT NULL, teamlevelpoint_points TEXT, teamlevelpoint_comment TEXT, PRIMARY KEY (user_id, levelpoint_id, team_id))" };
+	// @formatter:on
+
+	private SQLiteDatabase db;
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		db = SQLiteDatabase.create(null);
+		for (String table : TABLES)
+		{
+			db.execSQL(table);
+		}
+		new SchemaUpdater(db).update();
+		generateRaid();
+	}
+
+	private void generateRaid()
+	{
+		db.beginTransaction();
+		try
+		{
+			db.execSQL("insert into Raids values ('201205010000', " + RAID_ID + ", 'Raid')");
+			for (int i = 1; i <= DISTANCES_COUNT; i++)
+			{
+				db.execSQL("insert into Distances values (" + i + ", 'Distance " + i + "', " + RAID_ID + ")");
+				db.execSQL("insert into LevelPointDiscounts values (" + i + ", " + i + ", 60, 2, 5)");
+				for (int j = 1; j <= LEVELPOINTS_COUNT; j++)
+				{
+					int levelPointId = i * 100 + j;
+					db.execSQL("insert into ScanPoints values (" + levelPointId + ", " + RAID_ID + ", 'CP" + j + "', " + j + ")");
+					db.execSQL("insert into LevelPoints values (" + levelPointId + ", "
+					        + getPointType(j).getId() + ", " + i + ", " + j + ", 'CP" + j
+					        + "', 0, '201205010000', '201205020000', " + levelPointId + ")");
+				}
+			}
+			for (int teamId = 1; teamId <= TEAMS_COUNT; teamId++)
+			{
+				int distanceId = teamId % DISTANCES_COUNT + 1;
+				db.execSQL("insert into Teams values (" + teamId + ", 'Team " + teamId + "', " + distanceId + ", " + teamId + ")");
+				for (int j = 0; j < MEMBERS_COUNT; j++)
+				{
+					int userId = teamId * 10 + j;
+					db.execSQL("insert into Users values (" + userId + ", 'User " + userId + "', 1980)");
+					db.execSQL("insert into TeamUsers values (" + userId + ", " + userId + ", " + teamId + ", 0)");
+				}
+				for (int j = 1; j <= LEVELPOINTS_COUNT; j++)
+				{
+					db.execSQL("insert into TeamLevelPoints values ('201205011200', 1, 1, "
+					        + (distanceId * 100 + j) + ", " + teamId
+					        + ", '201205011200', 'KP1,KP2', '')");
+				}
+				db.execSQL("insert into TeamLevelDismiss values ('201205011200', 1, 1, "
+				        + (distanceId * 100 + LEVELPOINTS_COUNT / 2) + ", " + teamId + ", "
+				        + (teamId * 10) + ")");
+			}
+			db.setTransactionSuccessful();
+		}
+		finally
+		{
+			db.endTransaction();
+		}
+	}
+
+	private PointType getPointType(int order)
+	{
+		if (order == 1) return PointType.START;
+		if (order == LEVELPOINTS_COUNT) return PointType.FINISH;
+		return PointType.CHECKPOINT;
+	}
+
+	@Override
+	protected void tearDown() throws Exception
+	{
+		db.close();
+	}
+
+	public void testTeamsQueries()
+	{
+		assertNoTableScan(Teams.getTeamsSQL(RAID_ID));
+		assertNoTableScan(Teams.getTeamUsersSQL(RAID_ID));
+	}
+
+	public void testLevelPointsQueries()
+	{
+		assertNoTableScan(LevelPoints.getLevelPointsSQL(RAID_ID));
+		assertNoTableScan(LevelPointDiscounts.getLevelPointDiscountsSQL(RAID_ID));
+	}
+
+	public void testTeamResultsQueries()
+	{
+		assertNoTableScan(TeamResults.getExistingRecordSQL(105, 10));
+		assertNoTableScan(TeamResults.getTeamResultsSQL(10));
+		assertNoTableScan(TeamResults.getDistanceResultsSQL(1));
+	}
+
+	public void testTeamDismissedQueries()
+	{
+		for (int order : new int[] { 1, LEVELPOINTS_COUNT / 2, LEVELPOINTS_COUNT })
+		{
+			LevelPoint levelPoint =
+			    new LevelPoint(100 + order, getPointType(order), 1, 100 + order, order, null, null);
+			assertNoTableScan(TeamDismissed.getDismissedMembersSQL(levelPoint, 10));
+			assertNoTableScan(TeamDismissed.getLevelPointDismissedSQL(levelPoint));
+		}
+	}
+
+	public void testScanPointHistoryQueries()
+	{
+		for (int order : new int[] { 1, LEVELPOINTS_COUNT / 2, LEVELPOINTS_COUNT })
+		{
+			List<LevelPoint> levelPoints = new ArrayList<LevelPoint>();
+			for (int i = 1; i <= DISTANCES_COUNT; i++)
+			{
+				int levelPointId = i * 100 + order;
+				levelPoints.add(new LevelPoint(levelPointId, getPointType(order), i, levelPointId,
+				        order, null, null));
+			}
+			assertNoTableScan(ScanPointHistory.getHistorySQL(levelPoints, null), "dm");
+			assertNoTableScan(ScanPointHistory.getHistorySQL(levelPoints, 10), "dm");
+			List<Integer> pageTeams = Arrays.asList(10, 11, 12);
+			assertNoTableScan(TeamResults.getTeamsResultsSQL(levelPoints, pageTeams));
+			assertNoTableScan(TeamDismissed.getTeamsDismissedSQL(levelPoints, pageTeams));
+		}
+	}
+
+	/**
+	 * Every step reading a table must use an index. Step formats differ between SQLite versions:
+	 * "TABLE t WITH INDEX i" in old ones, "SEARCH TABLE t USING INDEX i" and "SEARCH t USING
+	 * INDEX i" in newer ones. Full scan of index is not accepted too.
+	 * 
+	 * @param derivedTables
+	 *            Aliases of subqueries in FROM, their tables are checked inside the subquery.
+	 */
+	private void assertNoTableScan(String sql, String... derivedTables)
+	{
+		Cursor cursor = db.rawQuery("explain query plan " + sql, null);
+		try
+		{
+			int detailIndex = cursor.getColumnIndexOrThrow("detail");
+			StringBuilder plan = new StringBuilder();
+			int steps = 0;
+			boolean hasScan = false;
+			while (cursor.moveToNext())
+			{
+				String detail = cursor.getString(detailIndex);
+				plan.append(detail).append("\n");
+				steps++;
+				if (isTableStep(detail) && !isDerivedTableStep(detail, derivedTables)
+				        && !isIndexStep(detail)) hasScan = true;
+			}
+			assertTrue("no query plan for " + sql, steps > 0);
+			assertFalse(sql + "\n" + plan, hasScan);
+		}
+		finally
+		{
+			cursor.close();
+		}
+	}
+
+	private boolean isTableStep(String detail)
+	{
+		return detail.startsWith("SCAN ") || detail.startsWith("SEARCH ")
+		        || detail.startsWith("TABLE ");
+	}
+
+	private boolean isIndexStep(String detail)
+	{
+		if (detail.startsWith("SCAN ") || detail.contains("AUTOMATIC")) return false;
+		return detail.contains("INDEX") || detail.contains("PRIMARY KEY");
+	}
+
+	private boolean isDerivedTableStep(String detail, String[] derivedTables)
+	{
+		if (detail.toLowerCase().contains("subquery")) return true;
+		String[] words = detail.split(" ");
+		for (String derivedTable : derivedTables)
+		{
+			// "SCAN dm", "SCAN TABLE dm" or "TABLE  AS dm"
+			for (int i = 1; i < words.length && i <= 3; i++)
+			{
+				if (words[i].equals(derivedTable)) return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,182 @@
+package ru.mmb.terminal.test.db;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import ru.mmb.terminal.db.SchemaUpdater;
+import ru.mmb.terminal.db.TeamDismissed;
+import ru.mmb.terminal.model.Distance;
+import ru.mmb.terminal.model.LevelPoint;
+import ru.mmb.terminal.model.Participant;
+import ru.mmb.terminal.model.ScanPoint;
+import ru.mmb.terminal.model.Team;
+import ru.mmb.terminal.model.TeamDismiss;
+import ru.mmb.terminal.model.history.PagedHistory;
+import ru.mmb.terminal.model.registry.DistancesRegistry;
+import ru.mmb.terminal.model.registry.ScanPointsRegistry;
+import ru.mmb.terminal.model.registry.Settings;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.test.AndroidTestCase;
+
+/**
+ * Saves and loads 20000 dismissed members rows.<br>
+ * Distance and scan points are taken from current terminal.db, dismissed members are written
+ * to in memory database with terminal schema.
+ */
+public class TeamDismissedBenchmarkTest extends AndroidTestCase
+{
+	private static final int TEAMS_COUNT = 10000;
+	private static final int MEMBERS_COUNT = 2;
+	private static final int FIRST_TEAM_ID = 100000;
+
+	private SQLiteDatabase db;
+	private final List<LevelPoint> levelPoints = new ArrayList<LevelPoint>();
+	private final List<Team> teams = new ArrayList<Team>();
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		Settings.getInstance().setCurrentContext(getContext());
+		Distance distance = DistancesRegistry.getInstance().getDistances().get(0);
+		db = SQLiteDatabase.create(null);
+		for (String table : QueryPlanTest.TABLES)
+		{
+			db.execSQL(table);
+		}
+		new SchemaUpdater(db).update();
+
+		for (ScanPoint scanPoint : ScanPointsRegistry.getInstance().getScanPoints())
+		{
+			LevelPoint levelPoint = scanPoint.getLevelPointByDistance(distance.getDistanceId());
+			if (levelPoint == null) continue;
+			levelPoints.add(levelPoint);
+			db.execSQL("insert into LevelPoints (levelpoint_id, pointtype_id, distance_id, levelpoint_order, levelpoint_name) values ("
+			        + levelPoint.getLevelPointId() + ", " + levelPoint.getPointType().getId() + ", "
+			        + levelPoint.getDistanceId() + ", " + levelPoint.getLevelPointOrder() + ", 'LP')");
+		}
+
+		for (int i = 0; i < TEAMS_COUNT; i++)
+		{
+			int teamId = FIRST_TEAM_ID + i;
+			Team team = new Team(teamId, distance.getDistanceId(), i + 1, "Team " + (i + 1));
+			for (int j = 0; j < MEMBERS_COUNT; j++)
+			{
+				team.addMember(new Participant(teamId * 10 + j, teamId, teamId * 10 + j, "Member "
+				        + j));
+			}
+			teams.add(team);
+		}
+	}
+
+	@Override
+	protected void tearDown() throws Exception
+	{
+		db.close();
+	}
+
+	public void testSaveAndLoadDismissedMembers()
+	{
+		TeamDismissed teamDismissed = new TeamDismissed(db);
+
+		long start = System.currentTimeMillis();
+		saveAll(teamDismissed);
+		long saveTime = System.currentTimeMillis() - start;
+		assertEquals(TEAMS_COUNT * MEMBERS_COUNT, getRowsCount());
+
+		// existing records are ignored
+		saveAll(teamDismissed);
+		assertEquals(TEAMS_COUNT * MEMBERS_COUNT, getRowsCount());
+
+		start = System.currentTimeMillis();
+		int loaded = 0;
+		for (int i = 0; i < levelPoints.size(); i++)
+		{
+			int levelPointLoaded = loadByPages(teamDismissed, levelPoints.get(i));
+			assertEquals(getExpectedCount(levelPoints.get(i)), levelPointLoaded);
+			loaded += levelPointLoaded;
+		}
+		long loadTime = System.currentTimeMillis() - start;
+
+		System.out.println("Dismissed members " + TEAMS_COUNT * MEMBERS_COUNT + " rows: save "
+		        + saveTime + " ms, load for " + levelPoints.size() + " level points (" + loaded
+		        + " rows) " + loadTime + " ms");
+
+		Team team = teams.get(0);
+		List<Participant> members = teamDismissed.getDismissedMembers(getLastLevelPoint(), team);
+		assertEquals(MEMBERS_COUNT, members.size());
+		assertTrue(members.containsAll(team.getMembers()));
+	}
+
+	/**
+	 * Loads dismissed members the way scan point history pages do.
+	 */
+	private int loadByPages(TeamDismissed teamDismissed, LevelPoint levelPoint)
+	{
+		int result = 0;
+		List<Integer> pageTeams = new ArrayList<Integer>();
+		for (int i = 0; i < teams.size(); i++)
+		{
+			pageTeams.add(teams.get(i).getTeamId());
+			if (pageTeams.size() == PagedHistory.PAGE_SIZE || i == teams.size() - 1)
+			{
+				List<TeamDismiss> dismissed =
+				    teamDismissed.loadDismissedMembers(levelPoint.getScanPoint(), pageTeams);
+				result += dismissed.size();
+				pageTeams.clear();
+			}
+		}
+		return result;
+	}
+
+	private LevelPoint getLastLevelPoint()
+	{
+		LevelPoint result = levelPoints.get(0);
+		for (LevelPoint levelPoint : levelPoints)
+		{
+			if (levelPoint.getLevelPointOrder() > result.getLevelPointOrder()) result = levelPoint;
+		}
+		return result;
+	}
+
+	private void saveAll(TeamDismissed teamDismissed)
+	{
+		Date recordDateTime = new Date();
+		for (int i = 0; i < teams.size(); i++)
+		{
+			Team team = teams.get(i);
+			LevelPoint levelPoint = levelPoints.get(i % levelPoints.size());
+			teamDismissed.saveDismissedMembers(levelPoint, team, team.getMembers(), recordDateTime);
+		}
+	}
+
+	private int getRowsCount()
+	{
+		Cursor cursor = db.rawQuery("select count(*) from TeamLevelDismiss", null);
+		cursor.moveToFirst();
+		int result = cursor.getInt(0);
+		cursor.close();
+		return result;
+	}
+
+	private int getExpectedCount(LevelPoint levelPoint)
+	{
+		int result = 0;
+		for (int i = 0; i < teams.size(); i++)
+		{
+			LevelPoint dismissPoint = levelPoints.get(i % levelPoints.size());
+			if (isEarlier(dismissPoint, levelPoint)) result += MEMBERS_COUNT;
+		}
+		return result;
+	}
+
+	private boolean isEarlier(LevelPoint dismissPoint, LevelPoint levelPoint)
+	{
+		if (dismissPoint.getLevelPointOrder() < levelPoint.getLevelPointOrder()) return true;
+		if (dismissPoint.getLevelPointOrder() > levelPoint.getLevelPointOrder()) return false;
+		if (levelPoint.getPointType().isFinish()) return true;
+		return levelPoint.getPointType().isStart()
+		        && levelPoint.getLevelPointId() == dismissPoint.getLevelPointId();
+	}
+}
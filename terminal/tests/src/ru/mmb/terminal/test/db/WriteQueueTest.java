@@ -0,0 +1,125 @@
+package ru.mmb.terminal.test.db;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ru.mmb.terminal.db.WriteCallback;
+import ru.mmb.terminal.db.WriteQueue;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.test.AndroidTestCase;
+
+public class WriteQueueTest extends AndroidTestCase
+{
+	private static final int WRITES_COUNT = 5000;
+
+	private SQLiteDatabase db;
+	private WriteQueue writeQueue;
+
+	private int committed = 0;
+	private final List<Integer> failed = new ArrayList<Integer>();
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		db = SQLiteDatabase.create(null);
+		db.execSQL("create table Records (record_id INTEGER NOT NULL, PRIMARY KEY (record_id))");
+		writeQueue = new WriteQueue(db);
+	}
+
+	@Override
+	protected void tearDown() throws Exception
+	{
+		writeQueue.close();
+		db.close();
+	}
+
+	public void testAllWritesCommitted()
+	{
+		long start = System.currentTimeMillis();
+		long maxPutTime = 0;
+		for (int i = 0; i < WRITES_COUNT; i++)
+		{
+			long putStart = System.currentTimeMillis();
+			putInsert(i);
+			maxPutTime = Math.max(maxPutTime, System.currentTimeMillis() - putStart);
+		}
+		writeQueue.flush();
+		System.out.println("Write queue " + WRITES_COUNT + " writes: "
+		        + (System.currentTimeMillis() - start) + " ms, max put " + maxPutTime + " ms");
+
+		assertEquals(WRITES_COUNT, getRowsCount());
+		assertEquals(WRITES_COUNT, getCommitted());
+		assertTrue(getFailed().isEmpty());
+	}
+
+	public void testFailedWriteDoesNotLoseGroup()
+	{
+		for (int i = 0; i < 10; i++)
+		{
+			putInsert(i);
+		}
+		// duplicate primary key
+		putInsert(5);
+		for (int i = 10; i < 20; i++)
+		{
+			putInsert(i);
+		}
+		writeQueue.flush();
+
+		assertEquals(20, getRowsCount());
+		assertEquals(20, getCommitted());
+		assertEquals(1, getFailed().size());
+		assertEquals(Integer.valueOf(5), getFailed().get(0));
+	}
+
+	private void putInsert(final int recordId)
+	{
+		writeQueue.put(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				db.execSQL("insert into Records values (" + recordId + ")");
+			}
+		}, new WriteCallback()
+		{
+			@Override
+			public void onCommitted()
+			{
+				synchronized (WriteQueueTest.this)
+				{
+					committed++;
+				}
+			}
+
+			@Override
+			public void onFailed(RuntimeException e)
+			{
+				synchronized (WriteQueueTest.this)
+				{
+					failed.add(recordId);
+				}
+			}
+		});
+	}
+
+	private synchronized int getCommitted()
+	{
+		return committed;
+	}
+
+	private synchronized List<Integer> getFailed()
+	{
+		return new ArrayList<Integer>(failed);
+	}
+
+	private int getRowsCount()
+	{
+		Cursor cursor = db.rawQuery("select count(*) from Records", null);
+		cursor.moveToFirst();
+		int result = cursor.getInt(0);
+		cursor.close();
+		return result;
+	}
+}
@@ -21,8 +21,12 @@ public class DataStorageTest extends AndroidTestCase
 
 		DataStorage dataStorage = DataStorage.getInstance(scanPoint);
 
-		@SuppressWarnings("unused")
 		List<HistoryInfo> history = dataStorage.getHistory();
+		assertEquals(dataStorage.getHistorySize(), history.size());
+		for (int i = 1; i < history.size(); i++)
+		{
+			assertTrue(history.get(i - 1).compareTo(history.get(i)) >= 0);
+		}
 
 		/*for (HistoryInfo historyInfo : history)
 		{
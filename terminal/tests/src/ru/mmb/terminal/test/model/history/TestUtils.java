@@ -19,7 +19,7 @@ public class TestUtils
 		TestBasicData testBasicData = TestBasicData.getInstance();
 		ScanPoint scanPoint = testBasicData.getScanPoint();
 		TeamResult result =
-		    new TeamResult(team.getTeamId(), testBasicData.getUserId(), testBasicData.getDeviceId(), scanPoint.getScanPointId(), takenCheckpointNames, checkedDateTime, recordDateTime);
+		    new TeamResult(team.getTeamId(), testBasicData.getUserId(), testBasicData.getDeviceId(), scanPoint.getScanPointId(), takenCheckpointNames, checkedDateTime.getTime(), recordDateTime.getTime());
 		result.setTeam(team);
 		result.setScanPoint(scanPoint);
 		result.initTakenCheckpoints();
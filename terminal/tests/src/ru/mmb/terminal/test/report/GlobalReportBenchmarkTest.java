@@ -0,0 +1,138 @@
+package ru.mmb.terminal.test.report;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import ru.mmb.terminal.db.SchemaUpdater;
+import ru.mmb.terminal.db.TeamResults;
+import ru.mmb.terminal.db.TeamResultsHandler;
+import ru.mmb.terminal.model.Distance;
+import ru.mmb.terminal.model.LevelPoint;
+import ru.mmb.terminal.model.ScanPoint;
+import ru.mmb.terminal.model.Team;
+import ru.mmb.terminal.model.TeamResult;
+import ru.mmb.terminal.model.registry.DistancesRegistry;
+import ru.mmb.terminal.model.registry.ScanPointsRegistry;
+import ru.mmb.terminal.model.registry.Settings;
+import ru.mmb.terminal.model.report.TeamReport;
+import ru.mmb.terminal.report.TeamReportBuilder;
+import ru.mmb.terminal.test.db.QueryPlanTest;
+import ru.mmb.terminal.util.DateFormat;
+import android.database.sqlite.SQLiteDatabase;
+import android.test.AndroidTestCase;
+import android.util.Log;
+
+/**
+ * Compares global report calculation with per team queries and with one bulk query.<br>
+ * Reports must be equal, timings are written to log.<br>
+ * Distance and scan points are taken from current terminal.db, teams and results are
+ * generated in memory database with terminal schema.
+ */
+public class GlobalReportBenchmarkTest extends AndroidTestCase
+{
+	private static final int TEAMS_COUNT = 3000;
+	private static final int FIRST_TEAM_ID = 100000;
+
+	private SQLiteDatabase db;
+	private Distance distance;
+	private final List<Team> teams = new ArrayList<Team>();
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		Settings.getInstance().setCurrentContext(getContext());
+		distance = DistancesRegistry.getInstance().getDistances().get(0);
+		db = SQLiteDatabase.create(null);
+		for (String table : QueryPlanTest.TABLES)
+		{
+			db.execSQL(table);
+		}
+		new SchemaUpdater(db).update();
+		generateTeamResults();
+	}
+
+	private void generateTeamResults()
+	{
+		List<LevelPoint> levelPoints = new ArrayList<LevelPoint>();
+		for (ScanPoint scanPoint : ScanPointsRegistry.getInstance().getScanPoints())
+		{
+			LevelPoint levelPoint = scanPoint.getLevelPointByDistance(distance.getDistanceId());
+			if (levelPoint != null) levelPoints.add(levelPoint);
+		}
+
+		db.beginTransaction();
+		try
+		{
+			for (int i = 0; i < TEAMS_COUNT; i++)
+			{
+				int teamId = FIRST_TEAM_ID + i;
+				teams.add(new Team(teamId, distance.getDistanceId(), i + 1, "Team " + (i + 1)));
+				db.execSQL("insert into Teams (team_id, team_name, distance_id, team_num) values ("
+				        + teamId + ", 'Team " + (i + 1) + "', " + distance.getDistanceId() + ", "
+				        + (i + 1) + ")");
+				// every 10th team has left the distance before the last points
+				int pointsCount = (i % 10 == 0) ? levelPoints.size() / 2 : levelPoints.size();
+				for (int j = 0; j < pointsCount; j++)
+				{
+					LevelPoint levelPoint = levelPoints.get(j);
+					Date checkDateTime = levelPoint.getLevelPointMinDateTime();
+					if (checkDateTime == null) checkDateTime = new Date();
+					String date = DateFormat.format(checkDateTime);
+					db.execSQL("insert into TeamLevelPoints (teamlevelpoint_date, user_id, device_id, levelpoint_id, team_id, teamlevelpoint_datetime, teamlevelpoint_points, teamlevelpoint_comment) values ('"
+					        + date + "', 1, 1, " + levelPoint.getLevelPointId() + ", " + teamId
+					        + ", '" + date + "', '', '')");
+				}
+			}
+			db.setTransactionSuccessful();
+		}
+		finally
+		{
+			db.endTransaction();
+		}
+	}
+
+	@Override
+	protected void tearDown() throws Exception
+	{
+		db.close();
+	}
+
+	public void testBulkReportEqualsPerTeamReports()
+	{
+		TeamResults teamResults = new TeamResults(db);
+
+		long start = System.currentTimeMillis();
+		List<TeamReport> perTeamReports = new ArrayList<TeamReport>();
+		for (Team team : teams)
+		{
+			List<TeamResult> results = teamResults.loadTeamResults(team);
+			perTeamReports.add(new TeamReportBuilder(team).buildReport(results));
+		}
+		long perTeamTime = System.currentTimeMillis() - start;
+
+		start = System.currentTimeMillis();
+		final Map<Integer, TeamReport> bulkReports = new HashMap<Integer, TeamReport>();
+		teamResults.loadTeamResults(distance.getDistanceId(), teams, new TeamResultsHandler()
+		{
+			@Override
+			public void onTeamResults(Team team, List<TeamResult> results)
+			{
+				bulkReports.put(team.getTeamId(), new TeamReportBuilder(team).buildReport(results));
+			}
+		});
+		long bulkTime = System.currentTimeMillis() - start;
+
+		Log.d("global report benchmark", "teams: " + TEAMS_COUNT + ", per team queries: "
+		        + perTeamTime + " ms, bulk query: " + bulkTime + " ms");
+
+		for (int i = 0; i < teams.size(); i++)
+		{
+			TeamReport bulkReport = bulkReports.get(teams.get(i).getTeamId());
+			assertNotNull(bulkReport);
+			assertEquals(perTeamReports.get(i).toCompactHtml(i), bulkReport.toCompactHtml(i));
+		}
+	}
+}
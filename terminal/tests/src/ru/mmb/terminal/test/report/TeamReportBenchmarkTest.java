@@ -0,0 +1,97 @@
+package ru.mmb.terminal.test.report;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import ru.mmb.terminal.model.Distance;
+import ru.mmb.terminal.model.LevelPoint;
+import ru.mmb.terminal.model.ScanPoint;
+import ru.mmb.terminal.model.Team;
+import ru.mmb.terminal.model.TeamResult;
+import ru.mmb.terminal.model.registry.DistancesRegistry;
+import ru.mmb.terminal.model.registry.ScanPointsRegistry;
+import ru.mmb.terminal.model.registry.Settings;
+import ru.mmb.terminal.model.report.LevelCalcResult;
+import ru.mmb.terminal.model.report.TeamReport;
+import ru.mmb.terminal.report.TeamReportBuilder;
+import android.test.AndroidTestCase;
+
+/**
+ * Measures pure team report calculation without database access.<br>
+ * Distance and scan points are taken from current terminal.db, team results are generated
+ * in memory.
+ */
+public class TeamReportBenchmarkTest extends AndroidTestCase
+{
+	private static final int TEAMS_COUNT = 10000;
+	private static final int FIRST_TEAM_ID = 100000;
+
+	private final List<Team> teams = new ArrayList<Team>();
+	private final List<List<TeamResult>> teamsResults = new ArrayList<List<TeamResult>>();
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		Settings.getInstance().setCurrentContext(getContext());
+		Distance distance = DistancesRegistry.getInstance().getDistances().get(0);
+		List<ScanPoint> scanPoints = new ArrayList<ScanPoint>();
+		for (ScanPoint scanPoint : ScanPointsRegistry.getInstance().getScanPoints())
+		{
+			if (scanPoint.getLevelPointByDistance(distance.getDistanceId()) != null)
+			    scanPoints.add(scanPoint);
+		}
+
+		for (int i = 0; i < TEAMS_COUNT; i++)
+		{
+			Team team =
+			    new Team(FIRST_TEAM_ID + i, distance.getDistanceId(), i + 1, "Team " + (i + 1));
+			teams.add(team);
+			// every 10th team has left the distance before the last points
+			int pointsCount = (i % 10 == 0) ? scanPoints.size() / 2 : scanPoints.size();
+			List<TeamResult> results = new ArrayList<TeamResult>();
+			for (int j = 0; j < pointsCount; j++)
+			{
+				ScanPoint scanPoint = scanPoints.get(j);
+				LevelPoint levelPoint = scanPoint.getLevelPointByDistance(distance.getDistanceId());
+				Date checkDateTime = levelPoint.getLevelPointMinDateTime();
+				if (checkDateTime == null) checkDateTime = new Date();
+				checkDateTime = new Date(checkDateTime.getTime() + (i % 60) * 60 * 1000);
+				TeamResult result =
+				    new TeamResult(team.getTeamId(), 1, 1, scanPoint.getScanPointId(), "", checkDateTime.getTime(), checkDateTime.getTime());
+				result.setTeam(team);
+				result.setScanPoint(scanPoint);
+				results.add(result);
+			}
+			teamsResults.add(results);
+		}
+	}
+
+	public void testBuildTeamReports()
+	{
+		// Warm up.
+		buildReports();
+
+		long start = System.currentTimeMillis();
+		List<TeamReport> reports = buildReports();
+		long time = System.currentTimeMillis() - start;
+
+		System.out.println("Team reports for " + TEAMS_COUNT + " teams: " + time + " ms");
+
+		assertEquals(TEAMS_COUNT, reports.size());
+		for (int i = 0; i < reports.size(); i++)
+		{
+			assertFalse(reports.get(i).getCalcResult() == LevelCalcResult.FAIL);
+		}
+	}
+
+	private List<TeamReport> buildReports()
+	{
+		List<TeamReport> result = new ArrayList<TeamReport>(TEAMS_COUNT);
+		for (int i = 0; i < TEAMS_COUNT; i++)
+		{
+			result.add(new TeamReportBuilder(teams.get(i)).buildReport(teamsResults.get(i)));
+		}
+		return result;
+	}
+}
@@ -0,0 +1,59 @@
+package ru.mmb.terminal.test.transport;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+
+import junit.framework.TestCase;
+import ru.mmb.terminal.transport.importer.barcode.BarcodeLine;
+
+public class BarcodeLineTest extends TestCase
+{
+	private final SimpleDateFormat scanTimeFormat = new SimpleDateFormat("yyyy/MM/dd HH:mm:ss");
+
+	public void testParseLine() throws ParseException
+	{
+		BarcodeLine line = BarcodeLine.parse("00, 01, 90001129, 01:44:23, 2014/02/05");
+		assertEquals(1, line.getScanPointOrder());
+		assertEquals(11, line.getTeamNumber());
+		assertEquals(scanTimeFormat.parse("2014/02/05 01:44:23").getTime(), line.getScanTime());
+	}
+
+	public void testParseLineWithChecksum() throws ParseException
+	{
+		BarcodeLine line = BarcodeLine.parse("07, 12, 00003308, 01:25:40, 2015/11/04, CRC8=166");
+		assertEquals(12, line.getScanPointOrder());
+		assertEquals(33, line.getTeamNumber());
+		assertEquals(scanTimeFormat.parse("2015/11/04 01:25:40").getTime(), line.getScanTime());
+	}
+
+	public void testParseLongBarcode() throws ParseException
+	{
+		BarcodeLine line = BarcodeLine.parse("  02, 00, 800040110123, 23:35:18, 2014/10/07");
+		assertEquals(0, line.getScanPointOrder());
+		assertEquals(40, line.getTeamNumber());
+		assertEquals(scanTimeFormat.parse("2014/10/07 23:35:18").getTime(), line.getScanTime());
+	}
+
+	public void testWrongLines()
+	{
+		assertWrongLine("00,01,90001129,01:44:23,2014/02/05");
+		assertWrongLine("00, 0x, 90001129, 01:44:23, 2014/02/05");
+		assertWrongLine("00, 01, 9000, 01:44:23, 2014/02/05");
+		assertWrongLine("00, 01, 90001129, 01:44:23");
+		assertWrongLine("00, 01, 90001129, 01-44-23, 2014/02/05");
+		assertWrongLine("00, 01");
+	}
+
+	private void assertWrongLine(String line)
+	{
+		try
+		{
+			BarcodeLine.parse(line);
+			fail("Parse error expected: " + line);
+		}
+		catch (ParseException e)
+		{
+			// expected
+		}
+	}
+}
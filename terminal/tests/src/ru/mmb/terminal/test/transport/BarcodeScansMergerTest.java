@@ -0,0 +1,109 @@
+package ru.mmb.terminal.test.transport;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import junit.framework.TestCase;
+import ru.mmb.terminal.transport.importer.barcode.BarcodeScan;
+import ru.mmb.terminal.transport.importer.barcode.BarcodeScanSource;
+import ru.mmb.terminal.transport.importer.barcode.BarcodeScansMerger;
+
+public class BarcodeScansMergerTest extends TestCase
+{
+	private static final int LOGGER_1 = 1;
+	private static final int LOGGER_2 = 2;
+	private static final int LEVELPOINT_ID = 10;
+
+	public void testScansMergedByTimeAndDumpCopySkipped() throws InterruptedException
+	{
+		List<BarcodeScan> logger1Dump =
+		    Arrays.asList(scan(LOGGER_1, 1, 1000), scan(LOGGER_1, 2, 3000),
+		        scan(LOGGER_1, 7, 4000), scan(LOGGER_1, 3, 5000));
+		List<BarcodeScan> logger2Dump =
+		    Arrays.asList(scan(LOGGER_2, 4, 2000), scan(LOGGER_2, 5, 3000),
+		        scan(LOGGER_2, 7, 4000), scan(LOGGER_2, 6, 6000));
+		// The same logger dumped twice.
+		List<BarcodeScan> logger1DumpCopy = copy(logger1Dump);
+
+		BarcodeScansMerger merger =
+		    new BarcodeScansMerger(Arrays.asList(new ListSource(logger1Dump), new ListSource(
+		        logger2Dump), new ListSource(logger1DumpCopy)));
+		List<BarcodeScan> merged = readAll(merger);
+
+		assertEquals(8, merged.size());
+		assertScan(merged.get(0), LOGGER_1, 1, 1000);
+		assertScan(merged.get(1), LOGGER_2, 4, 2000);
+		assertScan(merged.get(2), LOGGER_1, 2, 3000);
+		assertScan(merged.get(3), LOGGER_2, 5, 3000);
+		// Same team at the same time by different loggers is not a duplicate.
+		assertScan(merged.get(4), LOGGER_1, 7, 4000);
+		assertScan(merged.get(5), LOGGER_2, 7, 4000);
+		assertScan(merged.get(6), LOGGER_1, 3, 5000);
+		assertScan(merged.get(7), LOGGER_2, 6, 6000);
+		assertEquals(logger1DumpCopy.size(), merger.getDuplicatesSkipped());
+	}
+
+	public void testEmptySources() throws InterruptedException
+	{
+		List<BarcodeScan> logger1Dump = Arrays.asList(scan(LOGGER_1, 1, 1000));
+		BarcodeScansMerger merger =
+		    new BarcodeScansMerger(Arrays.asList(new ListSource(new ArrayList<BarcodeScan>()),
+		        new ListSource(logger1Dump)));
+
+		assertScan(merger.nextScan(), LOGGER_1, 1, 1000);
+		assertNull(merger.nextScan());
+		assertEquals(0, merger.getDuplicatesSkipped());
+	}
+
+	private BarcodeScan scan(int loggerId, int teamId, long scanTime)
+	{
+		return new BarcodeScan(loggerId, teamId, LEVELPOINT_ID, false, scanTime);
+	}
+
+	private List<BarcodeScan> copy(List<BarcodeScan> scans)
+	{
+		List<BarcodeScan> result = new ArrayList<BarcodeScan>();
+		for (BarcodeScan scan : scans)
+		{
+			result.add(scan(scan.getLoggerId(), scan.getTeamId(), scan.getScanTime()));
+		}
+		return result;
+	}
+
+	private List<BarcodeScan> readAll(BarcodeScansMerger merger) throws InterruptedException
+	{
+		List<BarcodeScan> result = new ArrayList<BarcodeScan>();
+		BarcodeScan scan = merger.nextScan();
+		while (scan != null)
+		{
+			result.add(scan);
+			scan = merger.nextScan();
+		}
+		return result;
+	}
+
+	private void assertScan(BarcodeScan scan, int loggerId, int teamId, long scanTime)
+	{
+		assertEquals(loggerId, scan.getLoggerId());
+		assertEquals(teamId, scan.getTeamId());
+		assertEquals(scanTime, scan.getScanTime());
+	}
+
+	private static class ListSource implements BarcodeScanSource
+	{
+		private final Iterator<BarcodeScan> scans;
+
+		public ListSource(List<BarcodeScan> scans)
+		{
+			this.scans = scans.iterator();
+		}
+
+		@Override
+		public BarcodeScan nextScan()
+		{
+			return scans.hasNext() ? scans.next() : null;
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package ru.mmb.terminal.test.transport;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+import ru.mmb.terminal.transport.importer.barcode.BarcodeScan;
+import ru.mmb.terminal.transport.importer.barcode.BarcodeScansReducer;
+
+public class BarcodeScansReducerTest extends TestCase
+{
+	private static final int START_TEAM = 1;
+	private static final int FINISH_TEAM = 2;
+
+	public void testFirstScanAtStartLastScanAtFinish()
+	{
+		BarcodeScansReducer reducer = new BarcodeScansReducer();
+		reducer.addScan(new BarcodeScan(1, START_TEAM, 10, true, 2000));
+		reducer.addScan(new BarcodeScan(2, START_TEAM, 10, true, 1000));
+		reducer.addScan(new BarcodeScan(1, START_TEAM, 10, true, 3000));
+		reducer.addScan(new BarcodeScan(1, FINISH_TEAM, 20, false, 2000));
+		reducer.addScan(new BarcodeScan(2, FINISH_TEAM, 20, false, 3000));
+		reducer.addScan(new BarcodeScan(1, FINISH_TEAM, 20, false, 1000));
+
+		Map<Integer, BarcodeScan> scans = toMap(reducer.getTeamScans());
+		assertEquals(2, scans.size());
+		assertEquals(1000, scans.get(START_TEAM).getScanTime());
+		assertEquals(2, scans.get(START_TEAM).getLoggerId());
+		assertEquals(3000, scans.get(FINISH_TEAM).getScanTime());
+		assertEquals(2, scans.get(FINISH_TEAM).getLoggerId());
+	}
+
+	public void testEqualTimeKeepsFirstScan()
+	{
+		BarcodeScansReducer reducer = new BarcodeScansReducer();
+		reducer.addScan(new BarcodeScan(1, FINISH_TEAM, 20, false, 1000));
+		reducer.addScan(new BarcodeScan(2, FINISH_TEAM, 20, false, 1000));
+
+		assertEquals(1, toMap(reducer.getTeamScans()).get(FINISH_TEAM).getLoggerId());
+	}
+
+	private Map<Integer, BarcodeScan> toMap(List<BarcodeScan> scans)
+	{
+		Map<Integer, BarcodeScan> result = new HashMap<Integer, BarcodeScan>();
+		for (BarcodeScan scan : scans)
+		{
+			result.put(scan.getTeamId(), scan);
+		}
+		return result;
+	}
+}
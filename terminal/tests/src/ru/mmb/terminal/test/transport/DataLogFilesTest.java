@@ -0,0 +1,61 @@
+package ru.mmb.terminal.test.transport;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import junit.framework.TestCase;
+import ru.mmb.terminal.transport.importer.barcode.DataLogFiles;
+
+public class DataLogFilesTest extends TestCase
+{
+	private File directory;
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		directory = File.createTempFile("logger", "card");
+		directory.delete();
+		directory.mkdir();
+	}
+
+	@Override
+	protected void tearDown() throws Exception
+	{
+		for (File file : directory.listFiles())
+		{
+			file.delete();
+		}
+		directory.delete();
+	}
+
+	public void testOnlyDataLogFilesOfLoggerCard() throws IOException
+	{
+		createFile("DATALOG02.TXT");
+		createFile("CONFIG.TXT");
+		createFile("ERRORS.TXT");
+		createFile("DATALOG01.TXT");
+		createFile("datalog03.txt");
+		createFile("DATALOG04.BAK");
+		new File(directory, "DATALOG05.TXT").mkdir();
+
+		List<String> fileNames = DataLogFiles.getFileNames(directory);
+		assertEquals(3, fileNames.size());
+		assertEquals(new File(directory, "DATALOG01.TXT").getPath(), fileNames.get(0));
+		assertEquals(new File(directory, "DATALOG02.TXT").getPath(), fileNames.get(1));
+		assertEquals(new File(directory, "datalog03.txt").getPath(), fileNames.get(2));
+	}
+
+	public void testNoDataLogFiles() throws IOException
+	{
+		createFile("CONFIG.TXT");
+		createFile("ERRORS.TXT");
+
+		assertTrue(DataLogFiles.getFileNames(directory).isEmpty());
+	}
+
+	private void createFile(String name) throws IOException
+	{
+		assertTrue(new File(directory, name).createNewFile());
+	}
+}
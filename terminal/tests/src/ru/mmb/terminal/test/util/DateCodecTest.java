@@ -0,0 +1,184 @@
+package ru.mmb.terminal.test.util;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+
+import junit.framework.TestCase;
+import ru.mmb.terminal.util.DateCodec;
+
+public class DateCodecTest extends TestCase
+{
+	private static final String[] PATTERNS =
+	    new String[] { "yyyyMMddHHmm", "yyyy-MM-dd", "yyyy-MM-dd HH:mm:ss", "yyyy/MM/dd HH:mm:ss",
+	            "HH:mm:ss, yyyy/MM/dd" };
+	private static final String[] TIME_ZONES =
+	    new String[] { "UTC", "Europe/Moscow", "America/New_York", "Asia/Kolkata",
+	            "Australia/Lord_Howe" };
+
+	private static final long MILLIS_IN_YEAR = 365L * 24 * 60 * 60 * 1000;
+
+	public void testSameAsSimpleDateFormat() throws ParseException
+	{
+		for (String zoneId : TIME_ZONES)
+		{
+			TimeZone timeZone = TimeZone.getTimeZone(zoneId);
+			for (String pattern : PATTERNS)
+			{
+				SimpleDateFormat expected = new SimpleDateFormat(pattern);
+				expected.setTimeZone(timeZone);
+				DateCodec codec = new DateCodec(pattern, timeZone);
+				Random random = new Random(pattern.hashCode());
+				for (long time = -50 * MILLIS_IN_YEAR; time < 50 * MILLIS_IN_YEAR; time +=
+				    random.nextInt(600000000))
+				{
+					String text = expected.format(new Date(time));
+					assertEquals(zoneId + " " + pattern, text, codec.format(time));
+					assertEquals(zoneId + " " + text, expected.parse(text).getTime(), codec.parseMillis(text));
+				}
+			}
+		}
+	}
+
+	public void testDaylightSavingTransitions() throws ParseException
+	{
+		String[] days = new String[] { "20100328", "20101031", "20120311", "20121104", "20121007" };
+		for (String zoneId : TIME_ZONES)
+		{
+			TimeZone timeZone = TimeZone.getTimeZone(zoneId);
+			SimpleDateFormat expected = new SimpleDateFormat("yyyyMMddHHmm");
+			expected.setTimeZone(timeZone);
+			DateCodec codec = new DateCodec("yyyyMMddHHmm", timeZone);
+			for (String day : days)
+			{
+				for (int minutes = 0; minutes < 5 * 60; minutes++)
+				{
+					String text = day + twoDigits(minutes / 60) + twoDigits(minutes % 60);
+					assertEquals(zoneId + " " + text, expected.parse(text).getTime(), codec.parseMillis(text));
+				}
+			}
+		}
+	}
+
+	private String twoDigits(int value)
+	{
+		return (value < 10) ? "0" + value : Integer.toString(value);
+	}
+
+	public void testLenientValues() throws ParseException
+	{
+		SimpleDateFormat expected = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+		DateCodec codec = new DateCodec("yyyy-MM-dd HH:mm:ss");
+		String[] texts =
+		    new String[] { "2012-13-01 00:00:00", "2012-02-30 24:60:60", "2012-00-00 00:00:00",
+		            "2012-5-1 3:04:05", "2012-05-01 12:30:00 trailing" };
+		for (String text : texts)
+		{
+			assertEquals(text, expected.parse(text).getTime(), codec.parseMillis(text));
+		}
+	}
+
+	public void testWallMinutes() throws ParseException
+	{
+		SimpleDateFormat utc = new SimpleDateFormat("yyyyMMddHHmm");
+		utc.setTimeZone(TimeZone.getTimeZone("UTC"));
+		for (String zoneId : TIME_ZONES)
+		{
+			DateCodec codec = new DateCodec("yyyyMMddHHmm", TimeZone.getTimeZone(zoneId));
+			Random random = new Random(zoneId.hashCode());
+			for (int i = 0; i < 1000; i++)
+			{
+				String text = utc.format(new Date(random.nextLong() % (50 * MILLIS_IN_YEAR)));
+				long wallMinutes = utc.parse(text).getTime() / (60 * 1000);
+				long millis = codec.parseMillis(text);
+				// wall time skipped by daylight saving transition has no instant
+				if (!text.equals(codec.format(millis))) continue;
+				assertEquals(zoneId + " " + text, wallMinutes, codec.toWallMinutes(millis));
+				assertEquals(zoneId + " " + text, millis, codec.fromWallMinutes(wallMinutes));
+			}
+		}
+	}
+
+	public void testParseErrors()
+	{
+		DateCodec codec = new DateCodec("yyyyMMddHHmm");
+		String[] texts = new String[] { "", "2012", "20120x011200", "201201011" };
+		for (String text : texts)
+		{
+			try
+			{
+				codec.parseMillis(text);
+				fail("Parsed: " + text);
+			}
+			catch (ParseException e)
+			{
+				// expected
+			}
+		}
+	}
+
+	public void testConcurrentUse() throws Exception
+	{
+		final DateCodec codec = new DateCodec("yyyyMMddHHmm");
+		final SimpleDateFormat expected = new SimpleDateFormat("yyyyMMddHHmm");
+		final List<String> texts = new ArrayList<String>();
+		Random random = new Random(1);
+		for (int i = 0; i < 2000; i++)
+		{
+			texts.add(expected.format(new Date(random.nextLong() % (30 * MILLIS_IN_YEAR))));
+		}
+		final List<Long> times = new ArrayList<Long>();
+		for (String text : texts)
+		{
+			times.add(expected.parse(text).getTime());
+		}
+
+		final List<String> failures = new ArrayList<String>();
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int t = 0; t < 4; t++)
+		{
+			final int shift = t * 500;
+			Thread thread = new Thread()
+			{
+				@Override
+				public void run()
+				{
+					for (int i = 0; i < texts.size() * 5; i++)
+					{
+						int index = (i + shift) % texts.size();
+						try
+						{
+							long time = codec.parseMillis(texts.get(index));
+							if (time != times.get(index).longValue()
+							        || !texts.get(index).equals(codec.format(time)))
+							{
+								synchronized (failures)
+								{
+									failures.add(texts.get(index));
+								}
+							}
+						}
+						catch (ParseException e)
+						{
+							synchronized (failures)
+							{
+								failures.add(e.getMessage());
+							}
+						}
+					}
+				}
+			};
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads)
+		{
+			thread.join();
+		}
+		assertTrue(failures.toString(), failures.isEmpty());
+	}
+}
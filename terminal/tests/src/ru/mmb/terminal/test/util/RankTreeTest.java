@@ -0,0 +1,69 @@
+package ru.mmb.terminal.test.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import junit.framework.TestCase;
+import ru.mmb.terminal.util.RankTree;
+
+public class RankTreeTest extends TestCase
+{
+	private final Comparator<Integer> order = new Comparator<Integer>()
+	{
+		@Override
+		public int compare(Integer value1, Integer value2)
+		{
+			return value1.compareTo(value2);
+		}
+	};
+
+	public void testRankAndHead()
+	{
+		RankTree<Integer> tree = new RankTree<Integer>(order);
+		for (int i = 10; i > 0; i--)
+		{
+			tree.add(i * 10);
+		}
+		assertEquals(10, tree.size());
+		assertEquals(0, tree.rank(10));
+		assertEquals(4, tree.rank(50));
+		assertEquals(-1, tree.rank(55));
+		assertEquals(new Integer(30), tree.get(2));
+		List<Integer> head = tree.head(3);
+		assertEquals(3, head.size());
+		assertEquals(new Integer(10), head.get(0));
+		assertEquals(new Integer(30), head.get(2));
+
+		assertTrue(tree.remove(10));
+		assertFalse(tree.remove(10));
+		assertEquals(3, tree.rank(50));
+		assertEquals(9, tree.head(100).size());
+	}
+
+	public void testRandomOperations()
+	{
+		RankTree<Integer> tree = new RankTree<Integer>(order);
+		TreeSet<Integer> expected = new TreeSet<Integer>();
+		Random random = new Random(2014);
+		for (int i = 0; i < 20000; i++)
+		{
+			Integer value = random.nextInt(2000);
+			if (expected.contains(value))
+			{
+				assertEquals(expected.headSet(value).size(), tree.rank(value));
+				expected.remove(value);
+				assertTrue(tree.remove(value));
+			}
+			else
+			{
+				expected.add(value);
+				tree.add(value);
+			}
+		}
+		assertEquals(expected.size(), tree.size());
+		assertEquals(new ArrayList<Integer>(expected), tree.head(expected.size()));
+	}
+}